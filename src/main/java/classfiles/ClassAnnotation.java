@@ -0,0 +1,40 @@
+package classfiles;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Annotation read from a class file. The values of the annotation are mapped to
+ * the names of their elements. Values are Strings, boxed primitives, the name
+ * of the constant for enums, the canonical name for classes, ClassAnnotations
+ * for nested annotations and Lists for arrays.
+ * 
+ * @author gmittmann
+ *
+ */
+public class ClassAnnotation {
+
+	private String type;
+	private Map<String, Object> values = new LinkedHashMap<>();
+
+	public ClassAnnotation(String type) {
+		this.type = type;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public Map<String, Object> getValues() {
+		return values;
+	}
+
+	public Object getValue(String name) {
+		return values.get(name);
+	}
+
+	public void addValue(String name, Object value) {
+		values.put(name, value);
+	}
+
+}
@@ -0,0 +1,68 @@
+package classfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Information read from a single class file: the name of the class, its
+ * annotations, its methods and all classes it references.
+ * 
+ * @author gmittmann
+ *
+ */
+public class ClassFile {
+
+	private String className;
+	private String topLevelClassName;
+	private List<ClassAnnotation> annotations = new ArrayList<>();
+	private List<ClassMethod> methods = new ArrayList<>();
+	private Set<String> referencedClasses = new TreeSet<>();
+
+	public ClassFile(String className) {
+		this.className = className;
+		this.topLevelClassName = className;
+	}
+
+	/**
+	 * @return binary name of the class, e.g. package.Outer$Inner
+	 */
+	public String getClassName() {
+		return className;
+	}
+
+	/**
+	 * @return binary name of the top level class declaring the class, the class
+	 *         itself if it is a top level class.
+	 */
+	public String getTopLevelClassName() {
+		return topLevelClassName;
+	}
+
+	public void setTopLevelClassName(String topLevelClassName) {
+		this.topLevelClassName = topLevelClassName;
+	}
+
+	public String getPackageName() {
+		int index = className.lastIndexOf('.');
+		return index == -1 ? "" : className.substring(0, index);
+	}
+
+	public List<ClassAnnotation> getAnnotations() {
+		return annotations;
+	}
+
+	public List<ClassMethod> getMethods() {
+		return methods;
+	}
+
+	/**
+	 * @return canonical names of the top level classes referenced in the class
+	 *         file, without the class itself.
+	 */
+	public Set<String> getReferencedClasses() {
+		return referencedClasses;
+	}
+
+}
@@ -0,0 +1,96 @@
+package classfiles;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.logging.Log;
+
+import sources.SourceFacts;
+
+/**
+ * Extracts the facts of all class files in a directory, e.g. target/classes.
+ * The package of each class and the classes it references are recorded as
+ * package and imports of the facts, so they can be evaluated like the facts of
+ * source files.
+ * 
+ * @author gmittmann
+ *
+ */
+public class ClassFileAnalyzer {
+
+	private static final String CLASS_FILE_SUFFIX = ".class";
+
+	private File classesDirectory;
+	private Log log;
+
+	/**
+	 * @param classesDirectory
+	 *            directory containing the class files.
+	 * @param log
+	 *            log
+	 */
+	public ClassFileAnalyzer(File classesDirectory, Log log) {
+		this.classesDirectory = classesDirectory;
+		this.log = log;
+	}
+
+	/**
+	 * Reads all class files and lets the visitors record their facts. Then hands
+	 * the facts of all files to the visitors, in order of the files.
+	 * 
+	 * @param visitors
+	 *            visitors to be called.
+	 * @return facts of all class files.
+	 */
+	public List<SourceFacts> analyze(ClassFileVisitor... visitors) {
+		List<SourceFacts> allFacts = new ArrayList<>();
+		for (Path file : getClassFiles()) {
+			try (InputStream in = Files.newInputStream(file)) {
+				ClassFile classFile = ClassFileParser.parse(in);
+				SourceFacts facts = new SourceFacts(SourceFacts.getPath(file));
+				facts.setPackageName(classFile.getPackageName());
+				facts.setImports(new ArrayList<>(classFile.getReferencedClasses()));
+				for (ClassFileVisitor visitor : visitors) {
+					visitor.visitClassFile(classFile, facts);
+				}
+				allFacts.add(facts);
+			} catch (IOException e) {
+				log.error("could not read class file: " + file + ". " + e.getMessage());
+			}
+		}
+		log.info("Class files: " + allFacts.size());
+
+		for (SourceFacts facts : allFacts) {
+			for (ClassFileVisitor visitor : visitors) {
+				visitor.visitFacts(facts);
+			}
+		}
+		return allFacts;
+	}
+
+	/**
+	 * @return all class files in the directory, sorted by path.
+	 */
+	private List<Path> getClassFiles() {
+		if (!classesDirectory.isDirectory()) {
+			log.warn("No compiled classes found in " + classesDirectory.getAbsolutePath()
+					+ ". Compile the project before reading class files.");
+			return new ArrayList<>();
+		}
+		try (Stream<Path> files = Files.walk(classesDirectory.toPath())) {
+			return files.filter(p -> p.toString().endsWith(CLASS_FILE_SUFFIX) && Files.isRegularFile(p)).sorted()
+					.collect(Collectors.toList());
+		} catch (IOException e) {
+			log.error("Error searching for class files. " + e.getMessage());
+			return new ArrayList<>();
+		}
+	}
+
+}
@@ -0,0 +1,515 @@
+package classfiles;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lightweight reader for class files. Only the constant pool, the descriptors
+ * and generic signatures, the annotations of the class and its methods and the
+ * names of the method parameters are read, everything else (e.g. the byte
+ * code) is skipped. Top level classes are resolved from the InnerClasses and
+ * EnclosingMethod attributes, as a '$' may be part of the name of a top level
+ * class, too.
+ *
+ * @author gmittmann
+ *
+ */
+public class ClassFileParser {
+
+	private static final int MAGIC = 0xCAFEBABE;
+	private static final int ACC_STATIC = 0x0008;
+
+	private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+	private static final String RUNTIME_INVISIBLE_ANNOTATIONS = "RuntimeInvisibleAnnotations";
+	private static final String RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS = "RuntimeVisibleParameterAnnotations";
+	private static final String RUNTIME_INVISIBLE_PARAMETER_ANNOTATIONS = "RuntimeInvisibleParameterAnnotations";
+	private static final String METHOD_PARAMETERS = "MethodParameters";
+	private static final String CODE = "Code";
+	private static final String LOCAL_VARIABLE_TABLE = "LocalVariableTable";
+	private static final String SIGNATURE = "Signature";
+	private static final String INNER_CLASSES = "InnerClasses";
+	private static final String ENCLOSING_METHOD = "EnclosingMethod";
+
+	private DataInputStream in;
+	private Object[] constants;
+	private ClassFile classFile;
+	/* binary names of the referenced classes, resolved when the class is read */
+	private Set<String> referencedNames = new HashSet<>();
+	/* outer class of each nested class, null for local and anonymous classes */
+	private Map<String, String> outerClasses = new HashMap<>();
+	private String enclosingClass;
+
+	private ClassFileParser(InputStream in) {
+		this.in = new DataInputStream(new BufferedInputStream(in));
+	}
+
+	/**
+	 * Reads a class file from the given stream. The stream is not closed.
+	 *
+	 * @param in
+	 *            stream of the class file.
+	 * @return the read class file.
+	 * @throws IOException
+	 *             if the stream could not be read or is no class file.
+	 */
+	public static ClassFile parse(InputStream in) throws IOException {
+		return new ClassFileParser(in).parse();
+	}
+
+	private ClassFile parse() throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a class file");
+		}
+		in.readUnsignedShort(); // minor version
+		in.readUnsignedShort(); // major version
+		List<String> descriptors = readConstantPool();
+
+		in.readUnsignedShort(); // access flags
+		String className = getClassName(in.readUnsignedShort());
+		classFile = new ClassFile(className);
+		for (String descriptor : descriptors) {
+			addReferencedTypes(descriptor);
+		}
+
+		in.readUnsignedShort(); // super class, referenced in the constant pool
+		int interfaces = in.readUnsignedShort();
+		for (int i = 0; i < interfaces; i++) {
+			in.readUnsignedShort();
+		}
+
+		int fields = in.readUnsignedShort();
+		for (int i = 0; i < fields; i++) {
+			in.readUnsignedShort(); // access flags
+			in.readUnsignedShort(); // name
+			addReferencedTypes(getUtf8(in.readUnsignedShort()));
+			readAttributes(null, new ArrayList<>());
+		}
+
+		int methods = in.readUnsignedShort();
+		for (int i = 0; i < methods; i++) {
+			readMethod();
+		}
+
+		readAttributes(null, classFile.getAnnotations());
+		String topLevelName = getTopLevelName(className);
+		classFile.setTopLevelClassName(topLevelName);
+		for (String name : referencedNames) {
+			classFile.getReferencedClasses().add(getTopLevelName(name));
+		}
+		classFile.getReferencedClasses().remove(topLevelName);
+		return classFile;
+	}
+
+	/**
+	 * Reads the constant pool.
+	 *
+	 * @return the descriptors referenced in the constant pool.
+	 * @throws IOException
+	 */
+	private List<String> readConstantPool() throws IOException {
+		int count = in.readUnsignedShort();
+		constants = new Object[count];
+		List<Integer> descriptorIndices = new ArrayList<>();
+		List<Integer> classIndices = new ArrayList<>();
+		for (int i = 1; i < count; i++) {
+			int tag = in.readUnsignedByte();
+			switch (tag) {
+			case 1: // Utf8
+				constants[i] = in.readUTF();
+				break;
+			case 3: // Integer
+				constants[i] = in.readInt();
+				break;
+			case 4: // Float
+				constants[i] = in.readFloat();
+				break;
+			case 5: // Long
+				constants[i++] = in.readLong();
+				break;
+			case 6: // Double
+				constants[i++] = in.readDouble();
+				break;
+			case 7: // Class
+				constants[i] = new ClassReference(in.readUnsignedShort());
+				classIndices.add(i);
+				break;
+			case 8: // String
+			case 19: // Module
+			case 20: // Package
+				in.readUnsignedShort();
+				break;
+			case 16: // MethodType
+				descriptorIndices.add(in.readUnsignedShort());
+				break;
+			case 12: // NameAndType
+				in.readUnsignedShort();
+				descriptorIndices.add(in.readUnsignedShort());
+				break;
+			case 9: // Fieldref
+			case 10: // Methodref
+			case 11: // InterfaceMethodref
+			case 17: // Dynamic
+			case 18: // InvokeDynamic
+				in.readInt();
+				break;
+			case 15: // MethodHandle
+				in.readUnsignedByte();
+				in.readUnsignedShort();
+				break;
+			default:
+				throw new IOException("Unknown constant pool tag " + tag);
+			}
+		}
+
+		List<String> descriptors = new ArrayList<>();
+		for (int index : descriptorIndices) {
+			descriptors.add(getUtf8(index));
+		}
+		for (int index : classIndices) {
+			String name = getUtf8(((ClassReference) constants[index]).nameIndex);
+			descriptors.add(name.startsWith("[") ? name : "L" + name + ";");
+		}
+		return descriptors;
+	}
+
+	private void readMethod() throws IOException {
+		int accessFlags = in.readUnsignedShort();
+		ClassMethod method = new ClassMethod(getUtf8(in.readUnsignedShort()));
+		String descriptor = getUtf8(in.readUnsignedShort());
+		addReferencedTypes(descriptor);
+
+		List<String> parameterTypes = method.getParameterTypes();
+		List<Integer> slots = new ArrayList<>();
+		int slot = (accessFlags & ACC_STATIC) == 0 ? 1 : 0;
+		int index = 1;
+		while (descriptor.charAt(index) != ')') {
+			int end = getEndOfType(descriptor, index);
+			String type = toCanonicalName(descriptor.substring(index, end));
+			parameterTypes.add(type);
+			method.getParameterNames().add(null);
+			method.getParameterAnnotations().add(new ArrayList<>());
+			slots.add(slot);
+			slot += type.equals("long") || type.equals("double") ? 2 : 1;
+			index = end;
+		}
+
+		MethodContext context = new MethodContext(method, slots);
+		readAttributes(context, method.getAnnotations());
+		if (!context.methodParametersRead) {
+			for (int i = 0; i < slots.size(); i++) {
+				method.getParameterNames().set(i, context.localVariables.get(slots.get(i)));
+			}
+		}
+		classFile.getMethods().add(method);
+	}
+
+	/**
+	 * Reads the attributes of a class, field, method or code attribute.
+	 * Annotations are added to the given list, information about methods is
+	 * stored in the given context.
+	 *
+	 * @param context
+	 *            context of the method, null if not reading a method.
+	 * @param annotations
+	 *            list to add the annotations to.
+	 * @throws IOException
+	 */
+	private void readAttributes(MethodContext context, List<ClassAnnotation> annotations) throws IOException {
+		int count = in.readUnsignedShort();
+		for (int i = 0; i < count; i++) {
+			String name = getUtf8(in.readUnsignedShort());
+			int length = in.readInt();
+			if (RUNTIME_VISIBLE_ANNOTATIONS.equals(name) || RUNTIME_INVISIBLE_ANNOTATIONS.equals(name)) {
+				annotations.addAll(readAnnotations());
+			} else if (SIGNATURE.equals(name)) {
+				addReferencedTypes(getUtf8(in.readUnsignedShort()));
+			} else if (context == null && INNER_CLASSES.equals(name)) {
+				readInnerClasses();
+			} else if (context == null && ENCLOSING_METHOD.equals(name)) {
+				enclosingClass = getClassName(in.readUnsignedShort());
+				in.readUnsignedShort(); // method
+			} else if (context != null && (RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS.equals(name)
+					|| RUNTIME_INVISIBLE_PARAMETER_ANNOTATIONS.equals(name))) {
+				readParameterAnnotations(context.method);
+			} else if (context != null && METHOD_PARAMETERS.equals(name)) {
+				readMethodParameters(context);
+			} else if (context != null && CODE.equals(name)) {
+				in.readUnsignedShort(); // max stack
+				in.readUnsignedShort(); // max locals
+				skip(in.readInt()); // code
+				skip(in.readUnsignedShort() * 8); // exception table
+				readAttributes(context, annotations);
+			} else if (context != null && LOCAL_VARIABLE_TABLE.equals(name)) {
+				readLocalVariableTable(context);
+			} else {
+				skip(length);
+			}
+		}
+	}
+
+	private List<ClassAnnotation> readAnnotations() throws IOException {
+		int count = in.readUnsignedShort();
+		List<ClassAnnotation> annotations = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			annotations.add(readAnnotation());
+		}
+		return annotations;
+	}
+
+	private ClassAnnotation readAnnotation() throws IOException {
+		String descriptor = getUtf8(in.readUnsignedShort());
+		addReferencedTypes(descriptor);
+		ClassAnnotation annotation = new ClassAnnotation(toCanonicalName(descriptor));
+		int count = in.readUnsignedShort();
+		for (int i = 0; i < count; i++) {
+			String name = getUtf8(in.readUnsignedShort());
+			annotation.addValue(name, readElementValue());
+		}
+		return annotation;
+	}
+
+	private Object readElementValue() throws IOException {
+		int tag = in.readUnsignedByte();
+		switch (tag) {
+		case 'B':
+			return ((Integer) constants[in.readUnsignedShort()]).byteValue();
+		case 'C':
+			return (char) ((Integer) constants[in.readUnsignedShort()]).intValue();
+		case 'S':
+			return ((Integer) constants[in.readUnsignedShort()]).shortValue();
+		case 'Z':
+			return ((Integer) constants[in.readUnsignedShort()]) != 0;
+		case 'I':
+		case 'J':
+		case 'F':
+		case 'D':
+		case 's':
+			return constants[in.readUnsignedShort()];
+		case 'e':
+			addReferencedTypes(getUtf8(in.readUnsignedShort()));
+			return getUtf8(in.readUnsignedShort());
+		case 'c':
+			String descriptor = getUtf8(in.readUnsignedShort());
+			addReferencedTypes(descriptor);
+			return toCanonicalName(descriptor);
+		case '@':
+			return readAnnotation();
+		case '[':
+			int count = in.readUnsignedShort();
+			List<Object> values = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				values.add(readElementValue());
+			}
+			return values;
+		default:
+			throw new IOException("Unknown element value tag " + (char) tag);
+		}
+	}
+
+	/**
+	 * Reads the parameter annotations. The number of parameters in the
+	 * attribute can be smaller than the number of parameters in the descriptor,
+	 * in that case the annotations belong to the last parameters.
+	 */
+	private void readParameterAnnotations(ClassMethod method) throws IOException {
+		List<List<ClassAnnotation>> parameterAnnotations = method.getParameterAnnotations();
+		int count = in.readUnsignedByte();
+		int offset = Math.max(0, parameterAnnotations.size() - count);
+		for (int i = 0; i < count; i++) {
+			List<ClassAnnotation> annotations = readAnnotations();
+			if (offset + i < parameterAnnotations.size()) {
+				parameterAnnotations.get(offset + i).addAll(annotations);
+			}
+		}
+	}
+
+	private void readMethodParameters(MethodContext context) throws IOException {
+		List<String> names = context.method.getParameterNames();
+		int count = in.readUnsignedByte();
+		int offset = Math.max(0, names.size() - count);
+		for (int i = 0; i < count; i++) {
+			int nameIndex = in.readUnsignedShort();
+			in.readUnsignedShort(); // access flags
+			if (nameIndex != 0 && offset + i < names.size()) {
+				names.set(offset + i, getUtf8(nameIndex));
+			}
+		}
+		context.methodParametersRead = true;
+	}
+
+	private void readInnerClasses() throws IOException {
+		int count = in.readUnsignedShort();
+		for (int i = 0; i < count; i++) {
+			String innerClass = getClassName(in.readUnsignedShort());
+			int outerClassIndex = in.readUnsignedShort();
+			in.readUnsignedShort(); // simple name
+			in.readUnsignedShort(); // access flags
+			outerClasses.put(innerClass, outerClassIndex == 0 ? null : getClassName(outerClassIndex));
+		}
+	}
+
+	private void readLocalVariableTable(MethodContext context) throws IOException {
+		int count = in.readUnsignedShort();
+		for (int i = 0; i < count; i++) {
+			int startPc = in.readUnsignedShort();
+			in.readUnsignedShort(); // length
+			String name = getUtf8(in.readUnsignedShort());
+			in.readUnsignedShort(); // descriptor
+			int slot = in.readUnsignedShort();
+			if (startPc == 0 && context.slots.contains(slot)) {
+				context.localVariables.put(slot, name);
+			}
+		}
+	}
+
+	/**
+	 * Adds the classes of all object types in the given descriptor or generic
+	 * signature to the referenced classes. Names of type variables and type
+	 * parameters are skipped.
+	 */
+	private void addReferencedTypes(String descriptor) {
+		int index = 0;
+		while (index < descriptor.length()) {
+			char c = descriptor.charAt(index);
+			if (c == 'L' || c == 'T' || c == '.') {
+				int end = index + 1;
+				while (end < descriptor.length() && ";<:".indexOf(descriptor.charAt(end)) == -1) {
+					end++;
+				}
+				if (c == 'L' && end < descriptor.length() && descriptor.charAt(end) != ':') {
+					referencedNames.add(descriptor.substring(index + 1, end).replace('/', '.'));
+				}
+				index = end;
+			}
+			index++;
+		}
+	}
+
+	private int getEndOfType(String descriptor, int index) {
+		while (descriptor.charAt(index) == '[') {
+			index++;
+		}
+		if (descriptor.charAt(index) == 'L') {
+			return descriptor.indexOf(';', index) + 1;
+		}
+		return index + 1;
+	}
+
+	/**
+	 * Converts a field descriptor to the canonical name of the type, e.g.
+	 * Ljava/lang/String; to java.lang.String and [I to int[].
+	 */
+	private static String toCanonicalName(String descriptor) {
+		int dimensions = 0;
+		while (descriptor.charAt(dimensions) == '[') {
+			dimensions++;
+		}
+		String name;
+		switch (descriptor.charAt(dimensions)) {
+		case 'B':
+			name = "byte";
+			break;
+		case 'C':
+			name = "char";
+			break;
+		case 'D':
+			name = "double";
+			break;
+		case 'F':
+			name = "float";
+			break;
+		case 'I':
+			name = "int";
+			break;
+		case 'J':
+			name = "long";
+			break;
+		case 'S':
+			name = "short";
+			break;
+		case 'Z':
+			name = "boolean";
+			break;
+		case 'V':
+			name = "void";
+			break;
+		default:
+			name = descriptor.substring(dimensions + 1, descriptor.length() - 1).replace('/', '.').replace('$', '.');
+		}
+		StringBuilder builder = new StringBuilder(name);
+		for (int i = 0; i < dimensions; i++) {
+			builder.append("[]");
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Follows the outer classes of the given class up to its top level class. A
+	 * local or anonymous class can only be referenced from within its top level
+	 * class, so it belongs to the top level class of this class. Classes missing
+	 * in the InnerClasses attribute are top level classes.
+	 */
+	private String getTopLevelName(String binaryName) {
+		String name = binaryName;
+		// bounded, in case the attributes of a broken class file contain a cycle
+		for (int i = 0; i <= outerClasses.size() && outerClasses.containsKey(name); i++) {
+			String outerClass = outerClasses.get(name);
+			if (outerClass == null) {
+				outerClass = name.equals(classFile.getClassName()) ? enclosingClass : classFile.getClassName();
+				if (outerClass == null || outerClass.equals(name)) {
+					return name;
+				}
+			}
+			name = outerClass;
+		}
+		return name;
+	}
+
+	private String getClassName(int index) {
+		return getUtf8(((ClassReference) constants[index]).nameIndex).replace('/', '.');
+	}
+
+	private String getUtf8(int index) {
+		return (String) constants[index];
+	}
+
+	private void skip(int length) throws IOException {
+		int remaining = length;
+		while (remaining > 0) {
+			int skipped = in.skipBytes(remaining);
+			if (skipped <= 0) {
+				throw new IOException("Unexpected end of class file");
+			}
+			remaining -= skipped;
+		}
+	}
+
+	private static class ClassReference {
+		private final int nameIndex;
+
+		private ClassReference(int nameIndex) {
+			this.nameIndex = nameIndex;
+		}
+	}
+
+	private static class MethodContext {
+		private final ClassMethod method;
+		private final List<Integer> slots;
+		private final Map<Integer, String> localVariables = new HashMap<>();
+		private boolean methodParametersRead;
+
+		private MethodContext(ClassMethod method, List<Integer> slots) {
+			this.method = method;
+			this.slots = slots;
+		}
+	}
+
+}
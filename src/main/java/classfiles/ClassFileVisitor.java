@@ -0,0 +1,34 @@
+package classfiles;
+
+import sources.SourceFacts;
+
+/**
+ * Visitor over the class files of a module. Like the {@link sources.SourceVisitor},
+ * the visitor records what it needs into the {@link SourceFacts} of the class
+ * file and is handed the facts of every class file afterwards.
+ * 
+ * @author gmittmann
+ *
+ */
+public interface ClassFileVisitor {
+
+	/**
+	 * Called once for every class file.
+	 * 
+	 * @param classFile
+	 *            the read class file.
+	 * @param facts
+	 *            facts of the class file, into which the found information is to
+	 *            be recorded.
+	 */
+	public void visitClassFile(ClassFile classFile, SourceFacts facts);
+
+	/**
+	 * Called once for every class file with the recorded facts of the file.
+	 * 
+	 * @param facts
+	 *            facts of the file.
+	 */
+	public void visitFacts(SourceFacts facts);
+
+}
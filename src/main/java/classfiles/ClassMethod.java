@@ -0,0 +1,67 @@
+package classfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Method read from a class file, with its annotations and the types, names and
+ * annotations of its parameters.
+ * 
+ * @author gmittmann
+ *
+ */
+public class ClassMethod {
+
+	private String name;
+	private List<ClassAnnotation> annotations = new ArrayList<>();
+	private List<String> parameterTypes = new ArrayList<>();
+	private List<String> parameterNames = new ArrayList<>();
+	private List<List<ClassAnnotation>> parameterAnnotations = new ArrayList<>();
+
+	public ClassMethod(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public List<ClassAnnotation> getAnnotations() {
+		return annotations;
+	}
+
+	/**
+	 * @return canonical names of the types of the parameters.
+	 */
+	public List<String> getParameterTypes() {
+		return parameterTypes;
+	}
+
+	/**
+	 * @return names of the parameters. A name is null, if the class was compiled
+	 *         without parameter names and debug information.
+	 */
+	public List<String> getParameterNames() {
+		return parameterNames;
+	}
+
+	/**
+	 * @return annotations of the parameters, in order of the parameters.
+	 */
+	public List<List<ClassAnnotation>> getParameterAnnotations() {
+		return parameterAnnotations;
+	}
+
+	/**
+	 * Returns the simple name of the type of the parameter at the given index.
+	 * 
+	 * @param index
+	 *            index of the parameter.
+	 * @return simple name of the type.
+	 */
+	public String getParameterSimpleTypeName(int index) {
+		String type = parameterTypes.get(index);
+		return type.substring(type.lastIndexOf('.') + 1);
+	}
+
+}
@@ -1,84 +1,160 @@
 package collectors;
 
 import java.io.File;
-import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
 
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaSource;
+
+import classfiles.ClassFile;
+import classfiles.ClassFileVisitor;
 import collectors.models.AnnotationType;
+import collectors.models.ReaderType;
 import collectors.models.restapi.APIConsumptionInfoObject;
 import collectors.models.restapi.APIInfoObject;
+import filemanagement.ConfigFileIndex;
+import filemanagement.FileFormat;
 import filemanagement.FileWriter;
+import filemanagement.ModuleResult;
+import reader.impl.api.BytecodeJAXRSReader;
+import reader.impl.api.BytecodeSPRINGReader;
 import reader.impl.api.JAXRSReader;
 import reader.impl.api.SPRINGReader;
 import reader.impl.apiconsumption.AnnotationReader;
+import reader.impl.apiconsumption.BytecodeAnnotationReader;
 import reader.interfaces.APIReader;
 import reader.interfaces.ConsumesAPIReader;
+import sources.SourceFacts;
+import sources.SourceVisitor;
 import util.ConsumeDescription;
 import util.OfferDescription;
 
 /**
- * Class collecting all information about APIs and consumption.
+ * Class collecting all information about APIs and consumption. The information
+ * is gathered while visiting the source model or the class files of the
+ * project.
  * 
  * @author gesam
  *
  */
-public class APIInfoCollector implements InformationCollector {
+public class APIInfoCollector implements InformationCollector, SourceVisitor, ClassFileVisitor {
 
 	private MavenProject project;
 	private Log log;
 	private AnnotationType type;
+	private ReaderType readerType;
 	private File apiConfigFilePath;
 	private String contextPath;
+	private ConfigFileIndex configFiles;
+
+	private APIReader apiReader;
+	private ConsumesAPIReader consumesReader;
 
 	public static final String FILE_NAME = "apiInformation";
 	public static final String FILE_NAME_CONSUME = "apiConsumption";
 
-	public APIInfoCollector(MavenProject project, Log log, AnnotationType type,
-			File apiConfigFilePath, String contextPath) {
+	public APIInfoCollector(MavenProject project, Log log, AnnotationType type, ReaderType readerType,
+			File apiConfigFilePath, String contextPath, ConfigFileIndex configFiles) {
 		this.project = project;
 		this.log = log;
 		this.type = type;
+		this.readerType = readerType;
 		this.apiConfigFilePath = apiConfigFilePath;
 		this.contextPath = contextPath;
+		this.configFiles = configFiles;
+		this.apiReader = createAPIReader();
+		this.consumesReader = readerType == ReaderType.SOURCE ? new AnnotationReader(log)
+				: new BytecodeAnnotationReader(log);
+	}
+
+	@Override
+	public Collection<String> getMarkers() {
+		List<String> markers = new ArrayList<>(apiReader.getMarkers());
+		markers.addAll(consumesReader.getMarkers());
+		return markers;
+	}
+
+	@Override
+	public void visitSource(JavaSource source, SourceFacts facts) {
+		apiReader.visitSource(source, facts);
+		consumesReader.visitSource(source, facts);
 	}
 
 	@Override
-	public void collectInfo() {
+	public void visitClass(JavaClass javaClass, SourceFacts facts) {
+		apiReader.visitClass(javaClass, facts);
+		consumesReader.visitClass(javaClass, facts);
+	}
+
+	@Override
+	public void visitClassFile(ClassFile classFile, SourceFacts facts) {
+		if (apiReader instanceof ClassFileVisitor) {
+			((ClassFileVisitor) apiReader).visitClassFile(classFile, facts);
+		}
+		if (consumesReader instanceof ClassFileVisitor) {
+			((ClassFileVisitor) consumesReader).visitClassFile(classFile, facts);
+		}
+	}
+
+	@Override
+	public void visitFacts(SourceFacts facts) {
+		apiReader.visitFacts(facts);
+		consumesReader.visitFacts(facts);
+	}
+
+	@Override
+	public void collectInfo(ModuleResult result, FileFormat fileFormat) {
 		log.info("  -- COLLECTING REST API INFO --");
 
-		String dirPath = Paths.get(project.getBasedir().getAbsolutePath(), "target", FOLDER_NAME).toString();
+		String dirPath = InformationCollector.getBuildDirectory(project).resolve(FOLDER_NAME).toString();
 		log.info("target folder: " + dirPath);
 		log.info("target file: " + FILE_NAME);
 
 		APIInfoObject infoObject = generateAPIInfo();
 		APIConsumptionInfoObject consumeInfoObject = generateAPIConsumptionInfo();
-		FileWriter.writeInfoToJSONFile(dirPath, FILE_NAME, infoObject, log);
-		FileWriter.writeInfoToJSONFile(dirPath, FILE_NAME_CONSUME, consumeInfoObject, log);
+		if (result != null) {
+			result.put(infoObject);
+			result.put(consumeInfoObject);
+		}
+		if (fileFormat != null) {
+			FileWriter.writeModuleFile(dirPath, FILE_NAME, infoObject, fileFormat, log);
+			FileWriter.writeModuleFile(dirPath, FILE_NAME_CONSUME, consumeInfoObject, fileFormat, log);
+		}
 
 	}
 
 	/**
-	 * Depending on the given type, uses a reader to find API definitions and saves
-	 * them in an APIInfoObject.
+	 * Creates the reader for API definitions depending on the given annotation
+	 * and reader type.
 	 * 
-	 * @return APIInfoObject containing info about current projects API
+	 * @return APIReader for the configured annotation type
 	 */
-	private APIInfoObject generateAPIInfo() {
-		APIReader apiReader;
+	private APIReader createAPIReader() {
 		switch (type) {
 		case JAXRS:
-			apiReader = new JAXRSReader(project, log, apiConfigFilePath, contextPath);
 			log.info("Using Jax-RS");
-			break;
+			return readerType == ReaderType.SOURCE ? new JAXRSReader(log, apiConfigFilePath, contextPath, configFiles)
+					: new BytecodeJAXRSReader(log, apiConfigFilePath, contextPath, configFiles);
 		default: // SPRING
-			apiReader = new SPRINGReader(log, apiConfigFilePath, contextPath);
 			log.info("Using Spring Boot");
+			return readerType == ReaderType.SOURCE
+					? new SPRINGReader(log, apiConfigFilePath, contextPath)
+					: new BytecodeSPRINGReader(log, apiConfigFilePath, contextPath);
 		}
+	}
 
-		List<OfferDescription> mappings = apiReader.getPathsAndMethods(project.getBasedir());
+	/**
+	 * Saves the API definitions found by the reader in an APIInfoObject.
+	 * 
+	 * @return APIInfoObject containing info about current projects API
+	 */
+	private APIInfoObject generateAPIInfo() {
+		List<OfferDescription> mappings = apiReader.getPathsAndMethods();
 
 		APIInfoObject infoObject = new APIInfoObject(getServiceTag(), getServiceName());
 
@@ -87,16 +163,15 @@ public class APIInfoCollector implements InformationCollector {
 	}
 
 	/**
-	 * Uses a consumtionReader to find all annotated consumptions. Saves findings in
-	 * an APIConsumptionInfoObject.
+	 * Saves all annotated consumptions found by the consumptionReader in an
+	 * APIConsumptionInfoObject.
 	 * 
 	 * @return content of all found annotations
 	 */
 	private APIConsumptionInfoObject generateAPIConsumptionInfo() {
 		APIConsumptionInfoObject infoObject = new APIConsumptionInfoObject();
 		infoObject.setMicroserviceTag(getServiceTag());
-		ConsumesAPIReader reader = new AnnotationReader(log);
-		List<ConsumeDescription> triples = reader.getAPIConsumption(project.getBasedir());
+		List<ConsumeDescription> triples = consumesReader.getAPIConsumption();
 		for (ConsumeDescription triple : triples) {
 			infoObject.addConsumeDescriptionTriple(triple);
 		}
@@ -1,9 +1,10 @@
 package collectors;
 
-import java.io.File;
-import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -14,68 +15,135 @@ import java.util.Set;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
 
-import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
 import com.thoughtworks.qdox.model.JavaSource;
 
+import classfiles.ClassFile;
+import classfiles.ClassFileVisitor;
 import collectors.models.maven.ModuleToComponentInfoObject;
 import collectors.models.maven.ComponentInfoObject;
-import edu.emory.mathcs.backport.java.util.Arrays;
+import filemanagement.FileFormat;
 import filemanagement.FileWriter;
+import filemanagement.ModuleResult;
+import sources.SourceFacts;
+import sources.SourceVisitor;
 
 /**
  * Collects information about the packages and their dependencies. Can be
  * started with a WhiteList of Packages. Then, only these and their sub-packages
  * will be looked at. If there is no WhiteList, all Packages in the project are
  * analyzed. The maxDepth is important to define the granularity of a package.
- * If the maxDepth was 0, there would be just one big package.
+ * If the maxDepth was 0, there would be just one big package. The information
+ * is gathered while visiting the source model or the class files of the
+ * project.
  * 
  * @author gmittmann
  *
  */
-public class ComponentInfoCollector implements InformationCollector {
+public class ComponentInfoCollector implements InformationCollector, SourceVisitor, ClassFileVisitor {
 
 	private Map<String, Integer> whiteListMap;
 	private Set<String> blackListSet;
 	private MavenProject project;
 	private Log log;
 
-	private Set<String> whiteListPackageNames = new HashSet<>();
+	private PackageTrie whiteListPackages = new PackageTrie();
+	private PackageTrie blackListPackages = new PackageTrie();
+	private List<Path> sourceRoots;
+	private Map<String, Set<String>> packageDependencies = new HashMap<>();
 	private boolean defaultValuesUsed = false;
 
 	public static final String FILE_NAME = "componentInformation";
 
-	public ComponentInfoCollector(Map<String, Integer> whiteList, Set<String> blackList, MavenProject project, Log log) {
-		this.whiteListMap = whiteList;
-		this.blackListSet = blackList;
+	public ComponentInfoCollector(Map<String, Integer> whiteList, Set<String> blackList, List<Path> sourceRoots,
+			MavenProject project, Log log) {
+		// copies, as the configured collections may be shared between modules
+		this.whiteListMap = whiteList == null ? new HashMap<>() : new HashMap<>(whiteList);
+		this.blackListSet = blackList == null ? new HashSet<>() : new HashSet<>(blackList);
 		this.project = project;
 		this.log = log;
-	}
-
-	@Override
-	public void collectInfo() {
-		JavaProjectBuilder builder = new JavaProjectBuilder();
-		String baseFileName = Paths.get(project.getBasedir().getAbsolutePath(), "\\src", "main", "java").toString();
 
-		if (whiteListMap == null || whiteListMap.isEmpty()) {
+		if (whiteListMap.isEmpty()) {
 			whiteListMap.put("", 1);
 			log.warn("No WhiteList of packages defined! The results might not be as intended.");
-			log.warn("Default values set. BaseFile: " + baseFileName + "; Depth: 1");
+			log.warn("Default values set. Source roots: " + sourceRoots + "; Depth: 1");
 			defaultValuesUsed = true;
 		}
-		whiteListPackageNames = whiteListMap.keySet();
+		for (Entry<String, Integer> entry : whiteListMap.entrySet()) {
+			whiteListPackages.add(entry.getKey(), entry.getValue() == null ? 1 : entry.getValue());
+		}
+		whiteListPackages.removeSubPackages();
+		for (String name : blackListSet) {
+			if (name != null) {
+				blackListPackages.add(name, 0);
+			}
+		}
+		this.sourceRoots = sourceRoots;
+	}
 
-		Map<String, Set<String>> packageDependencies = new HashMap<>();
+	@Override
+	public Collection<String> getMarkers() {
+		// only package and imports are needed
+		return Collections.emptyList();
+	}
 
-		File baseFile = new File(baseFileName);
-		if (baseFile.exists()) {
-			whiteListPackageNames = filterWhiteList();
-			for (String name : whiteListPackageNames) {
-				File dir = Paths.get(baseFileName, name.split("\\.")).toFile();
-				collectBySourceAdd(name, dir, name, 0, builder, packageDependencies);
+	@Override
+	public void visitSource(JavaSource source, SourceFacts facts) {
+		// package and imports are recorded by the source model
+	}
+
+	@Override
+	public void visitClass(JavaClass javaClass, SourceFacts facts) {
+		// components are determined by the location of the source files
+	}
+
+	@Override
+	public void visitClassFile(ClassFile classFile, SourceFacts facts) {
+		// referenced classes are recorded as imports by the class file analyzer
+	}
+
+	/**
+	 * Adds the imports of the given source file to the import dependencies of its
+	 * component, if the file is located in one of the whitelisted packages. The
+	 * package of the file is given by its directory in the source root and looked
+	 * up in the whitelist. The name of the component is determined by the maxDepth
+	 * and the directories between the whitelisted package and the source file.
+	 */
+	@Override
+	public void visitFacts(SourceFacts facts) {
+		Path file = Paths.get(facts.getPath());
+		Path sourceRoot = getSourceRoot(file);
+		if (sourceRoot == null) {
+			return;
+		}
+		Path relativeDir = sourceRoot.relativize(file.getParent());
+		int maxLength = whiteListPackages.getMaxLength(getComponentName(relativeDir, Integer.MAX_VALUE));
+		if (maxLength == -1) {
+			return;
+		}
+		String packageName = getComponentName(relativeDir, maxLength);
+		if (!isInBlackList(packageName)) {
+			addSetToMap(packageName, getRelevantImportNames(packageName, facts.getImports()), packageDependencies);
+		}
+	}
+
+	/**
+	 * @return the innermost source root containing the given file, null if there
+	 *         is none.
+	 */
+	private Path getSourceRoot(Path file) {
+		Path sourceRoot = null;
+		for (Path root : sourceRoots) {
+			if (file.startsWith(root) && (sourceRoot == null || root.getNameCount() > sourceRoot.getNameCount())) {
+				sourceRoot = root;
 			}
 		}
-		
-		String dirPath = Paths.get(project.getBasedir().getAbsolutePath(), "target", FOLDER_NAME).toString();
+		return sourceRoot;
+	}
+
+	@Override
+	public void collectInfo(ModuleResult result, FileFormat fileFormat) {
+		String dirPath = InformationCollector.getBuildDirectory(project).resolve(FOLDER_NAME).toString();
 		log.info("target file: " + FILE_NAME);
 		
 		List<ComponentInfoObject> packageInfo = new ArrayList<>();
@@ -87,79 +155,41 @@ public class ComponentInfoCollector implements InformationCollector {
 		String moduleId = project.getGroupId() + ":" + project.getArtifactId() + ":" + project.getVersion();
 		ModuleToComponentInfoObject info = new ModuleToComponentInfoObject(moduleId);
 		info.setComponents(packageInfo);
-		FileWriter.writeInfoToJSONFile(dirPath, FILE_NAME, info, log);
-	}
-
-	/**
-	 * Filters the whiteList by removing subpackages. If a subpackage is found and
-	 * the associated depth of this one leads to more packages reached than the with
-	 * the other package, the value of the package is overwritten to reach them,
-	 * too.
-	 * 
-	 * @return Set of String containing the remaining package names.
-	 */
-	private Set<String> filterWhiteList() {
-		Set<String> filteredNames = new HashSet<>(whiteListPackageNames);
-		for (String name : whiteListPackageNames) {
-			for (String otherName : whiteListPackageNames) {
-				if (!otherName.equals(name) && otherName.startsWith(name)) {
-					int otherNameDepth = otherName.split("\\.").length + whiteListMap.get(otherName);
-					int nameDepth = name.split("\\.").length + whiteListMap.get(name);
-					int diff = otherNameDepth - nameDepth;
-
-					filteredNames.remove(otherName);
-					if (diff > 0) {
-						whiteListMap.put(name, whiteListMap.get(name) + diff);
-					}
-				}
-			}
+		if (result != null) {
+			result.put(info);
+		}
+		if (fileFormat != null) {
+			FileWriter.writeModuleFile(dirPath, FILE_NAME, info, fileFormat, log);
 		}
-		return filteredNames;
 	}
 
 	/**
-	 * Recursive method, that calls itself, until it finds a file. When it does, it
-	 * reads its imports and adds them to the import dependencies map. The package
-	 * name under which the info is saved is determined by the maxDepth and the
-	 * directories, that were traversed until the file was reached.
+	 * Determines the name of the component a source belongs to. The directories
+	 * between the source root and the source are joined to a package name, until
+	 * the maximum number of segments is reached.
 	 * 
-	 * @param currentFile         the file or directory that is currently looked at.
-	 * @param packageName         name of the package that is currently worked with
-	 *                            and into which the imports are to be saved.
-	 * @param currentDepth        Integer value containing info about how many
-	 *                            recursion steps we are into (therefore how many
-	 *                            directories were stepped into since the base
-	 *                            folder).
-	 * @param builder             JavaProjectBuilder used to read import
-	 *                            information.
-	 * @param packageDependencies Map into which the package Dependencies shall be
-	 *                            saved.
+	 * @param relativeDir directory of the source relative to the source root.
+	 * @param maxSegments maximum number of segments of the name, given by the
+	 *                    whitelisted package and its maxDepth.
+	 * @return name of the component.
 	 */
-	private void collectBySourceAdd(String whiteListPackage, File currentFile, String packageName, int currentDepth,
-			JavaProjectBuilder builder, Map<String, Set<String>> packageDependencies) {
-
-		if (currentFile.isDirectory()) {
-			if (currentDepth <= getDepthValueOfPackage(whiteListPackage) && currentDepth != 0) {
-				packageName += "." + currentFile.getName();
-			}
-			currentDepth++;
-			if (!isInBlackList(packageName)) {
-				for (File file : currentFile.listFiles()) {
-					collectBySourceAdd(whiteListPackage, file, packageName, currentDepth, builder, packageDependencies);
-				}
+	private String getComponentName(Path relativeDir, int maxSegments) {
+		StringBuilder packageName = new StringBuilder();
+		int segments = 0;
+		for (Path dir : relativeDir) {
+			String dirName = dir.toString();
+			if (segments == maxSegments) {
+				break;
 			}
-			currentDepth = 0;
-		} else if (currentFile.exists()){
-			try {
-				JavaSource src = builder.addSource(currentFile);
-				if (!isInBlackList(packageName)) {
-					addSetToMap(packageName, getRelevantImportNames(packageName, src.getImports()),
-							packageDependencies);
+			if (!dirName.isEmpty()) {
+				if (segments > 0) {
+					packageName.append('.');
 				}
-			} catch (IOException e) {
-				log.info("could not open file: " + currentFile.getAbsolutePath());
+				packageName.append(dirName);
+				segments++;
 			}
 		}
+		return packageName.toString();
 	}
 
 	/**
@@ -173,17 +203,12 @@ public class ComponentInfoCollector implements InformationCollector {
 		Set<String> relevantImportPackages = new HashSet<>();
 
 		for (String currentImport : srcImports) {
-			if (isInWhiteList(currentImport) && !isInBlackList(currentImport)) {
-				String[] currentImportSplit = currentImport.split("\\.");
-				// remove last part to get package of imported class
-				currentImportSplit = (String[]) Arrays.copyOf(currentImportSplit, currentImportSplit.length - 1);
-				// remove anything longer than maxLength
-				int maxBaseLength = getMaxBaseLength(currentImport);
-				if (currentImportSplit.length > maxBaseLength && maxBaseLength != -1) {
-					currentImportSplit = (String[]) Arrays.copyOf(currentImportSplit, maxBaseLength);
-				}
-				if (!String.join(".", currentImportSplit).equals(currentPackage) && maxBaseLength != -1) {
-					relevantImportPackages.add(String.join(".", currentImportSplit));
+			// -1, if not in whitelist
+			int maxBaseLength = getMaxBaseLength(currentImport);
+			if (maxBaseLength != -1 && !isInBlackList(currentImport)) {
+				String importPackage = getPackageName(currentImport, maxBaseLength);
+				if (!importPackage.equals(currentPackage)) {
+					relevantImportPackages.add(importPackage);
 				}
 			}
 		}
@@ -195,6 +220,26 @@ public class ComponentInfoCollector implements InformationCollector {
 		return relevantImportPackages;
 	}
 
+	/**
+	 * Returns the package of the given class, shortened to the given number of
+	 * segments.
+	 * 
+	 * @param className   full name of the class.
+	 * @param maxSegments maximum number of segments of the package.
+	 * @return name of the package.
+	 */
+	private String getPackageName(String className, int maxSegments) {
+		int end = className.lastIndexOf('.');
+		int index = -1;
+		for (int segments = 0; segments < maxSegments; segments++) {
+			index = className.indexOf('.', index + 1);
+			if (index == -1 || index >= end) {
+				return end == -1 ? "" : className.substring(0, end);
+			}
+		}
+		return index == -1 ? "" : className.substring(0, index);
+	}
+
 	/**
 	 * Add the given Set to the given Map under the given name.
 	 * 
@@ -210,31 +255,8 @@ public class ComponentInfoCollector implements InformationCollector {
 		}
 	}
 
-	/**
-	 * Check if the given package is in the whitelisted packages. If there were no
-	 * whitelisted packages and the default value was used, this method always
-	 * returns true.
-	 * 
-	 * @param packageName name of the package to be checked. Has to be full name.
-	 * @return true, if the given package is part of the whitelisted packages or
-	 *         there is no WhiteList.
-	 */
-	private boolean isInWhiteList(String packageName) {
-		for (String base : whiteListPackageNames) {
-			if (packageName.startsWith(base)) { // TODO: check if startsWith is enough
-				return true;
-			}
-		}
-		return defaultValuesUsed;
-	}
-
 	private boolean isInBlackList(String packageName) {
-		for (String base : blackListSet) {
-			if (base != null && packageName.startsWith(base)) { // TODO: check if startsWith is enough
-				return true;
-			}
-		}
-		return false;
+		return blackListPackages.contains(packageName);
 	}
 
 	/**
@@ -252,16 +274,7 @@ public class ComponentInfoCollector implements InformationCollector {
 		if (defaultValuesUsed) {
 			return 1;
 		}
-		for (String base : whiteListPackageNames) {
-			if (packageName.startsWith(base)) {
-				return base.split("\\.").length + getDepthValueOfPackage(base);
-			}
-		}
-		return -1;
-	}
-
-	private int getDepthValueOfPackage(String packageName) {
-		return whiteListMap.get(packageName) == null ? 1 : whiteListMap.get(packageName);
+		return whiteListPackages.getMaxLength(packageName);
 	}
 
 }
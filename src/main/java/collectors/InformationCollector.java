@@ -1,8 +1,45 @@
-package collectors;
-
-public interface InformationCollector {
-
-	public static final String FOLDER_NAME = "documentation";
-	public void collectInfo();
-	
-}
+package collectors;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.maven.project.MavenProject;
+
+import filemanagement.FileFormat;
+import filemanagement.ModuleResult;
+
+public interface InformationCollector {
+
+	public static final String FOLDER_NAME = "documentation";
+
+	/**
+	 * Collects the information and writes it to a file in the target directory.
+	 */
+	public default void collectInfo() {
+		collectInfo(null, FileFormat.JSON);
+	}
+
+	/**
+	 * Collects the information and publishes it to the given result.
+	 * 
+	 * @param result
+	 *            result of the module, to which the information is added. May be
+	 *            null.
+	 * @param fileFormat
+	 *            format of the file in the target directory, to which the
+	 *            information is written as well. Null, if no file is written.
+	 */
+	public void collectInfo(ModuleResult result, FileFormat fileFormat);
+
+	/**
+	 * @param project
+	 *            the project.
+	 * @return the build directory of the given project, "target" in its base
+	 *         directory if none is configured.
+	 */
+	public static Path getBuildDirectory(MavenProject project) {
+		String directory = project.getBuild().getDirectory();
+		return directory == null ? Paths.get(project.getBasedir().getAbsolutePath(), "target") : Paths.get(directory);
+	}
+
+}
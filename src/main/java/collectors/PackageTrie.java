@@ -0,0 +1,156 @@
+package collectors;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Trie over the segments of package names, each with a depth. A name is
+ * contained, if one of the packages is the name itself or one of its parent
+ * packages. Only whole segments match, so com.foo does not contain com.foobar.
+ * Lookups walk the segments of the name once.
+ *
+ * @author gmittmann
+ *
+ */
+public class PackageTrie {
+
+	private static final char SEPARATOR = '.';
+	private static final int NOT_CONTAINED = -1;
+
+	private Node root = new Node(0);
+
+	/**
+	 * Adds the given package.
+	 *
+	 * @param packageName name of the package. The empty name contains all names.
+	 * @param depth       depth of the package.
+	 */
+	public void add(String packageName, int depth) {
+		Node node = root;
+		int start = 0;
+		while (start < packageName.length()) {
+			int end = getSegmentEnd(packageName, start);
+			node = node.getOrAddChild(packageName.substring(start, end));
+			start = end + 1;
+		}
+		node.packageName = packageName;
+		node.depth = depth;
+	}
+
+	/**
+	 * Removes all packages that are contained in another package. If the depth of
+	 * a removed package reaches further than the depth of the package containing
+	 * it, the depth of the containing package is increased to reach these
+	 * packages, too.
+	 */
+	void removeSubPackages() {
+		removeSubPackages(root, null);
+	}
+
+	private void removeSubPackages(Node node, Node base) {
+		if (node.packageName != null) {
+			if (base == null) {
+				base = node;
+			} else {
+				base.depth = Math.max(base.depth, node.segments + node.depth - base.segments);
+				node.packageName = null;
+			}
+		}
+		if (node.children != null) {
+			for (Node child : node.children.values()) {
+				removeSubPackages(child, base);
+			}
+		}
+	}
+
+	/**
+	 * @param name full name of a package or class.
+	 * @return true, if one of the packages contains the given name.
+	 */
+	public boolean contains(String name) {
+		return find(name) != null;
+	}
+
+	/**
+	 * Returns the number of segments of the outermost package containing the given
+	 * name, added to its depth.
+	 *
+	 * @param name full name of a package or class.
+	 * @return maximum number of segments of the name or -1, if it is not contained.
+	 */
+	int getMaxLength(String name) {
+		Node base = find(name);
+		return base == null ? NOT_CONTAINED : base.segments + base.depth;
+	}
+
+	/**
+	 * @return the packages with their depths.
+	 */
+	Map<String, Integer> getPackages() {
+		Map<String, Integer> packages = new HashMap<>();
+		addPackages(root, packages);
+		return packages;
+	}
+
+	private void addPackages(Node node, Map<String, Integer> packages) {
+		if (node.packageName != null) {
+			packages.put(node.packageName, node.depth);
+		}
+		if (node.children != null) {
+			for (Node child : node.children.values()) {
+				addPackages(child, packages);
+			}
+		}
+	}
+
+	/**
+	 * Walks the segments of the given name and returns the node of the outermost
+	 * package containing it.
+	 */
+	private Node find(String name) {
+		Node node = root;
+		int start = 0;
+		while (node.packageName == null) {
+			if (start > name.length() || node.children == null) {
+				return null;
+			}
+			int end = getSegmentEnd(name, start);
+			node = node.children.get(name.substring(start, end));
+			if (node == null) {
+				return null;
+			}
+			start = end + 1;
+		}
+		return node;
+	}
+
+	private static int getSegmentEnd(String name, int start) {
+		int end = name.indexOf(SEPARATOR, start);
+		return end == -1 ? name.length() : end;
+	}
+
+	/**
+	 * Node of the trie, one per segment. The map of the children is only created
+	 * when needed, as most nodes have none or one.
+	 */
+	private static class Node {
+
+		private Map<String, Node> children;
+		private int segments;
+		private String packageName;
+		private int depth;
+
+		private Node(int segments) {
+			this.segments = segments;
+		}
+
+		private Node getOrAddChild(String segment) {
+			if (children == null) {
+				children = new HashMap<>(2);
+			}
+			return children.computeIfAbsent(segment, key -> new Node(segments + 1));
+		}
+
+	}
+
+}
@@ -0,0 +1,9 @@
+package collectors.models;
+
+public enum ReaderType {
+
+	SOURCE,
+	BYTECODE,
+	PROCESSOR;
+
+}
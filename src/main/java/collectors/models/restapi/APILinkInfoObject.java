@@ -0,0 +1,63 @@
+package collectors.models.restapi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import collectors.models.InfoObject;
+import util.APILink;
+
+/**
+ * Class containing the consumed REST-API of the current service linked to the
+ * offered API serving it, alongside the consumptions no offer was found for,
+ * grouped by the consuming service.
+ * 
+ * @author gmittmann
+ *
+ */
+public class APILinkInfoObject extends InfoObject {
+
+	private String serviceName;
+	private String serviceTag;
+	private List<APILink> resolved;
+	private List<APIConsumptionInfoObject> unresolved;
+
+	public APILinkInfoObject(String serviceName, String serviceTag) {
+		this.serviceName = serviceName;
+		this.serviceTag = serviceTag;
+		this.resolved = new ArrayList<>();
+		this.unresolved = new ArrayList<>();
+	}
+
+	public String getServiceName() {
+		return serviceName;
+	}
+
+	public void setServiceName(String serviceName) {
+		this.serviceName = serviceName;
+	}
+
+	public String getServiceTag() {
+		return serviceTag;
+	}
+
+	public void setServiceTag(String serviceTag) {
+		this.serviceTag = serviceTag;
+	}
+
+	public List<APILink> getResolved() {
+		return resolved;
+	}
+
+	public void setResolved(List<APILink> resolved) {
+		this.resolved = resolved;
+	}
+
+	public List<APIConsumptionInfoObject> getUnresolved() {
+		return unresolved;
+	}
+
+	public void setUnresolved(List<APIConsumptionInfoObject> unresolved) {
+		this.unresolved = unresolved;
+	}
+
+}
@@ -0,0 +1,210 @@
+package filemanagement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import annotation.ConsumesAPI;
+import collectors.models.restapi.APIConsumptionInfoObject;
+import collectors.models.restapi.APILinkInfoObject;
+import filemanagement.PathTrie.Endpoint;
+import util.APILink;
+import util.ConsumeDescription;
+import util.ConsumeIndex;
+import util.HttpMethods;
+import util.OfferDescription;
+import util.PathTemplate;
+
+/**
+ * Links consumed paths to the offered paths serving them. The offered paths
+ * are kept in one {@link PathTrie} per service tag, so each consumption is
+ * resolved in about the length of its path. Consumptions naming a service by
+ * groupId and artifactId only are matched against all versions of the service,
+ * consumptions without a service against all offers of the project.
+ *
+ * @author gmittmann
+ *
+ */
+class APIMatcher {
+
+	private static final char TAG_SEPARATOR = ':';
+
+	private String projectTag;
+	private Map<String, PathTrie> tries = new HashMap<>();
+	private Map<String, List<PathTrie>> triesByArtifact = new HashMap<>();
+
+	private List<APILink> resolved = new ArrayList<>();
+	/* consumptions without offer by the tag of the consuming service */
+	private Map<String, ConsumeIndex> unresolved = new LinkedHashMap<>();
+
+	/**
+	 * @param projectTag
+	 *            tag of the project, under which the offers of all modules are
+	 *            found, too.
+	 */
+	APIMatcher(String projectTag) {
+		this.projectTag = projectTag;
+	}
+
+	/**
+	 * Adds the offers of the service with the given tag.
+	 *
+	 * @param serviceTag
+	 *            tag of the offering service, the tag of the project if null.
+	 * @param offers
+	 *            offers of the service, may be null.
+	 */
+	void addOffers(String serviceTag, List<OfferDescription> offers) {
+		if (offers == null) {
+			return;
+		}
+		if (serviceTag == null) {
+			serviceTag = projectTag;
+		}
+		PathTrie serviceTrie = getTrie(serviceTag);
+		PathTrie projectTrie = projectTag.equals(serviceTag) ? null : getTrie(projectTag);
+		for (OfferDescription offer : offers) {
+			if (offer.getPathToMethodMappings() == null) {
+				continue;
+			}
+			for (Entry<String, Set<HttpMethods>> mapping : offer.getPathToMethodMappings().entrySet()) {
+				PathTemplate path = PathTemplate.parse(mapping.getKey());
+				Endpoint endpoint = new Endpoint(serviceTag, offer.getPackageName(), mapping.getKey(),
+						mapping.getValue());
+				serviceTrie.add(path, endpoint);
+				if (projectTrie != null) {
+					projectTrie.add(path, endpoint);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Matches the given consumptions of the service with the given tag against the
+	 * offers added.
+	 *
+	 * @param consumerTag
+	 *            tag of the consuming service.
+	 * @param consumptions
+	 *            consumptions of the service, may be null.
+	 */
+	void match(String consumerTag, List<ConsumeDescription> consumptions) {
+		if (consumptions == null) {
+			return;
+		}
+		for (ConsumeDescription consumption : consumptions) {
+			if (consumption.getPathToMethods() == null) {
+				continue;
+			}
+			List<PathTrie> candidates = findTries(consumption.getServiceName());
+			for (Entry<String, Set<String>> mapping : consumption.getPathToMethods().entrySet()) {
+				PathTemplate path = PathTemplate.parse(mapping.getKey());
+				for (String method : mapping.getValue()) {
+					List<Endpoint> endpoints = find(candidates, path, method);
+					if (endpoints.isEmpty()) {
+						unresolved.computeIfAbsent(consumerTag, tag -> new ConsumeIndex()).add(
+								consumption.getServiceName(), consumption.getPackageName(), mapping.getKey(),
+								Collections.singleton(method));
+					}
+					for (Endpoint endpoint : endpoints) {
+						resolved.add(createLink(consumerTag, consumption, mapping.getKey(), method, endpoint));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param serviceName
+	 *            name of the project.
+	 * @return the consumptions added, linked to their offers or listed as
+	 *         unresolved by consuming service.
+	 */
+	APILinkInfoObject getLinks(String serviceName) {
+		APILinkInfoObject links = new APILinkInfoObject(serviceName, projectTag);
+		links.setResolved(resolved);
+		for (Entry<String, ConsumeIndex> consumer : unresolved.entrySet()) {
+			APIConsumptionInfoObject consumptions = new APIConsumptionInfoObject();
+			consumptions.setMicroserviceTag(consumer.getKey());
+			consumptions.setConsumes(consumer.getValue().getConsumptions());
+			links.getUnresolved().add(consumptions);
+		}
+		return links;
+	}
+
+	private PathTrie getTrie(String serviceTag) {
+		PathTrie trie = tries.get(serviceTag);
+		if (trie == null) {
+			trie = new PathTrie();
+			tries.put(serviceTag, trie);
+			triesByArtifact.computeIfAbsent(getArtifact(serviceTag), key -> new ArrayList<>()).add(trie);
+		}
+		return trie;
+	}
+
+	private List<PathTrie> findTries(String serviceName) {
+		if (serviceName == null || serviceName.equals(ConsumesAPI.DEFAULT_SERVICE)) {
+			PathTrie trie = tries.get(projectTag);
+			return trie == null ? Collections.emptyList() : Collections.singletonList(trie);
+		}
+		PathTrie trie = tries.get(serviceName);
+		if (trie != null) {
+			return Collections.singletonList(trie);
+		}
+		if (serviceName.equals(getArtifact(serviceName))) {
+			List<PathTrie> versions = triesByArtifact.get(serviceName);
+			if (versions != null) {
+				return versions;
+			}
+		}
+		return Collections.emptyList();
+	}
+
+	private List<Endpoint> find(List<PathTrie> candidates, PathTemplate path, String methodName) {
+		if (methodName == null) {
+			return Collections.emptyList();
+		}
+		HttpMethods method;
+		try {
+			method = HttpMethods.valueOf(methodName.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			return Collections.emptyList();
+		}
+		List<Endpoint> found = new ArrayList<>();
+		for (PathTrie trie : candidates) {
+			found.addAll(trie.find(path, method));
+		}
+		return found;
+	}
+
+	private APILink createLink(String consumerTag, ConsumeDescription consumption, String path, String method,
+			Endpoint endpoint) {
+		APILink link = new APILink();
+		link.setConsumerTag(consumerTag);
+		link.setConsumerPackage(consumption.getPackageName());
+		link.setServiceName(consumption.getServiceName());
+		link.setPath(path);
+		link.setMethod(method);
+		link.setProviderTag(endpoint.getServiceTag());
+		link.setProviderPackage(endpoint.getPackageName());
+		link.setProviderPath(endpoint.getPath());
+		return link;
+	}
+
+	/**
+	 * @return groupId and artifactId of the given tag, i.e. the tag without its
+	 *         version.
+	 */
+	private static String getArtifact(String serviceTag) {
+		int first = serviceTag.indexOf(TAG_SEPARATOR);
+		int second = first == -1 ? -1 : serviceTag.indexOf(TAG_SEPARATOR, first + 1);
+		return second == -1 ? serviceTag : serviceTag.substring(0, second);
+	}
+
+}
@@ -0,0 +1,78 @@
+package filemanagement;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Lock on the aggregated files in a document location. Guards the aggregation
+ * against other threads of the build and against other builds writing to the
+ * same location.
+ * 
+ * @author gmittmann
+ *
+ */
+public final class AggregateLock implements AutoCloseable {
+
+	private static final String LOCK_FILE_NAME = ".aggregate.lock";
+	private static final ReentrantLock THREAD_LOCK = new ReentrantLock();
+
+	private FileChannel channel;
+
+	private AggregateLock() {
+
+	}
+
+	/**
+	 * Waits until the aggregated files in the given folder are locked.
+	 * 
+	 * @param folder folder of the aggregated files.
+	 * @param log    log
+	 * @return the lock. If the lock file couldn't be created, the files are only
+	 *         guarded against other threads of the build.
+	 */
+	public static AggregateLock acquire(File folder, Log log) {
+		THREAD_LOCK.lock();
+		AggregateLock lock = new AggregateLock();
+		try {
+			Files.createDirectories(folder.toPath());
+			lock.channel = FileChannel.open(folder.toPath().resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE);
+			lock.channel.lock();
+		} catch (IOException e) {
+			log.warn("Could not lock " + folder.getAbsolutePath() + ": " + e.getMessage());
+			lock.closeChannel();
+		}
+		return lock;
+	}
+
+	/**
+	 * Releases the lock.
+	 */
+	@Override
+	public void close() {
+		try {
+			closeChannel();
+		} finally {
+			THREAD_LOCK.unlock();
+		}
+	}
+
+	private void closeChannel() {
+		if (channel != null) {
+			try {
+				// releases the file lock
+				channel.close();
+			} catch (IOException e) {
+				// lock is released anyway
+			}
+			channel = null;
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+package filemanagement;
+
+import java.io.File;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Aggregates the information of the modules of a session while the session is
+ * still running. The collectors of each module publish their information to
+ * a {@link ModuleResult}, which is submitted when the module is finished.
+ * Information missing in the result, e.g. written by the annotation processor,
+ * is read from the files of the module, and the result is merged into the
+ * running aggregate on a single background thread. Only the modules that were
+ * not submitted, the matching of the links and the writing of the aggregated
+ * files are left for the end of the session.
+ *
+ * @author gmittmann
+ *
+ */
+public class AggregationPipeline {
+
+	private Log log;
+	private FileAggregator aggregator;
+	private ThreadPoolExecutor executor;
+
+	public AggregationPipeline(MavenSession session, Log log) {
+		this.log = log;
+		this.aggregator = new FileAggregator(session, log);
+		/* one thread, as the modules are merged one after another anyway */
+		this.executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+				runnable -> {
+					Thread thread = new Thread(runnable, "documentation-aggregation");
+					thread.setDaemon(true);
+					return thread;
+				});
+		/* don't keep the threads, if the session ends without aggregation */
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Submits the given module, whose information has been collected. The
+	 * information missing in its result is read and merged in the background.
+	 * Modules of packaging pom are ignored.
+	 *
+	 * @param project
+	 *            finished module.
+	 * @param result
+	 *            information published by the collectors of the module.
+	 */
+	public synchronized void submit(MavenProject project, ModuleResult result) {
+		if (project.getPackaging().equalsIgnoreCase("pom") || executor.isShutdown()) {
+			return;
+		}
+		executor.execute(() -> aggregator.addModule(project, result));
+	}
+
+	/**
+	 * Waits for all submitted modules to be merged and writes the aggregated
+	 * files. The files of modules that were not submitted are read now.
+	 *
+	 * @param folderPath
+	 *            path to the folder, into which the new files are to be saved
+	 * @param fileNameSuffix
+	 *            suffix to be appended to the file names
+	 * @param compactJson
+	 *            whether the files are written without indentation
+	 */
+	public void aggregateTo(File folderPath, String fileNameSuffix, boolean compactJson) {
+		synchronized (this) {
+			executor.shutdown();
+		}
+		try {
+			while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+				log.debug("waiting for modules to be merged");
+			}
+		} catch (InterruptedException e) {
+			log.error("Interrupted while reading module files.");
+			Thread.currentThread().interrupt();
+			return;
+		}
+		aggregator.setCompactJson(compactJson);
+		aggregator.aggregateMavenFilesTo(folderPath, fileNameSuffix);
+		aggregator.aggregateAPIFilesTo(folderPath, fileNameSuffix);
+	}
+
+}
@@ -0,0 +1,452 @@
+package filemanagement;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import collectors.models.InfoObject;
+import collectors.models.maven.ComponentInfoObject;
+import collectors.models.maven.ModuleInfoObject;
+import collectors.models.maven.ModuleToComponentInfoObject;
+import collectors.models.restapi.APIConsumptionInfoObject;
+import collectors.models.restapi.APIInfoObject;
+import util.ConsumeDescription;
+import util.HttpMethods;
+import util.OfferDescription;
+import util.StringPool;
+
+/**
+ * Compact binary encoding of the information files of a module. A file
+ * consists of a header, a table of all distinct strings and the length
+ * prefixed body. The body refers to strings by their index in the table, lists,
+ * sets and maps are prefixed by their size and sets of HTTP methods are stored
+ * as bit mask. Null values are stored as -1. Sizes and references read are
+ * checked against the data left and the table, so corrupt files fail with an
+ * IOException.
+ *
+ * @author gmittmann
+ *
+ */
+public final class BinaryInfoCodec {
+
+	/* "CDB" followed by the version of the format */
+	private static final int MAGIC = 0x43444201;
+
+	private static final byte MODULE = 1;
+	private static final byte COMPONENTS = 2;
+	private static final byte API = 3;
+	private static final byte CONSUMPTION = 4;
+
+	private static final int NULL = -1;
+	/* arrays are filled in chunks, so a corrupt length fails at the end of the stream */
+	private static final int CHUNK_SIZE = 64 * 1024;
+
+	private BinaryInfoCodec() {
+
+	}
+
+	/**
+	 * Writes the given information to the stream.
+	 *
+	 * @param info
+	 *            information of a module.
+	 * @param stream
+	 *            stream to write to. It is not closed.
+	 * @throws IOException
+	 *             if the stream can't be written.
+	 * @throws IllegalArgumentException
+	 *             if the type of the information isn't written per module.
+	 */
+	public static void write(InfoObject info, OutputStream stream) throws IOException {
+		Encoder encoder = new Encoder();
+		byte type = encoder.encode(info);
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+		out.writeInt(MAGIC);
+		out.writeByte(type);
+		out.writeInt(encoder.strings.size());
+		for (String string : encoder.strings) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+		out.writeInt(encoder.body.size());
+		encoder.body.writeTo(out);
+		out.flush();
+	}
+
+	/**
+	 * Reads information of the given type from the stream.
+	 *
+	 * @param stream
+	 *            stream to read from. It is not closed.
+	 * @param clazz
+	 *            expected type of the information.
+	 * @return the information read.
+	 * @throws IOException
+	 *             if the stream can't be read, is corrupt or doesn't contain
+	 *             information of the given type.
+	 */
+	public static <T extends InfoObject> T read(InputStream stream, Class<T> clazz) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a binary information file or unsupported version.");
+		}
+		byte type = in.readByte();
+		int size = readLength(in, "string table");
+		List<String> strings = new ArrayList<>(Math.min(size, CHUNK_SIZE));
+		for (int i = 0; i < size; i++) {
+			byte[] bytes = readBytes(in, readLength(in, "string"));
+			strings.add(StringPool.intern(new String(bytes, StandardCharsets.UTF_8)));
+		}
+		byte[] body = readBytes(in, readLength(in, "body"));
+
+		Decoder decoder = new Decoder(new DataInputStream(new ByteArrayInputStream(body)),
+				strings.toArray(new String[strings.size()]));
+		InfoObject info = decoder.decode(type);
+		if (decoder.in.available() > 0) {
+			throw new IOException("Unexpected data after the information.");
+		}
+		if (!clazz.isInstance(info)) {
+			throw new IOException("File contains " + info.getClass().getSimpleName() + " instead of "
+					+ clazz.getSimpleName());
+		}
+		return clazz.cast(info);
+	}
+
+	private static int readLength(DataInputStream in, String name) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			throw new IOException("Invalid length of the " + name + ": " + length);
+		}
+		return length;
+	}
+
+	/**
+	 * Reads the given number of bytes. The array grows with the bytes read, so a
+	 * corrupt length doesn't allocate more than the stream contains.
+	 */
+	private static byte[] readBytes(DataInputStream in, int length) throws IOException {
+		if (length <= CHUNK_SIZE) {
+			byte[] bytes = new byte[length];
+			in.readFully(bytes);
+			return bytes;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(CHUNK_SIZE);
+		byte[] chunk = new byte[CHUNK_SIZE];
+		for (int remaining = length; remaining > 0; remaining -= CHUNK_SIZE) {
+			int chunkLength = Math.min(remaining, CHUNK_SIZE);
+			in.readFully(chunk, 0, chunkLength);
+			bytes.write(chunk, 0, chunkLength);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Writes the body and collects the string table.
+	 */
+	private static class Encoder {
+
+		private ByteArrayOutputStream body = new ByteArrayOutputStream();
+		private DataOutputStream out = new DataOutputStream(body);
+		private Map<String, Integer> indexes = new HashMap<>();
+		private List<String> strings = new ArrayList<>();
+
+		private byte encode(InfoObject info) throws IOException {
+			if (info instanceof ModuleInfoObject) {
+				encodeModule((ModuleInfoObject) info);
+				return MODULE;
+			} else if (info instanceof ModuleToComponentInfoObject) {
+				encodeComponents((ModuleToComponentInfoObject) info);
+				return COMPONENTS;
+			} else if (info instanceof APIInfoObject) {
+				encodeAPI((APIInfoObject) info);
+				return API;
+			} else if (info instanceof APIConsumptionInfoObject) {
+				encodeConsumption((APIConsumptionInfoObject) info);
+				return CONSUMPTION;
+			}
+			throw new IllegalArgumentException("No binary format for " + info.getClass().getSimpleName());
+		}
+
+		private void encodeModule(ModuleInfoObject module) throws IOException {
+			writeString(module.getModuleName());
+			writeString(module.getArtifactID());
+			writeString(module.getGroupID());
+			writeString(module.getVersion());
+			writeString(module.getTag());
+			writeStrings(module.getDependsOn());
+		}
+
+		private void encodeComponents(ModuleToComponentInfoObject components) throws IOException {
+			writeString(components.getModuleName());
+			if (writeSize(components.getComponents())) {
+				for (ComponentInfoObject component : components.getComponents()) {
+					writeString(component.getPackageName());
+					writeStrings(component.getDependsOn());
+				}
+			}
+		}
+
+		private void encodeAPI(APIInfoObject api) throws IOException {
+			writeString(api.getMicroserviceTag());
+			writeString(api.getMicroserviceName());
+			if (writeSize(api.getApi())) {
+				for (OfferDescription offer : api.getApi()) {
+					writeString(offer.getPackageName());
+					Map<String, Set<HttpMethods>> mappings = offer.getPathToMethodMappings();
+					if (writeSize(mappings == null ? null : mappings.entrySet())) {
+						for (Entry<String, Set<HttpMethods>> mapping : mappings.entrySet()) {
+							writeString(mapping.getKey());
+							writeMethods(mapping.getValue());
+						}
+					}
+				}
+			}
+		}
+
+		private void encodeConsumption(APIConsumptionInfoObject consumption) throws IOException {
+			writeString(consumption.getMicroserviceTag());
+			if (writeSize(consumption.getConsumes())) {
+				for (ConsumeDescription description : consumption.getConsumes()) {
+					writeString(description.getServiceName());
+					writeString(description.getPackageName());
+					Map<String, Set<String>> pathToMethods = description.getPathToMethods();
+					if (writeSize(pathToMethods == null ? null : pathToMethods.entrySet())) {
+						for (Entry<String, Set<String>> mapping : pathToMethods.entrySet()) {
+							writeString(mapping.getKey());
+							writeStrings(mapping.getValue());
+						}
+					}
+				}
+			}
+		}
+
+		private void writeString(String string) throws IOException {
+			if (string == null) {
+				out.writeInt(NULL);
+				return;
+			}
+			Integer index = indexes.get(string);
+			if (index == null) {
+				index = strings.size();
+				indexes.put(string, index);
+				strings.add(string);
+			}
+			out.writeInt(index);
+		}
+
+		private void writeStrings(Collection<String> collection) throws IOException {
+			if (writeSize(collection)) {
+				for (String string : collection) {
+					writeString(string);
+				}
+			}
+		}
+
+		private void writeMethods(Set<HttpMethods> methods) throws IOException {
+			if (methods == null) {
+				out.writeInt(NULL);
+				return;
+			}
+			int mask = 0;
+			for (HttpMethods method : methods) {
+				mask |= 1 << method.ordinal();
+			}
+			out.writeInt(mask);
+		}
+
+		/**
+		 * @return true, if the collection is not null and its elements have to be
+		 *         written.
+		 */
+		private boolean writeSize(Collection<?> collection) throws IOException {
+			out.writeInt(collection == null ? NULL : collection.size());
+			return collection != null;
+		}
+
+	}
+
+	/**
+	 * Reads the body, using the string table. The body is read completely
+	 * before, so sizes are checked against the bytes left in it.
+	 */
+	private static class Decoder {
+
+		private static final HttpMethods[] METHODS = HttpMethods.values();
+
+		private DataInputStream in;
+		private String[] strings;
+
+		private Decoder(DataInputStream in, String[] strings) {
+			this.in = in;
+			this.strings = strings;
+		}
+
+		private InfoObject decode(byte type) throws IOException {
+			switch (type) {
+			case MODULE:
+				return decodeModule();
+			case COMPONENTS:
+				return decodeComponents();
+			case API:
+				return decodeAPI();
+			case CONSUMPTION:
+				return decodeConsumption();
+			default:
+				throw new IOException("Unknown type of information: " + type);
+			}
+		}
+
+		private ModuleInfoObject decodeModule() throws IOException {
+			return new ModuleInfoObject(readString(), readString(), readString(), readString(), readString(),
+					readStringList());
+		}
+
+		private ModuleToComponentInfoObject decodeComponents() throws IOException {
+			ModuleToComponentInfoObject components = new ModuleToComponentInfoObject(readString());
+			int size = readSize();
+			if (size != NULL) {
+				List<ComponentInfoObject> list = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					ComponentInfoObject component = new ComponentInfoObject(readString());
+					component.setDependsOn(readStringSet());
+					list.add(component);
+				}
+				components.setComponents(list);
+			}
+			return components;
+		}
+
+		private APIInfoObject decodeAPI() throws IOException {
+			APIInfoObject api = new APIInfoObject(readString(), readString());
+			int size = readSize();
+			List<OfferDescription> offers = null;
+			if (size != NULL) {
+				offers = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					OfferDescription offer = new OfferDescription();
+					offer.setPackageName(readString());
+					int mappings = readSize();
+					if (mappings != NULL) {
+						Map<String, Set<HttpMethods>> pathToMethods = new LinkedHashMap<>();
+						for (int j = 0; j < mappings; j++) {
+							pathToMethods.put(readString(), readMethods());
+						}
+						offer.setPathToMethodMappings(pathToMethods);
+					}
+					offers.add(offer);
+				}
+			}
+			api.setApi(offers);
+			return api;
+		}
+
+		private APIConsumptionInfoObject decodeConsumption() throws IOException {
+			APIConsumptionInfoObject consumption = new APIConsumptionInfoObject();
+			consumption.setMicroserviceTag(readString());
+			int size = readSize();
+			List<ConsumeDescription> descriptions = null;
+			if (size != NULL) {
+				descriptions = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					ConsumeDescription description = new ConsumeDescription();
+					description.setServiceName(readString());
+					description.setPackageName(readString());
+					int mappings = readSize();
+					if (mappings != NULL) {
+						Map<String, Set<String>> pathToMethods = new LinkedHashMap<>();
+						for (int j = 0; j < mappings; j++) {
+							pathToMethods.put(readString(), readStringSet());
+						}
+						description.setPathToMethods(pathToMethods);
+					}
+					descriptions.add(description);
+				}
+			}
+			consumption.setConsumes(descriptions);
+			return consumption;
+		}
+
+		private String readString() throws IOException {
+			int index = in.readInt();
+			if (index == NULL) {
+				return null;
+			}
+			if (index < 0 || index >= strings.length) {
+				throw new IOException("Invalid string reference: " + index);
+			}
+			return strings[index];
+		}
+
+		private List<String> readStringList() throws IOException {
+			int size = readSize();
+			if (size == NULL) {
+				return null;
+			}
+			List<String> list = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				list.add(readString());
+			}
+			return list;
+		}
+
+		private Set<String> readStringSet() throws IOException {
+			int size = readSize();
+			if (size == NULL) {
+				return null;
+			}
+			Set<String> set = new LinkedHashSet<>();
+			for (int i = 0; i < size; i++) {
+				set.add(readString());
+			}
+			return set;
+		}
+
+		/**
+		 * Reads the size of a collection. Each element takes at least four bytes,
+		 * so the size can't be larger than a quarter of the bytes left.
+		 * 
+		 * @return the size or -1, if the collection is null.
+		 */
+		private int readSize() throws IOException {
+			int size = in.readInt();
+			if (size != NULL && (size < 0 || size > in.available() / Integer.BYTES)) {
+				throw new IOException("Invalid size: " + size);
+			}
+			return size;
+		}
+
+		private Set<HttpMethods> readMethods() throws IOException {
+			int mask = in.readInt();
+			if (mask == NULL) {
+				return null;
+			}
+			Set<HttpMethods> methods = OfferDescription.newMethodSet();
+			for (HttpMethods method : METHODS) {
+				if ((mask & (1 << method.ordinal())) != 0) {
+					methods.add(method);
+				}
+			}
+			return methods;
+		}
+
+	}
+
+}
@@ -0,0 +1,152 @@
+package filemanagement;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Index of the configuration files of a module. The module directory is walked
+ * once, when the index is first queried. Build output, version control and
+ * node_modules directories are skipped.
+ *
+ * @author gmittmann
+ *
+ */
+public class ConfigFileIndex {
+
+	/**
+	 * Kinds of configuration files that are indexed.
+	 */
+	public enum ConfigFileType {
+		WEB_XML, GLASSFISH_WEB_XML, APPLICATION_CONFIG, OPENAPI;
+
+		/**
+		 * @param fileName name of a file.
+		 * @return the type of the file or null, if it is not indexed.
+		 */
+		static ConfigFileType of(String fileName) {
+			String name = fileName.toLowerCase();
+			if (name.equals("web.xml")) {
+				return WEB_XML;
+			} else if (name.equals("glassfish-web.xml")) {
+				return GLASSFISH_WEB_XML;
+			} else if (name.startsWith("application")
+					&& (name.endsWith(".properties") || name.endsWith(".yml") || name.endsWith(".yaml"))) {
+				return APPLICATION_CONFIG;
+			} else if ((name.startsWith("openapi") || name.startsWith("swagger"))
+					&& (name.endsWith(".json") || name.endsWith(".yml") || name.endsWith(".yaml"))) {
+				return OPENAPI;
+			}
+			return null;
+		}
+	}
+
+	private static final List<String> SKIPPED_DIRECTORIES = Arrays.asList("target", ".git", "node_modules");
+	private static final List<String> DEFAULT_APPLICATION_CONFIGS = Arrays.asList("application.properties",
+			"application.yml", "application.yaml");
+
+	private Path basedir;
+	private Log log;
+	private Map<ConfigFileType, List<File>> files;
+
+	/**
+	 * @param basedir directory of the module.
+	 * @param log     log
+	 */
+	public ConfigFileIndex(Path basedir, Log log) {
+		this.basedir = basedir;
+		this.log = log;
+	}
+
+	/**
+	 * Returns all files of the given type, sorted by their path.
+	 *
+	 * @param type type of the files.
+	 * @return the files, empty if there are none.
+	 */
+	public synchronized List<File> getFiles(ConfigFileType type) {
+		if (files == null) {
+			files = walk();
+		}
+		return files.get(type);
+	}
+
+	/**
+	 * Returns the first file of the given type, sorted by path.
+	 *
+	 * @param type type of the file.
+	 * @return the file or null, if there is none.
+	 */
+	public File getFile(ConfigFileType type) {
+		List<File> typeFiles = getFiles(type);
+		return typeFiles.isEmpty() ? null : typeFiles.get(0);
+	}
+
+	/**
+	 * Returns the default application configuration of the module. Profile
+	 * specific configurations are not used.
+	 *
+	 * @return application.properties or application.yml, null if there is none.
+	 */
+	public File getApplicationConfigFile() {
+		for (File file : getFiles(ConfigFileType.APPLICATION_CONFIG)) {
+			if (DEFAULT_APPLICATION_CONFIGS.contains(file.getName())) {
+				return file;
+			}
+		}
+		return null;
+	}
+
+	private Map<ConfigFileType, List<File>> walk() {
+		Map<ConfigFileType, List<File>> index = new EnumMap<>(ConfigFileType.class);
+		for (ConfigFileType type : ConfigFileType.values()) {
+			index.put(type, new ArrayList<>());
+		}
+		try {
+			Files.walkFileTree(basedir, new SimpleFileVisitor<Path>() {
+
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+					if (!dir.equals(basedir) && SKIPPED_DIRECTORIES.contains(dir.getFileName().toString())) {
+						return FileVisitResult.SKIP_SUBTREE;
+					}
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					ConfigFileType type = ConfigFileType.of(file.getFileName().toString());
+					if (type != null && attrs.isRegularFile()) {
+						index.get(type).add(file.toFile());
+					}
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException exc) {
+					return FileVisitResult.CONTINUE;
+				}
+
+			});
+		} catch (IOException e) {
+			log.error("Error searching for configuration files. " + e.getMessage());
+		}
+		for (List<File> typeFiles : index.values()) {
+			Collections.sort(typeFiles);
+		}
+		return index;
+	}
+
+}
@@ -0,0 +1,115 @@
+package filemanagement;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Reads single values from xml descriptors like the web.xml. The descriptor is
+ * streamed and only read up to the requested element, no document is built.
+ *
+ * @author gmittmann
+ *
+ */
+public final class DescriptorReader {
+
+	private static final XMLInputFactory FACTORY = createFactory();
+
+	private DescriptorReader() {
+
+	}
+
+	/**
+	 * Reads the text of the first element with the given name, whose parent has
+	 * the given name. Names are compared without namespace prefix. Like the text
+	 * content of a DOM node, the text includes the text of nested elements.
+	 *
+	 * @param xmlFile    descriptor to be read.
+	 * @param tagName    name of the element.
+	 * @param parentName name of the parent of the element.
+	 * @param log        log
+	 * @return the text of the element or null, if not found or the file couldn't
+	 *         be read.
+	 */
+	public static String readElementText(File xmlFile, String tagName, String parentName, Log log) {
+		try (InputStream stream = Files.newInputStream(xmlFile.toPath())) {
+			XMLStreamReader reader = FACTORY.createXMLStreamReader(stream);
+			try {
+				return readElementText(reader, tagName, parentName);
+			} finally {
+				reader.close();
+			}
+		} catch (IOException e) {
+			log.error("Error reading file " + xmlFile + ". " + e.getMessage());
+		} catch (XMLStreamException e) {
+			log.error("Error while parsing " + xmlFile + ": " + e.getMessage());
+		}
+		return null;
+	}
+
+	private static String readElementText(XMLStreamReader reader, String tagName, String parentName)
+			throws XMLStreamException {
+		int depth = 0;
+		int parentDepth = -1;
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+				if (depth == parentDepth + 1 && parentDepth != -1 && tagName.equals(reader.getLocalName())) {
+					return readText(reader);
+				}
+				if (parentName.equals(reader.getLocalName())) {
+					parentDepth = depth;
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				if (depth == parentDepth) {
+					parentDepth = -1;
+				}
+				depth--;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Reads the text of the current element up to its end, including the text of
+	 * the elements in it. Comments are skipped.
+	 */
+	private static String readText(XMLStreamReader reader) throws XMLStreamException {
+		StringBuilder text = new StringBuilder();
+		int depth = 1;
+		while (depth > 0) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			} else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+					|| event == XMLStreamConstants.SPACE) {
+				text.append(reader.getText());
+			}
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Creates the factory shared by all reads. DTDs and external entities are not
+	 * loaded.
+	 */
+	private static XMLInputFactory createFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		return factory;
+	}
+
+}
@@ -1,275 +1,606 @@
-package filemanagement;
-
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
-
-import org.apache.maven.execution.MavenSession;
-import org.apache.maven.plugin.logging.Log;
-import org.apache.maven.project.MavenProject;
-import org.codehaus.plexus.util.xml.Xpp3Dom;
-
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonSyntaxException;
-import com.google.gson.stream.JsonReader;
-
-import collectors.ModuleInfoCollector;
-import collectors.APIInfoCollector;
-import collectors.ComponentInfoCollector;
-import collectors.models.InfoObject;
-import collectors.models.maven.CollectedMavenInfoObject;
-import collectors.models.maven.ModuleToComponentInfoObject;
-import collectors.models.maven.ModuleInfoObject;
-import collectors.models.restapi.APIConsumptionInfoObject;
-import collectors.models.restapi.APIInfoObject;
-import collectors.models.restapi.CollectedAPIInfoObject;
-import mojos.DocumentationMojo;
-
-/**
- * Class for gathering and combining information files.
- * 
- * @author gmittmann
- *
- */
-public class FileAggregator {
-
-	private MavenSession session;
-	private Log log;
-
-	public FileAggregator(MavenSession session, Log log) {
-		this.session = session;
-		this.log = log;
-	}
-
-	/**
-	 * Collects all component and module information files of the projects and
-	 * combines them to one joined file with all information.
-	 * 
-	 * @param folderPath
-	 *            path to the folder, into which the new files is to be saved
-	 * @param fileNameSuffix
-	 *            suffix to be appended to the file name
-	 */
-	public void aggregateMavenFilesTo(File folderPath, String fileNameSuffix) {
-
-		String projectName = findProjectName();
-
-		log.info("    - MODULE FILES - ");
-		List<File> moduleInfoFiles = findFiles(ModuleInfoCollector.FOLDER_NAME, ModuleInfoCollector.FILE_NAME);
-		List<ModuleInfoObject> mavenJsonObjects = createJSONObjects(moduleInfoFiles, ModuleInfoObject.class);
-
-		log.info("    - COMPONENT FILES - ");
-		List<File> componentInfoFiles = findFiles(ComponentInfoCollector.FOLDER_NAME, ComponentInfoCollector.FILE_NAME);
-		List<ModuleToComponentInfoObject> packageJsonObjects = createJSONObjects(componentInfoFiles,
-				ModuleToComponentInfoObject.class);
-
-		log.info("    - AGGREGATE - ");
-		/* join information in one file */
-		CollectedMavenInfoObject mavenCollection = new CollectedMavenInfoObject(projectName, findProjectTag(),
-				findSystem(), findSubsystem());
-		mavenCollection.setModules(mavenJsonObjects);
-		mavenCollection.setComponents(packageJsonObjects);
-		log.info("    - WRITE - ");
-		FileWriter.writeInfoToJSONFile(folderPath.getAbsolutePath(),
-				DocumentationMojo.MAVEN_AGGREGATE_NAME + fileNameSuffix, mavenCollection, log);
-		log.info("completed aggregating maven info");
-
-	}
-
-	/**
-	 * Collects all information about API of the projects into one joined file at
-	 * the given path.
-	 * 
-	 * @param folderPath
-	 *            path to the folder, into which the new files is to be saved
-	 * @param fileNameSuffix
-	 *            suffix to be appended to the file name of the topics
-	 */
-	public void aggregateAPIFilesTo(File folderPath, String fileNameSuffix) {
-		log.info("    - REST OFFER FILE - ");
-		List<File> interfaceInfoFiles = findFiles(APIInfoCollector.FOLDER_NAME, APIInfoCollector.FILE_NAME);
-		List<APIInfoObject> apiInfoObjects = createJSONObjects(interfaceInfoFiles, APIInfoObject.class);
-
-		/* merge APIINfoObjects */
-		APIInfoObject apiInfoObject = new APIInfoObject(findProjectTag(), findProjectName());
-		for (APIInfoObject info : apiInfoObjects) {
-			apiInfoObject.addOffers(info.getApi());
-		}
-
-		System.out.println("---");
-
-		log.info("    - REST CONSUME FILE - ");
-		/* get APIConsumptionInfoObjects */
-		List<File> consumeInfoFiles = findFiles(APIInfoCollector.FOLDER_NAME, APIInfoCollector.FILE_NAME_CONSUME);
-		List<APIConsumptionInfoObject> apiConsumeInfoObjects = createJSONObjects(consumeInfoFiles,
-				APIConsumptionInfoObject.class);
-
-		log.info("    - AGGREGATE - ");
-		CollectedAPIInfoObject collectedInfo = new CollectedAPIInfoObject(apiInfoObject.getMicroserviceName());
-		collectedInfo.setServiceTag(apiInfoObject.getMicroserviceTag());
-		collectedInfo.setProvide(apiInfoObject);
-
-		for (APIConsumptionInfoObject consumption : apiConsumeInfoObjects) {
-			collectedInfo.addConsumeDescriptionTriples(consumption.getConsumes());
-		}
-
-		log.info("    - WRITE - ");
-		FileWriter.writeInfoToJSONFile(folderPath.getAbsolutePath(),
-				DocumentationMojo.API_AGGREGATE_NAME + fileNameSuffix, collectedInfo, log);
-		log.info("completed aggregating rest api info");
-	}
-
-	/**
-	 * Searches for the name of the project defined in the top level project. If
-	 * there is no name defined, use groupId and artifactId concatenated.
-	 * 
-	 * @return Name of the project
-	 */
-	private String findProjectName() {
-		MavenProject root = session.getTopLevelProject();
-		return root.getName().isEmpty() ? (root.getGroupId() + ":" + root.getArtifactId()) : root.getName();
-	}
-
-	/**
-	 * Searches for groupId, artifactId and Version of the root project and
-	 * concatenates the found values.
-	 * 
-	 * @return concatenation of groupId, artifactId and version of root project
-	 */
-	private String findProjectTag() {
-		MavenProject root = session.getTopLevelProject();
-		return (root.getGroupId() + ":" + root.getArtifactId() + ":" + root.getVersion());
-	}
-
-	/**
-	 * Reads system configuration from the root project.
-	 * 
-	 * @return the found system name
-	 */
-	private String findSystem() {
-		MavenProject root = session.getTopLevelProject();
-		for (MavenProject prj : session.getAllProjects()) {
-			if (prj.isExecutionRoot()) {
-				root = prj;
-			}
-		}
-		String system = extractFromConfigurationDOM(
-				root.getPlugin("codebased-documentation:cd-maven-plugin").getConfiguration(), "system");
-
-		if (system == null) {
-			system = "default_system";
-		}
-
-		return system;
-	}
-
-	/**
-	 * Read subsystem configuration of the root project.
-	 * 
-	 * @return found subsystem name
-	 */
-	private String findSubsystem() {
-		MavenProject root = session.getTopLevelProject();
-		for (MavenProject prj : session.getAllProjects()) {
-			if (prj.isExecutionRoot()) {
-				root = prj;
-			}
-		}
-		String subsystem = extractFromConfigurationDOM(
-				root.getPlugin("codebased-documentation:cd-maven-plugin").getConfiguration(), "subsystem");
-
-		if (subsystem == null) {
-			subsystem = "default_subsystem";
-		}
-
-		return subsystem;
-	}
-
-	/**
-	 * Searches for a certain file in the target folder of each project of this
-	 * session and puts them in a list. If the file is in the target folder itself,
-	 * set folderName to a dot [.].
-	 * 
-	 * @param folderName
-	 *            name of the folder, in which the file is located. Path relative to
-	 *            the target folder of the projects.
-	 * @param fileName
-	 *            name of the file (without document type).
-	 * @return List of all files with the given name and folder location.
-	 */
-	private List<File> findFiles(String folderName, String fileName) {
-		List<File> files = new ArrayList<>();
-
-		for (MavenProject currentProject : session.getProjects()) {
-			if (!currentProject.getPackaging().equalsIgnoreCase("pom")) {
-
-				File infoFile = Paths
-						.get(currentProject.getBasedir().getAbsolutePath(), "target", folderName, fileName + ".json")
-						.toFile();
-
-				if (infoFile.exists() && infoFile.canRead()) {
-					log.info("found file for: " + currentProject.getArtifactId());
-					files.add(infoFile);
-
-				} else {
-					log.error("Module " + currentProject.getName() + " did not create a file named: " + fileName);
-					log.error("Please check whether the PlugIn was run for this module.");
-				}
-			}
-		}
-		return files;
-	}
-
-	/**
-	 * Creates InfoObjects (if possible) based on the files in the given list.
-	 * 
-	 * @param files
-	 *            list of files, that are to be turned into InfoObjects.
-	 * @return list with the created InfoObjects.
-	 */
-	private <T extends InfoObject> List<T> createJSONObjects(List<File> files, Class<T> clazz) {
-		List<T> objects = new ArrayList<>();
-		Gson gson = new GsonBuilder().setPrettyPrinting().serializeNulls().create();
-
-		for (File file : files) {
-			try (JsonReader reader = new JsonReader(
-					new InputStreamReader(new FileInputStream(file), FileWriter.CHARSET))) {
-				objects.add(gson.fromJson(reader, clazz));
-			} catch (IOException e) {
-				log.error("Could not access file: " + file.getAbsolutePath());
-				log.error(e.getMessage());
-			} catch (IllegalStateException | JsonSyntaxException e) {
-				log.error("Error reading JSON from file: " + file.getAbsolutePath());
-				log.error(e.getMessage());
-			}
-		}
-
-		return objects;
-	}
-
-	/**
-	 * Tries to read the given parameter in the given object. If the object is not a
-	 * Xpp3Dom object or the parameter doesn't exist, returns null.
-	 * 
-	 * @param domObject
-	 *            object in which the parameter is searched for.
-	 * @param parameterName
-	 *            name of the parameter
-	 * @return value of the parameter or null, if object doesn't exist.
-	 */
-	private String extractFromConfigurationDOM(Object domObject, String parameterName) {
-		if (domObject instanceof Xpp3Dom) {
-			Xpp3Dom docLocationChild = ((Xpp3Dom) domObject).getChild(parameterName);
-			if (docLocationChild != null) {
-				return docLocationChild.getValue();
-			}
-		}
-		return null;
-	}
-
-}
+package filemanagement;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import collectors.ModuleInfoCollector;
+import collectors.APIInfoCollector;
+import collectors.ComponentInfoCollector;
+import collectors.InformationCollector;
+import collectors.models.InfoObject;
+import collectors.models.maven.CollectedMavenInfoObject;
+import collectors.models.maven.ModuleToComponentInfoObject;
+import collectors.models.maven.ModuleInfoObject;
+import collectors.models.restapi.APIConsumptionInfoObject;
+import collectors.models.restapi.APIInfoObject;
+import collectors.models.restapi.APILinkInfoObject;
+import collectors.models.restapi.CollectedAPIInfoObject;
+import mojos.DocumentationMojo;
+import util.ConsumeDescription;
+import util.OfferIndex;
+
+/**
+ * Class for gathering and combining information files.
+ * 
+ * @author gmittmann
+ *
+ */
+public class FileAggregator {
+
+	private static final Gson GSON = new GsonBuilder().registerTypeAdapterFactory(new InfoTypeAdapterFactory())
+			.serializeNulls().create();
+
+	/* the projects are taken from the session, which itself is not kept */
+	private MavenProject topLevelProject;
+	private MavenProject executionRoot;
+	private List<MavenProject> projects;
+	private Log log;
+	/* names of the modules missing a file, by file name */
+	private Map<String, Queue<String>> missingFiles = new ConcurrentHashMap<>();
+	private boolean compactJson;
+
+	/* running aggregate, merged in the order of the projects */
+	private int mergedProjects;
+	private Map<MavenProject, ModuleResult> results = new HashMap<>();
+	private List<ModuleInfoObject> modules = new ArrayList<>();
+	private List<ModuleToComponentInfoObject> components = new ArrayList<>();
+	private OfferIndex offers = new OfferIndex();
+	private APIMatcher matcher;
+	private List<APIConsumptionInfoObject> consumptions = new ArrayList<>();
+
+	/**
+	 * @param session
+	 *            session whose projects are aggregated.
+	 * @param log
+	 *            log
+	 */
+	public FileAggregator(MavenSession session, Log log) {
+		this.topLevelProject = session.getTopLevelProject();
+		this.executionRoot = topLevelProject;
+		for (MavenProject prj : session.getAllProjects()) {
+			if (prj.isExecutionRoot()) {
+				executionRoot = prj;
+			}
+		}
+		this.projects = getDocumentedProjects(session);
+		this.matcher = new APIMatcher(findProjectTag());
+		this.log = log;
+	}
+
+	/**
+	 * @param compactJson
+	 *            whether the aggregated files are written without indentation.
+	 */
+	public void setCompactJson(boolean compactJson) {
+		this.compactJson = compactJson;
+	}
+
+	/**
+	 * Collects all component and module information files of the projects and
+	 * combines them to one joined file with all information.
+	 * 
+	 * @param folderPath
+	 *            path to the folder, into which the new files is to be saved
+	 * @param fileNameSuffix
+	 *            suffix to be appended to the file name
+	 */
+	public void aggregateMavenFilesTo(File folderPath, String fileNameSuffix) {
+
+		String projectName = findProjectName();
+
+		log.info("    - MODULE AND COMPONENT FILES - ");
+		mergeRemainingModules();
+
+		log.info("    - AGGREGATE - ");
+		/* join information in one file */
+		CollectedMavenInfoObject mavenCollection = new CollectedMavenInfoObject(projectName, findProjectTag(),
+				findSystem(), findSubsystem());
+		mavenCollection.setModules(modules);
+		mavenCollection.setComponents(components);
+		log.info("    - WRITE - ");
+		FileWriter.writeInfoToJSONFile(folderPath.getAbsolutePath(),
+				DocumentationMojo.MAVEN_AGGREGATE_NAME + fileNameSuffix, mavenCollection, compactJson, log);
+		log.info("completed aggregating maven info");
+
+	}
+
+	/**
+	 * Collects all information about API of the projects into one joined file at
+	 * the given path. The consumed API is linked to the offered API serving it in
+	 * a second file.
+	 * 
+	 * @param folderPath
+	 *            path to the folder, into which the new files is to be saved
+	 * @param fileNameSuffix
+	 *            suffix to be appended to the file name of the topics
+	 */
+	public void aggregateAPIFilesTo(File folderPath, String fileNameSuffix) {
+		log.info("    - REST OFFER FILE - ");
+		mergeRemainingModules();
+		APIInfoObject apiInfoObject = new APIInfoObject(findProjectTag(), findProjectName());
+		apiInfoObject.setApi(offers.getOffers());
+
+		System.out.println("---");
+
+		log.info("    - AGGREGATE - ");
+		CollectedAPIInfoObject collectedInfo = new CollectedAPIInfoObject(apiInfoObject.getMicroserviceName());
+		collectedInfo.setServiceTag(apiInfoObject.getMicroserviceTag());
+		collectedInfo.setProvide(apiInfoObject);
+
+		for (APIConsumptionInfoObject consumption : consumptions) {
+			collectedInfo.addConsumeDescriptionTriples(consumption.getConsumes());
+		}
+
+		log.info("    - WRITE - ");
+		FileWriter.writeInfoToJSONFile(folderPath.getAbsolutePath(),
+				DocumentationMojo.API_AGGREGATE_NAME + fileNameSuffix, collectedInfo, compactJson, log);
+
+		log.info("    - MATCH - ");
+		/* the offers were added while merging, as all of them are needed to match */
+		for (APIConsumptionInfoObject consumption : consumptions) {
+			matcher.match(consumption.getMicroserviceTag(), consumption.getConsumes());
+		}
+		writeLinks(folderPath, fileNameSuffix, matcher, apiInfoObject.getMicroserviceName());
+		log.info("completed aggregating rest api info");
+	}
+
+	/**
+	 * Writes the consumed API linked to the offered API by the given matcher into
+	 * the file of the links.
+	 */
+	private void writeLinks(File folderPath, String fileNameSuffix, APIMatcher matcher, String serviceName) {
+		APILinkInfoObject links = matcher.getLinks(serviceName);
+		log.info("linked " + links.getResolved().size() + " consumed path(s) to offered ones, "
+				+ links.getUnresolved().size() + " service(s) with unresolved paths");
+		FileWriter.writeInfoToJSONFile(folderPath.getAbsolutePath(),
+				DocumentationMojo.API_LINKS_AGGREGATE_NAME + fileNameSuffix, links, compactJson, log);
+	}
+
+	/**
+	 * Streams the component and module information files of the projects into
+	 * one joined file, like {@link #aggregateMavenFilesTo}. The file of each
+	 * module is read and written before the next one is read, so only the
+	 * information of one module is held in memory.
+	 * 
+	 * @param folderPath
+	 *            path to the folder, into which the new files is to be saved
+	 * @param fileNameSuffix
+	 *            suffix to be appended to the file name
+	 */
+	public void streamMavenFilesTo(File folderPath, String fileNameSuffix) {
+		log.info("    - STREAM MODULE AND COMPONENT FILES - ");
+		/* written in the order of the fields of CollectedMavenInfoObject */
+		FileWriter.writeJSONStream(folderPath.getAbsolutePath(),
+				DocumentationMojo.MAVEN_AGGREGATE_NAME + fileNameSuffix, writer -> {
+					writer.beginObject();
+					writer.name("projectName").value(findProjectName());
+					writer.name("tag").value(findProjectTag());
+					writer.name("system").value(findSystem());
+					writer.name("subsystem").value(findSubsystem());
+					writer.name("modules");
+					streamObjects(writer, ModuleInfoCollector.FOLDER_NAME, ModuleInfoCollector.FILE_NAME,
+							ModuleInfoObject.class);
+					writer.name("components");
+					streamObjects(writer, ComponentInfoCollector.FOLDER_NAME, ComponentInfoCollector.FILE_NAME,
+							ModuleToComponentInfoObject.class);
+					writer.endObject();
+				}, compactJson, log);
+		logMissingFiles();
+		log.info("completed aggregating maven info");
+	}
+
+	/**
+	 * Streams the information about API of the projects into one joined file,
+	 * like {@link #aggregateAPIFilesTo}. The offered API is merged across the
+	 * modules and therefore held in memory, the consumed API is streamed one
+	 * module at a time. The links are matched in a second pass over the files of
+	 * the modules, after the merged offered API has been written and released.
+	 * 
+	 * @param folderPath
+	 *            path to the folder, into which the new files is to be saved
+	 * @param fileNameSuffix
+	 *            suffix to be appended to the file name of the topics
+	 */
+	public void streamAPIFilesTo(File folderPath, String fileNameSuffix) {
+		streamAPIFileTo(folderPath, fileNameSuffix);
+
+		log.info("    - MATCH - ");
+		writeLinks(folderPath, fileNameSuffix, matchModuleFiles(), findProjectName());
+		log.info("completed aggregating rest api info");
+	}
+
+	/**
+	 * Writes the offered API merged across the modules and the consumed API of
+	 * all modules into the joined file.
+	 */
+	private void streamAPIFileTo(File folderPath, String fileNameSuffix) {
+		log.info("    - REST OFFER FILE - ");
+		OfferIndex offers = new OfferIndex();
+		for (MavenProject currentProject : projects) {
+			APIInfoObject info = readObject(currentProject, APIInfoCollector.FOLDER_NAME, APIInfoCollector.FILE_NAME,
+					APIInfoObject.class);
+			if (info != null) {
+				offers.addAll(info.getApi());
+			}
+		}
+		APIInfoObject apiInfoObject = new APIInfoObject(findProjectTag(), findProjectName());
+		apiInfoObject.setApi(offers.getOffers());
+
+		log.info("    - STREAM REST CONSUME FILE - ");
+		/* written in the order of the fields of CollectedAPIInfoObject */
+		FileWriter.writeJSONStream(folderPath.getAbsolutePath(), DocumentationMojo.API_AGGREGATE_NAME + fileNameSuffix,
+				writer -> {
+					writer.beginObject();
+					writer.name("serviceName").value(apiInfoObject.getMicroserviceName());
+					writer.name("serviceTag").value(apiInfoObject.getMicroserviceTag());
+					writer.name("provide");
+					GSON.toJson(apiInfoObject, APIInfoObject.class, writer);
+					writer.name("consume");
+					streamConsumption(writer);
+					writer.endObject();
+				}, compactJson, log);
+		logMissingFiles();
+	}
+
+	/**
+	 * Reads the offered and then the consumed API of the modules again, one
+	 * module at a time, and matches them. Only the offered paths and the links are
+	 * held in memory.
+	 */
+	private APIMatcher matchModuleFiles() {
+		APIMatcher matcher = new APIMatcher(findProjectTag());
+		for (MavenProject currentProject : projects) {
+			APIInfoObject info = readObject(currentProject, APIInfoCollector.FOLDER_NAME, APIInfoCollector.FILE_NAME,
+					APIInfoObject.class);
+			if (info != null) {
+				matcher.addOffers(info.getMicroserviceTag(), info.getApi());
+			}
+		}
+		for (MavenProject currentProject : projects) {
+			APIConsumptionInfoObject consumption = readObject(currentProject, APIInfoCollector.FOLDER_NAME,
+					APIInfoCollector.FILE_NAME_CONSUME, APIConsumptionInfoObject.class);
+			if (consumption != null) {
+				matcher.match(consumption.getMicroserviceTag(), consumption.getConsumes());
+			}
+		}
+		/* already logged by the first pass */
+		missingFiles.clear();
+		return matcher;
+	}
+
+	/**
+	 * Writes the information of the given type of all modules as JSON array. Each
+	 * file is read right before being written.
+	 */
+	private <T extends InfoObject> void streamObjects(JsonWriter writer, String folderName, String fileName,
+			Class<T> clazz) throws IOException {
+		writer.beginArray();
+		for (MavenProject currentProject : projects) {
+			T object = readObject(currentProject, folderName, fileName, clazz);
+			if (object != null) {
+				GSON.toJson(object, clazz, writer);
+			}
+		}
+		writer.endArray();
+	}
+
+	/**
+	 * Writes the consumed API of all modules as one JSON array. Like in
+	 * {@link CollectedAPIInfoObject}, null is written if no module has a file.
+	 */
+	private void streamConsumption(JsonWriter writer) throws IOException {
+		boolean found = false;
+		for (MavenProject currentProject : projects) {
+			APIConsumptionInfoObject consumption = readObject(currentProject, APIInfoCollector.FOLDER_NAME,
+					APIInfoCollector.FILE_NAME_CONSUME, APIConsumptionInfoObject.class);
+			if (consumption == null) {
+				continue;
+			}
+			if (!found) {
+				writer.beginArray();
+				found = true;
+			}
+			if (consumption.getConsumes() != null) {
+				for (ConsumeDescription description : consumption.getConsumes()) {
+					GSON.toJson(description, ConsumeDescription.class, writer);
+				}
+			}
+		}
+		if (found) {
+			writer.endArray();
+		} else {
+			writer.nullValue();
+		}
+	}
+
+	/**
+	 * Searches for the name of the project defined in the top level project. If
+	 * there is no name defined, use groupId and artifactId concatenated.
+	 * 
+	 * @return Name of the project
+	 */
+	private String findProjectName() {
+		MavenProject root = topLevelProject;
+		return root.getName().isEmpty() ? (root.getGroupId() + ":" + root.getArtifactId()) : root.getName();
+	}
+
+	/**
+	 * Searches for groupId, artifactId and Version of the root project and
+	 * concatenates the found values.
+	 * 
+	 * @return concatenation of groupId, artifactId and version of root project
+	 */
+	private String findProjectTag() {
+		MavenProject root = topLevelProject;
+		return (root.getGroupId() + ":" + root.getArtifactId() + ":" + root.getVersion());
+	}
+
+	/**
+	 * Reads system configuration from the root project.
+	 * 
+	 * @return the found system name
+	 */
+	private String findSystem() {
+		MavenProject root = executionRoot;
+		String system = extractFromConfigurationDOM(
+				root.getPlugin(DocumentationMojo.PLUGIN_KEY).getConfiguration(), "system");
+
+		if (system == null) {
+			system = "default_system";
+		}
+
+		return system;
+	}
+
+	/**
+	 * Read subsystem configuration of the root project.
+	 * 
+	 * @return found subsystem name
+	 */
+	private String findSubsystem() {
+		MavenProject root = executionRoot;
+		String subsystem = extractFromConfigurationDOM(
+				root.getPlugin(DocumentationMojo.PLUGIN_KEY).getConfiguration(), "subsystem");
+
+		if (subsystem == null) {
+			subsystem = "default_subsystem";
+		}
+
+		return subsystem;
+	}
+
+	/**
+	 * Adds the information of the given module to the running aggregate. The
+	 * information missing in the given result is read from the files of the
+	 * module. Information published by the collectors is not read again. The
+	 * modules are merged in their order, so a module finished early is held until
+	 * the modules before it are merged.
+	 * 
+	 * @param project
+	 *            module whose information is added.
+	 * @param result
+	 *            information already published for the module.
+	 */
+	public synchronized void addModule(MavenProject project, ModuleResult result) {
+		results.put(project, readModule(project, result));
+		mergeModules();
+	}
+
+	/**
+	 * Merges the modules whose results are there, up to the first module missing
+	 * one.
+	 */
+	private void mergeModules() {
+		while (mergedProjects < projects.size()) {
+			ModuleResult result = results.remove(projects.get(mergedProjects));
+			if (result == null) {
+				return;
+			}
+			mergeModule(result);
+			mergedProjects++;
+		}
+	}
+
+	private void mergeModule(ModuleResult result) {
+		ModuleInfoObject module = result.get(ModuleInfoObject.class);
+		if (module != null) {
+			modules.add(module);
+		}
+		ModuleToComponentInfoObject component = result.get(ModuleToComponentInfoObject.class);
+		if (component != null) {
+			components.add(component);
+		}
+		APIInfoObject api = result.get(APIInfoObject.class);
+		if (api != null) {
+			offers.addAll(api.getApi());
+			matcher.addOffers(api.getMicroserviceTag(), api.getApi());
+		}
+		APIConsumptionInfoObject consumption = result.get(APIConsumptionInfoObject.class);
+		if (consumption != null) {
+			consumptions.add(consumption);
+		}
+	}
+
+	/**
+	 * Reads the files of all modules, that were not added yet, and merges them.
+	 * The modules are read concurrently on a pool bounded by the number of
+	 * processors. Modules with missing files are logged once afterwards.
+	 */
+	private synchronized void mergeRemainingModules() {
+		mergeModules();
+		if (mergedProjects == projects.size()) {
+			logMissingFiles();
+			return;
+		}
+
+		List<MavenProject> remaining = new ArrayList<>();
+		for (MavenProject currentProject : projects.subList(mergedProjects, projects.size())) {
+			if (!results.containsKey(currentProject)) {
+				remaining.add(currentProject);
+			}
+		}
+		int threads = Math.min(remaining.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<ModuleResult>> futures = new ArrayList<>();
+			for (MavenProject currentProject : remaining) {
+				futures.add(pool.submit(() -> readModule(currentProject, new ModuleResult())));
+			}
+			for (int i = 0; i < remaining.size(); i++) {
+				results.put(remaining.get(i), futures.get(i).get());
+			}
+			mergeModules();
+		} catch (ExecutionException e) {
+			log.error("Error reading module files: " + e.getCause());
+		} catch (InterruptedException e) {
+			log.error("Interrupted while reading module files.");
+			Thread.currentThread().interrupt();
+		} finally {
+			pool.shutdownNow();
+		}
+		logMissingFiles();
+	}
+
+	private void logMissingFiles() {
+		for (Map.Entry<String, Queue<String>> entry : new TreeMap<>(missingFiles).entrySet()) {
+			List<String> modules = new ArrayList<>(entry.getValue());
+			modules.sort(null);
+			log.error(modules.size() + " module(s) did not create a file named " + entry.getKey() + ": " + modules);
+		}
+		if (!missingFiles.isEmpty()) {
+			log.error("Please check whether the PlugIn was run for these modules.");
+		}
+		missingFiles.clear();
+	}
+
+	private ModuleResult readModule(MavenProject project, ModuleResult result) {
+		readMissing(result, project, ModuleInfoCollector.FOLDER_NAME, ModuleInfoCollector.FILE_NAME,
+				ModuleInfoObject.class);
+		readMissing(result, project, ComponentInfoCollector.FOLDER_NAME, ComponentInfoCollector.FILE_NAME,
+				ModuleToComponentInfoObject.class);
+		readMissing(result, project, APIInfoCollector.FOLDER_NAME, APIInfoCollector.FILE_NAME,
+				APIInfoObject.class);
+		readMissing(result, project, APIInfoCollector.FOLDER_NAME, APIInfoCollector.FILE_NAME_CONSUME,
+				APIConsumptionInfoObject.class);
+		return result;
+	}
+
+	private <T extends InfoObject> void readMissing(ModuleResult result, MavenProject project, String folderName,
+			String fileName, Class<T> clazz) {
+		if (result.get(clazz) == null) {
+			result.put(readObject(project, folderName, fileName, clazz));
+		}
+	}
+
+	/**
+	 * @return the projects of the given session, that are not of packaging pom.
+	 */
+	private static List<MavenProject> getDocumentedProjects(MavenSession session) {
+		List<MavenProject> projects = new ArrayList<>();
+		for (MavenProject currentProject : session.getProjects()) {
+			if (!currentProject.getPackaging().equalsIgnoreCase("pom")) {
+				projects.add(currentProject);
+			}
+		}
+		return projects;
+	}
+
+	/**
+	 * Reads the file with the given name in the target folder of the given
+	 * project. If the file is in the target folder itself, set folderName to a dot
+	 * [.]. If the file exists in the binary format and as JSON, e.g. after the
+	 * format or the reader type was changed, the newer one is read.
+	 * 
+	 * @param project
+	 *            project whose file is read.
+	 * @param folderName
+	 *            name of the folder, in which the file is located. Path relative to
+	 *            the target folder of the projects.
+	 * @param fileName
+	 *            name of the file (without document type).
+	 * @param clazz
+	 *            type of the information in the file.
+	 * @return the InfoObject or null, if the file doesn't exist or can't be read.
+	 */
+	private <T extends InfoObject> T readObject(MavenProject project, String folderName, String fileName,
+			Class<T> clazz) {
+		File folder = InformationCollector.getBuildDirectory(project).resolve(folderName).toFile();
+		File binaryFile = new File(folder, fileName + FileFormat.BINARY.getExtension());
+		File infoFile = new File(folder, fileName + FileFormat.JSON.getExtension());
+
+		if (binaryFile.canRead() && (!infoFile.canRead() || binaryFile.lastModified() >= infoFile.lastModified())) {
+			log.info("found file for: " + project.getArtifactId());
+			try (InputStream stream = new FileInputStream(binaryFile)) {
+				return BinaryInfoCodec.read(stream, clazz);
+			} catch (IOException e) {
+				log.error("Error reading file: " + binaryFile.getAbsolutePath());
+				log.error(e.getMessage());
+			}
+			return null;
+		}
+		if (!infoFile.exists() || !infoFile.canRead()) {
+			missingFiles.computeIfAbsent(fileName, name -> new ConcurrentLinkedQueue<>()).add(project.getName());
+			return null;
+		}
+		log.info("found file for: " + project.getArtifactId());
+
+		try (JsonReader reader = new JsonReader(
+				new InputStreamReader(new FileInputStream(infoFile), FileWriter.CHARSET))) {
+			return GSON.fromJson(reader, clazz);
+		} catch (IOException e) {
+			log.error("Could not access file: " + infoFile.getAbsolutePath());
+			log.error(e.getMessage());
+		} catch (IllegalStateException | JsonSyntaxException e) {
+			log.error("Error reading JSON from file: " + infoFile.getAbsolutePath());
+			log.error(e.getMessage());
+		}
+		return null;
+	}
+
+	/**
+	 * Tries to read the given parameter in the given object. If the object is not a
+	 * Xpp3Dom object or the parameter doesn't exist, returns null.
+	 * 
+	 * @param domObject
+	 *            object in which the parameter is searched for.
+	 * @param parameterName
+	 *            name of the parameter
+	 * @return value of the parameter or null, if object doesn't exist.
+	 */
+	private String extractFromConfigurationDOM(Object domObject, String parameterName) {
+		if (domObject instanceof Xpp3Dom) {
+			Xpp3Dom docLocationChild = ((Xpp3Dom) domObject).getChild(parameterName);
+			if (docLocationChild != null) {
+				return docLocationChild.getValue();
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,29 @@
+package filemanagement;
+
+/**
+ * Formats of the information files written for each module. The aggregated
+ * files are always written as JSON.
+ *
+ * @author gmittmann
+ *
+ */
+public enum FileFormat {
+
+	/** Pretty printed JSON. */
+	JSON(".json"),
+	/** JSON without indentation. */
+	COMPACT_JSON(".json"),
+	/** Compact binary encoding, see {@link BinaryInfoCodec}. */
+	BINARY(".bin");
+
+	private final String extension;
+
+	private FileFormat(String extension) {
+		this.extension = extension;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+}
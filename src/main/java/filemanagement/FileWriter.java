@@ -1,139 +1,290 @@
-package filemanagement;
-
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-
-import org.apache.maven.plugin.logging.Log;
-
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonIOException;
-
-import collectors.models.InfoObject;
-
-/**
- * Helper/Wrapper class for file creation and use.
- * 
- * @author gmittmann
- *
- */
-public final class FileWriter {
-
-	public static final String CHARSET = "UTF-8";
-
-	private FileWriter() {
-
-	}
-
-	/**
-	 * Writes the given text into the file.
-	 * 
-	 * @param filePath path to the directory in which the file is to be created
-	 * @param fileName name of the file, into which the text is to be written. If
-	 *                 the file already exists, it will be overwritten.
-	 * @param text     Text to be write to the file.
-	 * @return true, if the text was written. False if there was an error or there
-	 *         was no file created //TODO: errorhandling
-	 */
-	public static boolean writeTextIntoFile(String filePath, String fileName, String text, Log log) {
-
-		try (OutputStreamWriter out = createFile(filePath, fileName, log)) {
-			out.append(text);
-			out.flush();
-			return true;
-		} catch (IOException e) {
-			log.error("Could not write into file: " + filePath);
-			log.error(e.getMessage());
-		}
-
-		return false;
-	}
-
-	/**
-	 * Takes the given InfoObject and serializes it to JSON into the given file.
-	 * 
-	 * @param <T>      Type of InfoObject
-	 * @param path     path to the target directory
-	 * @param fileName name of the file
-	 * @param info     InfoObject which contains the information to be written into
-	 *                 the file
-	 * @return true, if the file was created and written successfully.
-	 */
-	public static <T extends InfoObject> boolean writeInfoToJSONFile(String path, String fileName, T info, Log log) {
-
-		Gson gson = createGson();
-		try (OutputStreamWriter out = createFile(path, fileName, log)) {
-			gson.toJson(info, out);
-			out.flush();
-			return true;
-		} catch (JsonIOException e) {
-			log.error("Could not create JSON from object");
-			log.error(e.getMessage());
-		} catch (IOException e) {
-			log.error("IOException: " + e.getMessage());
-		}
-		return false;
-	}
-
-	/**
-	 * Tries to create the file with the given file name at the given path and an
-	 * OutputStreamWriter to it.
-	 * 
-	 * @param path     path of the target directory.
-	 * @param fileName name of the file to be created
-	 * @return outputStreamWriter Writer to the created file. null if there was an
-	 *         error.
-	 */
-	private static OutputStreamWriter createFile(String path, String fileName, Log log) {
-
-		try {
-			createDir(path, log);
-
-			Path logFile = Paths.get(path, fileName + ".json");
-
-			if (!logFile.toFile().exists()) {
-				Files.createFile(logFile);
-			}
-			FileOutputStream stream = new FileOutputStream(logFile.toFile(), false);
-			OutputStreamWriter out = new OutputStreamWriter(stream, CHARSET); // TODO: set charset
-			return out;
-
-		} catch (NullPointerException e) {
-			log.error(e.getMessage());
-		} catch (IOException e) {
-			log.error("IO: " + e.getMessage());
-		}
-		return null;
-	}
-
-	/**
-	 * Checks whether the given file path is null. If it isn't creates all
-	 * directories of the path that do not exist already.
-	 * 
-	 * @param path Path of the target directory to create.
-	 * @return Path Path object to the created directory.
-	 * @throws NullPointerException if path is null
-	 */
-	private static Path createDir(String path, Log log) throws NullPointerException {
-		if (path != null) {
-			try {
-				return Files.createDirectories(Paths.get(path));
-			} catch (IOException e1) {
-				log.error("error creating directories at: " + Paths.get(path).toString());
-				log.error(e1.getMessage());
-			}
-		} else {
-			throw new NullPointerException("Path to directory is null!");
-		}
-		return null;
-	}
-	
-	private static Gson createGson() {
-		return new GsonBuilder().setPrettyPrinting().serializeNulls().create();
-	}
-
-}
+package filemanagement;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import org.apache.maven.plugin.logging.Log;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
+
+import collectors.models.InfoObject;
+
+/**
+ * Helper/Wrapper class for file creation and use.
+ * 
+ * @author gmittmann
+ *
+ */
+public final class FileWriter {
+
+	public static final String CHARSET = "UTF-8";
+
+	/* Gson is thread-safe and caches its type adapters, so it is created once */
+	private static final Gson GSON = createGson(false);
+	private static final Gson COMPACT_GSON = createGson(true);
+
+	private FileWriter() {
+
+	}
+
+	/**
+	 * Writes the given text into the file.
+	 * 
+	 * @param filePath path to the directory in which the file is to be created
+	 * @param fileName name of the file, into which the text is to be written. If
+	 *                 the file already exists, it will be overwritten.
+	 * @param text     Text to be write to the file.
+	 * @return true, if the text was written. False if there was an error or there
+	 *         was no file created
+	 */
+	public static boolean writeTextIntoFile(String filePath, String fileName, String text, Log log) {
+		try {
+			writeFile(filePath, fileName, out -> out.append(text), log);
+			return true;
+		} catch (IOException e) {
+			log.error("Could not write into file: " + filePath);
+			log.error(e.getMessage());
+		}
+		return false;
+	}
+
+	/**
+	 * Takes the given InfoObject and serializes it to JSON into the given file.
+	 * 
+	 * @param <T>      Type of InfoObject
+	 * @param path     path to the target directory
+	 * @param fileName name of the file
+	 * @param info     InfoObject which contains the information to be written into
+	 *                 the file
+	 * @return true, if the file was created and written successfully.
+	 */
+	public static <T extends InfoObject> boolean writeInfoToJSONFile(String path, String fileName, T info, Log log) {
+		return writeInfoToJSONFile(path, fileName, info, false, log);
+	}
+
+	/**
+	 * Takes the given InfoObject and serializes it to JSON into the given file.
+	 * 
+	 * @param <T>      Type of InfoObject
+	 * @param path     path to the target directory
+	 * @param fileName name of the file
+	 * @param info     InfoObject which contains the information to be written into
+	 *                 the file
+	 * @param compact  whether the JSON is written without indentation
+	 * @return true, if the file was created and written successfully.
+	 */
+	public static <T extends InfoObject> boolean writeInfoToJSONFile(String path, String fileName, T info,
+			boolean compact, Log log) {
+
+		Gson gson = compact ? COMPACT_GSON : GSON;
+		try {
+			writeFile(path, fileName, out -> gson.toJson(info, out), log);
+			return true;
+		} catch (JsonIOException e) {
+			log.error("Could not create JSON from object");
+			log.error(e.getMessage());
+		} catch (IOException e) {
+			log.error("IOException: " + e.getMessage());
+		}
+		return false;
+	}
+
+	/**
+	 * Writes the given information of a module in the given format. A file of the
+	 * same name in the other format is deleted, so no outdated file is read.
+	 * 
+	 * @param <T>      Type of InfoObject
+	 * @param path     path to the target directory
+	 * @param fileName name of the file, without file type
+	 * @param info     InfoObject which contains the information to be written into
+	 *                 the file
+	 * @param format   format of the file
+	 * @return true, if the file was created and written successfully.
+	 */
+	public static <T extends InfoObject> boolean writeModuleFile(String path, String fileName, T info,
+			FileFormat format, Log log) {
+		boolean written = false;
+		if (format == FileFormat.BINARY) {
+			try {
+				writeFile(path, fileName, FileFormat.BINARY.getExtension(), out -> BinaryInfoCodec.write(info, out),
+						log);
+				written = true;
+			} catch (IOException e) {
+				log.error("IOException: " + e.getMessage());
+			}
+		} else {
+			written = writeInfoToJSONFile(path, fileName, info, format == FileFormat.COMPACT_JSON, log);
+		}
+		for (FileFormat other : FileFormat.values()) {
+			if (written && !other.getExtension().equals(format.getExtension())) {
+				try {
+					Files.deleteIfExists(Paths.get(path, fileName + other.getExtension()));
+				} catch (IOException e) {
+					log.error("Could not delete outdated file: " + fileName + other.getExtension());
+				}
+			}
+		}
+		return written;
+	}
+
+	/**
+	 * Writes a JSON file, whose content is streamed by the given content. The
+	 * writer is configured like for {@link #writeInfoToJSONFile}.
+	 * 
+	 * @param path     path to the target directory
+	 * @param fileName name of the file
+	 * @param content  writes the JSON to the writer
+	 * @param compact  whether the JSON is written without indentation
+	 * @return true, if the file was created and written successfully.
+	 */
+	public static boolean writeJSONStream(String path, String fileName, JsonContent content, boolean compact,
+			Log log) {
+		Gson gson = compact ? COMPACT_GSON : GSON;
+		try {
+			writeFile(path, fileName, out -> {
+				JsonWriter writer = gson.newJsonWriter(out);
+				content.writeTo(writer);
+				writer.flush();
+			}, log);
+			return true;
+		} catch (JsonIOException e) {
+			log.error("Could not create JSON from object");
+			log.error(e.getMessage());
+		} catch (IOException e) {
+			log.error("IOException: " + e.getMessage());
+		}
+		return false;
+	}
+
+	/**
+	 * Writes the JSON file with the given file name at the given path.
+	 * 
+	 * @param path     path of the target directory.
+	 * @param fileName name of the file to be created, without file type.
+	 * @param content  writes the content of the file.
+	 * @throws IOException if the file couldn't be written.
+	 */
+	private static void writeFile(String path, String fileName, Content content, Log log) throws IOException {
+		writeFile(path, fileName, FileFormat.JSON.getExtension(), stream -> {
+			OutputStreamWriter out = new OutputStreamWriter(stream, CHARSET);
+			content.writeTo(out);
+			out.flush();
+		}, log);
+	}
+
+	/**
+	 * Writes the file with the given file name at the given path, see
+	 * {@link #writeAtomically(Path, StreamContent)}.
+	 * 
+	 * @param path      path of the target directory.
+	 * @param fileName  name of the file to be created, without file type.
+	 * @param extension file type.
+	 * @param content   writes the content of the file.
+	 * @throws IOException if the file couldn't be written.
+	 */
+	private static void writeFile(String path, String fileName, String extension, StreamContent content, Log log)
+			throws IOException {
+		Path dir = createDir(path, log);
+		if (dir == null) {
+			throw new IOException("Directory could not be created: " + path);
+		}
+		writeAtomically(dir.resolve(fileName + extension), content);
+	}
+
+	/**
+	 * Writes the given file. The content is written to a temporary file first,
+	 * which then replaces the file. So the file is never seen half written, even
+	 * if it is written or read concurrently or the build is aborted.
+	 * 
+	 * @param file    file to be written. Its directory must exist.
+	 * @param content writes the content of the file.
+	 * @throws IOException if the file couldn't be written.
+	 */
+	public static void writeAtomically(Path file, StreamContent content) throws IOException {
+		/* not created by createTempFile, which would restrict the permissions of the file */
+		Path tempFile = file.resolveSibling(file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+		try {
+			try (OutputStream out = Files.newOutputStream(tempFile, StandardOpenOption.CREATE_NEW,
+					StandardOpenOption.WRITE)) {
+				content.writeTo(out);
+			}
+			try {
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	/**
+	 * Checks whether the given file path is null. If it isn't creates all
+	 * directories of the path that do not exist already.
+	 * 
+	 * @param path Path of the target directory to create.
+	 * @return Path Path object to the created directory.
+	 * @throws NullPointerException if path is null
+	 */
+	private static Path createDir(String path, Log log) throws NullPointerException {
+		if (path != null) {
+			try {
+				return Files.createDirectories(Paths.get(path));
+			} catch (IOException e1) {
+				log.error("error creating directories at: " + Paths.get(path).toString());
+				log.error(e1.getMessage());
+			}
+		} else {
+			throw new NullPointerException("Path to directory is null!");
+		}
+		return null;
+	}
+	
+	private static Gson createGson(boolean compact) {
+		GsonBuilder builder = new GsonBuilder().registerTypeAdapterFactory(new InfoTypeAdapterFactory())
+				.serializeNulls();
+		if (!compact) {
+			builder.setPrettyPrinting();
+		}
+		return builder.create();
+	}
+
+	/**
+	 * Writes the content of a JSON file.
+	 */
+	public interface JsonContent {
+
+		void writeTo(JsonWriter writer) throws IOException;
+
+	}
+
+	/**
+	 * Writes the content of a file.
+	 */
+	private interface Content {
+
+		void writeTo(OutputStreamWriter out) throws IOException;
+
+	}
+
+	/**
+	 * Writes the content of a file as bytes.
+	 */
+	public interface StreamContent {
+
+		void writeTo(OutputStream out) throws IOException;
+
+	}
+
+}
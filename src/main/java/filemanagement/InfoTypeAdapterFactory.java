@@ -0,0 +1,842 @@
+package filemanagement;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.maven.model.Exclusion;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import collectors.models.maven.CollectedMavenInfoObject;
+import collectors.models.maven.ComponentInfoObject;
+import collectors.models.maven.ModuleInfoObject;
+import collectors.models.maven.ModuleToComponentInfoObject;
+import collectors.models.maven.ProjectInfoObject;
+import collectors.models.restapi.APIConsumptionInfoObject;
+import collectors.models.restapi.APIInfoObject;
+import collectors.models.restapi.APILinkInfoObject;
+import collectors.models.restapi.CollectedAPIInfoObject;
+import util.APILink;
+import util.ConsumeDescription;
+import util.HttpMethods;
+import util.OfferDescription;
+import util.Pair;
+import util.StringPool;
+
+/**
+ * Hand written type adapters for the information objects and the descriptions
+ * they contain, replacing the reflection of Gson. The JSON written is the same
+ * as written by reflection: the fields are written in the order of their
+ * declaration, null values are written if enabled in the writer. Unknown names
+ * are skipped when reading. Strings read are pooled and HTTP methods are read
+ * into enum sets, which reflection can't do.
+ *
+ * @author gmittmann
+ *
+ */
+public class InfoTypeAdapterFactory implements TypeAdapterFactory {
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+		Class<? super T> raw = type.getRawType();
+		TypeAdapter<?> adapter;
+		if (raw == ModuleInfoObject.class) {
+			adapter = new ModuleInfoAdapter();
+		} else if (raw == ComponentInfoObject.class) {
+			adapter = new ComponentInfoAdapter();
+		} else if (raw == ModuleToComponentInfoObject.class) {
+			adapter = new ModuleToComponentInfoAdapter(gson.getAdapter(ComponentInfoObject.class));
+		} else if (raw == ProjectInfoObject.class) {
+			adapter = new ProjectInfoAdapter(gson.getAdapter(Exclusion.class));
+		} else if (raw == CollectedMavenInfoObject.class) {
+			adapter = new CollectedMavenInfoAdapter(gson.getAdapter(ModuleInfoObject.class),
+					gson.getAdapter(ModuleToComponentInfoObject.class));
+		} else if (raw == OfferDescription.class) {
+			adapter = new OfferDescriptionAdapter();
+		} else if (raw == ConsumeDescription.class) {
+			adapter = new ConsumeDescriptionAdapter();
+		} else if (raw == APIInfoObject.class) {
+			adapter = new APIInfoAdapter(gson.getAdapter(OfferDescription.class));
+		} else if (raw == APIConsumptionInfoObject.class) {
+			adapter = new APIConsumptionInfoAdapter(gson.getAdapter(ConsumeDescription.class));
+		} else if (raw == CollectedAPIInfoObject.class) {
+			adapter = new CollectedAPIInfoAdapter(gson.getAdapter(APIInfoObject.class),
+					gson.getAdapter(ConsumeDescription.class));
+		} else if (raw == APILink.class) {
+			adapter = new APILinkAdapter();
+		} else if (raw == APILinkInfoObject.class) {
+			adapter = new APILinkInfoAdapter(gson.getAdapter(APILink.class),
+					gson.getAdapter(APIConsumptionInfoObject.class));
+		} else if (raw == Pair.class) {
+			adapter = createPairAdapter(gson, type.getType());
+		} else {
+			return null;
+		}
+		return (TypeAdapter<T>) adapter.nullSafe();
+	}
+
+	private static TypeAdapter<?> createPairAdapter(Gson gson, Type type) {
+		Type left = Object.class;
+		Type right = Object.class;
+		if (type instanceof ParameterizedType) {
+			left = ((ParameterizedType) type).getActualTypeArguments()[0];
+			right = ((ParameterizedType) type).getActualTypeArguments()[1];
+		}
+		return new PairAdapter<>(gson.getAdapter(TypeToken.get(left)), gson.getAdapter(TypeToken.get(right)));
+	}
+
+	private static class ModuleInfoAdapter extends TypeAdapter<ModuleInfoObject> {
+
+		@Override
+		public void write(JsonWriter out, ModuleInfoObject value) throws IOException {
+			out.beginObject();
+			out.name("moduleName").value(value.getModuleName());
+			out.name("artifactID").value(value.getArtifactID());
+			out.name("groupID").value(value.getGroupID());
+			out.name("version").value(value.getVersion());
+			out.name("tag").value(value.getTag());
+			out.name("dependsOn");
+			writeStrings(out, value.getDependsOn());
+			out.endObject();
+		}
+
+		@Override
+		public ModuleInfoObject read(JsonReader in) throws IOException {
+			String moduleName = null;
+			String artifactID = null;
+			String groupID = null;
+			String version = null;
+			String tag = null;
+			List<String> dependsOn = null;
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "moduleName":
+					moduleName = readString(in);
+					break;
+				case "artifactID":
+					artifactID = readString(in);
+					break;
+				case "groupID":
+					groupID = readString(in);
+					break;
+				case "version":
+					version = readString(in);
+					break;
+				case "tag":
+					tag = readString(in);
+					break;
+				case "dependsOn":
+					dependsOn = readStrings(in, new ArrayList<>());
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return new ModuleInfoObject(moduleName, artifactID, groupID, version, tag, dependsOn);
+		}
+
+	}
+
+	private static class ComponentInfoAdapter extends TypeAdapter<ComponentInfoObject> {
+
+		@Override
+		public void write(JsonWriter out, ComponentInfoObject value) throws IOException {
+			out.beginObject();
+			out.name("packageName").value(value.getPackageName());
+			out.name("dependsOn");
+			writeStrings(out, value.getDependsOn());
+			out.endObject();
+		}
+
+		@Override
+		public ComponentInfoObject read(JsonReader in) throws IOException {
+			ComponentInfoObject component = new ComponentInfoObject(null);
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "packageName":
+					component.setPackageName(readString(in));
+					break;
+				case "dependsOn":
+					component.setDependsOn(readStrings(in, new LinkedHashSet<>()));
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return component;
+		}
+
+	}
+
+	private static class ModuleToComponentInfoAdapter extends TypeAdapter<ModuleToComponentInfoObject> {
+
+		private TypeAdapter<ComponentInfoObject> componentAdapter;
+
+		private ModuleToComponentInfoAdapter(TypeAdapter<ComponentInfoObject> componentAdapter) {
+			this.componentAdapter = componentAdapter;
+		}
+
+		@Override
+		public void write(JsonWriter out, ModuleToComponentInfoObject value) throws IOException {
+			out.beginObject();
+			out.name("moduleTag").value(value.getModuleName());
+			out.name("components");
+			writeList(out, value.getComponents(), componentAdapter);
+			out.endObject();
+		}
+
+		@Override
+		public ModuleToComponentInfoObject read(JsonReader in) throws IOException {
+			ModuleToComponentInfoObject module = new ModuleToComponentInfoObject(null);
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "moduleTag":
+					module.setModuleName(readString(in));
+					break;
+				case "components":
+					module.setComponents(readList(in, componentAdapter));
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return module;
+		}
+
+	}
+
+	private static class ProjectInfoAdapter extends TypeAdapter<ProjectInfoObject> {
+
+		private TypeAdapter<Exclusion> exclusionAdapter;
+
+		private ProjectInfoAdapter(TypeAdapter<Exclusion> exclusionAdapter) {
+			this.exclusionAdapter = exclusionAdapter;
+		}
+
+		@Override
+		public void write(JsonWriter out, ProjectInfoObject value) throws IOException {
+			out.beginObject();
+			out.name("projectName").value(value.getProjectName());
+			out.name("groupId").value(value.getGroupId());
+			out.name("artifactId").value(value.getArtifactId());
+			out.name("version").value(value.getVersion());
+			out.name("type").value(value.getType());
+			out.name("scope").value(value.getScope());
+			out.name("exclusions");
+			writeList(out, value.getExclusions(), exclusionAdapter);
+			out.endObject();
+		}
+
+		@Override
+		public ProjectInfoObject read(JsonReader in) throws IOException {
+			ProjectInfoObject project = new ProjectInfoObject((String) null);
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "projectName":
+					project.setProjectName(readString(in));
+					break;
+				case "groupId":
+					project.setGroupId(readString(in));
+					break;
+				case "artifactId":
+					project.setArtifactId(readString(in));
+					break;
+				case "version":
+					project.setVersion(readString(in));
+					break;
+				case "type":
+					project.setType(readString(in));
+					break;
+				case "scope":
+					project.setScope(readString(in));
+					break;
+				case "exclusions":
+					project.setExclusions(readList(in, exclusionAdapter));
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return project;
+		}
+
+	}
+
+	private static class CollectedMavenInfoAdapter extends TypeAdapter<CollectedMavenInfoObject> {
+
+		private TypeAdapter<ModuleInfoObject> moduleAdapter;
+		private TypeAdapter<ModuleToComponentInfoObject> componentsAdapter;
+
+		private CollectedMavenInfoAdapter(TypeAdapter<ModuleInfoObject> moduleAdapter,
+				TypeAdapter<ModuleToComponentInfoObject> componentsAdapter) {
+			this.moduleAdapter = moduleAdapter;
+			this.componentsAdapter = componentsAdapter;
+		}
+
+		@Override
+		public void write(JsonWriter out, CollectedMavenInfoObject value) throws IOException {
+			out.beginObject();
+			out.name("projectName").value(value.getProjectName());
+			out.name("tag").value(value.getTag());
+			out.name("system").value(value.getSystem());
+			out.name("subsystem").value(value.getSubsystem());
+			out.name("modules");
+			writeList(out, value.getModules(), moduleAdapter);
+			out.name("components");
+			writeList(out, value.getComponents(), componentsAdapter);
+			out.endObject();
+		}
+
+		@Override
+		public CollectedMavenInfoObject read(JsonReader in) throws IOException {
+			CollectedMavenInfoObject collection = new CollectedMavenInfoObject(null, null, null, null);
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "projectName":
+					collection.setProjectName(readString(in));
+					break;
+				case "tag":
+					collection.setTag(readString(in));
+					break;
+				case "system":
+					collection.setSystem(readString(in));
+					break;
+				case "subsystem":
+					collection.setSubsystem(readString(in));
+					break;
+				case "modules":
+					collection.setModules(readList(in, moduleAdapter));
+					break;
+				case "components":
+					collection.setComponents(readList(in, componentsAdapter));
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return collection;
+		}
+
+	}
+
+	private static class OfferDescriptionAdapter extends TypeAdapter<OfferDescription> {
+
+		@Override
+		public void write(JsonWriter out, OfferDescription value) throws IOException {
+			out.beginObject();
+			out.name("packageName").value(value.getPackageName());
+			out.name("pathToMethodMappings");
+			Map<String, Set<HttpMethods>> mappings = value.getPathToMethodMappings();
+			if (mappings == null) {
+				out.nullValue();
+			} else {
+				out.beginObject();
+				for (Entry<String, Set<HttpMethods>> mapping : mappings.entrySet()) {
+					out.name(String.valueOf(mapping.getKey()));
+					writeMethods(out, mapping.getValue());
+				}
+				out.endObject();
+			}
+			out.endObject();
+		}
+
+		@Override
+		public OfferDescription read(JsonReader in) throws IOException {
+			OfferDescription offer = new OfferDescription();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "packageName":
+					offer.setPackageName(readString(in));
+					break;
+				case "pathToMethodMappings":
+					if (in.peek() == JsonToken.NULL) {
+						in.nextNull();
+						offer.setPathToMethodMappings(null);
+						break;
+					}
+					Map<String, Set<HttpMethods>> mappings = new LinkedHashMap<>();
+					in.beginObject();
+					while (in.hasNext()) {
+						mappings.put(StringPool.intern(in.nextName()), readMethods(in));
+					}
+					in.endObject();
+					offer.setPathToMethodMappings(mappings);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return offer;
+		}
+
+		private static void writeMethods(JsonWriter out, Set<HttpMethods> methods) throws IOException {
+			if (methods == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginArray();
+			for (HttpMethods method : methods) {
+				out.value(method == null ? null : method.name());
+			}
+			out.endArray();
+		}
+
+		private static Set<HttpMethods> readMethods(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			Set<HttpMethods> methods = OfferDescription.newMethodSet();
+			in.beginArray();
+			while (in.hasNext()) {
+				String name = readString(in);
+				try {
+					if (name != null) {
+						methods.add(HttpMethods.valueOf(name));
+					}
+				} catch (IllegalArgumentException e) {
+					/* unknown methods carry no information and are skipped */
+				}
+			}
+			in.endArray();
+			return methods;
+		}
+
+	}
+
+	private static class ConsumeDescriptionAdapter extends TypeAdapter<ConsumeDescription> {
+
+		@Override
+		public void write(JsonWriter out, ConsumeDescription value) throws IOException {
+			out.beginObject();
+			out.name("serviceName").value(value.getServiceName());
+			out.name("packageName").value(value.getPackageName());
+			out.name("pathToMethods");
+			Map<String, Set<String>> pathToMethods = value.getPathToMethods();
+			if (pathToMethods == null) {
+				out.nullValue();
+			} else {
+				out.beginObject();
+				for (Entry<String, Set<String>> mapping : pathToMethods.entrySet()) {
+					out.name(String.valueOf(mapping.getKey()));
+					writeStrings(out, mapping.getValue());
+				}
+				out.endObject();
+			}
+			out.endObject();
+		}
+
+		@Override
+		public ConsumeDescription read(JsonReader in) throws IOException {
+			ConsumeDescription description = new ConsumeDescription();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "serviceName":
+					description.setServiceName(readString(in));
+					break;
+				case "packageName":
+					description.setPackageName(readString(in));
+					break;
+				case "pathToMethods":
+					if (in.peek() == JsonToken.NULL) {
+						in.nextNull();
+						description.setPathToMethods(null);
+						break;
+					}
+					Map<String, Set<String>> pathToMethods = new LinkedHashMap<>();
+					in.beginObject();
+					while (in.hasNext()) {
+						pathToMethods.put(StringPool.intern(in.nextName()), readStrings(in, new LinkedHashSet<>()));
+					}
+					in.endObject();
+					description.setPathToMethods(pathToMethods);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return description;
+		}
+
+	}
+
+	private static class APIInfoAdapter extends TypeAdapter<APIInfoObject> {
+
+		private TypeAdapter<OfferDescription> offerAdapter;
+
+		private APIInfoAdapter(TypeAdapter<OfferDescription> offerAdapter) {
+			this.offerAdapter = offerAdapter;
+		}
+
+		@Override
+		public void write(JsonWriter out, APIInfoObject value) throws IOException {
+			out.beginObject();
+			out.name("microserviceTag").value(value.getMicroserviceTag());
+			out.name("microserviceName").value(value.getMicroserviceName());
+			out.name("api");
+			writeList(out, value.getApi(), offerAdapter);
+			out.endObject();
+		}
+
+		@Override
+		public APIInfoObject read(JsonReader in) throws IOException {
+			APIInfoObject api = new APIInfoObject(null, null);
+			api.setApi(null);
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "microserviceTag":
+					api.setMicroserviceTag(readString(in));
+					break;
+				case "microserviceName":
+					api.setMicroserviceName(readString(in));
+					break;
+				case "api":
+					api.setApi(readList(in, offerAdapter));
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return api;
+		}
+
+	}
+
+	private static class APIConsumptionInfoAdapter extends TypeAdapter<APIConsumptionInfoObject> {
+
+		private TypeAdapter<ConsumeDescription> descriptionAdapter;
+
+		private APIConsumptionInfoAdapter(TypeAdapter<ConsumeDescription> descriptionAdapter) {
+			this.descriptionAdapter = descriptionAdapter;
+		}
+
+		@Override
+		public void write(JsonWriter out, APIConsumptionInfoObject value) throws IOException {
+			out.beginObject();
+			out.name("microserviceTag").value(value.getMicroserviceTag());
+			out.name("consumes");
+			writeList(out, value.getConsumes(), descriptionAdapter);
+			out.endObject();
+		}
+
+		@Override
+		public APIConsumptionInfoObject read(JsonReader in) throws IOException {
+			APIConsumptionInfoObject consumption = new APIConsumptionInfoObject();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "microserviceTag":
+					consumption.setMicroserviceTag(readString(in));
+					break;
+				case "consumes":
+					consumption.setConsumes(readList(in, descriptionAdapter));
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return consumption;
+		}
+
+	}
+
+	private static class CollectedAPIInfoAdapter extends TypeAdapter<CollectedAPIInfoObject> {
+
+		private TypeAdapter<APIInfoObject> apiAdapter;
+		private TypeAdapter<ConsumeDescription> descriptionAdapter;
+
+		private CollectedAPIInfoAdapter(TypeAdapter<APIInfoObject> apiAdapter,
+				TypeAdapter<ConsumeDescription> descriptionAdapter) {
+			this.apiAdapter = apiAdapter;
+			this.descriptionAdapter = descriptionAdapter;
+		}
+
+		@Override
+		public void write(JsonWriter out, CollectedAPIInfoObject value) throws IOException {
+			out.beginObject();
+			out.name("serviceName").value(value.getServiceName());
+			out.name("serviceTag").value(value.getServiceTag());
+			out.name("provide");
+			apiAdapter.write(out, value.getProvide());
+			out.name("consume");
+			writeList(out, value.getConsume(), descriptionAdapter);
+			out.endObject();
+		}
+
+		@Override
+		public CollectedAPIInfoObject read(JsonReader in) throws IOException {
+			CollectedAPIInfoObject collection = new CollectedAPIInfoObject(null);
+			collection.setServiceName(null);
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "serviceName":
+					collection.setServiceName(readString(in));
+					break;
+				case "serviceTag":
+					collection.setServiceTag(readString(in));
+					break;
+				case "provide":
+					collection.setProvide(apiAdapter.read(in));
+					break;
+				case "consume":
+					collection.setConsume(readList(in, descriptionAdapter));
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return collection;
+		}
+
+	}
+
+	private static class APILinkAdapter extends TypeAdapter<APILink> {
+
+		@Override
+		public void write(JsonWriter out, APILink value) throws IOException {
+			out.beginObject();
+			out.name("consumerTag").value(value.getConsumerTag());
+			out.name("consumerPackage").value(value.getConsumerPackage());
+			out.name("serviceName").value(value.getServiceName());
+			out.name("path").value(value.getPath());
+			out.name("method").value(value.getMethod());
+			out.name("providerTag").value(value.getProviderTag());
+			out.name("providerPackage").value(value.getProviderPackage());
+			out.name("providerPath").value(value.getProviderPath());
+			out.endObject();
+		}
+
+		@Override
+		public APILink read(JsonReader in) throws IOException {
+			APILink link = new APILink();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "consumerTag":
+					link.setConsumerTag(readString(in));
+					break;
+				case "consumerPackage":
+					link.setConsumerPackage(readString(in));
+					break;
+				case "serviceName":
+					link.setServiceName(readString(in));
+					break;
+				case "path":
+					link.setPath(readString(in));
+					break;
+				case "method":
+					link.setMethod(readString(in));
+					break;
+				case "providerTag":
+					link.setProviderTag(readString(in));
+					break;
+				case "providerPackage":
+					link.setProviderPackage(readString(in));
+					break;
+				case "providerPath":
+					link.setProviderPath(readString(in));
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return link;
+		}
+
+	}
+
+	private static class APILinkInfoAdapter extends TypeAdapter<APILinkInfoObject> {
+
+		private TypeAdapter<APILink> linkAdapter;
+		private TypeAdapter<APIConsumptionInfoObject> consumptionAdapter;
+
+		private APILinkInfoAdapter(TypeAdapter<APILink> linkAdapter,
+				TypeAdapter<APIConsumptionInfoObject> consumptionAdapter) {
+			this.linkAdapter = linkAdapter;
+			this.consumptionAdapter = consumptionAdapter;
+		}
+
+		@Override
+		public void write(JsonWriter out, APILinkInfoObject value) throws IOException {
+			out.beginObject();
+			out.name("serviceName").value(value.getServiceName());
+			out.name("serviceTag").value(value.getServiceTag());
+			out.name("resolved");
+			writeList(out, value.getResolved(), linkAdapter);
+			out.name("unresolved");
+			writeList(out, value.getUnresolved(), consumptionAdapter);
+			out.endObject();
+		}
+
+		@Override
+		public APILinkInfoObject read(JsonReader in) throws IOException {
+			APILinkInfoObject links = new APILinkInfoObject(null, null);
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "serviceName":
+					links.setServiceName(readString(in));
+					break;
+				case "serviceTag":
+					links.setServiceTag(readString(in));
+					break;
+				case "resolved":
+					links.setResolved(readList(in, linkAdapter));
+					break;
+				case "unresolved":
+					links.setUnresolved(readList(in, consumptionAdapter));
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return links;
+		}
+
+	}
+
+	private static class PairAdapter<L, R> extends TypeAdapter<Pair<L, R>> {
+
+		private TypeAdapter<L> leftAdapter;
+		private TypeAdapter<R> rightAdapter;
+
+		private PairAdapter(TypeAdapter<L> leftAdapter, TypeAdapter<R> rightAdapter) {
+			this.leftAdapter = leftAdapter;
+			this.rightAdapter = rightAdapter;
+		}
+
+		@Override
+		public void write(JsonWriter out, Pair<L, R> value) throws IOException {
+			out.beginObject();
+			out.name("left");
+			leftAdapter.write(out, value.getLeft());
+			out.name("right");
+			rightAdapter.write(out, value.getRight());
+			out.endObject();
+		}
+
+		@Override
+		public Pair<L, R> read(JsonReader in) throws IOException {
+			L left = null;
+			R right = null;
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case "left":
+					left = leftAdapter.read(in);
+					break;
+				case "right":
+					right = rightAdapter.read(in);
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return new Pair<>(left, right);
+		}
+
+	}
+
+	private static String readString(JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		return StringPool.intern(in.nextString());
+	}
+
+	private static void writeStrings(JsonWriter out, Collection<String> values) throws IOException {
+		if (values == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginArray();
+		for (String value : values) {
+			out.value(value);
+		}
+		out.endArray();
+	}
+
+	/**
+	 * Reads an array of strings into the given collection.
+	 *
+	 * @return the collection or null, if the value is null.
+	 */
+	private static <C extends Collection<String>> C readStrings(JsonReader in, C values) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		in.beginArray();
+		while (in.hasNext()) {
+			values.add(readString(in));
+		}
+		in.endArray();
+		return values;
+	}
+
+	private static <E> void writeList(JsonWriter out, List<E> values, TypeAdapter<E> adapter) throws IOException {
+		if (values == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginArray();
+		for (E value : values) {
+			adapter.write(out, value);
+		}
+		out.endArray();
+	}
+
+	private static <E> List<E> readList(JsonReader in, TypeAdapter<E> adapter) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		List<E> values = new ArrayList<>();
+		in.beginArray();
+		while (in.hasNext()) {
+			values.add(adapter.read(in));
+		}
+		in.endArray();
+		return values;
+	}
+
+}
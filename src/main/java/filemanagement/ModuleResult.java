@@ -0,0 +1,39 @@
+package filemanagement;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import collectors.models.InfoObject;
+
+/**
+ * Information collected for one module, held by the type of the information.
+ *
+ * @author gmittmann
+ *
+ */
+public class ModuleResult {
+
+	private Map<Class<? extends InfoObject>, InfoObject> objects = new ConcurrentHashMap<>();
+
+	/**
+	 * Adds the given information. Information of the same type is replaced.
+	 *
+	 * @param infoObject
+	 *            information to be added.
+	 */
+	public void put(InfoObject infoObject) {
+		if (infoObject != null) {
+			objects.put(infoObject.getClass(), infoObject);
+		}
+	}
+
+	/**
+	 * @param clazz
+	 *            type of the information.
+	 * @return the information of the given type or null, if there is none.
+	 */
+	public <T extends InfoObject> T get(Class<T> clazz) {
+		return clazz.cast(objects.get(clazz));
+	}
+
+}
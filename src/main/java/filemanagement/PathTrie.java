@@ -0,0 +1,169 @@
+package filemanagement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import util.HttpMethods;
+import util.PathTemplate;
+
+/**
+ * Trie over the segments of the offered paths of a service. A variable of an
+ * offered path, like {LONG}, matches any segment. A lookup walks the segments
+ * of the consumed path once and prefers literal segments over variables. Only
+ * if the rest of the path can't be matched below a literal segment, the
+ * variable is tried.
+ *
+ * @author gmittmann
+ *
+ */
+class PathTrie {
+
+	private Node root = new Node();
+
+	/**
+	 * Adds the given endpoint.
+	 *
+	 * @param path     offered path.
+	 * @param endpoint endpoint offering the path.
+	 */
+	void add(PathTemplate path, Endpoint endpoint) {
+		Node node = root;
+		for (int i = 0; i < path.size(); i++) {
+			node = path.isVariable(i) ? node.getOrAddVariable() : node.getOrAddChild(path.getSegment(i));
+		}
+		node.addEndpoint(endpoint);
+	}
+
+	/**
+	 * @param path   consumed path.
+	 * @param method consumed method.
+	 * @return the endpoints serving the path with the method or an empty list, if
+	 *         there are none.
+	 */
+	List<Endpoint> find(PathTemplate path, HttpMethods method) {
+		return find(root, path, 0, method);
+	}
+
+	private List<Endpoint> find(Node node, PathTemplate path, int index, HttpMethods method) {
+		if (index == path.size()) {
+			return node.getEndpoints(method);
+		}
+		if (!path.isVariable(index) && node.children != null) {
+			Node child = node.children.get(path.getSegment(index));
+			if (child != null) {
+				List<Endpoint> endpoints = find(child, path, index + 1, method);
+				if (!endpoints.isEmpty()) {
+					return endpoints;
+				}
+			}
+		}
+		if (node.variable != null) {
+			return find(node.variable, path, index + 1, method);
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Offered path of a service.
+	 */
+	static class Endpoint {
+
+		private String serviceTag;
+		private String packageName;
+		private String path;
+		private Set<HttpMethods> methods;
+
+		Endpoint(String serviceTag, String packageName, String path, Set<HttpMethods> methods) {
+			this.serviceTag = serviceTag;
+			this.packageName = packageName;
+			this.path = path;
+			this.methods = methods;
+		}
+
+		String getServiceTag() {
+			return serviceTag;
+		}
+
+		String getPackageName() {
+			return packageName;
+		}
+
+		String getPath() {
+			return path;
+		}
+
+		/**
+		 * @param method consumed method, ANY matches all offered methods.
+		 * @return true, if the endpoint offers the given method.
+		 */
+		boolean offers(HttpMethods method) {
+			if (methods == null || methods.isEmpty()) {
+				return false;
+			}
+			if (method == HttpMethods.ANY) {
+				return true;
+			}
+			for (HttpMethods offered : methods) {
+				if (offered != null && offered.includes(method)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+	/**
+	 * Node of the trie. Most nodes have at most one child and only the last node of
+	 * a path has endpoints, so the map and the list are only created when needed.
+	 */
+	private static class Node {
+
+		private Map<String, Node> children;
+		private Node variable;
+		private List<Endpoint> endpoints;
+
+		private Node getOrAddChild(String segment) {
+			if (children == null) {
+				children = new HashMap<>();
+			}
+			return children.computeIfAbsent(segment, key -> new Node());
+		}
+
+		private Node getOrAddVariable() {
+			if (variable == null) {
+				variable = new Node();
+			}
+			return variable;
+		}
+
+		private void addEndpoint(Endpoint endpoint) {
+			if (endpoints == null) {
+				endpoints = new ArrayList<>(1);
+			}
+			endpoints.add(endpoint);
+		}
+
+		private List<Endpoint> getEndpoints(HttpMethods method) {
+			if (endpoints == null) {
+				return Collections.emptyList();
+			}
+			List<Endpoint> found = null;
+			for (Endpoint endpoint : endpoints) {
+				if (endpoint.offers(method)) {
+					if (found == null) {
+						found = new ArrayList<>(1);
+					}
+					found.add(endpoint);
+				}
+			}
+			return found == null ? Collections.emptyList() : found;
+		}
+
+	}
+
+}
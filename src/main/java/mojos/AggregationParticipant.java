@@ -0,0 +1,51 @@
+package mojos;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.monitor.logging.DefaultLog;
+import org.codehaus.plexus.logging.Logger;
+
+/**
+ * Aggregates the files of all modules once at the end of the session, after
+ * all modules were built. Only active, if the plugin is declared with
+ * extensions set to true. Otherwise the files are aggregated by the last
+ * module executing the mojo.
+ * 
+ * @author gmittmann
+ *
+ */
+@Named("documentation-aggregation")
+@Singleton
+public class AggregationParticipant extends AbstractMavenLifecycleParticipant {
+
+	private Logger logger;
+
+	@Inject
+	public AggregationParticipant(Logger logger) {
+		this.logger = logger;
+	}
+
+	@Override
+	public void afterProjectsRead(MavenSession session) {
+		DocumentationSession.of(session).setAggregatedAtSessionEnd();
+	}
+
+	@Override
+	public void afterSessionEnd(MavenSession session) {
+		DocumentationSession documentation = DocumentationSession.remove(session);
+		if (DocumentationSession.isAggregationClaimed(session)) {
+			/* by the mojo loaded into another class realm */
+			return;
+		}
+		if (documentation == null || !documentation.hasFinishedProjects()) {
+			logger.warn("No module information was collected in this build, so no files are aggregated.");
+			return;
+		}
+		DocumentationAggregation.aggregate(session, documentation, new DefaultLog(logger));
+	}
+
+}
@@ -0,0 +1,175 @@
+package mojos;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+import filemanagement.AggregateLock;
+import filemanagement.AggregationPipeline;
+import filemanagement.FileAggregator;
+
+/**
+ * Aggregates the files of all modules of a session into the document location.
+ * 
+ * @author gmittmann
+ *
+ */
+final class DocumentationAggregation {
+
+	private MavenSession session;
+	private Log log;
+	private File documentLocation;
+	private AggregationPipeline pipeline;
+	private boolean streamAggregate;
+	private boolean compactJson;
+
+	private DocumentationAggregation(MavenSession session, DocumentationSession documentation, Log log) {
+		this.session = session;
+		this.documentLocation = documentation.getDocumentLocation();
+		this.pipeline = documentation.getPipeline();
+		this.streamAggregate = documentation.isStreamAggregate();
+		this.compactJson = documentation.isCompactJson();
+		this.log = log;
+	}
+
+	/**
+	 * Aggregates the files of all modules of the given session, unless they were
+	 * already aggregated in its build.
+	 * 
+	 * @param session
+	 *            current session.
+	 * @param documentation
+	 *            state of the session, holding the pipeline and the document
+	 *            location given to the execution root. If the location is null,
+	 *            it is read from the pom of the execution root.
+	 * @param log
+	 *            log
+	 */
+	static void aggregate(MavenSession session, DocumentationSession documentation, Log log) {
+		if (!DocumentationSession.claimAggregation(session)) {
+			log.info("Files were already aggregated in this build.");
+			return;
+		}
+		new DocumentationAggregation(session, documentation, log).aggregate();
+	}
+
+	private void aggregate() {
+		log.info("  -- AGGREGATING FILES --");
+		setDocumentLocation();
+		if (pipeline == null) {
+			pipeline = new AggregationPipeline(session, log);
+		}
+		try (AggregateLock lock = AggregateLock.acquire(documentLocation, log)) {
+			if (streamAggregate) {
+				FileAggregator aggregator = new FileAggregator(session, log);
+				aggregator.setCompactJson(compactJson);
+				aggregator.streamMavenFilesTo(documentLocation, DocumentationMojo.SUFFIX);
+				aggregator.streamAPIFilesTo(documentLocation, DocumentationMojo.SUFFIX);
+			} else {
+				pipeline.aggregateTo(documentLocation, DocumentationMojo.SUFFIX, compactJson);
+			}
+		}
+		log.info("  -- FINISHED --");
+	}
+
+	/**
+	 * Sets the location to which the aggregated file will be written to. If the
+	 * location was not given to the execution root, the parameter is searched in
+	 * the pom of the execution project. If it isn't defined there, the default
+	 * value is applied.
+	 */
+	private void setDocumentLocation() {
+		MavenProject root = session.getTopLevelProject();
+		String subfolder = (root.getGroupId() + "_" + root.getArtifactId() + "_" + root.getVersion()).replaceAll(".,:", "_");
+		
+		
+		if (documentLocation == null) {
+			setDocumentLocationByExecutionRoot();
+		}
+		/*
+		 * If the documentLocation is still null, it was not set in the execution pom.
+		 * Set default value
+		 */
+		if (documentLocation == null) {
+			setDocumentLocationToDefault();
+		}
+		
+		documentLocation = Paths.get(documentLocation.getAbsolutePath(), subfolder).toFile();
+		
+	}
+
+	/**
+	 * Sets the documentLocation to the value defined in th eexecution root project.
+	 * If there is no value set there or the value is not a valid path, the document
+	 * location is set to null.
+	 */
+	private void setDocumentLocationByExecutionRoot() {
+		/* check value in aggregator pom and overwrite, if there is a value */
+		MavenProject root = session.getTopLevelProject();
+		for (MavenProject prj : session.getAllProjects()) {
+			if (prj.isExecutionRoot()) {
+				root = prj;
+			}
+		}
+		String pathInAggregatorPom = extractDocumentLocationFromConfigurationDOM(
+				root.getPlugin(DocumentationMojo.PLUGIN_KEY).getConfiguration());
+
+		if (pathInAggregatorPom != null && !pathInAggregatorPom.isEmpty()) {
+			try {
+				documentLocation = Paths.get(pathInAggregatorPom).toFile();
+				log.info("Documentation location set to: " + documentLocation.getAbsolutePath());
+			} catch (InvalidPathException e) {
+				log.error("documentLocation defined in the top level project can't be converted to a path.");
+				documentLocation = null;
+			}
+		} else {
+			documentLocation = null;
+		}
+	}
+
+	/**
+	 * Sets the documentLocation to the default value of
+	 * executionRootDirectory/documentation and tries to create the needed
+	 * directories for this. If this fails, the document location is set to the
+	 * execution root directory.
+	 */
+	private void setDocumentLocationToDefault() {
+		documentLocation = Paths.get(session.getExecutionRootDirectory(), "documentation").toFile();
+		try {
+			Files.createDirectories(documentLocation.toPath());
+		} catch (IOException e) {
+			log.error(e.getMessage());
+			log.error("documentation folder could not be created. Document location set to root directory.");
+			documentLocation = Paths.get(session.getExecutionRootDirectory()).toFile();
+		}
+		if (!documentLocation.exists()) {
+			documentLocation = Paths.get(session.getExecutionRootDirectory()).toFile();
+		}
+		log.info("documentLocation in execution pom undefined");
+		log.info("Documentation location was set to default: " + documentLocation.getAbsolutePath());
+	}
+
+	/**
+	 * Tries to extract the content of the documentLocation tag.
+	 * 
+	 * @return String with value defined in documentLocationTag. Null if not
+	 *         defined.
+	 */
+	private String extractDocumentLocationFromConfigurationDOM(Object domObject) {
+		if (domObject instanceof Xpp3Dom) {
+			Xpp3Dom docLocationChild = ((Xpp3Dom) domObject).getChild("documentLocation");
+			if (docLocationChild != null) {
+				return docLocationChild.getValue();
+			}
+		}
+		return null;
+	}
+
+}
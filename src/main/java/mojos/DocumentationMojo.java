@@ -1,199 +1,319 @@
-package mojos;
-
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.InvalidPathException;
-import java.nio.file.Paths;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-
-import org.apache.maven.execution.MavenSession;
-import org.apache.maven.plugin.AbstractMojo;
-import org.apache.maven.plugin.MojoExecutionException;
-import org.apache.maven.plugin.MojoFailureException;
-import org.apache.maven.plugins.annotations.Mojo;
-import org.apache.maven.plugins.annotations.Parameter;
-import org.apache.maven.project.MavenProject;
-import org.codehaus.plexus.util.xml.Xpp3Dom;
-
-import collectors.ModuleInfoCollector;
-import collectors.models.AnnotationType;
-import collectors.APIInfoCollector;
-import collectors.ComponentInfoCollector;
-import filemanagement.FileAggregator;
-
-/**
- * Mojo for creating the documentation of the project in which it is running.
- * Currently only documentation about Modules.
- * 
- * @author gmittmann
- *
- */
-@Mojo(name = "generateDoc")
-public class DocumentationMojo extends AbstractMojo {
-
-	@Parameter(property = "documentLocation")
-	private File documentLocation;
-
-	@Parameter(property = "project", defaultValue = "${project}", readonly = true, required = true)
-	private MavenProject project;
-
-	@Parameter(property = "session", defaultValue = "${session}", required = true)
-	private MavenSession session;
-
-	@Parameter(property = "packageWhiteList")
-	private Map<String, Integer> packageWhiteList;
-
-	@Parameter(property = "packageBlackList")
-	private Set<String> packageBlackList;
-
-	@Parameter(property = "system", defaultValue = "default_system")
-	private String system;
-
-	@Parameter(property = "subsystem", defaultValue = "default_subsystem")
-	private String subsystem;
-	
-	@Parameter(property = "annotation", defaultValue = "SPRING")
-	private AnnotationType annotationType;
-	
-	@Parameter(property = "apiConfigFilePath")
-	private File apiConfigFilePath;
-	
-	@Parameter(property = "contextPath")
-	private String contextPath;
-
-	public static final String MAVEN_AGGREGATE_NAME = "mavenInfo";
-	public static final String API_AGGREGATE_NAME = "apiInfo";
-	public static final String SUFFIX = "ALL";
-
-	public void execute() throws MojoExecutionException, MojoFailureException {
-
-		/* Collect Info */
-		if (!project.getPackaging().equals("pom")) {
-			ModuleInfoCollector mavenInfoCollector = new ModuleInfoCollector(project, session, getLog());
-			mavenInfoCollector.collectInfo();
-
-			ComponentInfoCollector packageInfoCollector = new ComponentInfoCollector(packageWhiteList, packageBlackList,
-					project, getLog());
-			packageInfoCollector.collectInfo();
-			
-			APIInfoCollector apiInfoCollector = new APIInfoCollector(project, getLog(), annotationType, apiConfigFilePath, contextPath);
-			apiInfoCollector.collectInfo();
-		} else {
-			getLog().info("Skipping data collection: pom");
-		}
-
-		
-
-		/* If this is the last project/module start file aggregation */
-		List<MavenProject> sortedProjects = session.getProjectDependencyGraph().getSortedProjects();
-		if (sortedProjects.get(sortedProjects.size() - 1).equals(project)) {
-			getLog().info("  -- AGGREGATING FILES --");
-			setDocumentLocation();
-			FileAggregator aggregator = new FileAggregator(session, getLog());
-			aggregator.aggregateMavenFilesTo(documentLocation, SUFFIX);
-			aggregator.aggregateAPIFilesTo(documentLocation, SUFFIX);	
-			getLog().info("  -- FINISHED --");
-		}
-
-	}
-
-
-	/**
-	 * Sets the location to which the aggregated file will be written to. If the
-	 * current project is not the executionRoot, the parameter is searched in the
-	 * pom of the execution project. If the current project is the executionRoot,
-	 * the defined value is used, if available, else the default value is applied.
-	 */
-	private void setDocumentLocation() {
-		MavenProject root = session.getTopLevelProject();
-		String subfolder = (root.getGroupId() + "_" + root.getArtifactId() + "_" + root.getVersion()).replaceAll(".,:", "_");
-		
-		
-		if (!project.isExecutionRoot()) {
-			setDocumentLocationByExecutionRoot();
-		}
-		/*
-		 * If the documentLocation is still null, it was not set in the execution pom.
-		 * Set default value
-		 */
-		if (documentLocation == null) {
-			setDocumentLocationToDefault();
-		}
-		
-		documentLocation = Paths.get(documentLocation.getAbsolutePath(), subfolder).toFile();
-		
-	}
-
-	/**
-	 * Sets the documentLocation to the value defined in th eexecution root project.
-	 * If there is no value set there or the value is not a valid path, the document
-	 * location is set to null.
-	 */
-	private void setDocumentLocationByExecutionRoot() {
-		/* check value in aggregator pom and overwrite, if there is a value */
-		MavenProject root = session.getTopLevelProject();
-		for (MavenProject prj : session.getAllProjects()) {
-			if (prj.isExecutionRoot()) {
-				root = prj;
-			}
-		}
-		String pathInAggregatorPom = extractDocumentLocationFromConfigurationDOM(
-				root.getPlugin("codebased-documentation:cd-maven-plugin").getConfiguration());
-
-		if (pathInAggregatorPom != null && !pathInAggregatorPom.isEmpty()) {
-			try {
-				documentLocation = Paths.get(pathInAggregatorPom).toFile();
-				getLog().info("Documentation location set to: " + documentLocation.getAbsolutePath());
-			} catch (InvalidPathException e) {
-				getLog().error("documentLocation defined in the top level project can't be converted to a path.");
-				documentLocation = null;
-			}
-		} else {
-			documentLocation = null;
-		}
-	}
-
-	/**
-	 * Sets the documentLocation to the default value of
-	 * executionRootDirectory/documentation and tries to create the needed
-	 * directories for this. If this fails, the document location is set to the
-	 * execution root directory.
-	 */
-	private void setDocumentLocationToDefault() {
-		documentLocation = Paths.get(session.getExecutionRootDirectory(), "documentation").toFile();
-		try {
-			Files.createDirectories(documentLocation.toPath());
-		} catch (IOException e) {
-			getLog().error(e.getMessage());
-			getLog().error("documentation folder could not be created. Document location set to root directory.");
-			documentLocation = Paths.get(session.getExecutionRootDirectory()).toFile();
-		}
-		if (!documentLocation.exists()) {
-			documentLocation = Paths.get(session.getExecutionRootDirectory()).toFile();
-		}
-		if (project.isExecutionRoot()) {
-			getLog().info("documentLocation in execution pom undefined");
-		}
-		getLog().info("Documentation location was set to default: " + documentLocation.getAbsolutePath());
-	}
-
-	/**
-	 * Tries to extract the content of the documentLocation tag.
-	 * 
-	 * @return String with value defined in documentLocationTag. Null if not
-	 *         defined.
-	 */
-	private String extractDocumentLocationFromConfigurationDOM(Object domObject) {
-		if (domObject instanceof Xpp3Dom) {
-			Xpp3Dom docLocationChild = ((Xpp3Dom) domObject).getChild("documentLocation");
-			if (docLocationChild != null) {
-				return docLocationChild.getValue();
-			}
-		}
-		return null;
-	}
-
-}
+package mojos;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import classfiles.ClassFileAnalyzer;
+import collectors.ModuleInfoCollector;
+import collectors.models.AnnotationType;
+import collectors.models.ReaderType;
+import collectors.APIInfoCollector;
+import collectors.ComponentInfoCollector;
+import collectors.InformationCollector;
+import filemanagement.ConfigFileIndex;
+import filemanagement.FileFormat;
+import filemanagement.ModuleResult;
+import processor.DocumentationProcessor;
+import processor.DocumentedClasses;
+import sources.SourceAnalyzer;
+import sources.SourceFactsCache;
+import sources.SourceRoots;
+
+/**
+ * Mojo for creating the documentation of the project in which it is running.
+ * Currently only documentation about Modules.
+ * 
+ * @author gmittmann
+ *
+ */
+@Mojo(name = "generateDoc", threadSafe = true)
+public class DocumentationMojo extends AbstractMojo {
+
+	@Parameter(property = "documentLocation")
+	private File documentLocation;
+
+	@Parameter(property = "project", defaultValue = "${project}", readonly = true, required = true)
+	private MavenProject project;
+
+	@Parameter(property = "session", defaultValue = "${session}", required = true)
+	private MavenSession session;
+
+	@Parameter(property = "packageWhiteList")
+	private Map<String, Integer> packageWhiteList;
+
+	/**
+	 * Packages, including their sub-packages, that are not documented as
+	 * components. The SOURCE reader doesn't enter their directories, so their API
+	 * is not documented either.
+	 */
+	@Parameter(property = "packageBlackList")
+	private Set<String> packageBlackList;
+
+	@Parameter(property = "system", defaultValue = "default_system")
+	private String system;
+
+	@Parameter(property = "subsystem", defaultValue = "default_subsystem")
+	private String subsystem;
+	
+	@Parameter(property = "annotation", defaultValue = "SPRING")
+	private AnnotationType annotationType;
+	
+	@Parameter(property = "apiConfigFilePath")
+	private File apiConfigFilePath;
+	
+	@Parameter(property = "contextPath")
+	private String contextPath;
+
+	/**
+	 * Whether the context path of a Spring module is read from its
+	 * application.properties or application.yml, if neither contextPath nor
+	 * apiConfigFilePath is given. The context path is prefixed to all paths of
+	 * the module.
+	 */
+	@Parameter(property = "discoverApplicationConfig", defaultValue = "false")
+	private boolean discoverApplicationConfig;
+
+	/**
+	 * Whether the information is read from the sources (SOURCE) or from the
+	 * compiled classes in the output directory (BYTECODE). Reading the compiled
+	 * classes requires the goal to run after the compile phase. Component
+	 * dependencies are then based on the classes actually used instead of the
+	 * imports. With PROCESSOR, the information was already written by the
+	 * DocumentationProcessor during compilation and is only aggregated. The goal
+	 * fails, if the processor did not see all compiled classes.
+	 */
+	@Parameter(property = "readerType", defaultValue = "SOURCE")
+	private ReaderType readerType;
+
+	@Parameter(property = "includeGeneratedSources", defaultValue = "false")
+	private boolean includeGeneratedSources;
+
+	@Parameter(property = "sourceIncludes")
+	private Set<String> sourceIncludes;
+
+	@Parameter(property = "sourceExcludes")
+	private Set<String> sourceExcludes;
+
+	/**
+	 * Number of threads used for parsing the sources, shared by all modules of the
+	 * build. 0 uses all available processors.
+	 */
+	@Parameter(property = "parserThreads", defaultValue = "0")
+	private int parserThreads;
+
+	@Parameter(property = "useSourceCache", defaultValue = "true")
+	private boolean useSourceCache;
+
+	/**
+	 * Whether the information of each module is written to files in its target
+	 * directory. The aggregation doesn't need them, as the information is handed
+	 * over in memory.
+	 */
+	@Parameter(property = "writeModuleFiles", defaultValue = "true")
+	private boolean writeModuleFiles;
+
+	/**
+	 * Whether the aggregated files are streamed from the files of the modules,
+	 * one module at a time, instead of being built in memory. Only the files of
+	 * the modules are streamed: the offered API merged across the modules and
+	 * the links between the APIs are still held in memory completely. The files
+	 * of the modules are always written and only read at the end of the build.
+	 */
+	@Parameter(property = "streamAggregate", defaultValue = "false")
+	private boolean streamAggregate;
+
+	/**
+	 * Format of the files written for each module (JSON or BINARY). The
+	 * aggregated files are always written as JSON.
+	 */
+	@Parameter(property = "moduleFileFormat", defaultValue = "JSON")
+	private FileFormat moduleFileFormat;
+
+	/** Whether the JSON files are written without indentation. */
+	@Parameter(property = "compactJson", defaultValue = "false")
+	private boolean compactJson;
+
+	@Parameter(defaultValue = "${plugin.version}", readonly = true)
+	private String pluginVersion;
+
+	public static final String MAVEN_AGGREGATE_NAME = "mavenInfo";
+	public static final String API_AGGREGATE_NAME = "apiInfo";
+	public static final String API_LINKS_AGGREGATE_NAME = "apiLinks";
+	public static final String SUFFIX = "ALL";
+	public static final String PLUGIN_KEY = "codebased-documentation:cd-maven-plugin";
+
+	public void execute() throws MojoExecutionException, MojoFailureException {
+
+		/* Collect Info */
+		ModuleResult result = streamAggregate ? null : new ModuleResult();
+		if (!project.getPackaging().equals("pom")) {
+			ModuleInfoCollector mavenInfoCollector = new ModuleInfoCollector(project, session, getLog());
+			mavenInfoCollector.collectInfo(result, getModuleFileFormat());
+
+			if (readerType == ReaderType.PROCESSOR) {
+				checkProcessorOutput();
+			} else {
+				collectComponentAndAPIInfo(result);
+			}
+		} else {
+			getLog().info("Skipping data collection: pom");
+		}
+
+		DocumentationSession documentation = DocumentationSession.of(session);
+		if (project.isExecutionRoot()) {
+			documentation.setDocumentLocation(documentLocation);
+			documentation.setStreamAggregate(streamAggregate);
+			documentation.setCompactJson(compactJson);
+		}
+		boolean allFinished = documentation.finish(session, project, PLUGIN_KEY, result, getLog());
+		if (documentation.isAggregatedAtSessionEnd()) {
+			getLog().info("Files are aggregated at the end of the build.");
+		} else if (allFinished) {
+			/* This is the last project/module to finish, start file aggregation */
+			DocumentationSession.remove(session);
+			DocumentationAggregation.aggregate(session, documentation, getLog());
+		}
+
+	}
+
+	/**
+	 * Collects the components and the API information of the module, either from
+	 * the sources or from the class files.
+	 * 
+	 * @param result
+	 *            result of the module, to which the information is published.
+	 */
+	private void collectComponentAndAPIInfo(ModuleResult result) {
+		ComponentInfoCollector packageInfoCollector;
+		APIInfoCollector apiInfoCollector;
+		ConfigFileIndex configFiles = new ConfigFileIndex(project.getBasedir().toPath(), getLog());
+		File apiConfigFile = getAPIConfigFile(configFiles);
+		if (readerType == ReaderType.BYTECODE) {
+			File classesDirectory = new File(project.getBuild().getOutputDirectory());
+
+			packageInfoCollector = new ComponentInfoCollector(packageWhiteList, packageBlackList,
+					Collections.singletonList(classesDirectory.toPath()), project, getLog());
+			apiInfoCollector = new APIInfoCollector(project, getLog(), annotationType, readerType, apiConfigFile,
+					contextPath, configFiles);
+
+			/* Read the class files once and let all collectors visit them */
+			new ClassFileAnalyzer(classesDirectory, getLog()).analyze(packageInfoCollector, apiInfoCollector);
+		} else {
+			SourceRoots sourceRoots = SourceRoots.resolve(project, includeGeneratedSources, sourceIncludes,
+					sourceExcludes, packageBlackList, getLog());
+
+			packageInfoCollector = new ComponentInfoCollector(packageWhiteList, packageBlackList,
+					sourceRoots.getRoots(), project, getLog());
+			apiInfoCollector = new APIInfoCollector(project, getLog(), annotationType, readerType, apiConfigFile,
+					contextPath, configFiles);
+
+			/*
+			 * Parse the changed sources once and let all collectors visit them in one
+			 * traversal
+			 */
+			SourceAnalyzer sourceAnalyzer = new SourceAnalyzer(sourceRoots, createSourceCache(apiConfigFile),
+					parserThreads, getLog());
+			sourceAnalyzer.analyze(packageInfoCollector, apiInfoCollector);
+		}
+
+		packageInfoCollector.collectInfo(result, getModuleFileFormat());
+		apiInfoCollector.collectInfo(result, getModuleFileFormat());
+	}
+
+	/**
+	 * @return the format of the files of the module or null, if no files are
+	 *         written.
+	 */
+	private FileFormat getModuleFileFormat() {
+		if (!writeModuleFiles && !streamAggregate) {
+			return null;
+		}
+		return moduleFileFormat == FileFormat.JSON && compactJson ? FileFormat.COMPACT_JSON : moduleFileFormat;
+	}
+
+	/**
+	 * Checks whether the DocumentationProcessor wrote the information of this
+	 * module during compilation and whether it covers all compiled classes. After
+	 * an incremental compilation the processor only saw the changed classes, so
+	 * the files are incomplete.
+	 * 
+	 * @throws MojoFailureException
+	 *             if the files don't match the compiled classes.
+	 */
+	private void checkProcessorOutput() throws MojoFailureException {
+		Path dir = InformationCollector.getBuildDirectory(project).resolve(InformationCollector.FOLDER_NAME);
+		for (String fileName : new String[] { ComponentInfoCollector.FILE_NAME, APIInfoCollector.FILE_NAME,
+				APIInfoCollector.FILE_NAME_CONSUME, DocumentedClasses.FILE_NAME }) {
+			if (!Files.exists(dir.resolve(fileName + ".json"))) {
+				getLog().warn(fileName + " was not written during compilation. Is the DocumentationProcessor "
+						+ "configured with the option " + DocumentationProcessor.MODULE
+						+ " and was the module compiled completely (e.g. after clean)?");
+				return;
+			}
+		}
+		List<String> differences = DocumentedClasses.compare(dir, Paths.get(project.getBuild().getOutputDirectory()),
+				getLog());
+		if (differences != null && !differences.isEmpty()) {
+			for (String difference : differences) {
+				getLog().warn(difference);
+			}
+			throw new MojoFailureException("The files written by the DocumentationProcessor don't match the "
+					+ "compiled classes (" + differences.size() + " differences), e.g. after an incremental "
+					+ "compilation. Compile the module completely, e.g. after clean.");
+		}
+	}
+
+	/**
+	 * Returns the configured apiConfigFilePath. If there is none and
+	 * discoverApplicationConfig is set, the application configuration of a Spring
+	 * module is used.
+	 * 
+	 * @param configFiles
+	 *            configuration files of the module.
+	 * @return the file to read the context path from, null if there is none.
+	 */
+	private File getAPIConfigFile(ConfigFileIndex configFiles) {
+		if (apiConfigFilePath != null || contextPath != null || !discoverApplicationConfig
+				|| annotationType != AnnotationType.SPRING) {
+			return apiConfigFilePath;
+		}
+		File configFile = configFiles.getApplicationConfigFile();
+		getLog().info("Application configuration: " + (configFile == null ? "none found" : configFile));
+		return configFile;
+	}
+
+	/**
+	 * Creates the cache for the facts extracted from the sources. The cache is
+	 * invalidated whenever the plugin version or the configuration of the readers
+	 * changes.
+	 * 
+	 * @param apiConfigFile
+	 *            file the context path is read from, may be null.
+	 * @return the cache or null, if caching is disabled.
+	 */
+	private SourceFactsCache createSourceCache(File apiConfigFile) {
+		if (!useSourceCache) {
+			return null;
+		}
+		Path cacheDir = InformationCollector.getBuildDirectory(project).resolve(InformationCollector.FOLDER_NAME)
+				.resolve(SourceFactsCache.FOLDER_NAME);
+		String key = SourceFactsCache.createKey(pluginVersion, annotationType, contextPath, apiConfigFile,
+				apiConfigFile == null ? null : apiConfigFile.lastModified());
+		return new SourceFactsCache(cacheDir, key, getLog());
+	}
+
+}
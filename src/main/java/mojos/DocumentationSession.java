@@ -0,0 +1,169 @@
+package mojos;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+
+import filemanagement.AggregationPipeline;
+import filemanagement.ModuleResult;
+
+/**
+ * State of the documentation of a session, shared by the executions of the
+ * mojo and the {@link AggregationParticipant}. Keeps track of the modules whose
+ * information has been collected and hands them to the
+ * {@link AggregationPipeline}. If the participant is not active, the files
+ * are aggregated by the module finishing last, as modules may be built in
+ * parallel. The state is kept per build, by the request of the session, as
+ * Maven hands each module its own clone of the session. The state holds no
+ * reference to a session, so it is dropped with the request, if it is not
+ * removed. The plugin may be loaded into more than one class realm, e.g. as
+ * extension and again for a goal called directly, each realm with a state of
+ * its own. So the aggregation is claimed in the data of the repository
+ * session, which is shared by all of them.
+ * 
+ * @author gmittmann
+ *
+ */
+final class DocumentationSession {
+
+	private static final Map<MavenExecutionRequest, DocumentationSession> SESSIONS = new WeakHashMap<>();
+	private static final String AGGREGATED_KEY = DocumentationMojo.PLUGIN_KEY + ":aggregated";
+
+	private Set<MavenProject> finished = new HashSet<>();
+	private boolean aggregatedAtSessionEnd;
+	private File documentLocation;
+	private boolean streamAggregate;
+	private boolean compactJson;
+	private AggregationPipeline pipeline;
+
+	private DocumentationSession() {
+
+	}
+
+	/**
+	 * @param session current session or a clone of it.
+	 * @return the state of the build of the given session, created if necessary.
+	 */
+	static synchronized DocumentationSession of(MavenSession session) {
+		return SESSIONS.computeIfAbsent(session.getRequest(), request -> new DocumentationSession());
+	}
+
+	/**
+	 * Removes the state of the build of the given session.
+	 * 
+	 * @param session current session or a clone of it.
+	 * @return the removed state or null, if there was none.
+	 */
+	static synchronized DocumentationSession remove(MavenSession session) {
+		return SESSIONS.remove(session.getRequest());
+	}
+
+	/**
+	 * Claims the aggregation of the files of the build of the given session.
+	 * 
+	 * @param session current session or a clone of it.
+	 * @return true, if the aggregation was not claimed before in this build.
+	 */
+	static boolean claimAggregation(MavenSession session) {
+		return session.getRepositorySession().getData().set(AGGREGATED_KEY, null, Boolean.TRUE);
+	}
+
+	/**
+	 * @param session current session or a clone of it.
+	 * @return true, if the aggregation was claimed in this build.
+	 */
+	static boolean isAggregationClaimed(MavenSession session) {
+		return session.getRepositorySession().getData().get(AGGREGATED_KEY) != null;
+	}
+
+	/**
+	 * Marks the given project as finished and submits it to the pipeline. The
+	 * projects of the session declaring the plugin are awaited. If the given
+	 * project doesn't declare it, the plugin was called directly and all projects
+	 * are awaited.
+	 * 
+	 * @param session   current session.
+	 * @param project   finished project.
+	 * @param pluginKey key of the plugin.
+	 * @param result    information published by the collectors of the project.
+	 *                  Null, if the information is only written to files.
+	 * @param log       log used by the pipeline.
+	 * @return true, if all awaited projects of the session are finished now.
+	 */
+	synchronized boolean finish(MavenSession session, MavenProject project, String pluginKey, ModuleResult result,
+			Log log) {
+		finished.add(project);
+		if (pipeline == null) {
+			pipeline = new AggregationPipeline(session, log);
+		}
+		if (result != null) {
+			pipeline.submit(project, result);
+		}
+
+		boolean declared = project.getPlugin(pluginKey) != null;
+		for (MavenProject prj : session.getProjects()) {
+			if (!finished.contains(prj) && (!declared || prj.getPlugin(pluginKey) != null)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return true, if the information of at least one project was collected.
+	 */
+	synchronized boolean hasFinishedProjects() {
+		return !finished.isEmpty();
+	}
+
+	/**
+	 * Marks the files to be aggregated by the {@link AggregationParticipant} at the
+	 * end of the session.
+	 */
+	synchronized void setAggregatedAtSessionEnd() {
+		aggregatedAtSessionEnd = true;
+	}
+
+	synchronized boolean isAggregatedAtSessionEnd() {
+		return aggregatedAtSessionEnd;
+	}
+
+	synchronized void setDocumentLocation(File documentLocation) {
+		this.documentLocation = documentLocation;
+	}
+
+	synchronized File getDocumentLocation() {
+		return documentLocation;
+	}
+
+	synchronized void setStreamAggregate(boolean streamAggregate) {
+		this.streamAggregate = streamAggregate;
+	}
+
+	synchronized boolean isStreamAggregate() {
+		return streamAggregate;
+	}
+
+	synchronized void setCompactJson(boolean compactJson) {
+		this.compactJson = compactJson;
+	}
+
+	synchronized boolean isCompactJson() {
+		return compactJson;
+	}
+
+	/**
+	 * @return the pipeline of the session or null, if no project was finished.
+	 */
+	synchronized AggregationPipeline getPipeline() {
+		return pipeline;
+	}
+
+}
@@ -0,0 +1,97 @@
+package processor;
+
+import java.util.Collections;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+
+/**
+ * Annotation processor creating the documentation of a module while it is
+ * compiled. Writes the same files as the generateDoc goal, so the goal only has
+ * to aggregate them (readerType PROCESSOR). The processor is only active, if
+ * the option documentation.module is given and the classes are not compiled to
+ * test-classes. It does not claim any annotations. As only the compiled types
+ * are seen, the module has to be compiled completely.
+ * 
+ * Options (given as -Aname=value):
+ * <ul>
+ * <li>documentation.module: groupId:artifactId:version of the module.</li>
+ * <li>documentation.moduleName: name of the module.</li>
+ * <li>documentation.basedir: base directory of the module. Defaults to the
+ * parent of the parent of the class output directory.</li>
+ * <li>documentation.annotation: SPRING (default) or JAXRS.</li>
+ * <li>documentation.contextPath, documentation.apiConfigFilePath,
+ * documentation.discoverApplicationConfig: as the parameters of the goal.</li>
+ * <li>documentation.packageWhiteList: package:depth, separated by commas.</li>
+ * <li>documentation.packageBlackList: packages separated by commas.</li>
+ * <li>documentation.verbose: print info messages.</li>
+ * </ul>
+ * 
+ * @author gmittmann
+ *
+ */
+@SupportedOptions({ DocumentationProcessor.MODULE, DocumentationProcessor.MODULE_NAME,
+		DocumentationProcessor.BASEDIR, DocumentationProcessor.ANNOTATION, DocumentationProcessor.CONTEXT_PATH,
+		DocumentationProcessor.API_CONFIG_FILE_PATH, DocumentationProcessor.DISCOVER_APPLICATION_CONFIG,
+		DocumentationProcessor.PACKAGE_WHITE_LIST, DocumentationProcessor.PACKAGE_BLACK_LIST,
+		DocumentationProcessor.VERBOSE })
+public class DocumentationProcessor extends AbstractProcessor {
+
+	public static final String MODULE = "documentation.module";
+	public static final String MODULE_NAME = "documentation.moduleName";
+	public static final String BASEDIR = "documentation.basedir";
+	public static final String ANNOTATION = "documentation.annotation";
+	public static final String CONTEXT_PATH = "documentation.contextPath";
+	public static final String API_CONFIG_FILE_PATH = "documentation.apiConfigFilePath";
+	public static final String DISCOVER_APPLICATION_CONFIG = "documentation.discoverApplicationConfig";
+	public static final String PACKAGE_WHITE_LIST = "documentation.packageWhiteList";
+	public static final String PACKAGE_BLACK_LIST = "documentation.packageBlackList";
+	public static final String VERBOSE = "documentation.verbose";
+
+	private static final String PREFIX = "[documentation] ";
+
+	private ModuleDocumenter documenter;
+
+	@Override
+	public synchronized void init(ProcessingEnvironment processingEnv) {
+		super.init(processingEnv);
+		if (processingEnv.getOptions().get(MODULE) == null) {
+			return;
+		}
+		try {
+			documenter = ModuleDocumenter.create(processingEnv);
+		} catch (LinkageError e) {
+			processingEnv.getMessager().printMessage(Kind.WARNING,
+					PREFIX + "The dependencies of the plugin are missing on the processor path. " + e);
+		}
+	}
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton("*");
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (documenter == null) {
+			return false;
+		}
+		documenter.visit(roundEnv);
+		if (roundEnv.processingOver()) {
+			documenter.write();
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,161 @@
+package processor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.logging.Log;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import classfiles.ClassFile;
+import classfiles.ClassFileParser;
+import filemanagement.FileWriter;
+
+/**
+ * Record of the classes documented by the {@link DocumentationProcessor}. After
+ * an incremental compilation javac only processes the changed classes, and
+ * after a compilation without changes it doesn't process any. So the record is
+ * compared to the class files in the output directory, to find out whether the
+ * files of the processor cover all classes of the module.
+ *
+ * @author gmittmann
+ *
+ */
+public final class DocumentedClasses {
+
+	public static final String FILE_NAME = "documentedClasses";
+
+	private static final String CLASS_FILE_SUFFIX = ".class";
+	private static final String PACKAGE_INFO = "package-info";
+	private static final String MODULE_INFO = "module-info";
+	private static final Gson GSON = new Gson();
+
+	private DocumentedClasses() {
+
+	}
+
+	/**
+	 * Writes the record of the documented classes.
+	 *
+	 * @param dirPath
+	 *            directory the files of the processor are written to.
+	 * @param classNames
+	 *            binary names of the documented classes.
+	 * @param log
+	 *            log
+	 */
+	static void write(String dirPath, Collection<String> classNames, Log log) {
+		FileWriter.writeTextIntoFile(dirPath, FILE_NAME, GSON.toJson(new TreeSet<>(classNames)), log);
+	}
+
+	/**
+	 * Compares the record of the documented classes with the class files in the
+	 * given directory. Local and anonymous classes are covered by the top level
+	 * class declaring them, as the processor only sees the types it compiles.
+	 *
+	 * @param documentationDir
+	 *            directory the files of the processor were written to.
+	 * @param classesDir
+	 *            directory of the class files.
+	 * @param log
+	 *            log
+	 * @return the differences, empty if the record matches the class files. Null,
+	 *         if there is no record.
+	 */
+	public static List<String> compare(Path documentationDir, Path classesDir, Log log) {
+		Set<String> documented = read(documentationDir.resolve(FILE_NAME + ".json"), log);
+		if (documented == null) {
+			return null;
+		}
+		List<String> differences = new ArrayList<>();
+		Set<String> compiled = new HashSet<>();
+		for (Path file : getClassFiles(classesDir, log)) {
+			String className = getClassName(classesDir.relativize(file));
+			if (className.endsWith(PACKAGE_INFO) || className.endsWith(MODULE_INFO)) {
+				continue;
+			}
+			compiled.add(className);
+			if (!documented.contains(className) && !documented.contains(getTopLevelClassName(file, log))) {
+				differences.add("not documented: " + className);
+			}
+		}
+		for (String className : documented) {
+			if (!compiled.contains(className)) {
+				differences.add("no longer compiled: " + className);
+			}
+		}
+		return differences;
+	}
+
+	private static Set<String> read(Path file, Log log) {
+		if (!Files.exists(file)) {
+			return null;
+		}
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			Set<String> classNames = GSON.fromJson(reader, new TypeToken<Set<String>>() {
+			}.getType());
+			return classNames == null ? new HashSet<>() : classNames;
+		} catch (IOException | JsonParseException e) {
+			log.error("Could not read " + file + ". " + e.getMessage());
+			return null;
+		}
+	}
+
+	private static List<Path> getClassFiles(Path classesDir, Log log) {
+		if (!Files.isDirectory(classesDir)) {
+			return new ArrayList<>();
+		}
+		try (Stream<Path> files = Files.walk(classesDir)) {
+			return files.filter(p -> p.toString().endsWith(CLASS_FILE_SUFFIX) && Files.isRegularFile(p)).sorted()
+					.collect(Collectors.toList());
+		} catch (IOException e) {
+			log.error("Error searching for class files. " + e.getMessage());
+			return new ArrayList<>();
+		}
+	}
+
+	/**
+	 * @param relativePath
+	 *            path of a class file relative to the output directory.
+	 * @return binary name of the class.
+	 */
+	private static String getClassName(Path relativePath) {
+		StringBuilder name = new StringBuilder();
+		for (Path segment : relativePath) {
+			if (name.length() > 0) {
+				name.append('.');
+			}
+			name.append(segment.toString());
+		}
+		return name.substring(0, name.length() - CLASS_FILE_SUFFIX.length());
+	}
+
+	/**
+	 * @return the top level class declaring the class of the given file or null,
+	 *         if the file could not be read.
+	 */
+	private static String getTopLevelClassName(Path file, Log log) {
+		try (InputStream in = Files.newInputStream(file)) {
+			ClassFile classFile = ClassFileParser.parse(in);
+			return classFile.getTopLevelClassName();
+		} catch (IOException e) {
+			log.error("could not read class file: " + file + ". " + e.getMessage());
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,171 @@
+package processor;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ImportTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.Trees;
+
+import classfiles.ClassAnnotation;
+import classfiles.ClassFile;
+import classfiles.ClassMethod;
+
+/**
+ * Converts the types seen by the compiler into the model of the class files,
+ * so they can be evaluated by the readers for class files. The imports of the
+ * compilation unit are used as referenced classes. They are only available, if
+ * the compiler supports the compiler tree API (javac).
+ * 
+ * @author gmittmann
+ *
+ */
+public class ElementConverter {
+
+	private static final String STATIC = "static ";
+
+	private Elements elements;
+	private Types types;
+	private Trees trees;
+
+	public ElementConverter(ProcessingEnvironment processingEnv) {
+		this.elements = processingEnv.getElementUtils();
+		this.types = processingEnv.getTypeUtils();
+		try {
+			this.trees = Trees.instance(processingEnv);
+		} catch (IllegalArgumentException e) {
+			this.trees = null;
+		}
+	}
+
+	/**
+	 * @return true, if the imports of the types can be read.
+	 */
+	public boolean canReadImports() {
+		return trees != null;
+	}
+
+	/**
+	 * Converts the given type. Nested types are not included.
+	 * 
+	 * @param type
+	 *            type to be converted.
+	 * @return the type as class file.
+	 */
+	public ClassFile toClassFile(TypeElement type) {
+		ClassFile classFile = new ClassFile(elements.getBinaryName(type).toString());
+		classFile.setTopLevelClassName(elements.getBinaryName(getTopLevelType(type)).toString());
+		classFile.getAnnotations().addAll(toAnnotations(type.getAnnotationMirrors()));
+		for (ExecutableElement executable : ElementFilter.methodsIn(type.getEnclosedElements())) {
+			ClassMethod method = new ClassMethod(executable.getSimpleName().toString());
+			method.getAnnotations().addAll(toAnnotations(executable.getAnnotationMirrors()));
+			for (VariableElement parameter : executable.getParameters()) {
+				method.getParameterTypes().add(types.erasure(parameter.asType()).toString());
+				method.getParameterNames().add(parameter.getSimpleName().toString());
+				method.getParameterAnnotations().add(toAnnotations(parameter.getAnnotationMirrors()));
+			}
+			classFile.getMethods().add(method);
+		}
+		classFile.getReferencedClasses().addAll(getImports(type));
+		return classFile;
+	}
+
+	/**
+	 * Returns the path, the class file of the given type will be written to.
+	 * 
+	 * @param classOutput
+	 *            directory of the class files.
+	 * @param type
+	 *            the type.
+	 * @return path of the class file.
+	 */
+	public Path getClassFilePath(Path classOutput, TypeElement type) {
+		PackageElement packageElement = elements.getPackageOf(type);
+		String packageName = packageElement.getQualifiedName().toString();
+		String binaryName = elements.getBinaryName(type).toString();
+		String simpleBinaryName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+		Path dir = packageName.isEmpty() ? classOutput : Paths.get(classOutput.toString(), packageName.split("\\."));
+		return dir.resolve(simpleBinaryName + ".class");
+	}
+
+	private TypeElement getTopLevelType(TypeElement type) {
+		TypeElement topLevelType = type;
+		while (topLevelType.getEnclosingElement() instanceof TypeElement) {
+			topLevelType = (TypeElement) topLevelType.getEnclosingElement();
+		}
+		return topLevelType;
+	}
+
+	/**
+	 * Returns the imports of the compilation unit declaring the given type, in
+	 * the format of the source model.
+	 */
+	private List<String> getImports(TypeElement type) {
+		List<String> imports = new ArrayList<>();
+		TreePath path = trees == null ? null : trees.getPath(type);
+		if (path == null) {
+			return imports;
+		}
+		CompilationUnitTree compilationUnit = path.getCompilationUnit();
+		for (ImportTree importTree : compilationUnit.getImports()) {
+			String name = importTree.getQualifiedIdentifier().toString();
+			imports.add(importTree.isStatic() ? STATIC + name : name);
+		}
+		return imports;
+	}
+
+	private List<ClassAnnotation> toAnnotations(List<? extends AnnotationMirror> mirrors) {
+		List<ClassAnnotation> annotations = new ArrayList<>();
+		for (AnnotationMirror mirror : mirrors) {
+			annotations.add(toAnnotation(mirror));
+		}
+		return annotations;
+	}
+
+	private ClassAnnotation toAnnotation(AnnotationMirror mirror) {
+		TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+		ClassAnnotation annotation = new ClassAnnotation(annotationType.getQualifiedName().toString());
+		for (Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues()
+				.entrySet()) {
+			annotation.addValue(entry.getKey().getSimpleName().toString(), toValue(entry.getValue().getValue()));
+		}
+		return annotation;
+	}
+
+	/**
+	 * Converts the value of an annotation like the class file parser does.
+	 */
+	private Object toValue(Object value) {
+		if (value instanceof VariableElement) { // enum constant
+			return ((VariableElement) value).getSimpleName().toString();
+		} else if (value instanceof TypeMirror) {
+			return types.erasure((TypeMirror) value).toString();
+		} else if (value instanceof AnnotationMirror) {
+			return toAnnotation((AnnotationMirror) value);
+		} else if (value instanceof List) {
+			List<Object> values = new ArrayList<>();
+			for (Object element : (List<?>) value) {
+				values.add(toValue(((AnnotationValue) element).getValue()));
+			}
+			return values;
+		}
+		return value;
+	}
+
+}
@@ -0,0 +1,123 @@
+package processor;
+
+import javax.annotation.processing.Messager;
+import javax.tools.Diagnostic.Kind;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Log writing to the messager of the compiler, so the collectors can be used
+ * during annotation processing. Info and debug messages are only printed in
+ * verbose mode. Errors of the collectors are reported as warnings, so they don't
+ * fail the compilation.
+ * 
+ * @author gmittmann
+ *
+ */
+public class MessagerLog implements Log {
+
+	private static final String PREFIX = "[documentation] ";
+
+	private Messager messager;
+	private boolean verbose;
+
+	public MessagerLog(Messager messager, boolean verbose) {
+		this.messager = messager;
+		this.verbose = verbose;
+	}
+
+	@Override
+	public boolean isDebugEnabled() {
+		return verbose;
+	}
+
+	@Override
+	public void debug(CharSequence content) {
+		print(isDebugEnabled(), Kind.NOTE, content, null);
+	}
+
+	@Override
+	public void debug(CharSequence content, Throwable error) {
+		print(isDebugEnabled(), Kind.NOTE, content, error);
+	}
+
+	@Override
+	public void debug(Throwable error) {
+		print(isDebugEnabled(), Kind.NOTE, null, error);
+	}
+
+	@Override
+	public boolean isInfoEnabled() {
+		return verbose;
+	}
+
+	@Override
+	public void info(CharSequence content) {
+		print(isInfoEnabled(), Kind.NOTE, content, null);
+	}
+
+	@Override
+	public void info(CharSequence content, Throwable error) {
+		print(isInfoEnabled(), Kind.NOTE, content, error);
+	}
+
+	@Override
+	public void info(Throwable error) {
+		print(isInfoEnabled(), Kind.NOTE, null, error);
+	}
+
+	@Override
+	public boolean isWarnEnabled() {
+		return true;
+	}
+
+	@Override
+	public void warn(CharSequence content) {
+		print(isWarnEnabled(), Kind.NOTE, content, null);
+	}
+
+	@Override
+	public void warn(CharSequence content, Throwable error) {
+		print(isWarnEnabled(), Kind.NOTE, content, error);
+	}
+
+	@Override
+	public void warn(Throwable error) {
+		print(isWarnEnabled(), Kind.NOTE, null, error);
+	}
+
+	@Override
+	public boolean isErrorEnabled() {
+		return true;
+	}
+
+	@Override
+	public void error(CharSequence content) {
+		print(isErrorEnabled(), Kind.WARNING, content, null);
+	}
+
+	@Override
+	public void error(CharSequence content, Throwable error) {
+		print(isErrorEnabled(), Kind.WARNING, content, error);
+	}
+
+	@Override
+	public void error(Throwable error) {
+		print(isErrorEnabled(), Kind.WARNING, null, error);
+	}
+
+	private void print(boolean enabled, Kind kind, CharSequence content, Throwable error) {
+		if (!enabled) {
+			return;
+		}
+		StringBuilder message = new StringBuilder(PREFIX);
+		if (content != null) {
+			message.append(content);
+		}
+		if (error != null) {
+			message.append(content == null ? "" : " ").append(error);
+		}
+		messager.printMessage(kind, message);
+	}
+
+}
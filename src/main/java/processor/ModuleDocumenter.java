@@ -0,0 +1,251 @@
+package processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.StandardLocation;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+
+import classfiles.ClassFile;
+import collectors.APIInfoCollector;
+import collectors.ComponentInfoCollector;
+import collectors.InformationCollector;
+import collectors.models.AnnotationType;
+import collectors.models.ReaderType;
+import filemanagement.ConfigFileIndex;
+import sources.SourceFacts;
+
+/**
+ * Documents the module compiled by the {@link DocumentationProcessor}. Kept
+ * apart from the processor, so the processor can be loaded even if the
+ * dependencies of the plugin are not on the processor path.
+ * 
+ * @author gmittmann
+ *
+ */
+class ModuleDocumenter {
+
+	private static final String LIST_SEPARATOR = ",";
+	private static final String DEPTH_SEPARATOR = ":";
+	private static final String TEST_CLASSES = "test-classes";
+
+	private Log log;
+	private ElementConverter converter;
+	private Path classOutput;
+	private Path documentationDir;
+	private ComponentInfoCollector componentInfoCollector;
+	private APIInfoCollector apiInfoCollector;
+	private List<SourceFacts> allFacts = new ArrayList<>();
+	private Set<String> documentedClasses = new HashSet<>();
+
+	private ModuleDocumenter() {
+	}
+
+	/**
+	 * Creates the documenter for the options of the given environment.
+	 * 
+	 * @param processingEnv
+	 *            environment of the processor.
+	 * @return the documenter or null, if the module is not to be documented.
+	 */
+	static ModuleDocumenter create(ProcessingEnvironment processingEnv) {
+		Map<String, String> options = processingEnv.getOptions();
+		ModuleDocumenter documenter = new ModuleDocumenter();
+		documenter.log = new MessagerLog(processingEnv.getMessager(),
+				Boolean.parseBoolean(options.get(DocumentationProcessor.VERBOSE)));
+		return documenter.init(processingEnv, options) ? documenter : null;
+	}
+
+	private boolean init(ProcessingEnvironment processingEnv, Map<String, String> options) {
+		String module = options.get(DocumentationProcessor.MODULE);
+		if (module == null || module.split(DEPTH_SEPARATOR).length != 3) {
+			log.error("No valid " + DocumentationProcessor.MODULE + " given (groupId:artifactId:version). "
+					+ "No documentation is created.");
+			return false;
+		}
+
+		classOutput = getClassOutput(processingEnv);
+		if (classOutput == null) {
+			log.error("Class output directory could not be determined. No documentation is created.");
+			return false;
+		}
+		if (classOutput.getFileName().toString().equals(TEST_CLASSES)) {
+			log.info("Test classes are not documented.");
+			return false;
+		}
+		File basedir = options.get(DocumentationProcessor.BASEDIR) != null
+				? new File(options.get(DocumentationProcessor.BASEDIR))
+				: classOutput.getParent().getParent().toFile();
+
+		MavenProject project = createProject(module, options.get(DocumentationProcessor.MODULE_NAME), basedir,
+				classOutput.getParent());
+		documentationDir = InformationCollector.getBuildDirectory(project).resolve(InformationCollector.FOLDER_NAME);
+		AnnotationType annotationType = getAnnotationType(options.get(DocumentationProcessor.ANNOTATION));
+		String contextPath = options.get(DocumentationProcessor.CONTEXT_PATH);
+		ConfigFileIndex configFiles = new ConfigFileIndex(basedir.toPath(), log);
+		File apiConfigFile = options.get(DocumentationProcessor.API_CONFIG_FILE_PATH) == null ? null
+				: new File(options.get(DocumentationProcessor.API_CONFIG_FILE_PATH));
+		if (apiConfigFile == null && contextPath == null && annotationType == AnnotationType.SPRING
+				&& Boolean.parseBoolean(options.get(DocumentationProcessor.DISCOVER_APPLICATION_CONFIG))) {
+			apiConfigFile = configFiles.getApplicationConfigFile();
+			log.info("Application configuration: " + (apiConfigFile == null ? "none found" : apiConfigFile));
+		}
+
+		converter = new ElementConverter(processingEnv);
+		if (!converter.canReadImports()) {
+			log.warn("Imports can't be read with this compiler. Component dependencies will be empty.");
+		}
+		componentInfoCollector = new ComponentInfoCollector(
+				getWhiteList(options.get(DocumentationProcessor.PACKAGE_WHITE_LIST)),
+				getBlackList(options.get(DocumentationProcessor.PACKAGE_BLACK_LIST)),
+				Collections.singletonList(classOutput), project, log);
+		apiInfoCollector = new APIInfoCollector(project, log, annotationType, ReaderType.PROCESSOR, apiConfigFile,
+				contextPath, configFiles);
+		return true;
+	}
+
+	/**
+	 * @param option
+	 *            value of the annotation option, may be null.
+	 * @return the annotation type of the option or SPRING, if the option is not
+	 *         given or invalid.
+	 */
+	private AnnotationType getAnnotationType(String option) {
+		if (option == null) {
+			return AnnotationType.SPRING;
+		}
+		for (AnnotationType type : AnnotationType.values()) {
+			if (type.name().equalsIgnoreCase(option.trim())) {
+				return type;
+			}
+		}
+		log.error("Invalid " + DocumentationProcessor.ANNOTATION + " \"" + option + "\" (expected one of "
+				+ Arrays.toString(AnnotationType.values()) + "). " + AnnotationType.SPRING + " is used.");
+		return AnnotationType.SPRING;
+	}
+
+	/**
+	 * Records the facts of all types of the given round.
+	 * 
+	 * @param roundEnv
+	 *            the current round.
+	 */
+	void visit(RoundEnvironment roundEnv) {
+		for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+			visitType(type);
+		}
+	}
+
+	/**
+	 * Hands the facts of all types to the collectors and writes their
+	 * information, together with the record of the documented classes.
+	 */
+	void write() {
+		for (SourceFacts facts : allFacts) {
+			componentInfoCollector.visitFacts(facts);
+			apiInfoCollector.visitFacts(facts);
+		}
+		componentInfoCollector.collectInfo();
+		apiInfoCollector.collectInfo();
+		DocumentedClasses.write(documentationDir.toString(), documentedClasses, log);
+	}
+
+	/**
+	 * Records the facts of the given type and its nested types, like the facts of
+	 * their class files.
+	 */
+	private void visitType(TypeElement type) {
+		ClassFile classFile = converter.toClassFile(type);
+		SourceFacts facts = new SourceFacts(SourceFacts.getPath(converter.getClassFilePath(classOutput, type)));
+		facts.setPackageName(classFile.getPackageName());
+		facts.setImports(new ArrayList<>(classFile.getReferencedClasses()));
+		componentInfoCollector.visitClassFile(classFile, facts);
+		apiInfoCollector.visitClassFile(classFile, facts);
+		allFacts.add(facts);
+		documentedClasses.add(classFile.getClassName());
+
+		for (Element enclosed : type.getEnclosedElements()) {
+			if (enclosed instanceof TypeElement) {
+				visitType((TypeElement) enclosed);
+			}
+		}
+	}
+
+	/**
+	 * Determines the directory the class files are written to.
+	 * 
+	 * @return the directory or null, if it couldn't be determined.
+	 */
+	private Path getClassOutput(ProcessingEnvironment processingEnv) {
+		try {
+			URI uri = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", "documentation")
+					.toUri();
+			return Paths.get(uri).getParent();
+		} catch (IOException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private MavenProject createProject(String module, String moduleName, File basedir, Path buildDirectory) {
+		String[] coordinates = module.split(DEPTH_SEPARATOR);
+		Model model = new Model();
+		model.setGroupId(coordinates[0]);
+		model.setArtifactId(coordinates[1]);
+		model.setVersion(coordinates[2]);
+		model.setName(moduleName);
+		Build build = new Build();
+		build.setDirectory(buildDirectory.toString());
+		model.setBuild(build);
+		MavenProject project = new MavenProject(model);
+		project.setFile(new File(basedir, "pom.xml"));
+		project.setExecutionProject(project);
+		return project;
+	}
+
+	private Map<String, Integer> getWhiteList(String option) {
+		Map<String, Integer> whiteList = new HashMap<>();
+		if (option == null) {
+			return whiteList;
+		}
+		for (String entry : option.split(LIST_SEPARATOR)) {
+			String[] packageAndDepth = entry.trim().split(DEPTH_SEPARATOR);
+			try {
+				whiteList.put(packageAndDepth[0], packageAndDepth.length > 1 ? Integer.valueOf(packageAndDepth[1]) : 1);
+			} catch (NumberFormatException e) {
+				log.error("Invalid depth in " + DocumentationProcessor.PACKAGE_WHITE_LIST + ": " + entry);
+			}
+		}
+		return whiteList;
+	}
+
+	private Set<String> getBlackList(String option) {
+		Set<String> blackList = new HashSet<>();
+		if (option != null) {
+			for (String entry : option.split(LIST_SEPARATOR)) {
+				blackList.add(entry.trim());
+			}
+		}
+		return blackList;
+	}
+
+}
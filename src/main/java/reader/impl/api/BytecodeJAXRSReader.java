@@ -0,0 +1,121 @@
+package reader.impl.api;
+
+import java.io.File;
+import java.util.List;
+
+import javax.ws.rs.ApplicationPath;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+
+import org.apache.maven.plugin.logging.Log;
+
+import classfiles.ClassAnnotation;
+import classfiles.ClassFile;
+import classfiles.ClassFileAnalyzer;
+import classfiles.ClassFileVisitor;
+import classfiles.ClassMethod;
+import filemanagement.ConfigFileIndex;
+import sources.SourceFacts;
+import util.HttpMethods;
+import util.OfferDescription;
+import util.Pair;
+import util.PathTemplate;
+
+/**
+ * Class for reading JAX-RS style annotations from compiled classes. The found
+ * mappings are evaluated like the ones found by the {@link JAXRSReader}.
+ * 
+ * @author gmittmann
+ *
+ */
+public class BytecodeJAXRSReader extends JAXRSReader implements ClassFileVisitor {
+
+	public BytecodeJAXRSReader(Log log, File apiConfigFile, String contextPath, ConfigFileIndex configFiles) {
+		super(log, apiConfigFile, contextPath, configFiles);
+	}
+
+	/**
+	 * Form all REST-API annotation found in the class files in the given directory
+	 * into OfferDescriptions.
+	 * 
+	 * @param src
+	 *            directory containing the compiled classes.
+	 * @return List of OfferDescriptions of the found annotations
+	 */
+	@Override
+	public List<OfferDescription> getPathsAndMethods(File src) {
+		new ClassFileAnalyzer(src, log).analyze(this);
+		return getPathsAndMethods();
+	}
+
+	@Override
+	public void visitClassFile(ClassFile classFile, SourceFacts facts) {
+		for (ClassAnnotation annotation : classFile.getAnnotations()) {
+			if (facts.getApplicationPath() == null
+					&& annotation.getType().equals(ApplicationPath.class.getCanonicalName())) {
+				facts.setApplicationPath(annotation.getValue("value").toString());
+			} else if (annotation.getType().equals(Path.class.getCanonicalName())) {
+				String classPath = annotation.getValue("value") == null ? "" : annotation.getValue("value").toString();
+
+				for (ClassMethod method : classFile.getMethods()) {
+					Pair<String, HttpMethods> methodPair = getMethodAnnotations(method, classPath);
+					if (methodPair != null) {
+						facts.addOffer(classFile.getPackageName(), methodPair);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Iterates through the annotations on the given method. If there is a Http
+	 * method annotation, the pair containing the found mapping is returned. If
+	 * there is a Path annotation, the path is concatenated to the given path.
+	 * 
+	 * @param method
+	 *            method to be analyzed.
+	 * @param classPath
+	 *            path annotated on class level.
+	 * @return Pair containing path and method. Null, if there is no http method.
+	 */
+	private Pair<String, HttpMethods> getMethodAnnotations(ClassMethod method, String classPath) {
+		PathTemplate path = PathTemplate.parse(classPath);
+		HttpMethods meth = null;
+		for (ClassAnnotation annotation : method.getAnnotations()) {
+			if (HTTP_METHODS.contains(annotation.getType())) {
+				meth = extractHttpMethod(annotation.getType());
+			} else if (annotation.getType().equals(Path.class.getCanonicalName())) {
+				if (annotation.getValue("value") != null) {
+					path = path.concat(annotation.getValue("value").toString());
+				}
+				path = setTypeInPath(method, path);
+			}
+		}
+
+		return meth == null ? null : new Pair<String, HttpMethods>(path.toString(), meth);
+	}
+
+	/**
+	 * Searches for path parameters in the method and sets their class into the path
+	 * instead of the name of the parameter
+	 * 
+	 * @param method
+	 *            method to be analyzed
+	 * @param path
+	 *            path in which the found parameter is to be set
+	 * @return new path with replaced parameters
+	 */
+	private PathTemplate setTypeInPath(ClassMethod method, PathTemplate path) {
+		for (int i = 0; i < method.getParameterAnnotations().size(); i++) {
+			for (ClassAnnotation annotation : method.getParameterAnnotations().get(i)) {
+				if (annotation.getType().equals(PathParam.class.getCanonicalName())) {
+					Object name = annotation.getValue("value") == null ? method.getParameterNames().get(i)
+							: annotation.getValue("value");
+					path = path.withVariableType(String.valueOf(name), method.getParameterSimpleTypeName(i));
+				}
+			}
+		}
+		return path;
+	}
+
+}
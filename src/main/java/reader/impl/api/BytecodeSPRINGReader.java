@@ -0,0 +1,165 @@
+package reader.impl.api;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.Log;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import classfiles.ClassAnnotation;
+import classfiles.ClassFile;
+import classfiles.ClassFileAnalyzer;
+import classfiles.ClassFileVisitor;
+import classfiles.ClassMethod;
+import sources.SourceFacts;
+import util.HttpMethods;
+import util.OfferDescription;
+import util.Pair;
+import util.PathTemplate;
+
+/**
+ * Class for reading Spring Boot style REST annotations from compiled classes.
+ * The found mappings are evaluated like the ones found by the
+ * {@link SPRINGReader}.
+ * 
+ * @author gmittmann
+ *
+ */
+public class BytecodeSPRINGReader extends SPRINGReader implements ClassFileVisitor {
+
+	public BytecodeSPRINGReader(Log log, File apiConfigFile, String contextPath) {
+		super(log, apiConfigFile, contextPath);
+	}
+
+	/**
+	 * Form all REST-API annotation found in the class files in the given directory
+	 * into OfferDescriptions.
+	 * 
+	 * @param src
+	 *            directory containing the compiled classes.
+	 * @return List of OfferDescriptions of the found annotations
+	 */
+	@Override
+	public List<OfferDescription> getPathsAndMethods(File src) {
+		new ClassFileAnalyzer(src, log).analyze(this);
+		return getPathsAndMethods();
+	}
+
+	@Override
+	public void visitClassFile(ClassFile classFile, SourceFacts facts) {
+		boolean controller = false;
+		List<Pair<PathTemplate, HttpMethods>> baseMapping = null;
+		for (ClassAnnotation annotation : classFile.getAnnotations()) {
+			if (CONTROLLER_ANNOTATIONS.contains(annotation.getType())) {
+				controller = true;
+			} else if (isMappingAnnotation(annotation)) {
+				baseMapping = getMapping(annotation);
+			}
+		}
+
+		if (controller || baseMapping != null) { // there was a mapping annotation or the class is a controller.
+			baseMapping = addContextPathToBaseMapping(basePath, baseMapping);
+			for (ClassMethod method : classFile.getMethods()) {
+				for (ClassAnnotation annotation : method.getAnnotations()) {
+					if (isMappingAnnotation(annotation)) {
+						for (Pair<String, HttpMethods> pair : combineMappings(getMapping(annotation), baseMapping,
+								path -> setTypeInPath(method, path))) {
+							facts.addOffer(classFile.getPackageName(), pair);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private boolean isMappingAnnotation(ClassAnnotation annotation) {
+		return annotation.getType().equals(RequestMapping.class.getCanonicalName())
+				|| HTTP_METHODS_MAPPING.contains(annotation.getType());
+	}
+
+	/**
+	 * Evaluates the given annotation (should be of type RequestMapping or
+	 * GetMapping, PutMapping etc.) and returns pairs with the found path and
+	 * method.
+	 * 
+	 * @param annotation annotation to be evaluated.
+	 * @return List of found mappings.
+	 */
+	private List<Pair<PathTemplate, HttpMethods>> getMapping(ClassAnnotation annotation) {
+		List<Pair<PathTemplate, HttpMethods>> pairs = new ArrayList<>();
+
+		List<String> paths = new ArrayList<>();
+		List<HttpMethods> methods = new ArrayList<>();
+
+		Object value = annotation.getValue("value");
+		if (value instanceof List && !((List<?>) value).isEmpty()) {
+			for (Object path : (List<?>) value) {
+				paths.add(path.toString().trim());
+			}
+		} else {
+			paths.add("");
+		}
+
+		if (annotation.getType().equals(RequestMapping.class.getCanonicalName())) {
+			Object method = annotation.getValue("method");
+			if (method instanceof List) {
+				for (Object meth : (List<?>) method) {
+					int index = HTTP_METHODS.indexOf(RequestMethod.class.getSimpleName() + "." + meth);
+					if (index != -1) {
+						methods.add(HttpMethods.values()[index]);
+					}
+				}
+			} else {
+				methods = null;
+			}
+		} else {
+			int index = HTTP_METHODS_MAPPING.indexOf(annotation.getType());
+			if (index != -1) {
+				methods.add(HttpMethods.values()[index]);
+			}
+		}
+
+		for (String path : paths) {
+			PathTemplate template = PathTemplate.parse(path);
+			if (methods != null && !methods.isEmpty()) {
+				for (HttpMethods method : methods) {
+					pairs.add(new Pair<PathTemplate, HttpMethods>(template, method));
+				}
+			} else {
+				pairs.add(new Pair<PathTemplate, HttpMethods>(template, null));
+			}
+		}
+
+		return pairs;
+	}
+
+	/**
+	 * Searches for path parameters in the method and sets their class into the path
+	 * instead of the name of the parameter
+	 * 
+	 * @param method
+	 *            method to be analyzed
+	 * @param path
+	 *            path in which the found parameter is to be set
+	 * @return new path with replaced parameters
+	 */
+	private PathTemplate setTypeInPath(ClassMethod method, PathTemplate path) {
+		for (int i = 0; i < method.getParameterAnnotations().size(); i++) {
+			for (ClassAnnotation annotation : method.getParameterAnnotations().get(i)) {
+				if (annotation.getType().equals(PathVariable.class.getCanonicalName())) {
+					Object name = annotation.getValue("value");
+					if (name == null) {
+						name = annotation.getValue("name") == null ? method.getParameterNames().get(i)
+								: annotation.getValue("name");
+					}
+					path = path.withVariableType(String.valueOf(name), method.getParameterSimpleTypeName(i));
+				}
+			}
+		}
+		return path;
+	}
+
+}
@@ -1,17 +1,11 @@
 package reader.impl.api;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Stream;
 
 import javax.ws.rs.ApplicationPath;
 import javax.ws.rs.DELETE;
@@ -22,23 +16,21 @@ import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 
 import org.apache.maven.plugin.logging.Log;
-import org.apache.maven.project.MavenProject;
-import org.w3c.dom.Document;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
-import com.thoughtworks.qdox.JavaProjectBuilder;
 import com.thoughtworks.qdox.model.JavaAnnotation;
 import com.thoughtworks.qdox.model.JavaClass;
 import com.thoughtworks.qdox.model.JavaMethod;
 import com.thoughtworks.qdox.model.JavaParameter;
+import com.thoughtworks.qdox.model.JavaSource;
 
+import filemanagement.ConfigFileIndex;
+import filemanagement.ConfigFileIndex.ConfigFileType;
+import filemanagement.DescriptorReader;
 import reader.interfaces.APIReader;
+import sources.SourceFacts;
+import sources.SourceModel;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -46,7 +38,9 @@ import java.util.HashMap;
 
 import util.HttpMethods;
 import util.OfferDescription;
+import util.OfferIndex;
 import util.Pair;
+import util.PathTemplate;
 
 /**
  * Class for reading JAX-RS style annotations.
@@ -56,73 +50,99 @@ import util.Pair;
  */
 public class JAXRSReader implements APIReader {
 
-	private static final List<String> HTTP_METHODS = Arrays.asList(GET.class.getCanonicalName(),
+	protected static final List<String> HTTP_METHODS = Arrays.asList(GET.class.getCanonicalName(),
 			PUT.class.getCanonicalName(), POST.class.getCanonicalName(), DELETE.class.getCanonicalName(),
 			HEAD.class.getCanonicalName(), OPTIONS.class.getCanonicalName());
 
-	private MavenProject project;
-	private Log log;
+	/**
+	 * Offers are only found in classes annotated with Path, the application path
+	 * only in classes annotated with ApplicationPath. Both may be annotated with
+	 * their simple or their fully qualified name.
+	 */
+	private static final List<String> MARKERS = Arrays.asList("@" + Path.class.getSimpleName(),
+			"@" + Path.class.getCanonicalName(), "@" + ApplicationPath.class.getSimpleName(),
+			"@" + ApplicationPath.class.getCanonicalName());
+
+	protected Log log;
 	private File apiConfigFile;
 	private String contextPath;
+	private ConfigFileIndex configFiles;
+
+	private OfferIndex offers = new OfferIndex();
+	private String annotatedApplicationPath;
 
-	public JAXRSReader(MavenProject project, Log log, File apiConfigFile, String contextPath) {
-		this.project = project;
+	public JAXRSReader(Log log, File apiConfigFile, String contextPath, ConfigFileIndex configFiles) {
 		this.log = log;
 		this.apiConfigFile = apiConfigFile;
 		this.contextPath = contextPath;
+		this.configFiles = configFiles;
 	}
 
 	@Override
 	public List<OfferDescription> getPathsAndMethods(File src) {
+		SourceModel.parse(src).accept(this);
+		return getPathsAndMethods();
+	}
 
-		JavaProjectBuilder builder = new JavaProjectBuilder();
-		builder.addSourceTree(src);
-		String applicationPath = readPathFromWebXML();
-
-		Map<String, OfferDescription> packageNamesToOffers = new HashMap<>();
-		List<Pair<String, HttpMethods>> mappings = new ArrayList<>();
-
-		for (JavaClass currentClass : builder.getClasses()) {
-			for (JavaAnnotation annotation : currentClass.getAnnotations()) {
-				if (applicationPath == null
-						&& annotation.getType().getCanonicalName().equals(ApplicationPath.class.getCanonicalName())) {
-					applicationPath = annotation.getNamedParameter("value").toString();
-				} else if (annotation.getType().getCanonicalName().equals(Path.class.getCanonicalName())) {
-					String classPath = annotation.getNamedParameter("value") == null ? ""
-							: annotation.getNamedParameter("value").toString();
+	@Override
+	public Collection<String> getMarkers() {
+		return MARKERS;
+	}
 
-					for (JavaMethod method : currentClass.getMethods()) {
-						Pair<String, HttpMethods> methodPair = getMethodAnnotations(method, classPath);
-						if (methodPair != null) {
-							mappings.add(methodPair);
-
-							String packageName = currentClass.getPackageName();
-							OfferDescription currentOffer = null;
-							if (packageNamesToOffers.containsKey(packageName)) {
-								currentOffer = packageNamesToOffers.get(packageName);
-							} else {
-								currentOffer = new OfferDescription();
-								currentOffer.setPackageName(packageName);
-								packageNamesToOffers.put(packageName, currentOffer);
-							}
-							currentOffer.addPathToMethod(methodPair);
-						}
+	@Override
+	public void visitSource(JavaSource source, SourceFacts facts) {
+		// JAX-RS annotations are only evaluated on class level
+	}
 
+	@Override
+	public void visitClass(JavaClass currentClass, SourceFacts facts) {
+		for (JavaAnnotation annotation : currentClass.getAnnotations()) {
+			if (facts.getApplicationPath() == null
+					&& annotation.getType().getCanonicalName().equals(ApplicationPath.class.getCanonicalName())) {
+				facts.setApplicationPath(annotation.getNamedParameter("value").toString());
+			} else if (annotation.getType().getCanonicalName().equals(Path.class.getCanonicalName())) {
+				String classPath = annotation.getNamedParameter("value") == null ? ""
+						: annotation.getNamedParameter("value").toString();
+
+				for (JavaMethod method : currentClass.getMethods()) {
+					Pair<String, HttpMethods> methodPair = getMethodAnnotations(method, classPath);
+					if (methodPair != null) {
+						facts.addOffer(currentClass.getPackageName(), methodPair);
 					}
 				}
 			}
 		}
+	}
+
+	@Override
+	public void visitFacts(SourceFacts facts) {
+		if (annotatedApplicationPath == null) {
+			annotatedApplicationPath = facts.getApplicationPath();
+		}
+		if (facts.getOffer() == null) {
+			return;
+		}
+
+		offers.add(facts.getOffer());
+	}
+
+	@Override
+	public List<OfferDescription> getPathsAndMethods() {
+		String configuredPath = readPathFromWebXML();
+		if (configuredPath == null) {
+			configuredPath = annotatedApplicationPath;
+		}
+		PathTemplate applicationPath = PathTemplate.parseUrlPattern(configuredPath);
 
 		if (contextPath != null) {
-			applicationPath = formatBasePath(contextPath)
-					+ (applicationPath == null ? "" : formatConcatPath(applicationPath));
+			applicationPath = PathTemplate.parseUrlPattern(contextPath).concat(applicationPath);
 		}
 		String glassfishPath = readPathFromGlassfishWebXML();
 		if (glassfishPath != null) {
-			applicationPath = formatBasePath(glassfishPath) + formatConcatPath(applicationPath);
+			applicationPath = PathTemplate.parseUrlPattern(glassfishPath).concat(applicationPath);
 		}
 
-		return concatApplicationPathTo(packageNamesToOffers.values(), applicationPath);
+		return concatApplicationPathTo(offers.getOffers(), applicationPath);
 	}
 
 	/**
@@ -139,7 +159,7 @@ public class JAXRSReader implements APIReader {
 	 * @return Pair containing path and method. Null, if there is no path/method.
 	 */
 	private Pair<String, HttpMethods> getMethodAnnotations(JavaMethod method, String classPath) {
-		String path = formatConcatPath(classPath);
+		PathTemplate path = PathTemplate.parse(classPath);
 		boolean pathWasChanged = false;
 		HttpMethods meth = null;
 		for (JavaAnnotation annotation : method.getAnnotations()) {
@@ -148,15 +168,16 @@ public class JAXRSReader implements APIReader {
 			if (HTTP_METHODS.contains(annotationClass)) {
 				meth = extractHttpMethod(annotationClass);
 			} else if (annotationClass.equals(Path.class.getCanonicalName())) {
-				path += annotation.getNamedParameter("value") == null ? ""
-						: formatConcatPath(annotation.getNamedParameter("value").toString());
+				if (annotation.getNamedParameter("value") != null) {
+					path = path.concat(annotation.getNamedParameter("value").toString());
+				}
 				path = setTypeInPath(method, path);
 				pathWasChanged = true;
 			}
 		}
 
 		if (meth != null) {
-			return new Pair<String, HttpMethods>(path, meth);
+			return new Pair<String, HttpMethods>(path.toString(), meth);
 		} else if (pathWasChanged) { // && meth.isEmpty()
 			// TODO find subresource (class that is returned by the method and is not
 			// annotated with @Path on classlevel) and get the methods there. Problem: could
@@ -176,148 +197,82 @@ public class JAXRSReader implements APIReader {
 	 *            path in which the found parameter is to be set
 	 * @return new path with replaced parameters
 	 */
-	private String setTypeInPath(JavaMethod method, String path) {
-		String newPath = removeRegularExpressionsFromPath(path);
+	private PathTemplate setTypeInPath(JavaMethod method, PathTemplate path) {
 		for (JavaParameter param : method.getParameters()) {
 			for (JavaAnnotation annotation : param.getAnnotations()) {
 				if (annotation.getType().getCanonicalName().equalsIgnoreCase(PathParam.class.getCanonicalName())) {
 					String paramName = annotation.getNamedParameter("value") == null ? param.getName()
 							: annotation.getNamedParameter("value").toString();
-					paramName = paramName.replaceAll("\"", "");
-					if (path.contains("{" + paramName + "}")) {
-						newPath = newPath.replace("{" + paramName + "}",
-								"{" + param.getJavaClass().getSimpleName().toUpperCase(Locale.ROOT) + "}");
-					}
+					path = path.withVariableType(paramName.replace("\"", ""), param.getJavaClass().getSimpleName());
 				}
 			}
 		}
-		return newPath;
-	}
-
-	/**
-	 * Removes any regular expressions given in a paths parameters.
-	 * 
-	 * @param path
-	 *            path to be cleaned from regular expressions.
-	 * @return path without regular expressions
-	 */
-	private String removeRegularExpressionsFromPath(String path) {
-		return path.replaceAll(":[^}]*}", "}");
+		return path;
 	}
 
-	private HttpMethods extractHttpMethod(String annotationClass) {
+	protected HttpMethods extractHttpMethod(String annotationClass) {
 		int index = HTTP_METHODS.indexOf(annotationClass);
 		return HttpMethods.values()[index]; // get(index);
 	}
 
 	/**
-	 * Concatenates the given applicationPath to the paths of the given pairs. If
-	 * the application path is null, the given path of the pair is formatted as base
-	 * path.
+	 * Concatenates the given applicationPath to the paths of the given offers.
 	 * 
-	 * @param paths
-	 *            List of pairs. The applicationPath is to be added to the left side
-	 *            of the pair.
+	 * @param offerDescriptions
+	 *            offers found in the classes.
 	 * @param applicationPath
-	 *            String containing the path given as path of the application. Can
-	 *            be null.
-	 * @return List of pairs onto which the application path was concatenated.
+	 *            path of the application, the root template if there is none.
+	 * @return offers with the paths prefixed by the application path.
 	 */
 	private List<OfferDescription> concatApplicationPathTo(Collection<OfferDescription> offerDescriptions,
-			String applicationPath) {
+			PathTemplate applicationPath) {
 
 		List<OfferDescription> returnOffers = new ArrayList<>();
 
-		if (applicationPath != null) {
-			applicationPath = formatBasePath(applicationPath);
-
-			for (OfferDescription offer : offerDescriptions) {
-				OfferDescription newOffer = new OfferDescription();
-				newOffer.setPackageName(offer.getPackageName());
-				for (Entry<String, Set<HttpMethods>> entry : offer.getPathToMethodMappings().entrySet()) {
-					for (HttpMethods meth : entry.getValue()) {
-						Pair<String, HttpMethods> longPathPair = new Pair<>(
-								applicationPath + formatConcatPath(entry.getKey()), meth);
-						newOffer.addPathToMethod(longPathPair);
-					}
-				}
-				returnOffers.add(newOffer);
-			}
-		} else {
-			for (OfferDescription offer : offerDescriptions) {
-				OfferDescription newOffer = new OfferDescription();
-				newOffer.setPackageName(offer.getPackageName());
-				for (Entry<String, Set<HttpMethods>> entry : offer.getPathToMethodMappings().entrySet()) {
-					for (HttpMethods meth : entry.getValue()) {
-						Pair<String, HttpMethods> longPathPair = new Pair<>(formatBasePath(entry.getKey()), meth);
-						newOffer.addPathToMethod(longPathPair);
-					}
+		for (OfferDescription offer : offerDescriptions) {
+			OfferDescription newOffer = new OfferDescription();
+			newOffer.setPackageName(offer.getPackageName());
+			for (Entry<String, Set<HttpMethods>> entry : offer.getPathToMethodMappings().entrySet()) {
+				String longPath = applicationPath.concat(entry.getKey()).toString();
+				for (HttpMethods meth : entry.getValue()) {
+					newOffer.addPathToMethod(longPath, meth);
 				}
-				returnOffers.add(newOffer);
 			}
+			returnOffers.add(newOffer);
 		}
 		return returnOffers;
 	}
 
 	/**
 	 * Searches for the web.xml of the application. If there is one (either given
-	 * through plug-in parameter or in the resources of the project), the file is
-	 * parsed and the 'url-pattern' is read.
+	 * through plug-in parameter or in the project), the file is parsed and the
+	 * 'url-pattern' is read.
 	 * 
 	 * @return String containing the value of 'url-pattern', null if no web.xml was
 	 *         found or value couldn't be read.
 	 */
 	private String readPathFromWebXML() {
-		File configFile = null;
-		if (apiConfigFile != null) {
-			configFile = apiConfigFile;
-		} else {
-			try (Stream<java.nio.file.Path> fileStream = Files.find(Paths.get(project.getBasedir().getAbsolutePath()),
-					6, (p, a) -> p.endsWith("web.xml") && a.isRegularFile())) {
-				Optional<java.nio.file.Path> path = fileStream.findFirst();
-				if (path.isPresent()) {
-					configFile = path.get().toFile();
-				} else {
-					log.info("No web.xml found.");
-					return null;
-				}
-				fileStream.close();
-			} catch (IOException e) {
-				log.error("Error searching for web.xml. " + e.getMessage());
-				return null;
-			}
+		File configFile = apiConfigFile != null ? apiConfigFile : configFiles.getFile(ConfigFileType.WEB_XML);
+		if (configFile == null) {
+			log.info("No web.xml found.");
+			return null;
 		}
-
 		return readUrlPattern(configFile, "url-pattern", "servlet-mapping");
 	}
 
 	/**
-	 * Searches for the glassfish-web.xml of the application. If there is one
-	 * (either given through plug-in parameter or in the resources of the project),
-	 * the file is parsed and the 'url-pattern' is read.
+	 * Searches for the glassfish-web.xml of the application. If there is one in
+	 * the project, the file is parsed and the 'context-root' is read.
 	 * 
-	 * @return String containing the value of 'url-pattern', null if no
+	 * @return String containing the value of 'context-root', null if no
 	 *         glassfish-web.xml was found or value couldn't be read.
 	 */
 	private String readPathFromGlassfishWebXML() {
-		File configFile = null;
-		try (Stream<java.nio.file.Path> fileStream = Files.find(Paths.get(project.getBasedir().getAbsolutePath()), 6,
-				(p, a) -> p.endsWith("glassfish-web.xml") && a.isRegularFile())) {
-
-			Optional<java.nio.file.Path> path = fileStream.findFirst();
-			if (path.isPresent()) {
-				configFile = path.get().toFile();
-			} else {
-				log.info("No glassfish-web.xml found.");
-				System.out.println(Paths.get(project.getBasedir().getAbsolutePath()).toString());
-				return null;
-			}
-			fileStream.close();
-		} catch (IOException e) {
-			log.error("Error searching for glassfish-web.xml. " + e.getMessage());
+		File configFile = configFiles.getFile(ConfigFileType.GLASSFISH_WEB_XML);
+		if (configFile == null) {
+			log.info("No glassfish-web.xml found.");
 			return null;
 		}
-
 		return readUrlPattern(configFile, "context-root", "glassfish-web-app");
 	}
 
@@ -332,79 +287,7 @@ public class JAXRSReader implements APIReader {
 		if (xmlFile == null) {
 			return null;
 		}
-		String basePath = "";
-		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-		try {
-			factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-		} catch (ParserConfigurationException e1) {
-			factory.setValidating(false);
-			System.err.println("Could not stop external dtd loading");
-		}
-		DocumentBuilder builder;
-		try {
-			builder = factory.newDocumentBuilder();
-			Document doc = builder.parse(xmlFile);
-			NodeList urls = doc.getElementsByTagName(tagName);
-
-			for (int i = 0; i < urls.getLength(); i++) {
-				if (urls.item(i).getParentNode().getNodeName().equals(parentName)) {
-					basePath = urls.item(i).getTextContent();
-					return basePath;
-				}
-			}
-
-		} catch (IOException e) {
-			log.error("Error reading file." + e.getMessage());
-		} catch (ParserConfigurationException e) {
-			log.error("Parser error while reading web.xml: " + e.getMessage());
-		} catch (SAXException e) {
-			log.error("Error while parsing web.xml: " + e.getMessage());
-			e.printStackTrace();
-		}
-		return null;
-	}
-
-	/**
-	 * Formats the given String to /path by trimming, removing " and making sure,
-	 * that it starts with a slash and ends without a slash or star.
-	 * 
-	 * @param basePath
-	 *            path to be transformed.
-	 * @return transformed String
-	 */
-	private String formatBasePath(String basePath) {
-		basePath = basePath.trim();
-		basePath = basePath.replace("\"", "");
-		if (basePath.endsWith("*")) {
-			basePath = basePath.substring(0, basePath.length() - 2);
-		}
-		if (!basePath.startsWith("/")) {
-			basePath = "/" + basePath;
-		}
-		if (basePath.endsWith("/")) {
-			basePath = basePath.substring(0, basePath.length() - 2);
-		}
-		return basePath;
-	}
-
-	/**
-	 * Formats the given String to /path by trimming, removing " and making sure,
-	 * that it starts with a slash and ends without a slash.
-	 * 
-	 * @param concatPathpath
-	 *            to be transformed.
-	 * @return transformed String
-	 */
-	private String formatConcatPath(String concatPath) {
-		concatPath = concatPath.trim();
-		concatPath = concatPath.replace("\"", "");
-		if (!concatPath.startsWith("/")) {
-			concatPath = "/" + concatPath;
-		}
-		if (concatPath.endsWith("/")) {
-			concatPath = concatPath.substring(0, concatPath.length() - 2);
-		}
-		return concatPath;
+		return DescriptorReader.readElementText(xmlFile, tagName, parentName, log);
 	}
 
 }
@@ -3,13 +3,18 @@ package reader.impl.api;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Collection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.Set;
+import java.util.function.UnaryOperator;
 
 import org.apache.maven.plugin.logging.Log;
 import org.springframework.stereotype.Component;
@@ -26,16 +31,20 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 import org.yaml.snakeyaml.Yaml;
 
-import com.thoughtworks.qdox.JavaProjectBuilder;
 import com.thoughtworks.qdox.model.JavaAnnotation;
 import com.thoughtworks.qdox.model.JavaClass;
 import com.thoughtworks.qdox.model.JavaMethod;
 import com.thoughtworks.qdox.model.JavaParameter;
+import com.thoughtworks.qdox.model.JavaSource;
 
 import reader.interfaces.APIReader;
+import sources.SourceFacts;
+import sources.SourceModel;
 import util.HttpMethods;
 import util.OfferDescription;
+import util.OfferIndex;
 import util.Pair;
+import util.PathTemplate;
 
 /**
  * Class for reading Spring Boot style REST annotations.
@@ -45,11 +54,11 @@ import util.Pair;
  */
 public class SPRINGReader implements APIReader {
 
-	private static final List<String> CONTROLLER_ANNOTATIONS = Arrays.asList(Controller.class.getCanonicalName(),
+	protected static final List<String> CONTROLLER_ANNOTATIONS = Arrays.asList(Controller.class.getCanonicalName(),
 			RestController.class.getCanonicalName(), Component.class.getCanonicalName(),
 			Service.class.getCanonicalName());
 
-	private static final List<String> HTTP_METHODS = Arrays.asList(
+	protected static final List<String> HTTP_METHODS = Arrays.asList(
 			RequestMethod.class.getSimpleName() + "." + RequestMethod.GET.name(),
 			RequestMethod.class.getSimpleName() + "." + RequestMethod.PUT.name(),
 			RequestMethod.class.getSimpleName() + "." + RequestMethod.POST.name(),
@@ -58,69 +67,77 @@ public class SPRINGReader implements APIReader {
 			RequestMethod.class.getSimpleName() + "." + RequestMethod.OPTIONS.name(),
 			RequestMethod.class.getSimpleName() + "." + RequestMethod.PATCH.name());
 
-	private static final List<String> HTTP_METHODS_MAPPING = Arrays.asList(GetMapping.class.getCanonicalName(),
+	protected static final List<String> HTTP_METHODS_MAPPING = Arrays.asList(GetMapping.class.getCanonicalName(),
 			PutMapping.class.getCanonicalName(), PostMapping.class.getCanonicalName(),
 			DeleteMapping.class.getCanonicalName(), null, "", PatchMapping.class.getCanonicalName());
 
-	private Log log;
+	/**
+	 * Offers are only found on methods annotated with RequestMapping, GetMapping
+	 * etc.
+	 */
+	private static final List<String> MARKERS = Arrays.asList("Mapping");
+
+	private static final String CONTEXT_PATH_PROPERTY = "server.servlet.context-path";
+
+	protected Log log;
 	private File apiConfigFile;
 	private String contextPath;
 
+	private OfferIndex offers = new OfferIndex();
+	protected String basePath;
+
 	public SPRINGReader(Log log, File apiConfigFile, String contextPath) {
 		this.log = log;
 		this.apiConfigFile = apiConfigFile;
 		this.contextPath = contextPath;
+		this.basePath = contextPath != null ? contextPath : getApplicationPath();
 	}
 
 	@Override
 	public List<OfferDescription> getPathsAndMethods(File src) {
-		String basePath;
-		if (contextPath != null) {
-			basePath = contextPath;
-		} else {
-			basePath = getApplicationPath();
-		}
-
-		JavaProjectBuilder builder = new JavaProjectBuilder();
-		builder.addSourceTree(src);
-
-		Map<String, OfferDescription> packageNameToOffer = new HashMap<>();
+		SourceModel.parse(src).accept(this);
+		return getPathsAndMethods();
+	}
 
-		for (JavaClass currentClass : builder.getClasses()) {
+	@Override
+	public Collection<String> getMarkers() {
+		return MARKERS;
+	}
 
-			List<Pair<String, HttpMethods>> paths = new ArrayList<>();
-			Pair<List<Pair<String, HttpMethods>>, Boolean> mappingAndController = getBaseMappingAndController(
-					currentClass);
-			boolean controller = mappingAndController.getRight();
-			List<Pair<String, HttpMethods>> baseMapping = mappingAndController.getLeft();
+	@Override
+	public void visitSource(JavaSource source, SourceFacts facts) {
+		// Spring annotations are only evaluated on class level
+	}
 
-			if (controller || baseMapping != null) { // there was a mapping annotation or the class is a controller.
-				baseMapping = addContextPathToBaseMapping(basePath, baseMapping);
-				for (JavaMethod method : currentClass.getMethods()) {
-					paths.addAll(getMethodAnnotations(method, baseMapping));
-				}
-			}
-			
-			if (!paths.isEmpty()) {
-				String packageName = currentClass.getPackageName();
-				
-				OfferDescription currentOffer = null;
-				if (packageNameToOffer.containsKey(packageName)) {
-					currentOffer = packageNameToOffer.get(packageName);
-				} else {
-					currentOffer = new OfferDescription();
-					currentOffer.setPackageName(packageName);
-					packageNameToOffer.put(packageName, currentOffer);
-				}
-				
-				for (Pair<String, HttpMethods> pair : paths) {
-					currentOffer.addPathToMethod(pair);
+	@Override
+	public void visitClass(JavaClass currentClass, SourceFacts facts) {
+		Pair<List<Pair<PathTemplate, HttpMethods>>, Boolean> mappingAndController = getBaseMappingAndController(
+				currentClass);
+		boolean controller = mappingAndController.getRight();
+		List<Pair<PathTemplate, HttpMethods>> baseMapping = mappingAndController.getLeft();
+
+		if (controller || baseMapping != null) { // there was a mapping annotation or the class is a controller.
+			baseMapping = addContextPathToBaseMapping(basePath, baseMapping);
+			for (JavaMethod method : currentClass.getMethods()) {
+				for (Pair<String, HttpMethods> pair : getMethodAnnotations(method, baseMapping)) {
+					facts.addOffer(currentClass.getPackageName(), pair);
 				}
-				
 			}
 		}
+	}
+
+	@Override
+	public void visitFacts(SourceFacts facts) {
+		if (facts.getOffer() == null) {
+			return;
+		}
+
+		offers.add(facts.getOffer());
+	}
 
-		return new ArrayList<>(packageNameToOffer.values());
+	@Override
+	public List<OfferDescription> getPathsAndMethods() {
+		return offers.getOffers();
 	}
 
 	/**
@@ -132,9 +149,9 @@ public class SPRINGReader implements APIReader {
 	 * @return Pair containing the found mapping or null and boolean whether the
 	 *         class is a controller class.
 	 */
-	private Pair<List<Pair<String, HttpMethods>>, Boolean> getBaseMappingAndController(JavaClass clz) {
+	private Pair<List<Pair<PathTemplate, HttpMethods>>, Boolean> getBaseMappingAndController(JavaClass clz) {
 		boolean controller = false;
-		List<Pair<String, HttpMethods>> baseMapping = null;
+		List<Pair<PathTemplate, HttpMethods>> baseMapping = null;
 		for (JavaAnnotation annotation : clz.getAnnotations()) {
 			String annotationClass = annotation.getType().getCanonicalName();
 
@@ -145,7 +162,7 @@ public class SPRINGReader implements APIReader {
 				baseMapping = getMapping(annotation);
 			}
 		}
-		return new Pair<List<Pair<String, HttpMethods>>, Boolean>(baseMapping, controller);
+		return new Pair<List<Pair<PathTemplate, HttpMethods>>, Boolean>(baseMapping, controller);
 	}
 
 	/**
@@ -157,20 +174,21 @@ public class SPRINGReader implements APIReader {
 	 * 
 	 * @return baseMappings with changed paths.
 	 */
-	private List<Pair<String, HttpMethods>> addContextPathToBaseMapping(String contextPath,
-			List<Pair<String, HttpMethods>> baseMappings) {
+	protected List<Pair<PathTemplate, HttpMethods>> addContextPathToBaseMapping(String contextPath,
+			List<Pair<PathTemplate, HttpMethods>> baseMappings) {
 		if (contextPath == null || contextPath.isEmpty()) {
 			return baseMappings;
 		}
-		String path = startWithSlash(contextPath);
-		List<Pair<String, HttpMethods>> mappings = new ArrayList<>();
+		PathTemplate path = PathTemplate.parse(contextPath);
+		List<Pair<PathTemplate, HttpMethods>> mappings = new ArrayList<>();
 		if (baseMappings == null) {
-			Pair<String, HttpMethods> newPair = new Pair<>(path, null);
+			Pair<PathTemplate, HttpMethods> newPair = new Pair<>(path, null);
 			mappings.add(newPair);
 			return mappings;
 		}
-		for (Pair<String, HttpMethods> currentPair : baseMappings) {
-			Pair<String, HttpMethods> newPair = new Pair<>(path + currentPair.getLeft(), currentPair.getRight());
+		for (Pair<PathTemplate, HttpMethods> currentPair : baseMappings) {
+			Pair<PathTemplate, HttpMethods> newPair = new Pair<>(path.concat(currentPair.getLeft()),
+					currentPair.getRight());
 			mappings.add(newPair);
 		}
 		return mappings;
@@ -187,7 +205,7 @@ public class SPRINGReader implements APIReader {
 	 *         paths found.
 	 */
 	private List<Pair<String, HttpMethods>> getMethodAnnotations(JavaMethod method,
-			List<Pair<String, HttpMethods>> baseMappings) {
+			List<Pair<PathTemplate, HttpMethods>> baseMappings) {
 
 		List<Pair<String, HttpMethods>> pairList = new ArrayList<>();
 
@@ -196,43 +214,54 @@ public class SPRINGReader implements APIReader {
 
 			if (annotationClass.equals(RequestMapping.class.getCanonicalName())
 					|| HTTP_METHODS_MAPPING.contains(annotationClass)) {
-				List<Pair<String, HttpMethods>> methodMapping = getMapping(annotation);
-
-				for (Pair<String, HttpMethods> currentMapping : methodMapping) {
-					if (currentMapping.getRight() != null && baseMappings != null) {
-						for (Pair<String, HttpMethods> base : baseMappings) {
-							String path = startWithEndsWithoutSlash(base.getLeft())
-									+ startWithSlash(currentMapping.getLeft());
-							path = setTypeInPath(method, path);
-							pairList.add(new Pair<String, HttpMethods>(path, currentMapping.getRight()));
-						}
-					} else if (currentMapping.getRight() != null) {
-						String path = setTypeInPath(method, currentMapping.getLeft());
-						pairList.add(new Pair<String, HttpMethods>(path, currentMapping.getRight()));
-					} else {
-						if (baseMappings != null) {
-							for (Pair<String, HttpMethods> base : baseMappings) {
-								if (base.getRight() != null) {
-									String path = startWithEndsWithoutSlash(base.getLeft())
-											+ startWithSlash(currentMapping.getLeft());
-									path = setTypeInPath(method, path);
-									pairList.add(new Pair<String, HttpMethods>(path, base.getRight()));
-								} else { // all methods are allowed.
-									for (HttpMethods httpMethod : HttpMethods.values()) {
-										String path = startWithEndsWithoutSlash(base.getLeft())
-												+ startWithSlash(currentMapping.getLeft());
-										path = setTypeInPath(method, path);
-										pairList.add(new Pair<String, HttpMethods>(path, httpMethod));
-									}
-								}
-							}
-						} else {
-							for (HttpMethods httpMethod : HttpMethods.values()) {
-								pairList.add(new Pair<String, HttpMethods>(
-										setTypeInPath(method, startWithEndsWithoutSlash(currentMapping.getLeft())), httpMethod));
-							}
+				pairList.addAll(
+						combineMappings(getMapping(annotation), baseMappings, path -> setTypeInPath(method, path)));
+			}
+		}
+
+		return pairList;
+	}
+
+	/**
+	 * Concatenates the mappings found on a method to the base mapping, if given
+	 * and necessary. Mappings without a http method are available for all methods
+	 * of the base mapping or, if there are none, for all http methods, which is
+	 * described by the single method ANY.
+	 * 
+	 * @param methodMappings mappings found on the method.
+	 * @param baseMappings   mappings on class level.
+	 * @param typeSetter     sets the types of the path parameters of the method
+	 *                       into a path.
+	 * @return List of found mappings. One Pair for each method available on the
+	 *         paths found.
+	 */
+	protected List<Pair<String, HttpMethods>> combineMappings(List<Pair<PathTemplate, HttpMethods>> methodMappings,
+			List<Pair<PathTemplate, HttpMethods>> baseMappings, UnaryOperator<PathTemplate> typeSetter) {
+
+		List<Pair<String, HttpMethods>> pairList = new ArrayList<>();
+
+		for (Pair<PathTemplate, HttpMethods> currentMapping : methodMappings) {
+			if (currentMapping.getRight() != null && baseMappings != null) {
+				for (Pair<PathTemplate, HttpMethods> base : baseMappings) {
+					String path = typeSetter.apply(base.getLeft().concat(currentMapping.getLeft())).toString();
+					pairList.add(new Pair<String, HttpMethods>(path, currentMapping.getRight()));
+				}
+			} else if (currentMapping.getRight() != null) {
+				String path = typeSetter.apply(currentMapping.getLeft()).toString();
+				pairList.add(new Pair<String, HttpMethods>(path, currentMapping.getRight()));
+			} else {
+				if (baseMappings != null) {
+					for (Pair<PathTemplate, HttpMethods> base : baseMappings) {
+						String path = typeSetter.apply(base.getLeft().concat(currentMapping.getLeft())).toString();
+						if (base.getRight() != null) {
+							pairList.add(new Pair<String, HttpMethods>(path, base.getRight()));
+						} else { // all methods are allowed.
+							pairList.add(new Pair<String, HttpMethods>(path, HttpMethods.ANY));
 						}
 					}
+				} else { // all methods are allowed.
+					String path = typeSetter.apply(currentMapping.getLeft()).toString();
+					pairList.add(new Pair<String, HttpMethods>(path, HttpMethods.ANY));
 				}
 			}
 		}
@@ -250,8 +279,7 @@ public class SPRINGReader implements APIReader {
 	 *            path in which the found parameter is to be set
 	 * @return new path with replaced parameters
 	 */
-	private String setTypeInPath(JavaMethod method, String path) {
-		String newPath = removeRegularExpressionsFromPath(path);
+	private PathTemplate setTypeInPath(JavaMethod method, PathTemplate path) {
 		for (JavaParameter param : method.getParameters()) {
 			for (JavaAnnotation annotation : param.getAnnotations()) {
 				if (annotation.getType().getCanonicalName().equalsIgnoreCase(PathVariable.class.getCanonicalName())) {
@@ -260,26 +288,13 @@ public class SPRINGReader implements APIReader {
 						name = annotation.getNamedParameter("name") == null ? param.getName()
 								: annotation.getNamedParameter("name");
 					}
-					String paramName = name.toString().replaceAll("\"", "");
-					if (newPath.contains("{" + paramName + "}")) {
-						newPath = newPath.replace("{" + paramName + "}", "{" + param.getJavaClass().getSimpleName().toUpperCase(Locale.ROOT) + "}");
-					}
+					path = path.withVariableType(name.toString().replace("\"", ""),
+							param.getJavaClass().getSimpleName());
 				}
 			}
 		}
 
-		return newPath;
-	}
-	
-	/**
-	 * Removes any regular expressions given in a paths parameters.
-	 * 
-	 * @param path
-	 *            path to be cleaned from regular expressions.
-	 * @return path without regular expressions
-	 */
-	private String removeRegularExpressionsFromPath(String path) {
-		return path.replaceAll(":[^}]*}", "}");
+		return path;
 	}
 
 	/**
@@ -290,8 +305,8 @@ public class SPRINGReader implements APIReader {
 	 * @param annotation JavaAnnotation to be evaluated.
 	 * @return List of found mappings.
 	 */
-	private List<Pair<String, HttpMethods>> getMapping(JavaAnnotation annotation) {
-		List<Pair<String, HttpMethods>> pairs = new ArrayList<>();
+	private List<Pair<PathTemplate, HttpMethods>> getMapping(JavaAnnotation annotation) {
+		List<Pair<PathTemplate, HttpMethods>> pairs = new ArrayList<>();
 
 		List<String> paths = new ArrayList<>();
 		List<HttpMethods> methods = new ArrayList<>();
@@ -339,13 +354,13 @@ public class SPRINGReader implements APIReader {
 		}
 
 		for (String path : paths) {
-			path = path.replace("\"", "");
+			PathTemplate template = PathTemplate.parse(path);
 			if (methods != null && !methods.isEmpty()) {
 				for (HttpMethods method : methods) {
-					pairs.add(new Pair<String, HttpMethods>(path, method));
+					pairs.add(new Pair<PathTemplate, HttpMethods>(template, method));
 				}
 			} else {
-				pairs.add(new Pair<String, HttpMethods>(path, null));
+				pairs.add(new Pair<PathTemplate, HttpMethods>(template, null));
 			}
 		}
 
@@ -353,74 +368,76 @@ public class SPRINGReader implements APIReader {
 	}
 
 	/**
-	 * Makes sure the given String starts with a '/'.
+	 * Searches for a context path in the apiConfigFile. Can execute on .properties
+	 * and yaml files.
 	 * 
-	 * @param toAdd String to be brought to form.
-	 * @return the given String starting with a '/'
+	 * @return context path, if found, else an empty String
 	 */
-	private String startWithSlash(String toAdd) {
-		toAdd = toAdd.trim();
-		if (toAdd.isEmpty() || toAdd.startsWith("/")) {
-			return toAdd;
+	private String getApplicationPath() {
+		File configFile = apiConfigFile;
+		if (configFile == null || !configFile.isFile()) {
+			return "";
+		}
+
+		String fileName = configFile.getName().toLowerCase(Locale.ROOT);
+		try (InputStream stream = Files.newInputStream(configFile.toPath())) {
+			if (fileName.endsWith(".properties")) {
+				Properties props = new Properties();
+				props.load(stream);
+				return logContextPath(configFile, props.getProperty(CONTEXT_PATH_PROPERTY));
+			} else if (fileName.endsWith(".yml") || fileName.endsWith(".yaml")) {
+				Yaml yaml = new Yaml();
+				Object value = getYamlValue(yaml.load(stream), CONTEXT_PATH_PROPERTY);
+				return logContextPath(configFile, value == null ? null : value.toString());
+			}
+		} catch (IOException | RuntimeException e) {
+			log.error("Error reading property in file: " + configFile.getAbsolutePath());
+			log.error(e.getMessage());
+			return "";
 		}
-		return "/" + toAdd;
+
+		return "";
 	}
 
 	/**
-	 * Makes sure the given string starts with a '/' but does not end with '/'.
+	 * Logs the context path read from the given file, as it is prefixed to all
+	 * paths of the module.
 	 * 
-	 * @param uri String to be brought to form.
-	 * @return the given String without a '/' in front.
+	 * @return the context path or an empty String, if there is none.
 	 */
-	private String startWithEndsWithoutSlash(String uri) {
-		uri = uri.trim();
-		if (!uri.startsWith("/")) {
-			uri = "/" + uri;
-		}
-		if (uri.endsWith("/")) {
-			uri = uri.substring(0, uri.length() - 2);
+	private String logContextPath(File configFile, String value) {
+		if (value == null) {
+			return "";
 		}
-		return uri;
-
+		log.info("Context path " + value + " read from " + configFile.getAbsolutePath());
+		return value;
 	}
 
 	/**
-	 * Searches for a context path in the apiConfigFile. Can execute 
-	 * on .properties and yaml files.
+	 * Looks up the given key in the loaded yaml. The key may be written as one key
+	 * or as nested keys.
 	 * 
-	 * @return context path, if found, else an empty String
+	 * @param yaml
+	 *            loaded yaml document.
+	 * @param key
+	 *            key with segments separated by dots.
+	 * @return the value or null, if not found.
 	 */
-	private String getApplicationPath() {
-		if (apiConfigFile == null || !apiConfigFile.exists()) {
-			return "";
+	private Object getYamlValue(Object yaml, String key) {
+		if (!(yaml instanceof Map)) {
+			return null;
 		}
-
-		String fileType = "";
-		if (apiConfigFile.isFile()) {
-			String[] fileName = apiConfigFile.getName().split(".");
-			fileType = fileName[fileName.length - 1];
+		Map<?, ?> map = (Map<?, ?>) yaml;
+		if (map.containsKey(key)) {
+			return map.get(key);
 		}
-
-		ClassLoader loader = this.getClass().getClassLoader();
-		try (InputStream stream = loader.getResourceAsStream(apiConfigFile.getAbsolutePath())) {
-			if (fileType.equalsIgnoreCase("properties")) {
-				Properties props = new Properties();
-				props.load(stream);
-				String value = props.getProperty("server.servlet.context-path");
-				return value == null ? "" : value;
-			} else if (fileType.equalsIgnoreCase("yml")) {
-				Yaml yaml = new Yaml();
-				Map<String, Object> obj = yaml.load(stream);
-				Object value = obj.get("server.servlet.context-path");
-				return value == null ? "" : value.toString();
+		for (int index = key.indexOf('.'); index != -1; index = key.indexOf('.', index + 1)) {
+			Object value = getYamlValue(map.get(key.substring(0, index)), key.substring(index + 1));
+			if (value != null) {
+				return value;
 			}
-		} catch (IOException e) {
-			log.error("Error reading property in file: " + apiConfigFile.getAbsolutePath());
-			log.error(e.getMessage());
-			return "";
 		}
-
-		return "";
+		return null;
 	}
 
 }
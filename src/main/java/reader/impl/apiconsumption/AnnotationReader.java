@@ -1,7 +1,8 @@
 package reader.impl.apiconsumption;
 
 import java.io.File;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -9,17 +10,21 @@ import java.util.Locale;
 import org.apache.maven.plugin.logging.Log;
 
 import com.google.common.collect.Sets;
-import com.thoughtworks.qdox.JavaProjectBuilder;
 import com.thoughtworks.qdox.model.JavaAnnotation;
 import com.thoughtworks.qdox.model.JavaClass;
 import com.thoughtworks.qdox.model.JavaMethod;
+import com.thoughtworks.qdox.model.JavaSource;
 import com.thoughtworks.qdox.model.impl.DefaultJavaAnnotation;
 
 import annotation.ConsumesAPI;
 import annotation.ConsumesAPIs;
 import reader.interfaces.ConsumesAPIReader;
+import sources.SourceFacts;
+import sources.SourceModel;
 import util.ConsumeDescription;
+import util.ConsumeIndex;
 import util.HttpMethods;
+import util.PathTemplate;
 
 /**
  * Class for reading ConsumesAPI and ConsumesAPIs annotations.
@@ -29,7 +34,11 @@ import util.HttpMethods;
  */
 public class AnnotationReader implements ConsumesAPIReader {
 
-	private Log log;
+	private static final List<String> MARKERS = Arrays.asList(ConsumesAPI.class.getSimpleName());
+
+	protected Log log;
+
+	private ConsumeIndex consumptions = new ConsumeIndex();
 
 	public AnnotationReader(Log log) {
 		this.log = log;
@@ -37,40 +46,60 @@ public class AnnotationReader implements ConsumesAPIReader {
 
 	@Override
 	public List<ConsumeDescription> getAPIConsumption(File src) {
-		List<ConsumeDescription> returnList = new ArrayList<>();
+		SourceModel.parse(src).accept(this);
+		return getAPIConsumption();
+	}
 
-		JavaProjectBuilder builder = new JavaProjectBuilder();
-		builder.addSourceTree(src);
+	@Override
+	public Collection<String> getMarkers() {
+		return MARKERS;
+	}
 
-		for (JavaClass clazz : builder.getClasses()) {
-			if (clazz.getSource().getImports().contains(ConsumesAPI.class.getCanonicalName())) {
-				log.info("Annotations in class: " + clazz.getCanonicalName());
-				searchForAPIInfo(clazz, returnList);
-			}
+	@Override
+	public void visitSource(JavaSource source, SourceFacts facts) {
+		// annotations are only evaluated on method level
+	}
 
+	@Override
+	public void visitClass(JavaClass clazz, SourceFacts facts) {
+		if (clazz.getSource().getImports().contains(ConsumesAPI.class.getCanonicalName())) {
+			log.info("Annotations in class: " + clazz.getCanonicalName());
+			ConsumeIndex consumes = new ConsumeIndex();
+			searchForAPIInfo(clazz, consumes);
+			facts.getConsumes().addAll(consumes.getConsumptions());
 		}
+	}
+
+	@Override
+	public void visitFacts(SourceFacts facts) {
+		for (ConsumeDescription consume : facts.getConsumes()) {
+			consumptions.add(consume);
+		}
+	}
 
-		return returnList;
+	@Override
+	public List<ConsumeDescription> getAPIConsumption() {
+		return consumptions.getConsumptions();
 	}
 
 	/**
 	 * Iterates through the methods of the given class and their annotations. If the
 	 * ConsumesAPI or ConsumesAPIs annotation are found, read the info and add it to
-	 * the returnList.
+	 * the index.
 	 * 
 	 * @param clazz
 	 *            class to be evaluated.
-	 * @param returnList
-	 *            List containing the found api consumption info.
+	 * @param consumes
+	 *            index merging the found api consumption info.
 	 */
-	private void searchForAPIInfo(JavaClass clazz, List<ConsumeDescription> returnList) {
+	private void searchForAPIInfo(JavaClass clazz, ConsumeIndex consumes) {
 		for (JavaMethod method : clazz.getMethods()) {
 			for (JavaAnnotation annotation : method.getAnnotations()) {
 				if (annotation.getType().getCanonicalName().equals(ConsumesAPI.class.getCanonicalName())) {
-					addConsumesAPIInfo(clazz, annotation, returnList);
+					addConsumesAPIInfo(clazz, annotation, consumes);
 				}
 				if (annotation.getType().getCanonicalName().equals(ConsumesAPIs.class.getCanonicalName())) {
-					addAllConsumesAPIInfo(clazz, annotation, returnList);
+					addAllConsumesAPIInfo(clazz, annotation, consumes);
 				}
 			}
 		}
@@ -85,11 +114,10 @@ public class AnnotationReader implements ConsumesAPIReader {
 	 *            JavaClass Object of the current class.
 	 * @param annotation
 	 *            Annotation, should be of type ConsumesAPIs.
-	 * @param consumeList
-	 *            List containing all found consume info. Results are added into it.
+	 * @param consumes
+	 *            index merging all found consume info. Results are added into it.
 	 */
-	private void addAllConsumesAPIInfo(JavaClass clazz, JavaAnnotation annotation,
-			List<ConsumeDescription> consumeList) {
+	private void addAllConsumesAPIInfo(JavaClass clazz, JavaAnnotation annotation, ConsumeIndex consumes) {
 		Object val = annotation.getNamedParameter("value");
 
 		if (val instanceof LinkedList) {
@@ -98,7 +126,7 @@ public class AnnotationReader implements ConsumesAPIReader {
 			for (Object obj : valList) {
 
 				if (obj instanceof DefaultJavaAnnotation) {
-					addConsumesAPIInfo(clazz, (DefaultJavaAnnotation) obj, consumeList);
+					addConsumesAPIInfo(clazz, (DefaultJavaAnnotation) obj, consumes);
 				}
 			}
 		}
@@ -106,18 +134,18 @@ public class AnnotationReader implements ConsumesAPIReader {
 
 	/**
 	 * Reads the parameter values in the annotation and wraps them in an
-	 * ConsumeDescriptionTriple object, which is added to the list, if there was not
-	 * already an object with the same path and service name.
+	 * consumption, which is merged into the consumption of the same service and
+	 * package in the index.
 	 * 
 	 * @param clazz
 	 *            JavaClass Object of the current class. Needed to find the current
 	 *            package.
 	 * @param annotation
 	 *            JavaAnnotation of type ConsumesAPI.class.
-	 * @param consumeList
-	 *            List to which the new info is to be added to.
+	 * @param consumes
+	 *            index to which the new info is to be added to.
 	 */
-	private void addConsumesAPIInfo(JavaClass clazz, JavaAnnotation annotation, List<ConsumeDescription> consumeList) {
+	private void addConsumesAPIInfo(JavaClass clazz, JavaAnnotation annotation, ConsumeIndex consumes) {
 		String name = ConsumesAPI.DEFAULT_SERVICE;
 
 		if (annotation.getNamedParameter("service") != null) {
@@ -136,19 +164,33 @@ public class AnnotationReader implements ConsumesAPIReader {
 		try {
 			HttpMethods.valueOf(methodName.toUpperCase(Locale.ROOT));
 			log.info(name + "  -  " + path + "  -  " + methodName);
-			if (!addToList(consumeList, name, packageName, path, methodName)) {
-				ConsumeDescription newTriple = new ConsumeDescription();
-				newTriple.setServiceName(name);
-				newTriple.setPackageName(packageName);
-				newTriple.addPathToMethod(path, Sets.newHashSet(methodName));
-				consumeList.add(newTriple);
-			}
+			addConsumption(consumes, name, packageName, path, methodName);
 		} catch (IllegalArgumentException e) {
 			log.error("Error at line: " + annotation.getLineNumber());
 			log.error(methodName + " is not a valid HttpMethod");
 		}
 	}
 
+	/**
+	 * Adds the given consumption to the ConsumeDescription in the index with the
+	 * same service and package name. If there is none, a new one is added.
+	 * 
+	 * @param consumes
+	 *            index to which the consumption is to be added to.
+	 * @param serviceName
+	 *            name of the consumed service.
+	 * @param packageName
+	 *            package in which the consumption was found.
+	 * @param path
+	 *            consumed path.
+	 * @param methodName
+	 *            consumed method.
+	 */
+	protected void addConsumption(ConsumeIndex consumes, String serviceName, String packageName, String path,
+			String methodName) {
+		consumes.add(serviceName, packageName, path, Sets.newHashSet(methodName));
+	}
+
 	/**
 	 * Checks if service name conforms to either [groupId]:[artifactId] or
 	 * [groupId]:[artifactId]:[version]
@@ -157,7 +199,7 @@ public class AnnotationReader implements ConsumesAPIReader {
 	 *            name to check
 	 * @return true, if name is a valid service tag
 	 */
-	private boolean couldBeValidService(String serviceName) {
+	protected boolean couldBeValidService(String serviceName) {
 		return serviceName.matches("([a-zA-Z\\.\\-\\_\\d]++\\:){1,2}([a-zA-Z\\.\\-\\_\\d]++)");
 	}
 
@@ -168,54 +210,19 @@ public class AnnotationReader implements ConsumesAPIReader {
 	 *            String to be formatted. won't be changed.
 	 * @return formatted String
 	 */
-	private String format(String toFormat) {
+	protected String format(String toFormat) {
 		return toFormat.trim().trim().replaceAll("\"", "");
 	}
 
-	private String setTypeInPath(String path) {
-		String setPath = "";
-		String[] splitPath = path.split("/");
-		if (splitPath == null) {
-			System.out.println("splitPath is null");
-			return path;
-		}
-		for (String part : splitPath) {
-			if (part.startsWith("{") && part.endsWith("}")) {
-				setPath = String.join("/", setPath, part.toUpperCase(Locale.ROOT));
-			} else if (!part.isEmpty()) {
-				setPath = String.join("/", setPath, part);
-			}
-		}
-		if (setPath == null || setPath.isEmpty()) {
-			return path;
-		}
-		return setPath;
-	}
-
 	/**
-	 * Searches for an ConsumeDescriptionTriple in the given list, which has the
-	 * given name and path set as its serviceName and path. If there is such an
-	 * object, the given method is added to it and the method returns true, else
-	 * nothing is done and false is returned.
+	 * Normalizes the given path and writes the names of its variables in upper
+	 * case, as they are expected to name the type of the variable.
 	 * 
-	 * @param consume
-	 * @param serviceName
 	 * @param path
-	 * @param method
-	 * @return
+	 *            consumed path.
+	 * @return normalized path.
 	 */
-	private boolean addToList(List<ConsumeDescription> consume, String serviceName, String packageName, String path,
-			String method) {
-
-		for (ConsumeDescription currentTriple : consume) {
-			if (currentTriple.getServiceName().equals(serviceName)
-					&& currentTriple.getPackageName().equals(packageName)) {
-				currentTriple.addPathToMethod(path, Sets.newHashSet(method));
-				return true;
-			}
-		}
-
-		return false;
-
+	protected String setTypeInPath(String path) {
+		return PathTemplate.parse(path).withUpperCaseVariables().toString();
 	}
 }
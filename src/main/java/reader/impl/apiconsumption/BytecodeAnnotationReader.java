@@ -0,0 +1,104 @@
+package reader.impl.apiconsumption;
+
+import java.io.File;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.maven.plugin.logging.Log;
+
+import annotation.ConsumesAPI;
+import annotation.ConsumesAPIs;
+import classfiles.ClassAnnotation;
+import classfiles.ClassFile;
+import classfiles.ClassFileAnalyzer;
+import classfiles.ClassFileVisitor;
+import classfiles.ClassMethod;
+import sources.SourceFacts;
+import util.ConsumeDescription;
+import util.ConsumeIndex;
+import util.HttpMethods;
+
+/**
+ * Class for reading ConsumesAPI and ConsumesAPIs annotations from compiled
+ * classes. Both annotations are retained in the class files.
+ * 
+ * @author gmittmann
+ *
+ */
+public class BytecodeAnnotationReader extends AnnotationReader implements ClassFileVisitor {
+
+	public BytecodeAnnotationReader(Log log) {
+		super(log);
+	}
+
+	/**
+	 * Returns the API consumption annotated in the class files in the given
+	 * directory.
+	 * 
+	 * @param src
+	 *            directory containing the compiled classes.
+	 * @return List of ConsumeDescriptions of the found annotations
+	 */
+	@Override
+	public List<ConsumeDescription> getAPIConsumption(File src) {
+		new ClassFileAnalyzer(src, log).analyze(this);
+		return getAPIConsumption();
+	}
+
+	@Override
+	public void visitClassFile(ClassFile classFile, SourceFacts facts) {
+		ConsumeIndex consumes = new ConsumeIndex();
+		for (ClassMethod method : classFile.getMethods()) {
+			for (ClassAnnotation annotation : method.getAnnotations()) {
+				if (annotation.getType().equals(ConsumesAPI.class.getCanonicalName())) {
+					addConsumesAPIInfo(classFile, annotation, consumes);
+				} else if (annotation.getType().equals(ConsumesAPIs.class.getCanonicalName())
+						&& annotation.getValue("value") instanceof List) {
+					for (Object obj : (List<?>) annotation.getValue("value")) {
+						if (obj instanceof ClassAnnotation) {
+							addConsumesAPIInfo(classFile, (ClassAnnotation) obj, consumes);
+						}
+					}
+				}
+			}
+		}
+		facts.getConsumes().addAll(consumes.getConsumptions());
+	}
+
+	/**
+	 * Reads the values of the given ConsumesAPI annotation and adds them to the
+	 * index.
+	 * 
+	 * @param classFile
+	 *            class in which the annotation was found.
+	 * @param annotation
+	 *            annotation of type ConsumesAPI.
+	 * @param consumes
+	 *            index to which the new info is to be added to.
+	 */
+	private void addConsumesAPIInfo(ClassFile classFile, ClassAnnotation annotation, ConsumeIndex consumes) {
+		String name = ConsumesAPI.DEFAULT_SERVICE;
+
+		if (annotation.getValue("service") != null) {
+			name = format(annotation.getValue("service").toString());
+			if (!couldBeValidService(name)) {
+				log.error(name + " is not a valid tag. Please follow the pattern of [groupId]:[artifactId].");
+				log.error("class: " + classFile.getClassName());
+				name = ConsumesAPI.DEFAULT_SERVICE;
+			}
+		}
+
+		String path = setTypeInPath(format(String.valueOf(annotation.getValue("path"))));
+		String methodName = format(String.valueOf(annotation.getValue("method")));
+
+		try {
+			HttpMethods.valueOf(methodName.toUpperCase(Locale.ROOT));
+			log.info(name + "  -  " + path + "  -  " + methodName);
+			addConsumption(consumes, name, classFile.getPackageName(), path, methodName);
+		} catch (IllegalArgumentException e) {
+			log.error("Error in class: " + classFile.getClassName());
+			log.error(methodName + " is not a valid HttpMethod");
+		}
+	}
+
+}
@@ -3,9 +3,10 @@ package reader.interfaces;
 import java.io.File;
 import java.util.List;
 
+import sources.SourceVisitor;
 import util.OfferDescription;
 
-public interface APIReader {
+public interface APIReader extends SourceVisitor {
 
 	/**
 	 * Form all REST-API annotation found in the given file into OfferDescriptions.
@@ -16,4 +17,12 @@ public interface APIReader {
 	 */
 	public List<OfferDescription> getPathsAndMethods(File src);
 
+	/**
+	 * Form all REST-API annotation found in the sources visited so far into
+	 * OfferDescriptions.
+	 * 
+	 * @return List of OfferDescriptions of the found annotations
+	 */
+	public List<OfferDescription> getPathsAndMethods();
+
 }
@@ -3,10 +3,18 @@ package reader.interfaces;
 import java.io.File;
 import java.util.List;
 
+import sources.SourceVisitor;
 import util.ConsumeDescription;
 
-public interface ConsumesAPIReader {
+public interface ConsumesAPIReader extends SourceVisitor {
 	
 	public List<ConsumeDescription> getAPIConsumption(File src);
 
+	/**
+	 * Returns the API consumption found in the sources visited so far.
+	 * 
+	 * @return List of ConsumeDescriptions of the found annotations
+	 */
+	public List<ConsumeDescription> getAPIConsumption();
+
 }
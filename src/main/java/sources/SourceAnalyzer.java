@@ -0,0 +1,171 @@
+package sources;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Extracts the facts of all source files of a module. Only files that changed
+ * since the last build are read, the facts of all other files are taken from
+ * the cache. Changed files are only parsed completely, if they contain one of
+ * the markers of the visitors.
+ * 
+ * @author gmittmann
+ *
+ */
+public class SourceAnalyzer {
+
+	private static final String HASH_ALGORITHM = "SHA-1";
+
+	private SourceRoots sourceRoots;
+	private SourceFactsCache cache;
+	private int threads;
+	private Log log;
+
+	/**
+	 * @param sourceRoots
+	 *            source roots of the module.
+	 * @param cache
+	 *            cache of the facts. If null, all files are parsed.
+	 * @param threads
+	 *            number of threads used for parsing by the whole build.
+	 * @param log
+	 *            log
+	 */
+	public SourceAnalyzer(SourceRoots sourceRoots, SourceFactsCache cache, int threads, Log log) {
+		this.sourceRoots = sourceRoots;
+		this.cache = cache;
+		this.threads = threads;
+		this.log = log;
+	}
+
+	/**
+	 * Parses all changed files and lets the visitors record their facts. Then
+	 * hands the facts of all files to the visitors, in order of the files.
+	 * 
+	 * @param visitors
+	 *            visitors to be called.
+	 * @return facts of all files.
+	 */
+	public List<SourceFacts> analyze(SourceVisitor... visitors) {
+		List<File> files = sourceRoots.getSourceFiles();
+		Map<String, SourceFacts> cachedFacts = cache == null ? Collections.emptyMap() : cache.load();
+		SourcePrefilter prefilter = createPrefilter(visitors);
+
+		Map<String, SourceFacts> unchangedFacts = new HashMap<>();
+		Map<String, SourceFacts> headerFacts = new HashMap<>();
+		Map<String, String> hashes = new HashMap<>();
+		List<File> changedFiles = new ArrayList<>();
+		for (File file : files) {
+			String path = getPath(file);
+			SourceFacts facts = cachedFacts.get(path);
+			try {
+				BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+				if (facts == null || facts.getSize() != attributes.size()
+						|| facts.getLastModified() != attributes.lastModifiedTime().toMillis()) {
+					byte[] content = Files.readAllBytes(file.toPath());
+					String hash = hash(content);
+					hashes.put(path, hash);
+					if (facts == null || !hash.equals(facts.getHash())) {
+						if (prefilter.matches(content)) {
+							changedFiles.add(file);
+						} else {
+							headerFacts.put(path, readHeader(path, content));
+						}
+						continue;
+					}
+					facts.setSize(attributes.size());
+					facts.setLastModified(attributes.lastModifiedTime().toMillis());
+				}
+				unchangedFacts.put(path, facts);
+			} catch (IOException e) {
+				log.error("could not open file: " + file.getAbsolutePath());
+			}
+		}
+		log.info("Source files: " + files.size() + ", unchanged: " + unchangedFacts.size() + ", to be parsed: "
+				+ changedFiles.size() + ", header only: " + headerFacts.size());
+
+		Map<String, SourceFacts> parsedFacts = SourceModel.parse(changedFiles, sourceRoots.getRoots(), threads, log).extract(visitors);
+		parsedFacts.putAll(headerFacts);
+
+		List<SourceFacts> allFacts = new ArrayList<>();
+		for (File file : files) {
+			String path = getPath(file);
+			SourceFacts facts = unchangedFacts.get(path);
+			if (facts == null) {
+				facts = parsedFacts.get(path);
+				if (facts == null) {
+					log.warn("No facts extracted for file: " + path);
+					continue;
+				}
+				facts.setSize(file.length());
+				facts.setLastModified(file.lastModified());
+				facts.setHash(hashes.get(path));
+			}
+			allFacts.add(facts);
+			for (SourceVisitor visitor : visitors) {
+				visitor.visitFacts(facts);
+			}
+		}
+
+		if (cache != null) {
+			cache.store(allFacts);
+		}
+		return allFacts;
+	}
+
+	/**
+	 * Creates a prefilter for the markers of all given visitors.
+	 */
+	private SourcePrefilter createPrefilter(SourceVisitor... visitors) {
+		List<String> markers = new ArrayList<>();
+		for (SourceVisitor visitor : visitors) {
+			markers.addAll(visitor.getMarkers());
+		}
+		return new SourcePrefilter(markers);
+	}
+
+	/**
+	 * Creates the facts of a file that contains no markers. Only its package and
+	 * imports are read.
+	 */
+	private SourceFacts readHeader(String path, byte[] content) {
+		SourceHeader header = SourceHeader.read(content);
+		SourceFacts facts = new SourceFacts(path);
+		facts.setPackageName(header.getPackageName());
+		facts.setImports(header.getImports());
+		return facts;
+	}
+
+	private String getPath(File file) {
+		return SourceFacts.getPath(file.toPath());
+	}
+
+	/**
+	 * Creates a hash of the given content of a file.
+	 * 
+	 * @param content
+	 *            content to be hashed.
+	 * @return hex representation of the hash.
+	 */
+	private String hash(byte[] content) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+			return new BigInteger(1, digest.digest(content)).toString(16);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(HASH_ALGORITHM + " not available", e);
+		}
+	}
+
+}
@@ -0,0 +1,139 @@
+package sources;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import util.ConsumeDescription;
+import util.HttpMethods;
+import util.OfferDescription;
+import util.Pair;
+
+/**
+ * Information extracted from a single source file: its package, its imports,
+ * the REST-API it offers and the APIs it consumes. Facts of unchanged files are
+ * cached between builds, so the file does not have to be parsed again.
+ * 
+ * @author gmittmann
+ *
+ */
+public class SourceFacts {
+
+	private String path;
+	private long size;
+	private long lastModified;
+	private String hash;
+
+	private String packageName;
+	private List<String> imports = new ArrayList<>();
+	private OfferDescription offer;
+	private String applicationPath;
+	private List<ConsumeDescription> consumes = new ArrayList<>();
+
+	public SourceFacts(String path) {
+		this.path = path;
+	}
+
+	/**
+	 * Returns the path the facts of the given file are keyed by. Facts are looked
+	 * up in the cache by this path, so every reader of files has to use it.
+	 * 
+	 * @param file
+	 *            the file.
+	 * @return absolute and normalized path of the file.
+	 */
+	public static String getPath(Path file) {
+		return file.toAbsolutePath().normalize().toString();
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public void setPath(String path) {
+		this.path = path;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public void setSize(long size) {
+		this.size = size;
+	}
+
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	public void setLastModified(long lastModified) {
+		this.lastModified = lastModified;
+	}
+
+	public String getHash() {
+		return hash;
+	}
+
+	public void setHash(String hash) {
+		this.hash = hash;
+	}
+
+	public String getPackageName() {
+		return packageName;
+	}
+
+	public void setPackageName(String packageName) {
+		this.packageName = packageName;
+	}
+
+	public List<String> getImports() {
+		return imports;
+	}
+
+	public void setImports(List<String> imports) {
+		this.imports = imports;
+	}
+
+	public OfferDescription getOffer() {
+		return offer;
+	}
+
+	public void setOffer(OfferDescription offer) {
+		this.offer = offer;
+	}
+
+	/**
+	 * Adds the given mapping to the offer of this file.
+	 * 
+	 * @param packageName
+	 *            package of the class declaring the mapping.
+	 * @param mapping
+	 *            path and method of the mapping.
+	 */
+	public void addOffer(String packageName, Pair<String, HttpMethods> mapping) {
+		if (offer == null) {
+			offer = new OfferDescription();
+			offer.setPackageName(packageName);
+			offer.setPathToMethodMappings(new HashMap<>());
+		}
+		offer.addPathToMethod(mapping);
+	}
+
+	public String getApplicationPath() {
+		return applicationPath;
+	}
+
+	public void setApplicationPath(String applicationPath) {
+		this.applicationPath = applicationPath;
+	}
+
+	public List<ConsumeDescription> getConsumes() {
+		return consumes;
+	}
+
+	public void setConsumes(List<ConsumeDescription> consumes) {
+		this.consumes = consumes;
+	}
+
+}
@@ -0,0 +1,128 @@
+package sources;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.logging.Log;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+
+import filemanagement.FileWriter;
+import filemanagement.InfoTypeAdapterFactory;
+
+/**
+ * On-disk cache of the {@link SourceFacts} of a module. The cache is only valid
+ * for the key it was written with. The key is to contain everything besides the
+ * content of the files that influences the facts, e.g. the plugin version and
+ * the configuration of the readers.
+ * 
+ * @author gmittmann
+ *
+ */
+public class SourceFactsCache {
+
+	public static final String FOLDER_NAME = ".cache";
+	public static final String FILE_NAME = "sourceFacts";
+
+	private static final Gson GSON = new GsonBuilder().registerTypeAdapterFactory(new InfoTypeAdapterFactory())
+			.create();
+
+	private final Path cacheFile;
+	private final String key;
+	private final Log log;
+
+	public SourceFactsCache(Path cacheDir, String key, Log log) {
+		this.cacheFile = cacheDir.resolve(FILE_NAME + ".json");
+		this.key = key;
+		this.log = log;
+	}
+
+	/**
+	 * Creates a cache key out of the given values.
+	 * 
+	 * @param values
+	 *            values the cached facts depend on. May contain null.
+	 * @return key for the cache.
+	 */
+	public static String createKey(Object... values) {
+		StringBuilder builder = new StringBuilder();
+		for (Object value : values) {
+			builder.append(value).append('|');
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Reads the cached facts. If there is no cache, it can't be read or was
+	 * written with another key, no facts are returned.
+	 * 
+	 * @return cached facts mapped to the absolute path of their file.
+	 */
+	public Map<String, SourceFacts> load() {
+		Map<String, SourceFacts> facts = new HashMap<>();
+		if (!Files.isReadable(cacheFile)) {
+			return facts;
+		}
+
+		try (JsonReader reader = new JsonReader(
+				new InputStreamReader(new FileInputStream(cacheFile.toFile()), FileWriter.CHARSET))) {
+			CacheContent content = GSON.fromJson(reader, CacheContent.class);
+			if (content == null || !key.equals(content.key) || content.facts == null) {
+				log.info("Source cache is outdated and will be rebuilt.");
+				return facts;
+			}
+			for (SourceFacts fileFacts : content.facts) {
+				facts.put(fileFacts.getPath(), fileFacts);
+			}
+		} catch (IOException | JsonParseException | IllegalStateException e) {
+			log.warn("Could not read source cache: " + e.getMessage());
+		}
+		return facts;
+	}
+
+	/**
+	 * Replaces the cached facts with the given ones. The file is replaced
+	 * atomically, so an aborted build leaves the previous cache.
+	 * 
+	 * @param facts
+	 *            facts of all files of the module.
+	 */
+	public void store(Collection<SourceFacts> facts) {
+		CacheContent content = new CacheContent();
+		content.key = key;
+		content.facts = new ArrayList<>(facts);
+
+		try {
+			Files.createDirectories(cacheFile.getParent());
+			FileWriter.writeAtomically(cacheFile, stream -> {
+				OutputStreamWriter out = new OutputStreamWriter(stream, FileWriter.CHARSET);
+				GSON.toJson(content, out);
+				out.flush();
+			});
+		} catch (IOException | JsonIOException e) {
+			log.warn("Could not write source cache: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Content of the cache file.
+	 */
+	private static class CacheContent {
+		private String key;
+		private List<SourceFacts> facts;
+	}
+
+}
@@ -0,0 +1,300 @@
+package sources;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Package and imports of a source file, read without parsing the whole file.
+ * The source is lexed only up to its first type declaration. Unicode escapes
+ * are translated; comments, string and character literals and annotations on
+ * the package are skipped. No model of the source is kept.
+ *
+ * @author gmittmann
+ *
+ */
+public class SourceHeader {
+
+	private static final String PACKAGE = "package";
+	private static final String IMPORT = "import";
+	private static final String STATIC = "static";
+	private static final String INTERFACE = "interface";
+	private static final String ANNOTATION = "@";
+	private static final String SEMICOLON = ";";
+	private static final String OPENING_PARENTHESIS = "(";
+	private static final String CLOSING_PARENTHESIS = ")";
+	private static final String DOT = ".";
+	private static final String LITERAL = "\"\"";
+
+	private String packageName = "";
+	private List<String> imports = new ArrayList<>();
+
+	private SourceHeader() {
+	}
+
+	/**
+	 * Reads the header of the given source.
+	 *
+	 * @param content
+	 *            content of the source file, encoded in UTF-8.
+	 * @return package and imports of the source.
+	 */
+	public static SourceHeader read(byte[] content) {
+		try {
+			return read(new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			// cannot happen on an array
+			return new SourceHeader();
+		}
+	}
+
+	/**
+	 * Reads the header of the given source. The reader is only read up to the
+	 * first type declaration and is not closed.
+	 *
+	 * @param reader
+	 *            reader of the source file.
+	 * @return package and imports of the source.
+	 * @throws IOException
+	 *             if the source can't be read.
+	 */
+	public static SourceHeader read(Reader reader) throws IOException {
+		SourceHeader header = new SourceHeader();
+		Lexer lexer = new Lexer(reader);
+		String token = lexer.next();
+		while (token != null) {
+			if (PACKAGE.equals(token)) {
+				header.packageName = readName(lexer);
+			} else if (IMPORT.equals(token)) {
+				String next = lexer.next();
+				if (STATIC.equals(next)) {
+					header.imports.add(STATIC + " " + readName(lexer));
+				} else {
+					lexer.pushBack(next);
+					header.imports.add(readName(lexer));
+				}
+			} else if (ANNOTATION.equals(token)) {
+				if (!skipAnnotation(lexer)) {
+					break;
+				}
+			} else if (!SEMICOLON.equals(token)) {
+				break; // start of the first type declaration
+			}
+			token = lexer.next();
+		}
+		return header;
+	}
+
+	/**
+	 * Reads a qualified name up to the next semicolon.
+	 */
+	private static String readName(Lexer lexer) throws IOException {
+		StringBuilder name = new StringBuilder();
+		String token = lexer.next();
+		while (token != null && !SEMICOLON.equals(token)) {
+			name.append(token);
+			token = lexer.next();
+		}
+		return name.toString();
+	}
+
+	/**
+	 * Skips the name and the arguments of an annotation.
+	 *
+	 * @return false, if the annotation is the declaration of an annotation type.
+	 */
+	private static boolean skipAnnotation(Lexer lexer) throws IOException {
+		String token = lexer.next();
+		if (INTERFACE.equals(token)) {
+			return false;
+		}
+		token = lexer.next();
+		while (DOT.equals(token)) {
+			lexer.next();
+			token = lexer.next();
+		}
+		if (!OPENING_PARENTHESIS.equals(token)) {
+			lexer.pushBack(token);
+			return true;
+		}
+		int depth = 1;
+		while (depth > 0 && (token = lexer.next()) != null) {
+			if (OPENING_PARENTHESIS.equals(token)) {
+				depth++;
+			} else if (CLOSING_PARENTHESIS.equals(token)) {
+				depth--;
+			}
+		}
+		return true;
+	}
+
+	public String getPackageName() {
+		return packageName;
+	}
+
+	public List<String> getImports() {
+		return imports;
+	}
+
+	/**
+	 * Splits a source into identifiers and single symbols. Whitespace and
+	 * comments are skipped, literals are returned as {@link SourceHeader#LITERAL}.
+	 */
+	private static class Lexer {
+
+		private static final int EOF = -1;
+
+		private PushbackReader reader;
+		private String pushedBack;
+		private int backslashes;
+
+		private Lexer(Reader reader) {
+			this.reader = new PushbackReader(reader, 2);
+		}
+
+		private void pushBack(String token) {
+			pushedBack = token;
+		}
+
+		/**
+		 * @return the next token or null at the end of the source.
+		 */
+		private String next() throws IOException {
+			if (pushedBack != null) {
+				String token = pushedBack;
+				pushedBack = null;
+				return token;
+			}
+			while (true) {
+				int c = read();
+				if (c == EOF) {
+					return null;
+				} else if (Character.isWhitespace(c)) {
+					continue;
+				} else if (c == '/' && skipComment()) {
+					continue;
+				} else if (c == '"') {
+					skipString();
+					return LITERAL;
+				} else if (c == '\'') {
+					skipUntil('\'');
+					return LITERAL;
+				} else if (Character.isJavaIdentifierStart(c)) {
+					StringBuilder identifier = new StringBuilder().append((char) c);
+					while ((c = read()) != EOF && Character.isJavaIdentifierPart(c)) {
+						identifier.append((char) c);
+					}
+					unread(c);
+					return identifier.toString();
+				}
+				return String.valueOf((char) c);
+			}
+		}
+
+		/**
+		 * Skips a comment after a slash.
+		 *
+		 * @return false, if the slash does not start a comment.
+		 */
+		private boolean skipComment() throws IOException {
+			int c = read();
+			if (c == '/') {
+				while ((c = read()) != EOF && c != '\n' && c != '\r') {
+					// skip line comment
+				}
+				return true;
+			} else if (c == '*') {
+				int previous = 0;
+				while ((c = read()) != EOF && !(previous == '*' && c == '/')) {
+					previous = c;
+				}
+				return true;
+			}
+			unread(c);
+			return false;
+		}
+
+		/**
+		 * Skips a string literal or text block after the opening quote.
+		 */
+		private void skipString() throws IOException {
+			int second = read();
+			if (second != '"') {
+				unread(second);
+				skipUntil('"');
+				return;
+			}
+			int third = read();
+			if (third != '"') { // empty string
+				unread(third);
+				return;
+			}
+			int quotes = 0;
+			int c;
+			while (quotes < 3 && (c = read()) != EOF) {
+				if (c == '\\') {
+					read();
+					quotes = 0;
+				} else {
+					quotes = c == '"' ? quotes + 1 : 0;
+				}
+			}
+		}
+
+		/**
+		 * Skips a literal up to the given unescaped closing character.
+		 */
+		private void skipUntil(char closing) throws IOException {
+			int c;
+			while ((c = read()) != EOF && c != closing && c != '\n') {
+				if (c == '\\') {
+					read();
+				}
+			}
+		}
+
+		/**
+		 * Reads the next character, translating unicode escapes like the compiler
+		 * does before lexing.
+		 */
+		private int read() throws IOException {
+			int c = reader.read();
+			if (c != '\\') {
+				backslashes = 0;
+				return c;
+			}
+			/* only a backslash preceded by an even number of backslashes starts an escape */
+			if (backslashes++ % 2 == 1) {
+				return c;
+			}
+			int next = reader.read();
+			if (next != 'u') {
+				unread(next);
+				return c;
+			}
+			while ((next = reader.read()) == 'u') {
+				// several u are allowed
+			}
+			int value = Character.digit(next, 16);
+			for (int i = 0; i < 3 && value >= 0; i++) {
+				int digit = Character.digit(reader.read(), 16);
+				value = digit < 0 ? -1 : value * 16 + digit;
+			}
+			backslashes = 0;
+			return value < 0 ? EOF : value;
+		}
+
+		private void unread(int c) throws IOException {
+			if (c != EOF) {
+				reader.unread(c);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,194 @@
+package sources;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.apache.maven.plugin.logging.Log;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaSource;
+
+/**
+ * Read-only model of the parsed sources of a module. The sources are parsed
+ * only once and can then be visited by any number of {@link SourceVisitor}s in
+ * a single traversal.
+ * 
+ * @author gmittmann
+ *
+ */
+public class SourceModel {
+
+	/** Builders of a slice parse at least this number of files. */
+	private static final int MIN_SLICE_SIZE = 64;
+
+	private static ForkJoinPool pool;
+
+	private final Collection<JavaSource> sources;
+
+	private SourceModel(Collection<JavaSource> sources) {
+		this.sources = Collections.unmodifiableCollection(sources);
+	}
+
+	/**
+	 * Parses all java files in the given directory and its subdirectories.
+	 * 
+	 * @param src
+	 *            directory to be parsed.
+	 * @return model containing the parsed sources.
+	 */
+	public static SourceModel parse(File src) {
+		JavaProjectBuilder builder = new JavaProjectBuilder();
+		builder.addSourceTree(src);
+		return new SourceModel(builder.getSources());
+	}
+
+	/**
+	 * Parses the given source files. The files are split into one slice per
+	 * thread, each parsed by its own builder. Every builder resolves types from
+	 * the source roots, so it sees the whole source set and not only its slice.
+	 * The slices are joined in the order of the files, so the resulting model
+	 * does not depend on the number of threads.
+	 * 
+	 * @param files
+	 *            source files to be parsed.
+	 * @param sourceRoots
+	 *            source roots of the module, used to resolve types.
+	 * @param threads
+	 *            number of threads used for parsing by the whole build. If less
+	 *            than 1, the number of available processors is used.
+	 * @param log
+	 *            log
+	 * @return model containing the parsed sources.
+	 */
+	public static SourceModel parse(List<File> files, List<Path> sourceRoots, int threads, Log log) {
+		int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		ForkJoinPool pool = getPool(parallelism, log);
+		int slices = Math.max(1, Math.min(pool.getParallelism(), files.size() / MIN_SLICE_SIZE));
+
+		List<ForkJoinTask<List<JavaSource>>> tasks = new ArrayList<>(slices);
+		for (int i = 0; i < slices; i++) {
+			List<File> slice = files.subList(i * files.size() / slices, (i + 1) * files.size() / slices);
+			tasks.add(pool.submit(() -> parse(slice, sourceRoots, log)));
+		}
+		List<JavaSource> sources = new ArrayList<>(files.size());
+		for (ForkJoinTask<List<JavaSource>> task : tasks) {
+			sources.addAll(task.join());
+		}
+		log.info("Parsed " + files.size() + " source files in " + slices + " slice(s)");
+		return new SourceModel(sources);
+	}
+
+	/**
+	 * Parses a slice of the files into a builder of its own.
+	 */
+	private static List<JavaSource> parse(List<File> files, List<Path> sourceRoots, Log log) {
+		JavaProjectBuilder builder = new JavaProjectBuilder();
+		for (Path sourceRoot : sourceRoots) {
+			builder.addSourceFolder(sourceRoot.toFile());
+		}
+		List<JavaSource> sources = new ArrayList<>(files.size());
+		for (File file : files) {
+			try {
+				sources.add(builder.addSource(file));
+			} catch (IOException e) {
+				log.error("could not open file: " + file.getAbsolutePath());
+			}
+		}
+		return sources;
+	}
+
+	/**
+	 * Returns the pool shared by all modules of the build. It is created with the
+	 * parallelism of the first module, so modules built in parallel together use
+	 * at most this number of parser threads.
+	 */
+	private static synchronized ForkJoinPool getPool(int parallelism, Log log) {
+		if (pool == null) {
+			pool = new ForkJoinPool(parallelism);
+		} else if (pool.getParallelism() != parallelism) {
+			log.debug("Parser threads are shared by the build, using " + pool.getParallelism());
+		}
+		return pool;
+	}
+
+	public Collection<JavaSource> getSources() {
+		return sources;
+	}
+
+	/**
+	 * Traverses the model once. For each source, the visitors record their
+	 * information into the facts of the source while visiting it and its
+	 * (nested) classes, and are handed the recorded facts afterwards.
+	 * 
+	 * @param visitors
+	 *            visitors to be called.
+	 * @return facts of all sources, in order of the sources.
+	 */
+	public List<SourceFacts> accept(SourceVisitor... visitors) {
+		List<SourceFacts> allFacts = new ArrayList<>(extract(visitors).values());
+		for (SourceFacts facts : allFacts) {
+			for (SourceVisitor visitor : visitors) {
+				visitor.visitFacts(facts);
+			}
+		}
+		return allFacts;
+	}
+
+	/**
+	 * Records the facts of all sources of the model. The package and imports of a
+	 * source are recorded directly, everything else is recorded by the visitors
+	 * while visiting the source and its (nested) classes.
+	 * 
+	 * @param visitors
+	 *            visitors to be called.
+	 * @return facts of the sources mapped to the absolute path of their file, in
+	 *         order of the sources.
+	 */
+	public Map<String, SourceFacts> extract(SourceVisitor... visitors) {
+		Map<String, SourceFacts> allFacts = new LinkedHashMap<>();
+		for (JavaSource source : sources) {
+			SourceFacts facts = new SourceFacts(getPath(source));
+			facts.setPackageName(source.getPackageName());
+			facts.setImports(new ArrayList<>(source.getImports()));
+
+			for (SourceVisitor visitor : visitors) {
+				visitor.visitSource(source, facts);
+			}
+			for (JavaClass javaClass : source.getClasses()) {
+				visitClass(javaClass, facts, visitors);
+			}
+			allFacts.put(facts.getPath(), facts);
+		}
+		return allFacts;
+	}
+
+	private String getPath(JavaSource source) {
+		try {
+			return SourceFacts.getPath(Paths.get(source.getURL().toURI()));
+		} catch (URISyntaxException e) {
+			return source.getURL().getPath();
+		}
+	}
+
+	private void visitClass(JavaClass javaClass, SourceFacts facts, SourceVisitor[] visitors) {
+		for (SourceVisitor visitor : visitors) {
+			visitor.visitClass(javaClass, facts);
+		}
+		for (JavaClass nestedClass : javaClass.getNestedClasses()) {
+			visitClass(nestedClass, facts, visitors);
+		}
+	}
+
+}
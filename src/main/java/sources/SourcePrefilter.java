@@ -0,0 +1,63 @@
+package sources;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Scans the raw bytes of source files for marker tokens, e.g. the names of
+ * annotations. Only files containing a marker need to be parsed completely.
+ * The markers are expected to be ASCII, so they are found in all ASCII
+ * compatible encodings.
+ * 
+ * @author gmittmann
+ *
+ */
+public class SourcePrefilter {
+
+	private List<byte[]> markers = new ArrayList<>();
+
+	/**
+	 * @param markers
+	 *            tokens of which a file has to contain at least one.
+	 */
+	public SourcePrefilter(Collection<String> markers) {
+		for (String marker : markers) {
+			if (marker != null && !marker.isEmpty()) {
+				this.markers.add(marker.getBytes(StandardCharsets.US_ASCII));
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the given content contains at least one of the markers.
+	 * 
+	 * @param content
+	 *            content of the file.
+	 * @return true, if a marker was found.
+	 */
+	public boolean matches(byte[] content) {
+		for (int i = 0; i < content.length; i++) {
+			for (byte[] marker : markers) {
+				if (content[i] == marker[0] && startsWith(content, i, marker)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean startsWith(byte[] content, int offset, byte[] marker) {
+		if (offset + marker.length > content.length) {
+			return false;
+		}
+		for (int i = 1; i < marker.length; i++) {
+			if (content[offset + i] != marker[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,210 @@
+package sources;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.AbstractScanner;
+import org.codehaus.plexus.util.MatchPatterns;
+
+import collectors.InformationCollector;
+import collectors.PackageTrie;
+
+/**
+ * Resolves the source roots and source files of a module. The roots are taken
+ * from the compile source roots of the Maven project, so test sources, build
+ * output and other files in the module directory are never looked at. Sources
+ * generated into the build directory are only used if explicitly requested.
+ * Directories of blacklisted packages are not entered.
+ * 
+ * @author gmittmann
+ *
+ */
+public class SourceRoots {
+
+	public static final String DEFAULT_INCLUDE = "**/*.java";
+
+	private static final String ALL = "**";
+
+	private final List<Path> roots;
+	private final MatchPatterns includes;
+	private final MatchPatterns excludes;
+	private final MatchPatterns directoryExcludes;
+	private final PackageTrie blackListPackages = new PackageTrie();
+
+	private SourceRoots(List<Path> roots, String[] includes, String[] excludes, Set<String> blackList) {
+		this.roots = Collections.unmodifiableList(roots);
+		List<String> allExcludes = new ArrayList<>(Arrays.asList(excludes));
+		allExcludes.addAll(Arrays.asList(AbstractScanner.DEFAULTEXCLUDES));
+		this.includes = MatchPatterns.from(normalize(Arrays.asList(includes)));
+		this.excludes = MatchPatterns.from(normalize(allExcludes));
+		// patterns excluding everything below a directory
+		this.directoryExcludes = MatchPatterns.from(
+				normalize(allExcludes).stream().filter(pattern -> pattern.endsWith(ALL)).collect(Collectors.toList()));
+		if (blackList != null) {
+			for (String name : blackList) {
+				if (name != null) {
+					blackListPackages.add(name, 0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Resolves the existing compile source roots of the given project.
+	 * 
+	 * @param project
+	 *            project whose source roots are resolved.
+	 * @param includeGenerated
+	 *            whether source roots inside the build directory (generated
+	 *            sources) are to be used.
+	 * @param includes
+	 *            glob patterns of the files to be used, relative to the source
+	 *            root. If empty, all java files are used.
+	 * @param excludes
+	 *            glob patterns of the files to be skipped, relative to the
+	 *            source root.
+	 * @param blackList
+	 *            packages whose directories, including all sub-packages, are
+	 *            skipped.
+	 * @param log
+	 *            log
+	 * @return the resolved source roots.
+	 */
+	public static SourceRoots resolve(MavenProject project, boolean includeGenerated, Set<String> includes,
+			Set<String> excludes, Set<String> blackList, Log log) {
+		Path buildDir = InformationCollector.getBuildDirectory(project).toAbsolutePath().normalize();
+		List<Path> roots = new ArrayList<>();
+
+		for (String root : project.getCompileSourceRoots()) {
+			Path rootPath = Paths.get(root).toAbsolutePath().normalize();
+			if (!rootPath.toFile().isDirectory() || roots.contains(rootPath)) {
+				continue;
+			}
+			if (!includeGenerated && rootPath.startsWith(buildDir)) {
+				log.info("Skipping generated source root: " + rootPath);
+				continue;
+			}
+			roots.add(rootPath);
+		}
+		log.info("Source roots: " + roots);
+
+		return new SourceRoots(roots, toArray(includes, DEFAULT_INCLUDE), toArray(excludes, null), blackList);
+	}
+
+	public List<Path> getRoots() {
+		return roots;
+	}
+
+	/**
+	 * Walks all source roots for files matching the include and exclude
+	 * patterns. The roots are walked in parallel. Directories that are excluded
+	 * completely, can't contain included files or belong to a blacklisted package
+	 * are not entered.
+	 * 
+	 * @return all matching files, sorted by their path within each source root.
+	 */
+	public List<File> getSourceFiles() {
+		return roots.parallelStream().map(this::getSourceFiles).flatMap(List::stream).collect(Collectors.toList());
+	}
+
+	private List<File> getSourceFiles(Path root) {
+		List<String> includedFiles = new ArrayList<>();
+		try {
+			Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+					if (dir.equals(root)) {
+						return FileVisitResult.CONTINUE;
+					}
+					String name = root.relativize(dir).toString();
+					if (directoryExcludes.matches(name, true) || !includes.matchesPatternStart(name, true)
+							|| blackListPackages.contains(getPackageName(root.relativize(dir)))) {
+						return FileVisitResult.SKIP_SUBTREE;
+					}
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					String name = root.relativize(file).toString();
+					if (attrs.isRegularFile() && includes.matches(name, true) && !excludes.matches(name, true)) {
+						includedFiles.add(name);
+					}
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException exc) {
+					// unreadable files are skipped, like by the directory scanner
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+					return FileVisitResult.CONTINUE;
+				}
+
+			});
+		} catch (IOException e) {
+			// not thrown, as all failures are skipped by the visitor
+		}
+		Collections.sort(includedFiles);
+		List<File> files = new ArrayList<>();
+		for (String file : includedFiles) {
+			files.add(new File(root.toFile(), file));
+		}
+		return files;
+	}
+
+	/**
+	 * @param relativeDir
+	 *            directory relative to the source root.
+	 * @return name of the package of the directory.
+	 */
+	private static String getPackageName(Path relativeDir) {
+		StringBuilder name = new StringBuilder();
+		for (Path segment : relativeDir) {
+			if (name.length() > 0) {
+				name.append('.');
+			}
+			name.append(segment.toString());
+		}
+		return name.toString();
+	}
+
+	/**
+	 * Normalizes the separators of the given patterns. Patterns ending with a
+	 * separator match everything below, as in the directory scanner.
+	 */
+	private static List<String> normalize(List<String> patterns) {
+		List<String> normalized = new ArrayList<>();
+		for (String pattern : patterns) {
+			String path = pattern.trim().replace('/', File.separatorChar).replace('\\', File.separatorChar);
+			normalized.add(path.endsWith(File.separator) ? path + ALL : path);
+		}
+		return normalized;
+	}
+
+	private static String[] toArray(Set<String> patterns, String defaultPattern) {
+		if (patterns == null || patterns.isEmpty()) {
+			return defaultPattern == null ? new String[0] : new String[] { defaultPattern };
+		}
+		return patterns.toArray(new String[patterns.size()]);
+	}
+
+}
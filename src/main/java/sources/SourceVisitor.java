@@ -0,0 +1,68 @@
+package sources;
+
+import java.util.Collection;
+
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaSource;
+
+/**
+ * Visitor over the sources of a module. Used to let all readers and collectors
+ * extract their information in a single traversal.
+ * 
+ * The traversal has two steps for each file: if the file was parsed, the
+ * visitor records what it needs into the {@link SourceFacts} of the file while
+ * visiting the source and its classes. Afterwards, the visitor is handed the
+ * facts of every file, regardless of whether they were just recorded or taken
+ * from the cache, and adds them to its results.
+ * 
+ * Only files containing at least one of the markers of the visitors are
+ * parsed. Of all other files, only the package and the imports are read.
+ * 
+ * @author gmittmann
+ *
+ */
+public interface SourceVisitor {
+
+	/**
+	 * Returns the tokens of which a source file has to contain at least one for
+	 * the visitor to find anything in it, e.g. the names of the annotations it
+	 * evaluates.
+	 * 
+	 * @return the markers. Empty, if the visitor only evaluates the package and
+	 *         the imports of the files.
+	 */
+	public Collection<String> getMarkers();
+
+	/**
+	 * Called once for every parsed source file, before its classes are visited.
+	 * 
+	 * @param source
+	 *            the parsed source file.
+	 * @param facts
+	 *            facts of the file, into which the found information is to be
+	 *            recorded.
+	 */
+	public void visitSource(JavaSource source, SourceFacts facts);
+
+	/**
+	 * Called once for every class of a parsed source file, including nested
+	 * classes.
+	 * 
+	 * @param javaClass
+	 *            the parsed class.
+	 * @param facts
+	 *            facts of the file declaring the class, into which the found
+	 *            information is to be recorded.
+	 */
+	public void visitClass(JavaClass javaClass, SourceFacts facts);
+
+	/**
+	 * Called once for every source file with the recorded or cached facts of the
+	 * file.
+	 * 
+	 * @param facts
+	 *            facts of the file.
+	 */
+	public void visitFacts(SourceFacts facts);
+
+}
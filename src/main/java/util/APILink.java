@@ -0,0 +1,84 @@
+package util;
+
+/**
+ * Link from a consumed path of a service to the offered path serving it.
+ * 
+ * @author gmittmann
+ *
+ */
+public class APILink {
+
+	private String consumerTag;
+	private String consumerPackage;
+	private String serviceName;
+	private String path;
+	private String method;
+	private String providerTag;
+	private String providerPackage;
+	private String providerPath;
+
+	public String getConsumerTag() {
+		return consumerTag;
+	}
+
+	public void setConsumerTag(String consumerTag) {
+		this.consumerTag = consumerTag;
+	}
+
+	public String getConsumerPackage() {
+		return consumerPackage;
+	}
+
+	public void setConsumerPackage(String consumerPackage) {
+		this.consumerPackage = consumerPackage;
+	}
+
+	public String getServiceName() {
+		return serviceName;
+	}
+
+	public void setServiceName(String serviceName) {
+		this.serviceName = serviceName;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public void setPath(String path) {
+		this.path = path;
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	public void setMethod(String method) {
+		this.method = method;
+	}
+
+	public String getProviderTag() {
+		return providerTag;
+	}
+
+	public void setProviderTag(String providerTag) {
+		this.providerTag = providerTag;
+	}
+
+	public String getProviderPackage() {
+		return providerPackage;
+	}
+
+	public void setProviderPackage(String providerPackage) {
+		this.providerPackage = providerPackage;
+	}
+
+	public String getProviderPath() {
+		return providerPath;
+	}
+
+	public void setProviderPath(String providerPath) {
+		this.providerPath = providerPath;
+	}
+
+}
@@ -21,7 +21,7 @@ public class ConsumeDescription {
 	}
 
 	public void setServiceName(String serviceName) {
-		this.serviceName = serviceName;
+		this.serviceName = StringPool.intern(serviceName);
 	}
 
 	public String getPackageName() {
@@ -29,7 +29,7 @@ public class ConsumeDescription {
 	}
 
 	public void setPackageName(String packageName) {
-		this.packageName = packageName;
+		this.packageName = StringPool.intern(packageName);
 	}
 
 	public Map<String, Set<String>> getPathToMethods() {
@@ -41,6 +41,7 @@ public class ConsumeDescription {
 	}
 
 	public void addPathToMethod(String path, Set<String> methods) {
+		path = StringPool.intern(path);
 		if (pathToMethods == null || pathToMethods.isEmpty()) {
 			this.pathToMethods = new HashMap<>();
 			this.pathToMethods.put(path, methods);
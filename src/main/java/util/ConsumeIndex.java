@@ -0,0 +1,91 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Merges consumed API by consumed service and consuming package. Consumptions
+ * with the same service and package are merged into one ConsumeDescription,
+ * whose path to method mappings are extended in place. The descriptions added
+ * are not changed.
+ * 
+ * @author gmittmann
+ *
+ */
+public class ConsumeIndex {
+
+	private Map<List<String>, ConsumeDescription> consumptions = new LinkedHashMap<>();
+
+	/**
+	 * Merges the given consumption into the consumption of its service and
+	 * package.
+	 * 
+	 * @param consumption
+	 *            consumption to be added.
+	 */
+	public void add(ConsumeDescription consumption) {
+		if (consumption.getPathToMethods() == null) {
+			getConsumption(consumption.getServiceName(), consumption.getPackageName());
+			return;
+		}
+		for (Entry<String, Set<String>> entry : consumption.getPathToMethods().entrySet()) {
+			add(consumption.getServiceName(), consumption.getPackageName(), entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Adds the given methods of the path to the consumption of the service by the
+	 * package.
+	 * 
+	 * @param serviceName
+	 *            consumed service.
+	 * @param packageName
+	 *            consuming package.
+	 * @param path
+	 *            consumed path.
+	 * @param methods
+	 *            consumed methods.
+	 */
+	public void add(String serviceName, String packageName, String path, Set<String> methods) {
+		ConsumeDescription consumption = getConsumption(serviceName, packageName);
+		Map<String, Set<String>> pathToMethods = consumption.getPathToMethods();
+		if (pathToMethods == null) {
+			pathToMethods = new HashMap<>();
+			consumption.setPathToMethods(pathToMethods);
+		}
+		Set<String> mergedMethods = pathToMethods.get(path);
+		if (mergedMethods == null) {
+			mergedMethods = new HashSet<>();
+			pathToMethods.put(StringPool.intern(path), mergedMethods);
+		}
+		if (methods != null) {
+			for (String method : methods) {
+				mergedMethods.add(StringPool.intern(method));
+			}
+		}
+	}
+
+	/**
+	 * @return the merged consumptions, in the order they were added first.
+	 */
+	public List<ConsumeDescription> getConsumptions() {
+		return new ArrayList<>(consumptions.values());
+	}
+
+	private ConsumeDescription getConsumption(String serviceName, String packageName) {
+		return consumptions.computeIfAbsent(Arrays.asList(serviceName, packageName), key -> {
+			ConsumeDescription consumption = new ConsumeDescription();
+			consumption.setServiceName(serviceName);
+			consumption.setPackageName(packageName);
+			return consumption;
+		});
+	}
+
+}
@@ -1,7 +1,38 @@
 package util;
 
+import java.util.Set;
+
 public enum HttpMethods {
 	
-	GET, PUT, POST, DELETE, HEAD, OPTIONS, PATCH, ANY, TRACE, CONNECT
+	GET, PUT, POST, DELETE, HEAD, OPTIONS, PATCH, ANY, TRACE, CONNECT;
+
+	/**
+	 * @param method
+	 *            method to be checked.
+	 * @return true, if this method is the given one or ANY, which stands for all
+	 *         methods.
+	 */
+	public boolean includes(HttpMethods method) {
+		return this == ANY || this == method;
+	}
+
+	/**
+	 * Adds the method to the given set of methods. ANY stands for all methods, so
+	 * a set containing ANY contains no other method.
+	 * 
+	 * @param methods
+	 *            set to add to.
+	 * @param method
+	 *            method to be added, null is ignored.
+	 */
+	public static void addTo(Set<HttpMethods> methods, HttpMethods method) {
+		if (method == null || methods.contains(ANY)) {
+			return;
+		}
+		if (method == ANY) {
+			methods.clear();
+		}
+		methods.add(method);
+	}
 
 }
@@ -1,12 +1,11 @@
 package util;
 
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
-import com.google.common.collect.Sets;
-
 /**
  * Class containing all info needed to describe REST API
  * @author gesam
@@ -22,7 +21,7 @@ public class OfferDescription {
 	}
 	
 	public void setPackageName(String packageName) {
-		this.packageName = packageName;
+		this.packageName = StringPool.intern(packageName);
 	}
 
 	public Map<String, Set<HttpMethods>> getPathToMethodMappings() {
@@ -35,15 +34,30 @@ public class OfferDescription {
 
 	
 	public void addPathToMethod(Pair<String, HttpMethods> mapping) {
+		addPathToMethod(mapping.getLeft(), mapping.getRight());
+	}
+
+	/**
+	 * Adds the method to the methods of the path. The methods of a path are kept
+	 * as EnumSet, i.e. as bit mask. ANY replaces all other methods of the path, a
+	 * null method only adds the path.
+	 * 
+	 * @param path
+	 *            offered path.
+	 * @param method
+	 *            offered method.
+	 */
+	public void addPathToMethod(String path, HttpMethods method) {
 		if (pathToMethodMappings == null) {
 			pathToMethodMappings = new HashMap<>();
-		} 
+		}
 
-		if (pathToMethodMappings.get(mapping.getLeft()) == null) {
-			pathToMethodMappings.put(mapping.getLeft(), Sets.newHashSet(mapping.getRight()));
-		} else {
-			pathToMethodMappings.get(mapping.getLeft()).add(mapping.getRight());
+		Set<HttpMethods> methods = pathToMethodMappings.get(path);
+		if (methods == null) {
+			methods = newMethodSet();
+			pathToMethodMappings.put(StringPool.intern(path), methods);
 		}
+		HttpMethods.addTo(methods, method);
 	}
 	
 	public void addPathToMethods(Map<String, Set<HttpMethods>> pathToMethodMappings) {
@@ -52,10 +66,17 @@ public class OfferDescription {
 		} else {
 			for (Entry<String, Set<HttpMethods>> entry : pathToMethodMappings.entrySet()) {
 				for(HttpMethods meth : entry.getValue()) {
-					addPathToMethod(new Pair<String, HttpMethods>(entry.getKey(), meth));
+					addPathToMethod(entry.getKey(), meth);
 				}
 			}
 		}
 	}
 
+	/**
+	 * @return an empty set of methods.
+	 */
+	public static Set<HttpMethods> newMethodSet() {
+		return EnumSet.noneOf(HttpMethods.class);
+	}
+
 }
@@ -0,0 +1,101 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Merges offered API by package. Offers of the same package are merged into one
+ * OfferDescription, whose path to method mappings are extended in place. A
+ * path offered for ANY method keeps only ANY. The offers added are not changed.
+ * 
+ * @author gmittmann
+ *
+ */
+public class OfferIndex {
+
+	private Map<String, OfferDescription> offers = new LinkedHashMap<>();
+
+	/**
+	 * Merges the given offer into the offer of its package.
+	 * 
+	 * @param offer
+	 *            offer to be added.
+	 */
+	public void add(OfferDescription offer) {
+		OfferDescription merged = getOffer(offer.getPackageName());
+		if (offer.getPathToMethodMappings() == null) {
+			return;
+		}
+		for (Entry<String, Set<HttpMethods>> mapping : offer.getPathToMethodMappings().entrySet()) {
+			add(merged, mapping.getKey(), mapping.getValue());
+		}
+	}
+
+	/**
+	 * Merges all given offers.
+	 * 
+	 * @param offers
+	 *            offers to be added, may be null.
+	 */
+	public void addAll(List<OfferDescription> offers) {
+		if (offers == null) {
+			return;
+		}
+		for (OfferDescription offer : offers) {
+			add(offer);
+		}
+	}
+
+	/**
+	 * Adds the given methods of the path to the offer of the package.
+	 * 
+	 * @param packageName
+	 *            package offering the path.
+	 * @param path
+	 *            offered path.
+	 * @param methods
+	 *            offered methods.
+	 */
+	public void add(String packageName, String path, Set<HttpMethods> methods) {
+		add(getOffer(packageName), path, methods);
+	}
+
+	/**
+	 * @return the merged offers, in the order their packages were added first.
+	 */
+	public List<OfferDescription> getOffers() {
+		return new ArrayList<>(offers.values());
+	}
+
+	private OfferDescription getOffer(String packageName) {
+		return offers.computeIfAbsent(packageName, name -> {
+			OfferDescription offer = new OfferDescription();
+			offer.setPackageName(name);
+			return offer;
+		});
+	}
+
+	private void add(OfferDescription offer, String path, Set<HttpMethods> methods) {
+		Map<String, Set<HttpMethods>> mappings = offer.getPathToMethodMappings();
+		if (mappings == null) {
+			mappings = new HashMap<>();
+			offer.setPathToMethodMappings(mappings);
+		}
+		Set<HttpMethods> mergedMethods = mappings.get(path);
+		if (mergedMethods == null) {
+			mergedMethods = OfferDescription.newMethodSet();
+			mappings.put(StringPool.intern(path), mergedMethods);
+		}
+		if (methods != null) {
+			for (HttpMethods method : methods) {
+				HttpMethods.addTo(mergedMethods, method);
+			}
+		}
+	}
+
+}
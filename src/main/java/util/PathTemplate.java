@@ -0,0 +1,259 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Path of a REST API, parsed into its segments. Parsing normalizes the path in
+ * a single scan: quotation marks and whitespace are dropped, empty segments
+ * (e.g. from leading, trailing or double slashes) are skipped and regular
+ * expressions of path variables are removed, so "{id: \\d{3}}" becomes "{id}".
+ * The segments are pooled, templates are immutable and printed as "/a/b", the
+ * empty template as "/".
+ *
+ * @author gmittmann
+ *
+ */
+public final class PathTemplate {
+
+	/** The template without any segment. */
+	public static final PathTemplate ROOT = new PathTemplate(new String[0]);
+
+	private static final String WILDCARD = "*";
+	private static final String EXTENSION_MAPPING = "*.";
+
+	private final String[] segments;
+	private String path;
+
+	private PathTemplate(String[] segments) {
+		this.segments = segments;
+	}
+
+	/**
+	 * Parses the given path.
+	 *
+	 * @param path
+	 *            path to be parsed, e.g. the value of an annotation. May be null.
+	 * @return template of the path.
+	 */
+	public static PathTemplate parse(String path) {
+		if (path == null || path.isEmpty()) {
+			return ROOT;
+		}
+		List<String> segments = new ArrayList<>();
+		StringBuilder segment = new StringBuilder();
+		int depth = 0;
+		boolean inExpression = false;
+		for (int i = 0; i < path.length(); i++) {
+			char c = path.charAt(i);
+			if (c == '"' || Character.isWhitespace(c)) {
+				continue;
+			}
+			if (depth > 0) {
+				if (c == '{') {
+					depth++;
+				} else if (c == '}') {
+					depth--;
+				} else if (c == ':' && depth == 1) {
+					inExpression = true;
+				}
+				if (depth == 0) {
+					segment.append('}');
+					inExpression = false;
+				} else if (!inExpression && c != '{') {
+					segment.append(c);
+				}
+			} else if (c == '/') {
+				addSegment(segments, segment);
+			} else {
+				if (c == '{') {
+					depth = 1;
+				}
+				segment.append(c);
+			}
+		}
+		if (depth > 0) {
+			segment.append('}');
+		}
+		addSegment(segments, segment);
+		return segments.isEmpty() ? ROOT : new PathTemplate(segments.toArray(new String[segments.size()]));
+	}
+
+	/**
+	 * Parses the given url pattern, like the ones of servlet mappings. A trailing
+	 * wildcard segment ("/*") is removed. An extension mapping ("*.ext") doesn't
+	 * prefix the paths and is parsed as root.
+	 *
+	 * @param urlPattern
+	 *            pattern to be parsed. May be null.
+	 * @return template of the pattern.
+	 */
+	public static PathTemplate parseUrlPattern(String urlPattern) {
+		if (urlPattern != null && urlPattern.trim().startsWith(EXTENSION_MAPPING)) {
+			return ROOT;
+		}
+		PathTemplate template = parse(urlPattern);
+		int size = template.segments.length;
+		if (size == 1 && template.segments[0].equals(WILDCARD)) {
+			return ROOT;
+		}
+		if (size > 1 && template.segments[size - 1].equals(WILDCARD)) {
+			return new PathTemplate(Arrays.copyOf(template.segments, size - 1));
+		}
+		return template;
+	}
+
+	private static void addSegment(List<String> segments, StringBuilder segment) {
+		if (segment.length() > 0) {
+			segments.add(StringPool.intern(segment.toString()));
+			segment.setLength(0);
+		}
+	}
+
+	/**
+	 * @param other
+	 *            template to be appended.
+	 * @return template with the segments of this template followed by the ones
+	 *         of the given template.
+	 */
+	public PathTemplate concat(PathTemplate other) {
+		if (other.segments.length == 0) {
+			return this;
+		}
+		if (segments.length == 0) {
+			return other;
+		}
+		String[] concatenated = Arrays.copyOf(segments, segments.length + other.segments.length);
+		System.arraycopy(other.segments, 0, concatenated, segments.length, other.segments.length);
+		return new PathTemplate(concatenated);
+	}
+
+	/**
+	 * @param other
+	 *            path to be parsed and appended.
+	 * @return template with the segments of this template followed by the ones
+	 *         of the given path.
+	 */
+	public PathTemplate concat(String other) {
+		return concat(parse(other));
+	}
+
+	/**
+	 * Replaces the variable of the given name by the given type, in upper case.
+	 * E.g. "{id}" becomes "{LONG}".
+	 *
+	 * @param name
+	 *            name of the variable.
+	 * @param type
+	 *            type of the variable.
+	 * @return template with the replaced variable or this template, if it has no
+	 *         variable of the given name.
+	 */
+	public PathTemplate withVariableType(String name, String type) {
+		String variable = "{" + name + "}";
+		String[] replaced = null;
+		for (int i = 0; i < segments.length; i++) {
+			if (segments[i].contains(variable)) {
+				if (replaced == null) {
+					replaced = segments.clone();
+				}
+				replaced[i] = StringPool
+						.intern(segments[i].replace(variable, "{" + type.toUpperCase(Locale.ROOT) + "}"));
+			}
+		}
+		return replaced == null ? this : new PathTemplate(replaced);
+	}
+
+	/**
+	 * @return template with the names of all variables in upper case, e.g. "{id}"
+	 *         becomes "{ID}".
+	 */
+	public PathTemplate withUpperCaseVariables() {
+		String[] replaced = null;
+		for (int i = 0; i < segments.length; i++) {
+			String upperCase = upperCaseVariables(segments[i]);
+			if (upperCase != segments[i]) {
+				if (replaced == null) {
+					replaced = segments.clone();
+				}
+				replaced[i] = upperCase;
+			}
+		}
+		return replaced == null ? this : new PathTemplate(replaced);
+	}
+
+	private static String upperCaseVariables(String segment) {
+		if (segment.indexOf('{') == -1) {
+			return segment;
+		}
+		char[] chars = segment.toCharArray();
+		boolean inVariable = false;
+		boolean changed = false;
+		for (int i = 0; i < chars.length; i++) {
+			if (chars[i] == '{') {
+				inVariable = true;
+			} else if (chars[i] == '}') {
+				inVariable = false;
+			} else if (inVariable && Character.isLowerCase(chars[i])) {
+				chars[i] = Character.toUpperCase(chars[i]);
+				changed = true;
+			}
+		}
+		return changed ? StringPool.intern(new String(chars)) : segment;
+	}
+
+	/**
+	 * @return number of segments.
+	 */
+	public int size() {
+		return segments.length;
+	}
+
+	/**
+	 * @param index
+	 *            index of the segment.
+	 * @return the segment at the given index.
+	 */
+	public String getSegment(int index) {
+		return segments[index];
+	}
+
+	/**
+	 * @param index
+	 *            index of the segment.
+	 * @return true, if the segment at the given index consists of one variable.
+	 */
+	public boolean isVariable(int index) {
+		String segment = segments[index];
+		return segment.length() > 1 && segment.charAt(0) == '{' && segment.indexOf('}') == segment.length() - 1;
+	}
+
+	@Override
+	public String toString() {
+		if (path == null) {
+			if (segments.length == 0) {
+				path = "/";
+			} else {
+				StringBuilder builder = new StringBuilder();
+				for (String segment : segments) {
+					builder.append('/').append(segment);
+				}
+				path = StringPool.intern(builder.toString());
+			}
+		}
+		return path;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof PathTemplate && Arrays.equals(segments, ((PathTemplate) obj).segments);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(segments);
+	}
+
+}
@@ -0,0 +1,33 @@
+package util;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Pool of the strings repeated in the information of a project, like package
+ * names, paths, service names and method names. Equal strings read from
+ * different sources share one instance. The pool only keeps weak references,
+ * so unused strings are collected.
+ * 
+ * @author gmittmann
+ *
+ */
+public final class StringPool {
+
+	private static final Interner<String> POOL = Interners.newWeakInterner();
+
+	private StringPool() {
+
+	}
+
+	/**
+	 * @param string
+	 *            string to be pooled, may be null.
+	 * @return the pooled instance equal to the given string or null, if the given
+	 *         string is null.
+	 */
+	public static String intern(String string) {
+		return string == null ? null : POOL.intern(string);
+	}
+
+}
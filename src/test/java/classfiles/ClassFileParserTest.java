@@ -0,0 +1,220 @@
+package classfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Parses class files compiled from src/test/resources/classfiles/Fixture.java,
+ * once with debug information and once with the names of the parameters only.
+ */
+public class ClassFileParserTest {
+
+	private static final String VISIBLE = "fixture.Fixture.Visible";
+	private static final String INVISIBLE = "fixture.Fixture.Invisible";
+
+	private static Path directory;
+	private static Path debugClasses;
+	private static Path parameterClasses;
+
+	@BeforeAll
+	public static void compile() throws IOException {
+		directory = Files.createTempDirectory("classfiles");
+		Path source = directory.resolve("Fixture.java");
+		try (InputStream in = ClassFileParserTest.class.getResourceAsStream("Fixture.java")) {
+			Files.copy(in, source, StandardCopyOption.REPLACE_EXISTING);
+		}
+		debugClasses = compile(source, "debug", "-g");
+		parameterClasses = compile(source, "parameters", "-g:none", "-parameters");
+	}
+
+	private static Path compile(Path source, String name, String... options) throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assertNotNull(compiler, "tests need a JDK");
+		Path classes = Files.createDirectory(directory.resolve(name));
+		List<String> arguments = new ArrayList<>(Arrays.asList(options));
+		arguments.addAll(Arrays.asList("-encoding", "UTF-8", "-d", classes.toString(), source.toString()));
+		assertEquals(0, compiler.run(null, null, null, arguments.toArray(new String[0])));
+		return classes;
+	}
+
+	@AfterAll
+	public static void delete() throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	@Test
+	public void testClass() throws IOException {
+		ClassFile classFile = parse(debugClasses, "Fixture");
+
+		assertEquals("fixture.Fixture", classFile.getClassName());
+		assertEquals("fixture", classFile.getPackageName());
+		assertEquals("fixture.Fixture", classFile.getTopLevelClassName());
+		assertTrue(classFile.getReferencedClasses().containsAll(Arrays.asList("java.util.List",
+				"java.math.BigDecimal", "java.util.Map", "java.lang.annotation.RetentionPolicy")));
+		assertFalse(classFile.getReferencedClasses().contains("fixture.Fixture"));
+		assertTrue(classFile.getReferencedClasses().contains("fixture.Fixture$$Proxy"));
+	}
+
+	@Test
+	public void testVisibleAndInvisibleAnnotations() throws IOException {
+		List<ClassAnnotation> annotations = parse(debugClasses, "Fixture").getAnnotations();
+
+		assertEquals(2, annotations.size());
+		assertEquals(VISIBLE, annotations.get(0).getType());
+		assertEquals(INVISIBLE, annotations.get(1).getType());
+		assertEquals("class", annotations.get(1).getValue("value"));
+	}
+
+	@Test
+	public void testAnnotationValues() throws IOException {
+		ClassAnnotation annotation = parse(debugClasses, "Fixture").getAnnotations().get(0);
+
+		assertEquals(7, annotation.getValue("number"));
+		/* long and double constants take two entries of the constant pool */
+		assertEquals(1L << 40, annotation.getValue("big"));
+		assertEquals(0.5, annotation.getValue("ratio"));
+		assertEquals(true, annotation.getValue("flag"));
+		assertEquals('x', annotation.getValue("letter"));
+		assertEquals((byte) 3, annotation.getValue("tiny"));
+		assertEquals("java.util.Map", annotation.getValue("type"));
+		assertEquals("CLASS", annotation.getValue("policy"));
+		assertEquals(Arrays.asList("a", "b"), annotation.getValue("names"));
+		ClassAnnotation nested = (ClassAnnotation) annotation.getValue("nested");
+		assertEquals(INVISIBLE, nested.getType());
+		assertEquals("nested", nested.getValue("value"));
+	}
+
+	@Test
+	public void testModifiedUtf8() throws IOException {
+		ClassAnnotation annotation = parse(debugClasses, "Fixture").getAnnotations().get(0);
+
+		/* the null character is written in two bytes, the emoji as a surrogate pair */
+		assertEquals("caf\u00e9 \u0000 \uD83D\uDE00", annotation.getValue("text"));
+	}
+
+	@Test
+	public void testMethodFromLocalVariables() throws IOException {
+		ClassMethod method = getMethod(parse(debugClasses, "Fixture"), "find");
+
+		assertEquals(Arrays.asList("long", "double", "java.math.BigDecimal"), method.getParameterTypes());
+		/* the long and the double take two slots each */
+		assertEquals(Arrays.asList("id", "amount", "total"), method.getParameterNames());
+		assertEquals(INVISIBLE, method.getAnnotations().get(0).getType());
+		assertEquals("method", method.getAnnotations().get(0).getValue("value"));
+		assertTrue(method.getParameterAnnotations().get(0).isEmpty());
+		assertEquals("parameter", method.getParameterAnnotations().get(1).get(0).getValue("value"));
+		assertEquals("BigDecimal", method.getParameterSimpleTypeName(2));
+	}
+
+	@Test
+	public void testMethodFromMethodParameters() throws IOException {
+		ClassMethod method = getMethod(parse(parameterClasses, "Fixture"), "find");
+
+		assertEquals(Arrays.asList("id", "amount", "total"), method.getParameterNames());
+		assertEquals("parameter", method.getParameterAnnotations().get(1).get(0).getValue("value"));
+	}
+
+	@Test
+	public void testAnnotationType() throws IOException {
+		ClassFile classFile = parse(debugClasses, "Fixture$Visible");
+
+		assertEquals("fixture.Fixture$Visible", classFile.getClassName());
+		List<ClassAnnotation> annotations = classFile.getAnnotations();
+		assertEquals("java.lang.annotation.Retention", annotations.get(0).getType());
+		assertEquals("RUNTIME", annotations.get(0).getValue("value"));
+	}
+
+	@Test
+	public void testNestedClass() throws IOException {
+		ClassFile classFile = parse(debugClasses, "Fixture$Nested");
+
+		assertEquals("fixture.Fixture$Nested", classFile.getClassName());
+		assertEquals("fixture", classFile.getPackageName());
+		assertEquals("fixture.Fixture", classFile.getTopLevelClassName());
+		assertEquals(Arrays.asList("fixture.Fixture"), getMethod(classFile, "run").getParameterTypes());
+		assertEquals(Arrays.asList("fixture"), getMethod(classFile, "run").getParameterNames());
+		/* the top level class is the class itself */
+		assertFalse(classFile.getReferencedClasses().contains("fixture.Fixture"));
+	}
+
+	@Test
+	public void testInnerClass() throws IOException {
+		ClassFile classFile = parse(debugClasses, "Fixture$Inner");
+
+		ClassMethod constructor = getMethod(classFile, "<init>");
+		/* the enclosing instance is passed first */
+		assertEquals(Arrays.asList("fixture.Fixture", "int"), constructor.getParameterTypes());
+		assertEquals("count", constructor.getParameterNames().get(1));
+		assertEquals(Collections.singletonList("count"),
+				getMethod(parse(parameterClasses, "Fixture$Inner"), "<init>").getParameterNames().subList(1, 2));
+	}
+
+	@Test
+	public void testTopLevelClassWithDollar() throws IOException {
+		ClassFile classFile = parse(debugClasses, "Fixture$$Proxy");
+
+		assertEquals("fixture.Fixture$$Proxy", classFile.getTopLevelClassName());
+		/* the nested class belongs to the other top level class */
+		assertTrue(classFile.getReferencedClasses().contains("fixture.Fixture"));
+		assertFalse(classFile.getReferencedClasses().contains("fixture.Fixture$$Proxy"));
+	}
+
+	@Test
+	public void testAnonymousClass() throws IOException {
+		ClassFile classFile = parse(debugClasses, "Fixture$1");
+
+		/* the enclosing class is read from the EnclosingMethod attribute */
+		assertEquals("fixture.Fixture", classFile.getTopLevelClassName());
+		assertFalse(classFile.getReferencedClasses().contains("fixture.Fixture"));
+		assertFalse(classFile.getReferencedClasses().contains("fixture.Fixture$Nested"));
+	}
+
+	@Test
+	public void testNoClassFile() {
+		assertThrows(IOException.class,
+				() -> ClassFileParser.parse(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4 })));
+	}
+
+	private static ClassFile parse(Path classes, String name) throws IOException {
+		try (InputStream in = Files.newInputStream(classes.resolve("fixture").resolve(name + ".class"))) {
+			return ClassFileParser.parse(in);
+		}
+	}
+
+	private static ClassMethod getMethod(ClassFile classFile, String name) {
+		for (ClassMethod method : classFile.getMethods()) {
+			if (name.equals(method.getName())) {
+				return method;
+			}
+		}
+		throw new AssertionError("no method " + name);
+	}
+
+}
@@ -0,0 +1,147 @@
+package collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import collectors.models.maven.ComponentInfoObject;
+import collectors.models.maven.ModuleToComponentInfoObject;
+import filemanagement.ModuleResult;
+import sources.SourceFacts;
+
+public class ComponentInfoCollectorTest {
+
+	private Path src = Paths.get("project", "src").toAbsolutePath();
+	private Path generated = Paths.get("project", "src", "generated").toAbsolutePath();
+	private MavenProject project;
+
+	@BeforeEach
+	public void setUp() {
+		project = new MavenProject();
+		Build build = new Build();
+		build.setDirectory(Paths.get("project", "target").toAbsolutePath().toString());
+		project.getModel().setBuild(build);
+	}
+
+	@Test
+	public void testComponentDepth() {
+		Map<String, Integer> whiteList = new HashMap<>();
+		whiteList.put("com.ex", 1);
+		whiteList.put("org.ex", 0);
+		ComponentInfoCollector collector = create(whiteList, null);
+
+		visit(collector, src, "com/ex/a/impl/AImpl.java", "com.ex.b.B");
+		visit(collector, src, "com/ex/C.java", "org.ex.sub.D");
+		visit(collector, src, "org/ex/sub/D.java", "com.ex.a.A");
+
+		Map<String, Set<String>> expected = new TreeMap<>();
+		expected.put("com.ex", set("org.ex"));
+		expected.put("com.ex.a", set("com.ex.b"));
+		expected.put("org.ex", set("com.ex.a"));
+		assertEquals(expected, collect(collector));
+	}
+
+	@Test
+	public void testSegmentBoundary() {
+		ComponentInfoCollector collector = create(Collections.singletonMap("com.ex", 1), null);
+
+		/* only whole segments match, so com.exx is not whitelisted */
+		visit(collector, src, "com/exx/a/A.java", "com.ex.b.B");
+		visit(collector, src, "com/A.java", "com.ex.b.B");
+		visit(collector, src, "com/ex/b/B.java", "com.exx.a.A", "com.ex.b.Other", "com.ex.C");
+
+		assertEquals(Collections.singletonMap("com.ex.b", set("com.ex")), collect(collector));
+	}
+
+	@Test
+	public void testBlackList() {
+		ComponentInfoCollector collector = create(Collections.singletonMap("com.ex", 1), set("com.ex.b", null));
+
+		visit(collector, src, "com/ex/a/A.java", "com.ex.b.B", "com.ex.c.C");
+		visit(collector, src, "com/ex/b/B.java", "com.ex.a.A");
+
+		assertEquals(Collections.singletonMap("com.ex.a", set("com.ex.c")), collect(collector));
+	}
+
+	@Test
+	public void testInnermostSourceRoot() {
+		ComponentInfoCollector collector = create(Collections.singletonMap("com.ex", 1), null);
+
+		/* the generated root is nested in the source root */
+		visit(collector, generated, "com/ex/gen/G.java", "com.ex.a.A");
+		visit(collector, Paths.get("other").toAbsolutePath(), "com/ex/o/O.java", "com.ex.a.A");
+
+		assertEquals(Collections.singletonMap("com.ex.gen", set("com.ex.a")), collect(collector));
+	}
+
+	@Test
+	public void testDefaultWhiteList() {
+		ComponentInfoCollector collector = create(null, null);
+
+		visit(collector, src, "com/ex/a/A.java", "org.ex.B", "com.ex.C");
+		visit(collector, src, "A.java", "com.ex.C");
+
+		Map<String, Set<String>> expected = new TreeMap<>();
+		expected.put("", set("com"));
+		expected.put("com", set("org"));
+		assertEquals(expected, collect(collector));
+	}
+
+	private ComponentInfoCollector create(Map<String, Integer> whiteList, Set<String> blackList) {
+		return new ComponentInfoCollector(whiteList, blackList, Arrays.asList(src, generated), project,
+				new QuietLog());
+	}
+
+	private static void visit(ComponentInfoCollector collector, Path root, String file, String... imports) {
+		SourceFacts facts = new SourceFacts(SourceFacts.getPath(root.resolve(file)));
+		facts.setImports(Arrays.asList(imports));
+		collector.visitFacts(facts);
+	}
+
+	/**
+	 * @return the dependencies of the collected components, by the name of the
+	 *         component.
+	 */
+	private static Map<String, Set<String>> collect(ComponentInfoCollector collector) {
+		ModuleResult result = new ModuleResult();
+		collector.collectInfo(result, null);
+		Map<String, Set<String>> components = new TreeMap<>();
+		List<ComponentInfoObject> infos = result.get(ModuleToComponentInfoObject.class).getComponents();
+		for (ComponentInfoObject info : infos) {
+			components.put(info.getPackageName(), info.getDependsOn());
+		}
+		return components;
+	}
+
+	private static Set<String> set(String... values) {
+		return new HashSet<>(Arrays.asList(values));
+	}
+
+	private static class QuietLog extends SystemStreamLog {
+
+		@Override
+		public void info(CharSequence content) {
+		}
+
+		@Override
+		public void warn(CharSequence content) {
+		}
+
+	}
+
+}
@@ -0,0 +1,99 @@
+package collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class PackageTrieTest {
+
+	private PackageTrie trie = new PackageTrie();
+
+	@Test
+	public void testSegmentBoundary() {
+		trie.add("com.foo", 0);
+
+		assertTrue(trie.contains("com.foo"));
+		assertTrue(trie.contains("com.foo.Bar"));
+		assertFalse(trie.contains("com.foobar"));
+		assertFalse(trie.contains("com.foobar.Baz"));
+		assertFalse(trie.contains("com"));
+		assertFalse(trie.contains("com.fo"));
+		assertFalse(trie.contains(""));
+	}
+
+	@Test
+	public void testPrefixOfOtherPackage() {
+		trie.add("com.foobar", 1);
+		trie.add("com.foo", 2);
+
+		assertEquals(4, trie.getMaxLength("com.foo.Bar"));
+		assertEquals(3, trie.getMaxLength("com.foobar.Baz"));
+		assertEquals(-1, trie.getMaxLength("com.fooba"));
+	}
+
+	@Test
+	public void testOutermostPackage() {
+		trie.add("com.foo.bar", 5);
+		trie.add("com.foo", 1);
+
+		assertEquals(3, trie.getMaxLength("com.foo.bar.Baz"));
+		assertEquals(3, trie.getMaxLength("com.foo.Baz"));
+	}
+
+	@Test
+	public void testEmptyPackageContainsAll() {
+		trie.add("", 2);
+
+		assertTrue(trie.contains(""));
+		assertTrue(trie.contains("Foo"));
+		assertEquals(2, trie.getMaxLength("com.foo.Bar"));
+	}
+
+	@Test
+	public void testRemoveSubPackagesRaisesDepth() {
+		trie.add("com.foo", 1);
+		trie.add("com.foo.bar.baz", 2);
+		trie.add("com.foobar", 0);
+
+		trie.removeSubPackages();
+
+		Map<String, Integer> expected = new HashMap<>();
+		/* com.foo.bar.baz reaches 4 + 2 segments, 4 more than com.foo */
+		expected.put("com.foo", 4);
+		/* not a sub package, only shares the characters */
+		expected.put("com.foobar", 0);
+		assertEquals(expected, trie.getPackages());
+		assertEquals(6, trie.getMaxLength("com.foo.bar.baz.Qux"));
+	}
+
+	@Test
+	public void testRemoveSubPackagesKeepsDeeperDepth() {
+		trie.add("com.foo", 5);
+		trie.add("com.foo.bar", 1);
+
+		trie.removeSubPackages();
+
+		Map<String, Integer> expected = new HashMap<>();
+		expected.put("com.foo", 5);
+		assertEquals(expected, trie.getPackages());
+	}
+
+	@Test
+	public void testRemoveSubPackagesOfEmptyPackage() {
+		trie.add("", 0);
+		trie.add("com.foo", 1);
+		trie.add("org", 0);
+
+		trie.removeSubPackages();
+
+		Map<String, Integer> expected = new HashMap<>();
+		expected.put("", 3);
+		assertEquals(expected, trie.getPackages());
+	}
+
+}
@@ -0,0 +1,151 @@
+package filemanagement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import annotation.ConsumesAPI;
+import collectors.models.restapi.APIConsumptionInfoObject;
+import collectors.models.restapi.APILinkInfoObject;
+import util.APILink;
+import util.ConsumeDescription;
+import util.HttpMethods;
+
+public class APIMatcherTest {
+
+	private static final String PROJECT = "com.ex:parent:1.0";
+	private static final String SVC_A = "com.ex:svc-a:1.0";
+	private static final String SVC_B = "com.ex:svc-b:1.0";
+	private static final String SVC_B_2 = "com.ex:svc-b:2.0";
+
+	private APIMatcher matcher = new APIMatcher(PROJECT);
+
+	@Test
+	public void testLink() {
+		matcher.addOffers(SVC_B, Arrays.asList(InfoFixtures.offer("com.ex.b", "/b/orders/{LONG}", HttpMethods.GET)));
+		matcher.match(SVC_A, consumes(SVC_B, "/b/orders/{id}", "GET"));
+
+		APILinkInfoObject links = matcher.getLinks("Parent");
+		assertEquals("Parent", links.getServiceName());
+		assertEquals(PROJECT, links.getServiceTag());
+		assertTrue(links.getUnresolved().isEmpty());
+		assertEquals(1, links.getResolved().size());
+		APILink link = links.getResolved().get(0);
+		assertEquals(SVC_A, link.getConsumerTag());
+		assertEquals("com.ex.a", link.getConsumerPackage());
+		assertEquals(SVC_B, link.getServiceName());
+		assertEquals("/b/orders/{id}", link.getPath());
+		assertEquals("GET", link.getMethod());
+		assertEquals(SVC_B, link.getProviderTag());
+		assertEquals("com.ex.b", link.getProviderPackage());
+		assertEquals("/b/orders/{LONG}", link.getProviderPath());
+	}
+
+	@Test
+	public void testLiteralBeforeVariable() {
+		matcher.addOffers(SVC_B, Arrays.asList(InfoFixtures.offer("com.ex.b", "/b/orders/{LONG}", HttpMethods.GET),
+				InfoFixtures.offer("com.ex.c", "/b/orders/open", HttpMethods.GET)));
+		matcher.match(SVC_A, consumes(SVC_B, "/b/orders/open", "GET"));
+		matcher.match(SVC_A, consumes(SVC_B, "/b/orders/7", "GET"));
+
+		List<APILink> resolved = matcher.getLinks(null).getResolved();
+		assertEquals(2, resolved.size());
+		assertEquals("/b/orders/open", resolved.get(0).getProviderPath());
+		assertEquals("/b/orders/{LONG}", resolved.get(1).getProviderPath());
+	}
+
+	@Test
+	public void testAnyMethod() {
+		matcher.addOffers(SVC_B, Arrays.asList(InfoFixtures.offer("com.ex.b", "/b/any", HttpMethods.ANY),
+				InfoFixtures.offer("com.ex.b", "/b/get", HttpMethods.GET)));
+		matcher.match(SVC_A, consumes(SVC_B, "/b/any", "delete"));
+		matcher.match(SVC_A, consumes(SVC_B, "/b/get", "ANY"));
+		matcher.match(SVC_A, consumes(SVC_B, "/b/get", "POST"));
+
+		APILinkInfoObject links = matcher.getLinks(null);
+		assertEquals(2, links.getResolved().size());
+		assertEquals("/b/any", links.getResolved().get(0).getProviderPath());
+		assertEquals("/b/get", links.getResolved().get(1).getProviderPath());
+		assertEquals(Collections.singleton("POST"),
+				links.getUnresolved().get(0).getConsumes().get(0).getPathToMethods().get("/b/get"));
+	}
+
+	@Test
+	public void testServiceWithoutVersion() {
+		matcher.addOffers(SVC_B, Arrays.asList(InfoFixtures.offer("com.ex.b", "/b/orders", HttpMethods.GET)));
+		matcher.addOffers(SVC_B_2, Arrays.asList(InfoFixtures.offer("com.ex.b", "/b/orders", HttpMethods.GET)));
+		matcher.match(SVC_A, consumes("com.ex:svc-b", "/b/orders", "GET"));
+		matcher.match(SVC_A, consumes(SVC_B_2, "/b/orders", "GET"));
+
+		List<APILink> resolved = matcher.getLinks(null).getResolved();
+		assertEquals(3, resolved.size());
+		assertEquals(SVC_B, resolved.get(0).getProviderTag());
+		assertEquals(SVC_B_2, resolved.get(1).getProviderTag());
+		/* a version given only matches this version */
+		assertEquals(SVC_B_2, resolved.get(2).getProviderTag());
+	}
+
+	@Test
+	public void testOtherService() {
+		matcher.addOffers(SVC_B, Arrays.asList(InfoFixtures.offer("com.ex.b", "/b/orders", HttpMethods.GET)));
+		matcher.match(SVC_A, consumes("com.ex:svc-c", "/b/orders", "GET"));
+		matcher.match(SVC_A, consumes("com.ex", "/b/orders", "GET"));
+
+		APILinkInfoObject links = matcher.getLinks(null);
+		assertTrue(links.getResolved().isEmpty());
+		assertEquals(2, links.getUnresolved().get(0).getConsumes().size());
+	}
+
+	@Test
+	public void testDefaultServiceMatchesProject() {
+		matcher.addOffers(SVC_B, Arrays.asList(InfoFixtures.offer("com.ex.b", "/b/orders", HttpMethods.GET)));
+		matcher.addOffers(null, Arrays.asList(InfoFixtures.offer("com.ex.p", "/p/info", HttpMethods.GET)));
+		matcher.match(SVC_A, consumes(ConsumesAPI.DEFAULT_SERVICE, "/b/orders", "GET"));
+		matcher.match(SVC_A, consumes(null, "/p/info", "GET"));
+		matcher.match(SVC_A, consumes(PROJECT, "/b/orders", "GET"));
+
+		List<APILink> resolved = matcher.getLinks(null).getResolved();
+		assertEquals(3, resolved.size());
+		assertEquals(SVC_B, resolved.get(0).getProviderTag());
+		assertEquals(PROJECT, resolved.get(1).getProviderTag());
+		assertEquals(SVC_B, resolved.get(2).getProviderTag());
+	}
+
+	@Test
+	public void testUnresolvedByConsumer() {
+		matcher.match(SVC_A, consumes(SVC_B, "/b/missing", "GET"));
+		matcher.match(SVC_B_2, consumes(SVC_B, "/b/missing", "GET"));
+		matcher.match(SVC_A, consumes(SVC_B, "/b/missing", "PUT"));
+
+		List<APIConsumptionInfoObject> unresolved = matcher.getLinks(null).getUnresolved();
+		assertEquals(2, unresolved.size());
+		assertEquals(SVC_A, unresolved.get(0).getMicroserviceTag());
+		assertEquals(SVC_B_2, unresolved.get(1).getMicroserviceTag());
+		ConsumeDescription consumption = unresolved.get(0).getConsumes().get(0);
+		assertEquals(SVC_B, consumption.getServiceName());
+		assertEquals("com.ex.a", consumption.getPackageName());
+		assertEquals(2, consumption.getPathToMethods().get("/b/missing").size());
+		assertEquals(1, unresolved.get(1).getConsumes().size());
+	}
+
+	@Test
+	public void testNoOffersOrConsumptions() {
+		matcher.addOffers(SVC_B, null);
+		matcher.match(SVC_A, null);
+		matcher.match(SVC_A, Arrays.asList(new ConsumeDescription()));
+
+		APILinkInfoObject links = matcher.getLinks(null);
+		assertTrue(links.getResolved().isEmpty());
+		assertTrue(links.getUnresolved().isEmpty());
+	}
+
+	private static List<ConsumeDescription> consumes(String serviceName, String path, String method) {
+		return Arrays.asList(InfoFixtures.consumption(serviceName, "com.ex.a", path, method));
+	}
+
+}
@@ -0,0 +1,191 @@
+package filemanagement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import collectors.models.InfoObject;
+import collectors.models.maven.ModuleInfoObject;
+import collectors.models.restapi.APIInfoObject;
+import collectors.models.restapi.APIConsumptionInfoObject;
+
+public class BinaryInfoCodecTest {
+
+	/* compares by reflection, independent of the codec and the type adapters */
+	private static final Gson GSON = new GsonBuilder().serializeNulls().create();
+	/* header of a file containing a ModuleInfoObject */
+	private static final int MAGIC = 0x43444201;
+	private static final byte MODULE = 1;
+
+	@Test
+	public void testModuleRoundTrip() throws IOException {
+		assertRoundTrip(InfoFixtures.module());
+		assertRoundTrip(InfoFixtures.emptyModule());
+		assertRoundTrip(InfoFixtures.nullModule());
+	}
+
+	@Test
+	public void testComponentsRoundTrip() throws IOException {
+		assertRoundTrip(InfoFixtures.components());
+		assertRoundTrip(InfoFixtures.emptyComponents());
+		assertRoundTrip(InfoFixtures.nullComponents());
+	}
+
+	@Test
+	public void testAPIRoundTrip() throws IOException {
+		assertRoundTrip(InfoFixtures.api());
+		assertRoundTrip(InfoFixtures.emptyAPI());
+		assertRoundTrip(InfoFixtures.nullAPI());
+	}
+
+	@Test
+	public void testConsumptionRoundTrip() throws IOException {
+		assertRoundTrip(InfoFixtures.consumptions());
+		assertRoundTrip(InfoFixtures.emptyConsumptions());
+		assertRoundTrip(InfoFixtures.nullConsumptions());
+	}
+
+	@Test
+	public void testStringsArePooled() throws IOException {
+		ModuleInfoObject first = roundTrip(InfoFixtures.module());
+		ModuleInfoObject second = roundTrip(InfoFixtures.module());
+		assertSame(first.getTag(), second.getTag());
+		assertSame(first.getDependsOn().get(0), second.getDependsOn().get(0));
+	}
+
+	@Test
+	public void testWrongType() throws IOException {
+		byte[] bytes = write(InfoFixtures.api());
+		assertThrows(IOException.class,
+				() -> BinaryInfoCodec.read(new ByteArrayInputStream(bytes), APIConsumptionInfoObject.class));
+	}
+
+	@Test
+	public void testNoBinaryFile() {
+		byte[] bytes = "{\"microserviceTag\":null}".getBytes();
+		assertThrows(IOException.class,
+				() -> BinaryInfoCodec.read(new ByteArrayInputStream(bytes), APIInfoObject.class));
+	}
+
+	@Test
+	public void testInvalidLengths() {
+		assertCorrupt(bytes(MAGIC, MODULE, -2));
+		/* larger than the stream, fails at its end instead of allocating the table */
+		assertCorrupt(bytes(MAGIC, MODULE, Integer.MAX_VALUE, 1));
+		assertCorrupt(bytes(MAGIC, MODULE, 1, Integer.MAX_VALUE, 0));
+		assertCorrupt(bytes(MAGIC, MODULE, 0, -1));
+		assertCorrupt(bytes(MAGIC, MODULE, 0, Integer.MAX_VALUE, 0));
+	}
+
+	@Test
+	public void testInvalidStringReference() {
+		assertCorrupt(bytes(MAGIC, MODULE, 0, 24, 0, -1, -1, -1, -1, -1));
+		assertCorrupt(bytes(MAGIC, MODULE, 0, 24, -2, -1, -1, -1, -1, -1));
+	}
+
+	@Test
+	public void testInvalidSizes() {
+		/* the list of dependencies is larger than the rest of the body */
+		assertCorrupt(bytes(MAGIC, MODULE, 0, 28, -1, -1, -1, -1, -1, 2, -1));
+		assertCorrupt(bytes(MAGIC, MODULE, 0, 24, -1, -1, -1, -1, -1, -3));
+		assertCorrupt(bytes(MAGIC, MODULE, 0, 24, -1, -1, -1, -1, -1, Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void testUnexpectedData() {
+		assertCorrupt(bytes(MAGIC, MODULE, 0, 28, -1, -1, -1, -1, -1, -1, 0));
+	}
+
+	@Test
+	public void testValidBody() throws IOException {
+		ModuleInfoObject module = BinaryInfoCodec
+				.read(new ByteArrayInputStream(bytes(MAGIC, MODULE, 0, 28, -1, -1, -1, -1, -1, 1, -1)),
+						ModuleInfoObject.class);
+		assertEquals(Arrays.asList((String) null), module.getDependsOn());
+	}
+
+	@Test
+	public void testTruncatedFiles() throws IOException {
+		for (InfoObject info : new InfoObject[] { InfoFixtures.module(), InfoFixtures.components(),
+				InfoFixtures.api(), InfoFixtures.consumptions() }) {
+			byte[] bytes = write(info);
+			for (int length = 0; length < bytes.length; length++) {
+				assertCorrupt(Arrays.copyOf(bytes, length));
+			}
+		}
+	}
+
+	@Test
+	public void testCorruptBytes() throws IOException {
+		for (InfoObject info : new InfoObject[] { InfoFixtures.module(), InfoFixtures.components(),
+				InfoFixtures.api(), InfoFixtures.consumptions() }) {
+			byte[] bytes = write(info);
+			for (int i = 0; i < bytes.length; i++) {
+				for (byte value : new byte[] { (byte) 0xFF, 0x7F, 0 }) {
+					byte[] corrupt = bytes.clone();
+					corrupt[i] = value;
+					try {
+						BinaryInfoCodec.read(new ByteArrayInputStream(corrupt), info.getClass());
+					} catch (IOException e) {
+						// expected for most changes, any other exception fails
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testUnsupportedType() {
+		assertThrows(IllegalArgumentException.class,
+				() -> BinaryInfoCodec.write(InfoFixtures.collectedAPI(), new ByteArrayOutputStream()));
+	}
+
+	private static void assertCorrupt(byte[] bytes) {
+		assertThrows(IOException.class,
+				() -> BinaryInfoCodec.read(new ByteArrayInputStream(bytes), ModuleInfoObject.class));
+	}
+
+	/**
+	 * @return the header followed by the given ints.
+	 */
+	private static byte[] bytes(int magic, byte type, int... values) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(magic);
+			out.writeByte(type);
+			for (int value : values) {
+				out.writeInt(value);
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void assertRoundTrip(InfoObject info) throws IOException {
+		assertEquals(GSON.toJson(info), GSON.toJson(roundTrip(info)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends InfoObject> T roundTrip(T info) throws IOException {
+		return (T) BinaryInfoCodec.read(new ByteArrayInputStream(write(info)), info.getClass());
+	}
+
+	private static byte[] write(InfoObject info) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BinaryInfoCodec.write(info, out);
+		return out.toByteArray();
+	}
+
+}
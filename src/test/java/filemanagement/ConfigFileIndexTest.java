@@ -0,0 +1,136 @@
+package filemanagement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import filemanagement.ConfigFileIndex.ConfigFileType;
+
+public class ConfigFileIndexTest {
+
+	private Path directory;
+	private Path basedir;
+	private ConfigFileIndex index;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("config");
+		/* a module directory named like a skipped directory is still walked */
+		basedir = Files.createDirectories(directory.resolve("target"));
+		index = new ConfigFileIndex(basedir, new SystemStreamLog());
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	@Test
+	public void testFileTypes() {
+		assertEquals(ConfigFileType.WEB_XML, ConfigFileType.of("web.xml"));
+		assertEquals(ConfigFileType.WEB_XML, ConfigFileType.of("WEB.XML"));
+		assertEquals(ConfigFileType.GLASSFISH_WEB_XML, ConfigFileType.of("glassfish-web.xml"));
+		assertEquals(ConfigFileType.APPLICATION_CONFIG, ConfigFileType.of("application.properties"));
+		assertEquals(ConfigFileType.APPLICATION_CONFIG, ConfigFileType.of("application-dev.yml"));
+		assertEquals(ConfigFileType.APPLICATION_CONFIG, ConfigFileType.of("application.yaml"));
+		assertEquals(ConfigFileType.OPENAPI, ConfigFileType.of("openapi.yaml"));
+		assertEquals(ConfigFileType.OPENAPI, ConfigFileType.of("swagger.json"));
+
+		assertNull(ConfigFileType.of("my-web.xml"));
+		assertNull(ConfigFileType.of("application.xml"));
+		assertNull(ConfigFileType.of("bootstrap.properties"));
+		assertNull(ConfigFileType.of("openapi.xml"));
+		assertNull(ConfigFileType.of("Application.java"));
+	}
+
+	@Test
+	public void testSkippedDirectories() throws IOException {
+		write("src/main/webapp/WEB-INF/web.xml");
+		write("target/classes/WEB-INF/web.xml");
+		write("node_modules/lib/openapi.json");
+		write(".git/web.xml");
+		write("frontend/node_modules/swagger.json");
+		write("src/main/target-config/web.xml");
+
+		assertEquals(paths("src/main/target-config/web.xml", "src/main/webapp/WEB-INF/web.xml"),
+				index.getFiles(ConfigFileType.WEB_XML));
+		assertEquals(Collections.emptyList(), index.getFiles(ConfigFileType.OPENAPI));
+	}
+
+	@Test
+	public void testSortedByPath() throws IOException {
+		write("b/glassfish-web.xml");
+		write("a/c/glassfish-web.xml");
+		write("a/glassfish-web.xml");
+
+		assertEquals(paths("a/c/glassfish-web.xml", "a/glassfish-web.xml", "b/glassfish-web.xml"),
+				index.getFiles(ConfigFileType.GLASSFISH_WEB_XML));
+		assertEquals(new File(basedir.toFile(), "a/c/glassfish-web.xml"),
+				index.getFile(ConfigFileType.GLASSFISH_WEB_XML));
+		assertNull(index.getFile(ConfigFileType.WEB_XML));
+	}
+
+	@Test
+	public void testWalkedOnce() throws IOException {
+		write("web.xml");
+		assertEquals(paths("web.xml"), index.getFiles(ConfigFileType.WEB_XML));
+
+		write("other/web.xml");
+		assertEquals(paths("web.xml"), index.getFiles(ConfigFileType.WEB_XML));
+	}
+
+	@Test
+	public void testApplicationConfigFile() throws IOException {
+		write("src/main/resources/application-dev.properties");
+		assertNull(index.getApplicationConfigFile());
+
+		ConfigFileIndex withDefault = new ConfigFileIndex(basedir, new SystemStreamLog());
+		write("src/main/resources/application.yml");
+		assertEquals(new File(basedir.toFile(), "src/main/resources/application.yml"),
+				withDefault.getApplicationConfigFile());
+		assertEquals(paths("src/main/resources/application-dev.properties", "src/main/resources/application.yml"),
+				withDefault.getFiles(ConfigFileType.APPLICATION_CONFIG));
+	}
+
+	@Test
+	public void testMissingDirectory() {
+		ConfigFileIndex missing = new ConfigFileIndex(directory.resolve("missing"), new SystemStreamLog());
+
+		assertEquals(Collections.emptyList(), missing.getFiles(ConfigFileType.WEB_XML));
+		assertNull(missing.getApplicationConfigFile());
+	}
+
+	private void write(String path) throws IOException {
+		Path file = basedir.resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.write(file, Arrays.asList(""));
+	}
+
+	private List<File> paths(String... paths) {
+		List<File> files = new ArrayList<>();
+		for (String path : paths) {
+			files.add(new File(basedir.toFile(), path));
+		}
+		return files;
+	}
+
+}
@@ -0,0 +1,108 @@
+package filemanagement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+
+public class DescriptorReaderTest {
+
+	private ErrorLog log = new ErrorLog();
+
+	@Test
+	public void testWebXML() throws Exception {
+		/* the first url-pattern of a servlet-mapping, not of the filter or the security constraint */
+		assertSameAsDOM("web.xml", "url-pattern", "servlet-mapping", "/api/*");
+	}
+
+	@Test
+	public void testNestedElements() throws Exception {
+		/* comments are skipped, CDATA and the text of nested elements are included */
+		assertSameAsDOM("web-nested.xml", "url-pattern", "servlet-mapping", "\n\t\t\t/v1/api/*/x\n\t\t");
+	}
+
+	@Test
+	public void testMissingElement() throws Exception {
+		assertSameAsDOM("web-missing.xml", "url-pattern", "servlet-mapping", null);
+		assertSameAsDOM("glassfish-web-missing.xml", "context-root", "glassfish-web-app", null);
+		assertTrue(log.errors.isEmpty(), log.errors.toString());
+	}
+
+	@Test
+	public void testGlassfishWebXML() throws Exception {
+		/* the DTD is not loaded */
+		assertSameAsDOM("glassfish-web.xml", "context-root", "glassfish-web-app", "/shop");
+	}
+
+	@Test
+	public void testNamespacePrefix() throws Exception {
+		/* names are compared without prefix, the DOM reader compared the qualified names */
+		File file = getFile("web-prefixed.xml");
+		assertEquals("/rest/*", DescriptorReader.readElementText(file, "url-pattern", "servlet-mapping", log));
+		assertNull(readWithDOM(file, "url-pattern", "servlet-mapping"));
+	}
+
+	@Test
+	public void testMalformedFile() throws Exception {
+		assertNull(DescriptorReader.readElementText(getFile("malformed.xml"), "url-pattern", "servlet-mapping", log));
+		assertEquals(1, log.errors.size());
+	}
+
+	@Test
+	public void testMissingFile() throws Exception {
+		File file = new File(getFile("web.xml").getParentFile(), "missing.xml");
+		assertNull(DescriptorReader.readElementText(file, "url-pattern", "servlet-mapping", log));
+		assertEquals(1, log.errors.size());
+	}
+
+	private void assertSameAsDOM(String fileName, String tagName, String parentName, String expected)
+			throws Exception {
+		File file = getFile(fileName);
+		assertEquals(expected, readWithDOM(file, tagName, parentName), "DOM");
+		assertEquals(expected, DescriptorReader.readElementText(file, tagName, parentName, log));
+	}
+
+	private static File getFile(String fileName) throws URISyntaxException {
+		return new File(DescriptorReaderTest.class.getResource("descriptors/" + fileName).toURI());
+	}
+
+	/**
+	 * Reads the value like the JAXRSReader did before the descriptors were
+	 * streamed.
+	 */
+	private static String readWithDOM(File xmlFile, String tagName, String parentName) throws Exception {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+		Document doc = factory.newDocumentBuilder().parse(xmlFile);
+		NodeList urls = doc.getElementsByTagName(tagName);
+		for (int i = 0; i < urls.getLength(); i++) {
+			if (urls.item(i).getParentNode().getNodeName().equals(parentName)) {
+				return urls.item(i).getTextContent();
+			}
+		}
+		return null;
+	}
+
+	private static class ErrorLog extends SystemStreamLog {
+
+		private List<String> errors = new ArrayList<>();
+
+		@Override
+		public void error(CharSequence content) {
+			errors.add(content.toString());
+		}
+
+	}
+
+}
@@ -0,0 +1,226 @@
+package filemanagement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.model.Exclusion;
+
+import collectors.models.maven.CollectedMavenInfoObject;
+import collectors.models.maven.ComponentInfoObject;
+import collectors.models.maven.ModuleInfoObject;
+import collectors.models.maven.ModuleToComponentInfoObject;
+import collectors.models.maven.ProjectInfoObject;
+import collectors.models.restapi.APIConsumptionInfoObject;
+import collectors.models.restapi.APIInfoObject;
+import collectors.models.restapi.APILinkInfoObject;
+import collectors.models.restapi.CollectedAPIInfoObject;
+import util.APILink;
+import util.ConsumeDescription;
+import util.HttpMethods;
+import util.OfferDescription;
+
+/**
+ * Information objects used by the tests of the file formats. Each type is
+ * available filled, with null fields and with empty collections.
+ *
+ * @author gmittmann
+ *
+ */
+final class InfoFixtures {
+
+	private InfoFixtures() {
+
+	}
+
+	static ModuleInfoObject module() {
+		return new ModuleInfoObject("Service A", "svc-a", "com.ex", "1.0", "com.ex:svc-a:1.0",
+				new ArrayList<>(Arrays.asList("com.ex:common:1.0", "com.ex:model:1.0")));
+	}
+
+	static ModuleInfoObject emptyModule() {
+		return new ModuleInfoObject("Service A", "svc-a", "com.ex", "1.0", "com.ex:svc-a:1.0", new ArrayList<>());
+	}
+
+	static ModuleInfoObject nullModule() {
+		return new ModuleInfoObject(null, null, null, null, null, null);
+	}
+
+	static ComponentInfoObject component(String packageName, String... dependsOn) {
+		ComponentInfoObject component = new ComponentInfoObject(packageName);
+		component.setDependsOn(new LinkedHashSet<>(Arrays.asList(dependsOn)));
+		return component;
+	}
+
+	static ModuleToComponentInfoObject components() {
+		ModuleToComponentInfoObject components = new ModuleToComponentInfoObject("com.ex:svc-a:1.0");
+		components.addComponent(component("com.ex.a", "com.ex.b", "com.ex.c"));
+		components.addComponent(component("com.ex.b"));
+		components.addComponent(new ComponentInfoObject("com.ex.c"));
+		return components;
+	}
+
+	static ModuleToComponentInfoObject emptyComponents() {
+		ModuleToComponentInfoObject components = new ModuleToComponentInfoObject("com.ex:svc-a:1.0");
+		components.setComponents(new ArrayList<>());
+		return components;
+	}
+
+	static ModuleToComponentInfoObject nullComponents() {
+		return new ModuleToComponentInfoObject(null);
+	}
+
+	static OfferDescription offer(String packageName, String path, HttpMethods... methods) {
+		OfferDescription offer = new OfferDescription();
+		offer.setPackageName(packageName);
+		for (HttpMethods method : methods) {
+			offer.addPathToMethod(path, method);
+		}
+		return offer;
+	}
+
+	static APIInfoObject api() {
+		APIInfoObject api = new APIInfoObject("com.ex:svc-a:1.0", "Service A");
+		OfferDescription offer = offer("com.ex.a", "/a/items", HttpMethods.GET, HttpMethods.POST);
+		offer.addPathToMethod("/a/items/{LONG}", HttpMethods.DELETE);
+		api.getApi().add(offer);
+		api.getApi().add(offer("com.ex.b", "/a/any", HttpMethods.ANY));
+		OfferDescription emptyMethods = new OfferDescription();
+		emptyMethods.setPackageName("com.ex.c");
+		Map<String, Set<HttpMethods>> mappings = new LinkedHashMap<>();
+		mappings.put("/a/none", EnumSet.noneOf(HttpMethods.class));
+		mappings.put("/a/null", null);
+		emptyMethods.setPathToMethodMappings(mappings);
+		api.getApi().add(emptyMethods);
+		return api;
+	}
+
+	static APIInfoObject emptyAPI() {
+		return new APIInfoObject("com.ex:svc-a:1.0", "Service A");
+	}
+
+	static APIInfoObject nullAPI() {
+		APIInfoObject api = new APIInfoObject(null, null);
+		api.setApi(null);
+		return api;
+	}
+
+	static ConsumeDescription consumption(String serviceName, String packageName, String path, String... methods) {
+		ConsumeDescription consumption = new ConsumeDescription();
+		consumption.setServiceName(serviceName);
+		consumption.setPackageName(packageName);
+		consumption.addPathToMethod(path, new LinkedHashSet<>(Arrays.asList(methods)));
+		return consumption;
+	}
+
+	static APIConsumptionInfoObject consumptions() {
+		APIConsumptionInfoObject consumptions = new APIConsumptionInfoObject();
+		consumptions.setMicroserviceTag("com.ex:svc-a:1.0");
+		consumptions.addConsumeDescriptionTriple(consumption("com.ex:svc-b", "com.ex.a", "/b/orders", "GET", "POST"));
+		consumptions.addConsumeDescriptionTriple(consumption("service", "com.ex.b", "/a/items/{id}", "DELETE"));
+		consumptions.addConsumeDescriptionTriple(new ConsumeDescription());
+		return consumptions;
+	}
+
+	static APIConsumptionInfoObject emptyConsumptions() {
+		APIConsumptionInfoObject consumptions = new APIConsumptionInfoObject();
+		consumptions.setMicroserviceTag("com.ex:svc-a:1.0");
+		return consumptions;
+	}
+
+	static APIConsumptionInfoObject nullConsumptions() {
+		APIConsumptionInfoObject consumptions = new APIConsumptionInfoObject();
+		consumptions.setConsumes(null);
+		return consumptions;
+	}
+
+	static ProjectInfoObject project() {
+		Exclusion exclusion = new Exclusion();
+		exclusion.setGroupId("org.ex");
+		exclusion.setArtifactId("excluded");
+		return new ProjectInfoObject("com.ex:common:jar", "com.ex", "common", "1.0", "jar", "compile",
+				new ArrayList<>(Collections.singletonList(exclusion)));
+	}
+
+	static ProjectInfoObject nullProject() {
+		return new ProjectInfoObject((String) null);
+	}
+
+	static CollectedMavenInfoObject collectedMaven() {
+		CollectedMavenInfoObject collected = new CollectedMavenInfoObject("Parent", "com.ex:parent:1.0", "system",
+				"subsystem");
+		collected.setModules(new ArrayList<>(Arrays.asList(module(), nullModule())));
+		collected.setComponents(new ArrayList<>(Arrays.asList(components(), emptyComponents())));
+		return collected;
+	}
+
+	static CollectedMavenInfoObject nullCollectedMaven() {
+		return new CollectedMavenInfoObject(null, null, null, null);
+	}
+
+	static CollectedAPIInfoObject collectedAPI() {
+		CollectedAPIInfoObject collected = new CollectedAPIInfoObject("Parent");
+		collected.setServiceTag("com.ex:parent:1.0");
+		collected.setProvide(api());
+		collected.setConsume(new ArrayList<>(consumptions().getConsumes()));
+		return collected;
+	}
+
+	static CollectedAPIInfoObject nullCollectedAPI() {
+		return new CollectedAPIInfoObject(null);
+	}
+
+	static APILink link() {
+		APILink link = new APILink();
+		link.setConsumerTag("com.ex:svc-a:1.0");
+		link.setConsumerPackage("com.ex.a");
+		link.setServiceName("com.ex:svc-b");
+		link.setPath("/b/orders/{id}");
+		link.setMethod("GET");
+		link.setProviderTag("com.ex:svc-b:1.0");
+		link.setProviderPackage("com.ex.b");
+		link.setProviderPath("/b/orders/{LONG}");
+		return link;
+	}
+
+	static APILinkInfoObject links() {
+		APILinkInfoObject links = new APILinkInfoObject("Parent", "com.ex:parent:1.0");
+		links.getResolved().add(link());
+		links.getResolved().add(new APILink());
+		APIConsumptionInfoObject unresolved = new APIConsumptionInfoObject();
+		unresolved.setMicroserviceTag("com.ex:svc-a:1.0");
+		unresolved.addConsumeDescriptionTriple(consumption("com.ex:svc-c", "com.ex.a", "/c/missing", "PUT"));
+		links.getUnresolved().add(unresolved);
+		links.getUnresolved().add(nullConsumptions());
+		return links;
+	}
+
+	static APILinkInfoObject emptyLinks() {
+		return new APILinkInfoObject("Parent", "com.ex:parent:1.0");
+	}
+
+	static APILinkInfoObject nullLinks() {
+		APILinkInfoObject links = new APILinkInfoObject(null, null);
+		links.setResolved(null);
+		links.setUnresolved(null);
+		return links;
+	}
+
+	/**
+	 * @return all fixtures, each type filled, empty and with null fields.
+	 */
+	static List<Object> all() {
+		return Arrays.asList(module(), emptyModule(), nullModule(), component("com.ex.a", "com.ex.b"),
+				new ComponentInfoObject(null), components(), emptyComponents(), nullComponents(), api(), emptyAPI(),
+				nullAPI(), consumptions(), emptyConsumptions(), nullConsumptions(), project(), nullProject(),
+				collectedMaven(), nullCollectedMaven(), collectedAPI(), nullCollectedAPI(), link(), new APILink(),
+				links(), emptyLinks(), nullLinks());
+	}
+
+}
@@ -0,0 +1,164 @@
+package filemanagement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import collectors.models.maven.ModuleInfoObject;
+import collectors.models.restapi.APIInfoObject;
+import util.HttpMethods;
+import util.OfferDescription;
+import util.Pair;
+
+public class InfoTypeAdapterFactoryTest {
+
+	/* configured like the files written before the adapters were added */
+	private static final Gson REFLECTION = new GsonBuilder().setPrettyPrinting().serializeNulls().create();
+	private static final Gson ADAPTERS = new GsonBuilder().registerTypeAdapterFactory(new InfoTypeAdapterFactory())
+			.setPrettyPrinting().serializeNulls().create();
+	private static final Gson COMPACT_REFLECTION = new GsonBuilder().create();
+	private static final Gson COMPACT_ADAPTERS = new GsonBuilder()
+			.registerTypeAdapterFactory(new InfoTypeAdapterFactory()).create();
+
+	@Test
+	public void testSameJSONAsReflection() {
+		for (Object info : InfoFixtures.all()) {
+			assertEquals(REFLECTION.toJson(info), ADAPTERS.toJson(info), info.getClass().getSimpleName());
+			assertEquals(COMPACT_REFLECTION.toJson(info), COMPACT_ADAPTERS.toJson(info),
+					info.getClass().getSimpleName());
+		}
+	}
+
+	@Test
+	public void testRoundTrip() {
+		for (Object info : InfoFixtures.all()) {
+			String json = ADAPTERS.toJson(info);
+			assertEquals(json, ADAPTERS.toJson(ADAPTERS.fromJson(json, info.getClass())),
+					info.getClass().getSimpleName());
+		}
+	}
+
+	@Test
+	public void testReadWrittenByReflection() {
+		for (Object info : InfoFixtures.all()) {
+			String json = REFLECTION.toJson(info);
+			assertEquals(json, REFLECTION.toJson(ADAPTERS.fromJson(json, info.getClass())),
+					info.getClass().getSimpleName());
+		}
+	}
+
+	@Test
+	public void testGoldenFiles() throws IOException {
+		assertEquals(read("collectedMaven.json"), ADAPTERS.toJson(InfoFixtures.collectedMaven()));
+		assertEquals(read("collectedAPI.json"), ADAPTERS.toJson(InfoFixtures.collectedAPI()));
+		assertEquals(read("apiLinks.json"), ADAPTERS.toJson(InfoFixtures.links()));
+	}
+
+	@Test
+	public void testNullsAndEmptyCollections() {
+		assertEquals("{\"moduleName\":null,\"artifactID\":null,\"groupID\":null,\"version\":null,\"tag\":null,"
+				+ "\"dependsOn\":null}", new GsonBuilder().registerTypeAdapterFactory(new InfoTypeAdapterFactory())
+						.serializeNulls().create().toJson(InfoFixtures.nullModule()));
+		assertEquals("{}", COMPACT_ADAPTERS.toJson(InfoFixtures.nullModule()));
+		assertEquals("{\"microserviceTag\":\"com.ex:svc-a:1.0\",\"microserviceName\":\"Service A\",\"api\":[]}",
+				COMPACT_ADAPTERS.toJson(InfoFixtures.emptyAPI()));
+		assertEquals("null", COMPACT_ADAPTERS.toJson(null, ModuleInfoObject.class));
+		assertNull(COMPACT_ADAPTERS.fromJson("null", ModuleInfoObject.class));
+	}
+
+	@Test
+	public void testUnknownNamesAndMethodsAreSkipped() {
+		APIInfoObject api = COMPACT_ADAPTERS.fromJson("{\"microserviceTag\":\"tag\",\"unknown\":{\"a\":[1]},"
+				+ "\"api\":[{\"packageName\":\"p\",\"pathToMethodMappings\":{\"/a\":[\"GET\",\"FETCH\"]}}]}",
+				APIInfoObject.class);
+		assertEquals("tag", api.getMicroserviceTag());
+		assertEquals("[GET]", api.getApi().get(0).getPathToMethodMappings().get("/a").toString());
+	}
+
+	@Test
+	public void testPair() {
+		Type type = new TypeToken<Pair<String, HttpMethods>>() {
+		}.getType();
+		Pair<String, HttpMethods> pair = new Pair<>("/a", HttpMethods.PUT);
+		assertEquals(REFLECTION.toJson(pair, type), ADAPTERS.toJson(pair, type));
+		Pair<String, HttpMethods> read = ADAPTERS.fromJson(ADAPTERS.toJson(pair, type), type);
+		assertEquals(pair, read);
+	}
+
+	/**
+	 * Compares the time to write and read a large API and the size of its JSON
+	 * with reflection and with the adapters, pretty and compact. The results are
+	 * published through the TestReporter and are part of the assertion messages.
+	 * Run with -Dbenchmark=true.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	public void benchmark(TestReporter reporter) {
+		APIInfoObject api = new APIInfoObject("com.ex:svc-a:1.0", "Service A");
+		for (int i = 0; i < 2000; i++) {
+			OfferDescription offer = InfoFixtures.offer("com.ex.p" + i, "/a/items" + i, HttpMethods.GET);
+			for (int j = 0; j < 10; j++) {
+				offer.addPathToMethod("/a/items" + i + "/{LONG}/" + j, HttpMethods.values()[j % 5]);
+			}
+			api.getApi().add(offer);
+		}
+		Map<String, Gson> gsons = new LinkedHashMap<>();
+		gsons.put("reflection", REFLECTION);
+		gsons.put("adapters", ADAPTERS);
+		gsons.put("compact reflection", COMPACT_REFLECTION);
+		gsons.put("compact adapters", COMPACT_ADAPTERS);
+		Map<String, Long> millis = new HashMap<>();
+		Map<String, Integer> bytes = new HashMap<>();
+		/* the first round warms up */
+		for (int round = 0; round < 2; round++) {
+			for (Entry<String, Gson> gson : gsons.entrySet()) {
+				long start = System.nanoTime();
+				for (int i = 0; i < 20; i++) {
+					String json = gson.getValue().toJson(api);
+					assertEquals(api.getApi().size(),
+							gson.getValue().fromJson(json, APIInfoObject.class).getApi().size());
+				}
+				millis.put(gson.getKey(), (System.nanoTime() - start) / 1_000_000);
+				bytes.put(gson.getKey(), gson.getValue().toJson(api).getBytes(StandardCharsets.UTF_8).length);
+			}
+		}
+		Map<String, String> results = new LinkedHashMap<>();
+		for (String name : gsons.keySet()) {
+			results.put(name, "write and read 20 times: " + millis.get(name) + " ms, " + bytes.get(name) + " bytes");
+		}
+		reporter.publishEntry(results);
+
+		assertEquals(bytes.get("reflection"), bytes.get("adapters"), results.toString());
+		assertEquals(bytes.get("compact reflection"), bytes.get("compact adapters"), results.toString());
+		assertTrue(bytes.get("compact adapters") < bytes.get("adapters"), results.toString());
+		/* the adapters are not faster, but must not be much slower either */
+		assertTrue(millis.get("adapters") < 2 * millis.get("reflection") + 100, results.toString());
+		assertTrue(millis.get("compact adapters") < 2 * millis.get("compact reflection") + 100, results.toString());
+	}
+
+	private static String read(String fileName) throws IOException {
+		try (InputStream in = InfoTypeAdapterFactoryTest.class.getResourceAsStream(fileName);
+				Scanner scanner = new Scanner(in, FileWriter.CHARSET)) {
+			return scanner.useDelimiter("\\A").next();
+		}
+	}
+
+}
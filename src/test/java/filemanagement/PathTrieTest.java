@@ -0,0 +1,107 @@
+package filemanagement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import filemanagement.PathTrie.Endpoint;
+import util.HttpMethods;
+import util.PathTemplate;
+
+public class PathTrieTest {
+
+	private PathTrie trie = new PathTrie();
+
+	@Test
+	public void testLiteralBeforeVariable() {
+		add("/items/{LONG}", HttpMethods.GET);
+		add("/items/all", HttpMethods.GET);
+
+		assertEquals(Arrays.asList("/items/all"), find("/items/all", HttpMethods.GET));
+		assertEquals(Arrays.asList("/items/{LONG}"), find("/items/42", HttpMethods.GET));
+		assertEquals(Arrays.asList("/items/{LONG}"), find("/items/{id}", HttpMethods.GET));
+	}
+
+	@Test
+	public void testVariableIfLiteralDoesNotMatch() {
+		add("/items/all/count", HttpMethods.GET);
+		add("/items/{LONG}/orders", HttpMethods.GET);
+		add("/items/all", HttpMethods.PUT);
+
+		assertEquals(Arrays.asList("/items/{LONG}/orders"), find("/items/all/orders", HttpMethods.GET));
+		assertEquals(Arrays.asList("/items/all/count"), find("/items/all/count", HttpMethods.GET));
+		/* the literal path doesn't offer GET and there's no variable */
+		assertTrue(find("/items/all", HttpMethods.GET).isEmpty());
+	}
+
+	@Test
+	public void testWholePathMatches() {
+		add("/items", HttpMethods.GET);
+
+		assertTrue(find("/items/42", HttpMethods.GET).isEmpty());
+		assertTrue(find("/", HttpMethods.GET).isEmpty());
+		assertTrue(find("/other", HttpMethods.GET).isEmpty());
+		assertEquals(Arrays.asList("/items"), find("items/", HttpMethods.GET));
+	}
+
+	@Test
+	public void testRoot() {
+		add("/", HttpMethods.GET);
+
+		assertEquals(Arrays.asList("/"), find("", HttpMethods.GET));
+		assertTrue(find("/items", HttpMethods.GET).isEmpty());
+	}
+
+	@Test
+	public void testMethods() {
+		add("/items", HttpMethods.GET, HttpMethods.POST);
+		add("/any", HttpMethods.ANY);
+
+		assertEquals(Arrays.asList("/items"), find("/items", HttpMethods.POST));
+		assertTrue(find("/items", HttpMethods.DELETE).isEmpty());
+		/* offered for ANY method */
+		assertEquals(Arrays.asList("/any"), find("/any", HttpMethods.DELETE));
+		/* consumed with ANY method */
+		assertEquals(Arrays.asList("/items"), find("/items", HttpMethods.ANY));
+	}
+
+	@Test
+	public void testEndpointWithoutMethods() {
+		trie.add(PathTemplate.parse("/none"), new Endpoint("tag", "pkg", "/none", EnumSet.noneOf(HttpMethods.class)));
+		trie.add(PathTemplate.parse("/null"), new Endpoint("tag", "pkg", "/null", null));
+
+		assertTrue(find("/none", HttpMethods.ANY).isEmpty());
+		assertTrue(find("/null", HttpMethods.GET).isEmpty());
+	}
+
+	@Test
+	public void testSeveralEndpointsOfOnePath() {
+		trie.add(PathTemplate.parse("/items"), new Endpoint("a", "pkg", "/items", EnumSet.of(HttpMethods.GET)));
+		trie.add(PathTemplate.parse("/items"), new Endpoint("b", "pkg", "/items", EnumSet.of(HttpMethods.GET)));
+
+		List<Endpoint> endpoints = trie.find(PathTemplate.parse("/items"), HttpMethods.GET);
+		assertEquals(2, endpoints.size());
+		assertEquals("a", endpoints.get(0).getServiceTag());
+		assertEquals("b", endpoints.get(1).getServiceTag());
+	}
+
+	private void add(String path, HttpMethods... methods) {
+		trie.add(PathTemplate.parse(path),
+				new Endpoint("tag", "pkg", path, EnumSet.copyOf(Arrays.asList(methods))));
+	}
+
+	private List<String> find(String path, HttpMethods method) {
+		List<String> paths = new ArrayList<>();
+		for (Endpoint endpoint : trie.find(PathTemplate.parse(path), method)) {
+			paths.add(endpoint.getPath());
+		}
+		return paths;
+	}
+
+}
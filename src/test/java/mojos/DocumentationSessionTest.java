@@ -0,0 +1,126 @@
+package mojos;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class DocumentationSessionTest {
+
+	private Log log = new SystemStreamLog();
+	private MavenProject parent = createProject("parent", "pom", true);
+	private MavenProject moduleA = createProject("a", "jar", true);
+	private MavenProject moduleB = createProject("b", "jar", true);
+	private MavenSession session = createSession(parent, moduleA, moduleB);
+
+	@AfterEach
+	public void tearDown() {
+		DocumentationSession.remove(session);
+	}
+
+	@Test
+	public void testStateSharedByClones() {
+		DocumentationSession documentation = DocumentationSession.of(session);
+
+		assertSame(documentation, DocumentationSession.of(session.clone()));
+		assertSame(documentation, DocumentationSession.of(session.clone()));
+		/* another build */
+		MavenSession otherSession = createSession(parent, moduleA, moduleB);
+		assertNotSame(documentation, DocumentationSession.of(otherSession));
+		DocumentationSession.remove(otherSession);
+	}
+
+	@Test
+	public void testFinishThroughClonedSessions() {
+		MavenSession parentSession = session.clone();
+		MavenSession sessionA = session.clone();
+		MavenSession sessionB = session.clone();
+
+		assertFalse(DocumentationSession.of(parentSession).finish(parentSession, parent,
+				DocumentationMojo.PLUGIN_KEY, null, log));
+		assertFalse(DocumentationSession.of(sessionB).finish(sessionB, moduleB, DocumentationMojo.PLUGIN_KEY, null,
+				log));
+		/* the last module sees the modules finished with the other clones */
+		assertTrue(DocumentationSession.of(sessionA).finish(sessionA, moduleA, DocumentationMojo.PLUGIN_KEY, null,
+				log));
+
+		DocumentationSession documentation = DocumentationSession.of(session);
+		assertTrue(documentation.hasFinishedProjects());
+		assertSame(documentation, DocumentationSession.remove(sessionA));
+		assertNull(DocumentationSession.remove(sessionB));
+	}
+
+	@Test
+	public void testAggregatedAtSessionEnd() {
+		/* marked by the participant with the session of the build */
+		DocumentationSession.of(session).setAggregatedAtSessionEnd();
+
+		MavenSession sessionA = session.clone();
+		DocumentationSession.of(sessionA).finish(sessionA, moduleA, DocumentationMojo.PLUGIN_KEY, null, log);
+		assertTrue(DocumentationSession.of(sessionA).isAggregatedAtSessionEnd());
+	}
+
+	@Test
+	public void testAggregationClaimedOncePerBuild() {
+		assertFalse(DocumentationSession.isAggregationClaimed(session));
+		assertTrue(DocumentationSession.claimAggregation(session.clone()));
+		/* e.g. by the participant, loaded into another class realm */
+		assertFalse(DocumentationSession.claimAggregation(session.clone()));
+		assertTrue(DocumentationSession.isAggregationClaimed(session));
+		assertFalse(DocumentationSession.isAggregationClaimed(createSession(parent, moduleA, moduleB)));
+	}
+
+	@Test
+	public void testModulesWithoutPluginAwaitedIfCalledDirectly() {
+		MavenProject undeclared = createProject("c", "jar", false);
+		MavenSession directSession = createSession(undeclared, moduleA);
+		DocumentationSession documentation = DocumentationSession.of(directSession);
+
+		assertFalse(documentation.finish(directSession.clone(), undeclared, DocumentationMojo.PLUGIN_KEY, null, log));
+		assertTrue(documentation.finish(directSession.clone(), moduleA, DocumentationMojo.PLUGIN_KEY, null, log));
+		DocumentationSession.remove(directSession);
+	}
+
+	private static MavenProject createProject(String artifactId, String packaging, boolean declaresPlugin) {
+		MavenProject project = new MavenProject();
+		project.setGroupId("com.ex");
+		project.setArtifactId(artifactId);
+		project.setVersion("1.0");
+		project.setPackaging(packaging);
+		project.getModel().setBuild(new Build());
+		if (declaresPlugin) {
+			Plugin plugin = new Plugin();
+			plugin.setGroupId("codebased-documentation");
+			plugin.setArtifactId("cd-maven-plugin");
+			project.getBuild().addPlugin(plugin);
+		}
+		return project;
+	}
+
+	private static MavenSession createSession(MavenProject... projects) {
+		List<MavenProject> projectList = Arrays.asList(projects);
+		projects[0].setExecutionRoot(true);
+		MavenSession session = new MavenSession(null, new DefaultRepositorySystemSession(),
+				new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult());
+		session.setProjects(projectList);
+		session.setAllProjects(projectList);
+		return session;
+	}
+
+}
@@ -0,0 +1,298 @@
+package processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+import collectors.APIInfoCollector;
+import collectors.ComponentInfoCollector;
+import collectors.InformationCollector;
+import collectors.models.AnnotationType;
+import collectors.models.ReaderType;
+import filemanagement.ConfigFileIndex;
+import sources.SourceAnalyzer;
+import sources.SourceRoots;
+
+/**
+ * Compiles the modules in src/test/resources/processor with the
+ * DocumentationProcessor and compares its files to the files written when the
+ * same sources are read by the SOURCE reader.
+ */
+public class DocumentationProcessorTest {
+
+	private static final String[] FILE_NAMES = { ComponentInfoCollector.FILE_NAME, APIInfoCollector.FILE_NAME,
+			APIInfoCollector.FILE_NAME_CONSUME };
+	/* the parser pool is shared, so all tests use the same number of threads */
+	private static final int THREADS = 4;
+
+	private Path directory;
+	private Log log = new QuietLog();
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("processor");
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	@Test
+	public void testJAXRSModule() throws Exception {
+		Path basedir = createModule("orders");
+		compile(basedir, "com.ex:orders:1.0", AnnotationType.JAXRS, getSources(basedir));
+		readSources(basedir, "com.ex:orders:1.0", AnnotationType.JAXRS);
+
+		assertSameFiles(basedir);
+		assertTrue(read(basedir, "target", APIInfoCollector.FILE_NAME).toString().contains("/api/orders/{LONG}/items/{STRING}"));
+		assertTrue(read(basedir, "target", APIInfoCollector.FILE_NAME_CONSUME).toString()
+				.contains("/customers/{ID}"));
+	}
+
+	@Test
+	public void testSpringModule() throws Exception {
+		Path basedir = createModule("customers");
+		compile(basedir, "com.ex:customers:1.0", AnnotationType.SPRING, getSources(basedir));
+		readSources(basedir, "com.ex:customers:1.0", AnnotationType.SPRING);
+
+		assertSameFiles(basedir);
+		String api = read(basedir, "target", APIInfoCollector.FILE_NAME).toString();
+		assertTrue(api.contains("/customers/search"), api);
+		/* the context path in the application.properties is not used by default */
+		assertFalse(api.contains("/shop"), api);
+		assertTrue(read(basedir, "target", APIInfoCollector.FILE_NAME_CONSUME).toString()
+				.contains("/api/orders/{ID}/items/{ITEM}"));
+	}
+
+	@Test
+	public void testDiscoveredContextPath() throws Exception {
+		/* the application.properties of the module is only read, if requested */
+		Path basedir = createModule("customers");
+		compile(basedir, "com.ex:customers:1.0", AnnotationType.SPRING, getSources(basedir),
+				"-A" + DocumentationProcessor.DISCOVER_APPLICATION_CONFIG + "=true");
+
+		String api = read(basedir, "target", APIInfoCollector.FILE_NAME).toString();
+		assertTrue(api.contains("/shop/customers/search"), api);
+		assertFalse(api.contains("\"/customers/search"), api);
+	}
+
+	@Test
+	public void testDocumentedClassesMatchCompiledClasses() throws Exception {
+		Path basedir = createModule("orders");
+		compile(basedir, "com.ex:orders:1.0", AnnotationType.JAXRS, getSources(basedir));
+
+		/* nested and anonymous classes are covered by their top level class */
+		assertEquals(Collections.emptyList(), compareDocumentedClasses(basedir));
+	}
+
+	@Test
+	public void testIncrementalCompilationDetected() throws Exception {
+		Path basedir = createModule("orders");
+		List<File> sources = getSources(basedir);
+		compile(basedir, "com.ex:orders:1.0", AnnotationType.JAXRS, sources);
+
+		/* javac only sees the changed source, the other classes are in the output directory already */
+		List<File> changed = sources.stream().filter(file -> file.getName().equals("Order.java"))
+				.collect(Collectors.toList());
+		compile(basedir, "com.ex:orders:1.0", AnnotationType.JAXRS, changed);
+
+		List<String> differences = compareDocumentedClasses(basedir);
+		assertTrue(differences.contains("not documented: com.ex.orders.rest.OrderResource"), differences.toString());
+		assertTrue(differences.contains("not documented: com.ex.orders.rest.OrderResource$Items"),
+				differences.toString());
+		assertFalse(differences.contains("not documented: com.ex.orders.model.Order$1"), differences.toString());
+	}
+
+	@Test
+	public void testRemovedClassDetected() throws Exception {
+		Path basedir = createModule("orders");
+		compile(basedir, "com.ex:orders:1.0", AnnotationType.JAXRS, getSources(basedir));
+
+		Files.delete(basedir.resolve("target/classes/com/ex/orders/client/CustomerClient.class"));
+
+		assertEquals(Arrays.asList("no longer compiled: com.ex.orders.client.CustomerClient"),
+				compareDocumentedClasses(basedir));
+	}
+
+	private List<String> compareDocumentedClasses(Path basedir) {
+		return DocumentedClasses.compare(basedir.resolve("target").resolve(InformationCollector.FOLDER_NAME),
+				basedir.resolve("target").resolve("classes"), log);
+	}
+
+	/**
+	 * Copies the sources of the given module to src/main/java of a new base
+	 * directory.
+	 */
+	private Path createModule(String name) throws IOException, URISyntaxException {
+		Path fixtures = Paths.get(getClass().getResource(name).toURI());
+		Path basedir = directory.resolve(name);
+		Path sourceRoot = basedir.resolve("src").resolve("main").resolve("java");
+		try (Stream<Path> paths = Files.walk(fixtures)) {
+			for (Path path : (Iterable<Path>) paths::iterator) {
+				Path target = sourceRoot.resolve(fixtures.relativize(path).toString());
+				if (Files.isDirectory(path)) {
+					Files.createDirectories(target);
+				} else {
+					Files.copy(path, target);
+				}
+			}
+		}
+		return basedir;
+	}
+
+	private static List<File> getSources(Path basedir) throws IOException {
+		try (Stream<Path> paths = Files.walk(basedir.resolve("src"))) {
+			return paths.filter(path -> path.toString().endsWith(".java")).sorted().map(Path::toFile)
+					.collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Compiles the given sources to target/classes, like the compiler plugin with
+	 * the processor configured.
+	 */
+	private void compile(Path basedir, String module, AnnotationType annotationType, List<File> sources,
+			String... additionalOptions) throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assertNotNull(compiler, "tests need a JDK");
+		Path classes = Files.createDirectories(basedir.resolve("target").resolve("classes"));
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null,
+				StandardCharsets.UTF_8)) {
+			List<String> options = new ArrayList<>(Arrays.asList("-classpath", System.getProperty("java.class.path"),
+					"-d", classes.toString(), "-A" + DocumentationProcessor.MODULE + "=" + module,
+					"-A" + DocumentationProcessor.ANNOTATION + "=" + annotationType,
+					"-A" + DocumentationProcessor.PACKAGE_WHITE_LIST + "=com.ex:2"));
+			options.addAll(Arrays.asList(additionalOptions));
+			CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+					fileManager.getJavaFileObjectsFromFiles(sources));
+			task.setProcessors(Collections.singletonList(new DocumentationProcessor()));
+			assertTrue(task.call(), diagnostics.getDiagnostics().toString());
+		}
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			assertTrue(diagnostic.getKind() != Diagnostic.Kind.WARNING, diagnostic.toString());
+		}
+	}
+
+	/**
+	 * Reads the sources of the module like the goal with the SOURCE reader and
+	 * writes the files to source-target.
+	 */
+	private void readSources(Path basedir, String module, AnnotationType annotationType) {
+		String[] coordinates = module.split(":");
+		Model model = new Model();
+		model.setGroupId(coordinates[0]);
+		model.setArtifactId(coordinates[1]);
+		model.setVersion(coordinates[2]);
+		Build build = new Build();
+		build.setDirectory(basedir.resolve("source-target").toString());
+		model.setBuild(build);
+		MavenProject project = new MavenProject(model);
+		project.setFile(basedir.resolve("pom.xml").toFile());
+		project.setExecutionProject(project);
+		project.addCompileSourceRoot(basedir.resolve("src").resolve("main").resolve("java").toString());
+
+		SourceRoots sourceRoots = SourceRoots.resolve(project, false, null, null, null, log);
+		Map<String, Integer> whiteList = Collections.singletonMap("com.ex", 2);
+		ComponentInfoCollector componentInfoCollector = new ComponentInfoCollector(whiteList, null,
+				sourceRoots.getRoots(), project, log);
+		APIInfoCollector apiInfoCollector = new APIInfoCollector(project, log, annotationType, ReaderType.SOURCE,
+				null, null, new ConfigFileIndex(basedir, log));
+		new SourceAnalyzer(sourceRoots, null, THREADS, log).analyze(componentInfoCollector, apiInfoCollector);
+		componentInfoCollector.collectInfo();
+		apiInfoCollector.collectInfo();
+	}
+
+	private static void assertSameFiles(Path basedir) throws IOException {
+		for (String fileName : FILE_NAMES) {
+			assertEquals(read(basedir, "source-target", fileName), read(basedir, "target", fileName), fileName);
+		}
+	}
+
+	/**
+	 * Reads the given file. The lists of the components and of their dependencies
+	 * are sorted, as the order in which they are collected differs.
+	 */
+	private static JsonElement read(Path basedir, String buildDirectory, String fileName) throws IOException {
+		Path file = basedir.resolve(buildDirectory).resolve(InformationCollector.FOLDER_NAME)
+				.resolve(fileName + ".json");
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			return sort(new JsonParser().parse(reader));
+		}
+	}
+
+	private static JsonElement sort(JsonElement element) {
+		if (element.isJsonObject()) {
+			for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+				entry.setValue(sort(entry.getValue()));
+			}
+		} else if (element.isJsonArray()) {
+			List<JsonElement> elements = new ArrayList<>();
+			for (JsonElement child : element.getAsJsonArray()) {
+				elements.add(sort(child));
+			}
+			elements.sort(Comparator.comparing(JsonElement::toString));
+			JsonArray sorted = new JsonArray();
+			elements.forEach(sorted::add);
+			return sorted;
+		}
+		return element;
+	}
+
+	private static class QuietLog extends SystemStreamLog {
+
+		@Override
+		public void info(CharSequence content) {
+		}
+
+		@Override
+		public void warn(CharSequence content) {
+		}
+
+	}
+
+}
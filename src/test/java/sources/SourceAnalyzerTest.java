@@ -0,0 +1,217 @@
+package sources;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.thoughtworks.qdox.model.JavaAnnotation;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaMethod;
+import com.thoughtworks.qdox.model.JavaSource;
+
+public class SourceAnalyzerTest {
+
+	private static final String MARKER = "@GET";
+	/* the parser pool is shared, so all tests use the same number of threads */
+	private static final int THREADS = 4;
+
+	private Path directory;
+	private Path marked;
+	private Path unmarked;
+	private SourceRoots sourceRoots;
+	private SourceFactsCache cache;
+	private WarningLog log = new WarningLog();
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("sources");
+		Path packageDir = Files.createDirectories(directory.resolve("src").resolve("com").resolve("ex"));
+		marked = write(packageDir.resolve("Marked.java"), "class Marked { @GET void get() {} }");
+		unmarked = write(packageDir.resolve("Unmarked.java"), "class Unmarked {}");
+
+		MavenProject project = new MavenProject();
+		Build build = new Build();
+		build.setDirectory(directory.resolve("target").toString());
+		project.getModel().setBuild(build);
+		/* not normalized, like a root configured relative to another directory */
+		project.addCompileSourceRoot(directory.resolve("other").resolve("..").resolve("src").toString());
+		sourceRoots = SourceRoots.resolve(project, false, null, null, null, log);
+		cache = new SourceFactsCache(directory.resolve("target").resolve(SourceFactsCache.FOLDER_NAME), "key", log);
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	@Test
+	public void testCacheHitsAndMisses() throws IOException {
+		/* nothing cached, only the file with the marker is parsed */
+		assertEquals(Arrays.asList(SourceFacts.getPath(marked)), analyze(cache));
+
+		/* everything cached */
+		assertEquals(Collections.emptyList(), analyze(cache));
+
+		/* touched, but the content and so the hash is the same */
+		marked.toFile().setLastModified(marked.toFile().lastModified() + 10_000);
+		assertEquals(Collections.emptyList(), analyze(cache));
+
+		/* changed */
+		write(marked, "class Marked { @GET void get() {} @GET void all() {} }");
+		assertEquals(Arrays.asList(SourceFacts.getPath(marked)), analyze(cache));
+		assertTrue(log.warnings.isEmpty(), log.warnings.toString());
+	}
+
+	@Test
+	public void testFactsKeyedByNormalizedPath() {
+		List<SourceFacts> facts = new SourceAnalyzer(sourceRoots, cache, THREADS, log).analyze(new MarkerVisitor());
+		List<SourceFacts> cachedFacts = new SourceAnalyzer(sourceRoots, cache, THREADS, log).analyze(new MarkerVisitor());
+
+		List<String> paths = Arrays.asList(SourceFacts.getPath(marked), SourceFacts.getPath(unmarked));
+		assertEquals(paths, getPaths(facts));
+		assertEquals(paths, getPaths(cachedFacts));
+		assertEquals("com.ex", cachedFacts.get(0).getPackageName());
+		assertEquals("com.ex", cachedFacts.get(1).getPackageName());
+		assertTrue(log.warnings.isEmpty(), log.warnings.toString());
+	}
+
+	@Test
+	public void testWithoutCache() {
+		assertEquals(Arrays.asList(SourceFacts.getPath(marked)), analyze(null));
+		assertEquals(Arrays.asList(SourceFacts.getPath(marked)), analyze(null));
+	}
+
+	@Test
+	public void testSlicesSeeWholeSourceSet() throws IOException {
+		Path packageDir = directory.resolve("src").resolve("com").resolve("ex");
+		for (int i = 1; i < 200; i++) {
+			write(packageDir.resolve(String.format("C%03d.java", i)),
+					String.format("class C%03d extends C%03d { @GET void get() {} }", i, i - 1));
+		}
+		write(packageDir.resolve("C000.java"), "class C000 {}");
+
+		MarkerVisitor visitor = new MarkerVisitor();
+		new SourceAnalyzer(sourceRoots, null, THREADS, log).analyze(visitor);
+
+		/* the super class of the first file of a slice is in the slice before */
+		for (int i = 1; i < 200; i++) {
+			assertEquals(SourceFacts.getPath(packageDir.resolve(String.format("C%03d.java", i))),
+					visitor.parsed.get(i - 1));
+			assertEquals(String.format("com.ex.C%03d", i - 1), visitor.superClasses.get(i - 1));
+		}
+	}
+
+	@Test
+	public void testMethodAnnotationsResolvedFromImports() throws IOException {
+		Path packageDir = directory.resolve("src").resolve("com").resolve("ex");
+		Files.write(packageDir.resolve("Imported.java"),
+				"package com.ex;\nimport javax.ws.rs.GET;\nclass Imported { @GET void get() {} }"
+						.getBytes(StandardCharsets.UTF_8));
+
+		MarkerVisitor visitor = new MarkerVisitor();
+		new SourceAnalyzer(sourceRoots, null, THREADS, log).analyze(visitor);
+
+		/* not taken for a nested class, although the source folder is known */
+		assertEquals(Arrays.asList("javax.ws.rs.GET"), visitor.annotations.get("com.ex.Imported"));
+	}
+
+	/**
+	 * Analyzes the sources.
+	 *
+	 * @return paths of the parsed sources.
+	 */
+	private List<String> analyze(SourceFactsCache cache) {
+		MarkerVisitor visitor = new MarkerVisitor();
+		List<SourceFacts> facts = new SourceAnalyzer(sourceRoots, cache, THREADS, log).analyze(visitor);
+		assertEquals(2, facts.size());
+		return visitor.parsed;
+	}
+
+	private static List<String> getPaths(List<SourceFacts> facts) {
+		List<String> paths = new ArrayList<>();
+		for (SourceFacts fileFacts : facts) {
+			paths.add(fileFacts.getPath());
+		}
+		return paths;
+	}
+
+	private static Path write(Path file, String content) throws IOException {
+		return Files.write(file, ("package com.ex; " + content).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static class MarkerVisitor implements SourceVisitor {
+
+		private List<String> parsed = new ArrayList<>();
+		private List<String> superClasses = new ArrayList<>();
+		private Map<String, List<String>> annotations = new HashMap<>();
+
+		@Override
+		public Collection<String> getMarkers() {
+			return Collections.singleton(MARKER);
+		}
+
+		@Override
+		public void visitSource(JavaSource source, SourceFacts facts) {
+			parsed.add(facts.getPath());
+		}
+
+		@Override
+		public void visitClass(JavaClass javaClass, SourceFacts facts) {
+			if (javaClass.getName().startsWith("C")) {
+				superClasses.add(javaClass.getSuperClass().getFullyQualifiedName());
+			}
+			List<String> types = new ArrayList<>();
+			for (JavaMethod method : javaClass.getMethods()) {
+				for (JavaAnnotation annotation : method.getAnnotations()) {
+					types.add(annotation.getType().getFullyQualifiedName());
+				}
+			}
+			annotations.put(javaClass.getFullyQualifiedName(), types);
+		}
+
+		@Override
+		public void visitFacts(SourceFacts facts) {
+		}
+
+	}
+
+	private static class WarningLog extends SystemStreamLog {
+
+		private List<String> warnings = new ArrayList<>();
+
+		@Override
+		public void warn(CharSequence content) {
+			warnings.add(content.toString());
+		}
+
+		@Override
+		public void info(CharSequence content) {
+		}
+
+	}
+
+}
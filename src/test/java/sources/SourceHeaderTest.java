@@ -0,0 +1,113 @@
+package sources;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+public class SourceHeaderTest {
+
+	@Test
+	public void testPackageAndImports() {
+		SourceHeader header = read("package com.ex.a;\n\nimport java.util.List;\nimport java.util.*;\n\n"
+				+ "public class A {\n\timport x.y;\n}");
+		assertEquals("com.ex.a", header.getPackageName());
+		assertEquals(Arrays.asList("java.util.List", "java.util.*"), header.getImports());
+	}
+
+	@Test
+	public void testDefaultPackage() {
+		SourceHeader header = read("import java.util.List;\nclass A {}");
+		assertEquals("", header.getPackageName());
+		assertEquals(Collections.singletonList("java.util.List"), header.getImports());
+	}
+
+	@Test
+	public void testImportStatic() {
+		SourceHeader header = read("package a;\nimport static org.junit.Assert.assertEquals;\n"
+				+ "import static org.junit.Assert.*;\nimport staticx.A;\nclass A {}");
+		assertEquals(Arrays.asList("static org.junit.Assert.assertEquals", "static org.junit.Assert.*", "staticx.A"),
+				header.getImports());
+	}
+
+	@Test
+	public void testWhitespaceInNames() {
+		SourceHeader header = read("package com . ex\n\t.a ;import java.\nutil.List;;;class A {}");
+		assertEquals("com.ex.a", header.getPackageName());
+		assertEquals(Collections.singletonList("java.util.List"), header.getImports());
+	}
+
+	@Test
+	public void testComments() {
+		SourceHeader header = read("/* package wrong; import wrong.A; */\n// package wrong2;\n"
+				+ "/** import wrong.B; **/ package /* import wrong.C; */ com.ex;\n"
+				+ "import java.util.List; // import wrong.D;\n/*/ import wrong.E; */\nclass A {}");
+		assertEquals("com.ex", header.getPackageName());
+		assertEquals(Collections.singletonList("java.util.List"), header.getImports());
+	}
+
+	@Test
+	public void testLiteralsInAnnotations() {
+		SourceHeader header = read("@Generated(value = \"package wrong; import wrong.A; )\", comments = 'p')\n"
+				+ "@Deprecated\n@a.b.C(x = {\"import wrong.B;\", \"\\\")\"}, y = (1 + 2))\npackage com.ex;\n"
+				+ "import java.util.List;\nclass A {}");
+		assertEquals("com.ex", header.getPackageName());
+		assertEquals(Collections.singletonList("java.util.List"), header.getImports());
+	}
+
+	@Test
+	public void testTextBlock() {
+		SourceHeader header = read("@A(\"\"\"\n  import wrong.A;\n  \\\"\"\" ) \"\n  \"\"\")\npackage com.ex;\n"
+				+ "import java.util.List;\nclass A {}");
+		assertEquals("com.ex", header.getPackageName());
+		assertEquals(Collections.singletonList("java.util.List"), header.getImports());
+	}
+
+	@Test
+	public void testStopsAtTypeDeclaration() {
+		SourceHeader header = read("package com.ex;\nimport a.B;\n@Component\npublic class A {\n}\nimport c.D;");
+		assertEquals(Collections.singletonList("a.B"), header.getImports());
+
+		header = read("package com.ex;\nimport a.B;\npublic @interface A {\n}\nimport c.D;");
+		assertEquals(Collections.singletonList("a.B"), header.getImports());
+
+		header = read("package com.ex;\nimport a.B;\n@interface A {}\nimport c.D;");
+		assertEquals(Collections.singletonList("a.B"), header.getImports());
+	}
+
+	@Test
+	public void testUnicodeEscapes() {
+		/* package is "package", ; is ";" */
+		SourceHeader header = read("\\u0070ackage com.\\uuu0065x\\u003b\nimport java.util.List;\nclass A {}");
+		assertEquals("com.ex", header.getPackageName());
+		assertEquals(Collections.singletonList("java.util.List"), header.getImports());
+
+		/* " is a quote, so the package is in a string */
+		header = read("@A(\\u0022package wrong;\\u0022) package com.ex;\nclass A {}");
+		assertEquals("com.ex", header.getPackageName());
+
+		/* an escaped backslash doesn't start a unicode escape */
+		header = read("@A(\"\\\\u0022\") package com.ex;\nclass A {}");
+		assertEquals("com.ex", header.getPackageName());
+
+		/* a line comment ends at an escaped line break */
+		header = read("// comment\\u000apackage com.ex;\nclass A {}");
+		assertEquals("com.ex", header.getPackageName());
+	}
+
+	@Test
+	public void testEmptyAndIncomplete() {
+		assertEquals("", read("").getPackageName());
+		assertEquals("com.ex", read("package com.ex").getPackageName());
+		assertEquals("", read("/* package com.ex;").getPackageName());
+		assertEquals("", read("@A(\"package com.ex;").getPackageName());
+	}
+
+	private static SourceHeader read(String source) {
+		return SourceHeader.read(source.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
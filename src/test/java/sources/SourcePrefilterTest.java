@@ -0,0 +1,102 @@
+package sources;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+
+import reader.impl.api.JAXRSReader;
+import reader.impl.api.SPRINGReader;
+import reader.impl.apiconsumption.AnnotationReader;
+
+public class SourcePrefilterTest {
+
+	private static final Collection<String> JAXRS_MARKERS = new JAXRSReader(new SystemStreamLog(), null, null, null)
+			.getMarkers();
+	private static final Collection<String> SPRING_MARKERS = new SPRINGReader(new SystemStreamLog(), null, "")
+			.getMarkers();
+	private static final Collection<String> CONSUMES_MARKERS = new AnnotationReader(new SystemStreamLog())
+			.getMarkers();
+
+	@Test
+	public void testReaderMarkers() {
+		assertTrue(matches(JAXRS_MARKERS, "@Path(\"/orders\") public class OrderResource {}"));
+		assertTrue(matches(JAXRS_MARKERS, "@ApplicationPath(\"api\") public class App extends Application {}"));
+		assertTrue(matches(SPRING_MARKERS, "@GetMapping(\"/a\") public A get() {}"));
+		assertTrue(matches(SPRING_MARKERS, "@RequestMapping(\"/a\") public class A {}"));
+		assertTrue(matches(CONSUMES_MARKERS, "@ConsumesAPI(path = \"/a\", method = \"GET\") void call() {}"));
+		assertTrue(matches(CONSUMES_MARKERS, "@ConsumesAPIs({ @ConsumesAPI(path = \"/a\") }) void call() {}"));
+
+		/* imports and other uses of the names are not annotations */
+		assertFalse(matches(JAXRS_MARKERS, "import javax.ws.rs.Path; import javax.ws.rs.ApplicationPath;"
+				+ " class A { java.nio.file.Path path; ApplicationPath applicationPath; }"));
+	}
+
+	@Test
+	public void testFullyQualifiedAnnotations() {
+		assertTrue(matches(JAXRS_MARKERS, "@javax.ws.rs.Path(\"/orders\") public class OrderResource {}"));
+		assertTrue(matches(JAXRS_MARKERS, "@javax.ws.rs.ApplicationPath(\"api\") public class App {}"));
+		assertTrue(matches(SPRING_MARKERS, "@org.springframework.web.bind.annotation.GetMapping void get() {}"));
+		assertTrue(matches(CONSUMES_MARKERS, "@annotation.ConsumesAPI(path = \"/a\") void call() {}"));
+	}
+
+	@Test
+	public void testMarkersInCommentsAndStrings() {
+		/*
+		 * The prefilter doesn't parse the file. Markers in comments and string
+		 * literals let it be parsed, where they are ignored.
+		 */
+		assertTrue(matches(JAXRS_MARKERS, "/* @Path(\"/a\") */ class A {}"));
+		assertTrue(matches(JAXRS_MARKERS, "// @ApplicationPath\nclass A {}"));
+		assertTrue(matches(JAXRS_MARKERS, "class A { String s = \"@Path\"; }"));
+		assertTrue(matches(CONSUMES_MARKERS, "/** Calls the {@link ConsumesAPI} service. */ class A {}"));
+	}
+
+	@Test
+	public void testMarkerAtEveryOffset() {
+		String marker = "@Path";
+		for (int offset = 0; offset <= 2 * marker.length(); offset++) {
+			char[] padding = new char[offset];
+			Arrays.fill(padding, '@');
+			String content = new String(padding) + marker;
+			assertTrue(matches(JAXRS_MARKERS, content), content);
+			assertTrue(matches(JAXRS_MARKERS, marker + new String(padding)), content);
+		}
+	}
+
+	@Test
+	public void testTruncatedMarkers() {
+		/* parts of a marker at the end of the content don't match */
+		for (int length = 0; length < "@Path".length(); length++) {
+			String content = "class A {} " + "@Path".substring(0, length);
+			assertFalse(matches(JAXRS_MARKERS, content), content);
+		}
+		assertFalse(matches(JAXRS_MARKERS, "@Pat@Pa@P@"));
+		assertTrue(matches(JAXRS_MARKERS, "@Pat@Path"));
+	}
+
+	@Test
+	public void testNonASCIIContent() {
+		assertTrue(matches(JAXRS_MARKERS,
+				"/* Bestellungen f\u00fcr M\u00fcnchen */ @Path(\"/bestellungen\") class A {}"));
+		assertFalse(matches(JAXRS_MARKERS, "/* Bestellungen f\u00fcr M\u00fcnchen \ud83d\ude00 */ class A {}"));
+	}
+
+	@Test
+	public void testEmptyMarkers() {
+		assertFalse(matches(Arrays.asList("", null), "@Path class A {}"));
+		assertFalse(matches(Collections.emptyList(), "@Path class A {}"));
+		assertFalse(matches(JAXRS_MARKERS, ""));
+	}
+
+	private static boolean matches(Collection<String> markers, String content) {
+		return new SourcePrefilter(markers).matches(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
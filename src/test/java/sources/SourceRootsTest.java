@@ -0,0 +1,154 @@
+package sources;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SourceRootsTest {
+
+	private Path directory;
+	private Path src;
+	private Path generated;
+	private MavenProject project;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("roots");
+		src = directory.resolve("src");
+		generated = directory.resolve("target").resolve("generated-sources");
+		for (String file : new String[] { "com/ex/a/A.java", "com/ex/a/A.txt", "com/ex/a/impl/AImpl.java",
+				"com/ex/b/B.java", "com/ex/b/sub/BSub.java", "com/ex/bb/BB.java", "com/ex/C.java" }) {
+			write(src.resolve(file));
+		}
+		write(generated.resolve("com/ex/gen/G.java"));
+
+		project = new MavenProject();
+		Build build = new Build();
+		build.setDirectory(directory.resolve("target").toString());
+		project.getModel().setBuild(build);
+		project.addCompileSourceRoot(src.toString());
+		project.addCompileSourceRoot(generated.toString());
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	@Test
+	public void testAllJavaFilesSorted() {
+		SourceRoots roots = resolve(false, null, null, null);
+
+		assertEquals(Arrays.asList(src), roots.getRoots());
+		assertEquals(Arrays.asList("com/ex/C.java", "com/ex/a/A.java", "com/ex/a/impl/AImpl.java", "com/ex/b/B.java",
+				"com/ex/b/sub/BSub.java", "com/ex/bb/BB.java"), getSourceFiles(roots));
+	}
+
+	@Test
+	public void testIncludesAndExcludes() {
+		SourceRoots roots = resolve(false, set("com/ex/a/**/*.java", "com/ex/b/*.java"), set("**/impl/**"), null);
+
+		assertEquals(Arrays.asList("com/ex/a/A.java", "com/ex/b/B.java"), getSourceFiles(roots));
+	}
+
+	@Test
+	public void testExcludedDirectories() {
+		/* a trailing separator excludes everything below, like in the directory scanner */
+		SourceRoots roots = resolve(false, null, set("com/ex/a/", "com\\ex\\b\\**"), null);
+
+		assertEquals(Arrays.asList("com/ex/C.java", "com/ex/bb/BB.java"), getSourceFiles(roots));
+	}
+
+	@Test
+	public void testBlackListedPackagesPruned() {
+		SourceRoots roots = resolve(false, null, null, set("com.ex.b", "com.ex.a.impl", null));
+
+		/* only whole segments match, so com.ex.bb is not blacklisted */
+		assertEquals(Arrays.asList("com/ex/C.java", "com/ex/a/A.java", "com/ex/bb/BB.java"), getSourceFiles(roots));
+	}
+
+	@Test
+	public void testGeneratedRootsSkipped() {
+		assertEquals(Arrays.asList(src), resolve(false, null, null, null).getRoots());
+
+		SourceRoots roots = resolve(true, set("com/ex/gen/**"), null, null);
+		assertEquals(Arrays.asList(src, generated), roots.getRoots());
+		assertEquals(Arrays.asList("com/ex/gen/G.java"), getSourceFiles(roots));
+	}
+
+	@Test
+	public void testMissingAndDuplicateRootsSkipped() {
+		project.addCompileSourceRoot(directory.resolve("missing").toString());
+		project.addCompileSourceRoot(directory.resolve("other").resolve("..").resolve("src").toString());
+
+		assertEquals(Arrays.asList(src), resolve(false, null, null, null).getRoots());
+	}
+
+	@Test
+	public void testDefaultBuildDirectory() {
+		/* without a configured build directory, generated sources are taken from target */
+		project.getBuild().setDirectory(null);
+		project.setFile(directory.resolve("pom.xml").toFile());
+
+		assertEquals(Arrays.asList(src), resolve(false, null, null, null).getRoots());
+	}
+
+	private SourceRoots resolve(boolean includeGenerated, Set<String> includes, Set<String> excludes,
+			Set<String> blackList) {
+		return SourceRoots.resolve(project, includeGenerated, includes, excludes, blackList, new QuietLog());
+	}
+
+	/**
+	 * @return the paths of the source files relative to their root, with '/' as
+	 *         separator.
+	 */
+	private List<String> getSourceFiles(SourceRoots roots) {
+		List<String> files = new ArrayList<>();
+		for (File file : roots.getSourceFiles()) {
+			Path path = file.toPath();
+			Path root = path.startsWith(src) ? src : generated;
+			files.add(root.relativize(path).toString().replace(File.separatorChar, '/'));
+		}
+		return files;
+	}
+
+	private static Set<String> set(String... values) {
+		return new HashSet<>(Arrays.asList(values));
+	}
+
+	private static void write(Path file) throws IOException {
+		Files.createDirectories(file.getParent());
+		Files.write(file, Collections.singletonList("class " + file.getFileName() + " {}"));
+	}
+
+	private static class QuietLog extends SystemStreamLog {
+
+		@Override
+		public void info(CharSequence content) {
+		}
+
+	}
+
+}
@@ -0,0 +1,114 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+public class ConsumeIndexTest {
+
+	private ConsumeIndex index = new ConsumeIndex();
+
+	@Test
+	public void testMergeByServiceAndPackage() {
+		index.add(consumption("svc-b", "com.ex.a", "/b", "GET"));
+		index.add(consumption("svc-b", "com.ex.b", "/b", "GET"));
+		index.add(consumption("svc-c", "com.ex.a", "/b", "GET"));
+		index.add(consumption("svc-b", "com.ex.a", "/b", "POST"));
+		index.add("svc-b", "com.ex.a", "/b2", Collections.singleton("PUT"));
+
+		List<ConsumeDescription> consumptions = index.getConsumptions();
+		assertEquals(3, consumptions.size());
+		ConsumeDescription merged = consumptions.get(0);
+		assertEquals("svc-b", merged.getServiceName());
+		assertEquals("com.ex.a", merged.getPackageName());
+		assertEquals(new HashSet<>(Arrays.asList("GET", "POST")), merged.getPathToMethods().get("/b"));
+		assertEquals(Collections.singleton("PUT"), merged.getPathToMethods().get("/b2"));
+		assertEquals("com.ex.b", consumptions.get(1).getPackageName());
+		assertEquals("svc-c", consumptions.get(2).getServiceName());
+	}
+
+	@Test
+	public void testAddedConsumptionsAreNotChanged() {
+		ConsumeDescription first = consumption("svc-b", "com.ex.a", "/b", "GET");
+		index.add(first);
+		index.add(consumption("svc-b", "com.ex.a", "/b", "POST"));
+
+		assertEquals(Collections.singleton("GET"), first.getPathToMethods().get("/b"));
+	}
+
+	@Test
+	public void testNullValues() {
+		ConsumeDescription withoutPaths = new ConsumeDescription();
+		index.add(withoutPaths);
+		index.add(null, null, "/b", null);
+
+		List<ConsumeDescription> consumptions = index.getConsumptions();
+		assertEquals(1, consumptions.size());
+		assertNull(consumptions.get(0).getServiceName());
+		assertEquals(Collections.emptySet(), consumptions.get(0).getPathToMethods().get("/b"));
+	}
+
+	/**
+	 * Merges 1k, 10k and 100k consumptions, two per service and package, and
+	 * asserts that the fastest time per consumption does not grow with their
+	 * number. Run with -Dbenchmark=true.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	public void benchmark() {
+		int[] sizes = { 1_000, 10_000, 100_000 };
+		/* the first run warms up, the fastest of five runs is taken against garbage collections */
+		merge(sizes[sizes.length - 1]);
+		long[] nanosPerConsumption = new long[sizes.length];
+		for (int i = 0; i < sizes.length; i++) {
+			long time = Long.MAX_VALUE;
+			for (int run = 0; run < 5; run++) {
+				time = Math.min(time, merge(sizes[i]));
+			}
+			nanosPerConsumption[i] = time / sizes[i];
+		}
+		String results = "ns per consumption for " + Arrays.toString(sizes) + ": "
+				+ Arrays.toString(nanosPerConsumption);
+		/* scanning all descriptions per consumption would take 10 times as long for 10 times as many */
+		for (int i = 1; i < sizes.length; i++) {
+			assertTrue(nanosPerConsumption[i] < 5 * Math.max(nanosPerConsumption[i - 1], 200), results);
+		}
+	}
+
+	/**
+	 * @return nanoseconds to merge the given number of consumptions.
+	 */
+	private static long merge(int size) {
+		List<ConsumeDescription> consumptions = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			consumptions.add(consumption("com.ex:svc-" + i % 10, "com.ex.p" + i / 20, "/b/items" + i, "GET"));
+		}
+		ConsumeIndex consumeIndex = new ConsumeIndex();
+		long start = System.nanoTime();
+		for (ConsumeDescription consumption : consumptions) {
+			consumeIndex.add(consumption);
+		}
+		long time = System.nanoTime() - start;
+		assertEquals(size / 2, consumeIndex.getConsumptions().size());
+		return time;
+	}
+
+	private static ConsumeDescription consumption(String serviceName, String packageName, String path,
+			String method) {
+		ConsumeDescription consumption = new ConsumeDescription();
+		consumption.setServiceName(serviceName);
+		consumption.setPackageName(packageName);
+		consumption.addPathToMethod(path, new HashSet<>(Collections.singleton(method)));
+		return consumption;
+	}
+
+}
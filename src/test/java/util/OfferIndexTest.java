@@ -0,0 +1,117 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+public class OfferIndexTest {
+
+	private OfferIndex index = new OfferIndex();
+
+	@Test
+	public void testMergeByPackage() {
+		index.add(offer("com.ex.a", "/a", HttpMethods.GET));
+		index.add(offer("com.ex.b", "/b", HttpMethods.GET));
+		index.add(offer("com.ex.a", "/a", HttpMethods.POST));
+		index.add(offer("com.ex.a", "/a2", HttpMethods.PUT));
+
+		List<OfferDescription> offers = index.getOffers();
+		assertEquals(2, offers.size());
+		assertEquals("com.ex.a", offers.get(0).getPackageName());
+		assertEquals("com.ex.b", offers.get(1).getPackageName());
+		assertEquals(EnumSet.of(HttpMethods.GET, HttpMethods.POST),
+				offers.get(0).getPathToMethodMappings().get("/a"));
+		assertEquals(EnumSet.of(HttpMethods.PUT), offers.get(0).getPathToMethodMappings().get("/a2"));
+	}
+
+	@Test
+	public void testAddedOffersAreNotChanged() {
+		OfferDescription first = offer("com.ex.a", "/a", HttpMethods.GET);
+		index.add(first);
+		index.add(offer("com.ex.a", "/a", HttpMethods.POST));
+
+		assertEquals(EnumSet.of(HttpMethods.GET), first.getPathToMethodMappings().get("/a"));
+	}
+
+	@Test
+	public void testAny() {
+		index.add("com.ex.a", "/a", EnumSet.of(HttpMethods.GET, HttpMethods.POST));
+		index.add("com.ex.a", "/a", EnumSet.of(HttpMethods.ANY));
+		index.add("com.ex.a", "/a", EnumSet.of(HttpMethods.DELETE));
+
+		assertEquals(EnumSet.of(HttpMethods.ANY), index.getOffers().get(0).getPathToMethodMappings().get("/a"));
+	}
+
+	@Test
+	public void testEmptyAndNull() {
+		index.addAll(null);
+		assertTrue(index.getOffers().isEmpty());
+
+		OfferDescription withoutMappings = new OfferDescription();
+		withoutMappings.setPackageName("com.ex.a");
+		index.addAll(Arrays.asList(withoutMappings));
+		index.add("com.ex.b", "/b", null);
+
+		List<OfferDescription> offers = index.getOffers();
+		assertEquals(2, offers.size());
+		assertEquals(null, offers.get(0).getPathToMethodMappings());
+		assertTrue(offers.get(1).getPathToMethodMappings().get("/b").isEmpty());
+	}
+
+	/**
+	 * Merges 1k, 10k and 100k offers, two per package, and asserts that the
+	 * fastest time per offer does not grow with their number. Run with
+	 * -Dbenchmark=true.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	public void benchmark() {
+		int[] sizes = { 1_000, 10_000, 100_000 };
+		/* the first run warms up, the fastest of five runs is taken against garbage collections */
+		merge(sizes[sizes.length - 1]);
+		long[] nanosPerOffer = new long[sizes.length];
+		for (int i = 0; i < sizes.length; i++) {
+			long time = Long.MAX_VALUE;
+			for (int run = 0; run < 5; run++) {
+				time = Math.min(time, merge(sizes[i]));
+			}
+			nanosPerOffer[i] = time / sizes[i];
+		}
+		String results = "ns per offer for " + Arrays.toString(sizes) + ": " + Arrays.toString(nanosPerOffer);
+		/* scanning all packages per offer would take 10 times as long for 10 times as many offers */
+		for (int i = 1; i < sizes.length; i++) {
+			assertTrue(nanosPerOffer[i] < 5 * Math.max(nanosPerOffer[i - 1], 200), results);
+		}
+	}
+
+	/**
+	 * @return nanoseconds to merge the given number of offers.
+	 */
+	private static long merge(int size) {
+		List<OfferDescription> offers = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			offers.add(offer("com.ex.p" + i / 2, "/a/items" + i, HttpMethods.values()[i % 5]));
+		}
+		OfferIndex offerIndex = new OfferIndex();
+		long start = System.nanoTime();
+		offerIndex.addAll(offers);
+		long time = System.nanoTime() - start;
+		assertEquals(size / 2, offerIndex.getOffers().size());
+		return time;
+	}
+
+	private static OfferDescription offer(String packageName, String path, HttpMethods method) {
+		OfferDescription offer = new OfferDescription();
+		offer.setPackageName(packageName);
+		offer.addPathToMethod(path, method);
+		return offer;
+	}
+
+}
@@ -0,0 +1,115 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class PathTemplateTest {
+
+	@Test
+	public void testSlashes() {
+		assertEquals("/a/b", PathTemplate.parse("/a/b").toString());
+		assertEquals("/a/b", PathTemplate.parse("a/b").toString());
+		assertEquals("/a/b", PathTemplate.parse("/a/b/").toString());
+		assertEquals("/a/b", PathTemplate.parse("//a///b//").toString());
+		assertEquals(2, PathTemplate.parse("//a///b//").size());
+	}
+
+	@Test
+	public void testRoot() {
+		assertSame(PathTemplate.ROOT, PathTemplate.parse(null));
+		assertSame(PathTemplate.ROOT, PathTemplate.parse(""));
+		assertSame(PathTemplate.ROOT, PathTemplate.parse("/"));
+		assertSame(PathTemplate.ROOT, PathTemplate.parse("///"));
+		assertSame(PathTemplate.ROOT, PathTemplate.parse(" \"/\" "));
+		assertEquals("/", PathTemplate.ROOT.toString());
+		assertEquals(0, PathTemplate.ROOT.size());
+	}
+
+	@Test
+	public void testQuotesAndWhitespace() {
+		assertEquals("/a/b", PathTemplate.parse("\"/a\" / \"b\"").toString());
+		assertEquals("/a/{id}", PathTemplate.parse(" /a/{ id } ").toString());
+	}
+
+	@Test
+	public void testRegularExpressions() {
+		assertEquals("/a/{id}", PathTemplate.parse("/a/{id: [0-9]+}").toString());
+		assertEquals("/a/{id}/b", PathTemplate.parse("/a/{id:\\d{3}}/b").toString());
+		assertEquals("/a/{id}/b", PathTemplate.parse("/a/{id: [a-z]{1,2}{3}}/b").toString());
+		/* slashes within the expression don't split the segment */
+		assertEquals("/a/{path}", PathTemplate.parse("/a/{path: .+/.+}").toString());
+		assertEquals("/a/{x}.json", PathTemplate.parse("/a/{x: [a-z]+}.json").toString());
+		/* unclosed variables are closed */
+		assertEquals("/a/{id}", PathTemplate.parse("/a/{id: \\d{3}").toString());
+	}
+
+	@Test
+	public void testVariables() {
+		PathTemplate template = PathTemplate.parse("/a/{id}/{x}.json/b");
+		assertFalse(template.isVariable(0));
+		assertTrue(template.isVariable(1));
+		assertFalse(template.isVariable(2));
+		assertFalse(template.isVariable(3));
+		assertEquals("{id}", template.getSegment(1));
+	}
+
+	@Test
+	public void testUrlPattern() {
+		assertEquals("/api", PathTemplate.parseUrlPattern("/api/*").toString());
+		assertEquals("/api", PathTemplate.parseUrlPattern("/api").toString());
+		assertSame(PathTemplate.ROOT, PathTemplate.parseUrlPattern("/*"));
+		assertSame(PathTemplate.ROOT, PathTemplate.parseUrlPattern("/"));
+		assertSame(PathTemplate.ROOT, PathTemplate.parseUrlPattern("*.do"));
+		assertSame(PathTemplate.ROOT, PathTemplate.parseUrlPattern(" *.json"));
+		assertSame(PathTemplate.ROOT, PathTemplate.parseUrlPattern(null));
+		/* only a trailing wildcard is removed */
+		assertEquals("/*/api", PathTemplate.parseUrlPattern("/*/api").toString());
+	}
+
+	@Test
+	public void testConcat() {
+		PathTemplate template = PathTemplate.parse("/a");
+		assertSame(template, template.concat(PathTemplate.ROOT));
+		assertSame(template, template.concat(""));
+		assertSame(template, template.concat("/"));
+		assertSame(template, template.concat((String) null));
+		assertSame(template, PathTemplate.ROOT.concat(template));
+		assertEquals("/a/b/c", template.concat("b/c/").toString());
+		assertEquals("/a/b", template.concat("/b").toString());
+		assertEquals("/a", template.toString());
+		assertSame(PathTemplate.ROOT, PathTemplate.ROOT.concat("/"));
+	}
+
+	@Test
+	public void testWithVariableType() {
+		PathTemplate template = PathTemplate.parse("/a/{id}/{id}.json/{other}");
+		assertEquals("/a/{LONG}/{LONG}.json/{other}", template.withVariableType("id", "Long").toString());
+		assertEquals("/a/{id}/{id}.json/{other}", template.toString());
+		assertSame(template, template.withVariableType("missing", "String"));
+		assertSame(template, template.withVariableType("i", "String"));
+		assertEquals("/a/{STRING}", PathTemplate.parse("/a/{id: [a-z]+}").withVariableType("id", "String")
+				.toString());
+	}
+
+	@Test
+	public void testWithUpperCaseVariables() {
+		assertEquals("/items/{ID}/{NAME}x", PathTemplate.parse("/items/{id}/{name}x").withUpperCaseVariables()
+				.toString());
+		PathTemplate upperCase = PathTemplate.parse("/items/{ID}");
+		assertSame(upperCase, upperCase.withUpperCaseVariables());
+	}
+
+	@Test
+	public void testEqualsAndPooling() {
+		assertEquals(PathTemplate.parse("/a/{id}"), PathTemplate.parse("a//{id: \\d+}/"));
+		assertEquals(PathTemplate.parse("/a/{id}").hashCode(), PathTemplate.parse("a//{id: \\d+}/").hashCode());
+		assertFalse(PathTemplate.parse("/a/b").equals(PathTemplate.parse("/a/b/c")));
+		assertSame(PathTemplate.parse("/a/bc").getSegment(1), PathTemplate.parse("/x/bc").getSegment(1));
+		assertSame(PathTemplate.parse("/a/b").toString(), PathTemplate.parse("a/b/").toString());
+	}
+
+}
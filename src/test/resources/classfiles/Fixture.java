@@ -0,0 +1,90 @@
+package fixture;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Compiled by the ClassFileParserTest. The long and double constants take two
+ * entries of the constant pool, the entries after them are only read right if
+ * the parser skips the second one.
+ */
+@Fixture.Visible(text = "café \u0000 😀", number = 7, big = 1L << 40, ratio = 0.5, flag = true, letter = 'x', tiny = 3, type = Map.class, policy = RetentionPolicy.CLASS, names = {
+		"a", "b" }, nested = @Fixture.Invisible("nested"))
+@Fixture.Invisible("class")
+public class Fixture {
+
+	public static final long LONG = 123456789012345L;
+	public static final double DOUBLE = 2.5;
+
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface Visible {
+		String text();
+
+		int number();
+
+		long big();
+
+		double ratio();
+
+		boolean flag();
+
+		char letter();
+
+		byte tiny();
+
+		Class<?> type();
+
+		RetentionPolicy policy();
+
+		String[] names();
+
+		Invisible nested();
+	}
+
+	@Retention(RetentionPolicy.CLASS)
+	public @interface Invisible {
+		String value();
+	}
+
+	@Invisible("method")
+	public List<String> find(long id, @Invisible("parameter") double amount, BigDecimal total) {
+		return null;
+	}
+
+	public static class Nested {
+		public void run(Fixture fixture) {
+		}
+	}
+
+	public class Inner {
+		public Inner(int count) {
+		}
+	}
+
+	public Fixture$$Proxy proxy() {
+		return null;
+	}
+
+	public Runnable task() {
+		return new Runnable() {
+			@Override
+			public void run() {
+				new Nested().run(Fixture.this);
+			}
+		};
+	}
+
+}
+
+/*
+ * A top level class with '$' in its name, like the classes generated for
+ * proxies.
+ */
+class Fixture$$Proxy {
+
+	Fixture.Nested nested;
+
+}
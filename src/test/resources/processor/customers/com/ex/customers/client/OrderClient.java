@@ -0,0 +1,18 @@
+package com.ex.customers.client;
+
+import annotation.ConsumesAPI;
+import com.ex.customers.model.Customer;
+
+public class OrderClient {
+
+	@ConsumesAPI(method = "GET", path = "/api/orders", service = "com.ex:orders")
+	@ConsumesAPI(method = "POST", path = "/api/orders")
+	public Object orders(Customer customer) {
+		return null;
+	}
+
+	@ConsumesAPI(method = "DELETE", path = "/api/orders/{id}/items/{item}", service = "com.ex:orders:1.0")
+	public void removeItem(long id, String item) {
+	}
+
+}
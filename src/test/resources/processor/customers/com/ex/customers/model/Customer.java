@@ -0,0 +1,9 @@
+package com.ex.customers.model;
+
+public class Customer {
+
+	private long id;
+
+	private String name;
+
+}
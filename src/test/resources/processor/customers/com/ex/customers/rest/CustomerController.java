@@ -0,0 +1,37 @@
+package com.ex.customers.rest;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ex.customers.model.Customer;
+
+@RestController
+@RequestMapping("/customers")
+public class CustomerController {
+
+	@GetMapping("/{id}")
+	public Customer getCustomer(@PathVariable("id") long id) {
+		return null;
+	}
+
+	@PostMapping
+	public Customer addCustomer(@RequestBody Customer customer) {
+		return customer;
+	}
+
+	@RequestMapping(value = { "/{id}", "/{id}/" }, method = { RequestMethod.PUT, RequestMethod.PATCH })
+	public Customer updateCustomer(@PathVariable("id") long id, @RequestBody Customer customer) {
+		return customer;
+	}
+
+	@RequestMapping("/search")
+	public Customer search() {
+		return null;
+	}
+
+}
@@ -0,0 +1,9 @@
+package com.ex.orders;
+
+import javax.ws.rs.ApplicationPath;
+import javax.ws.rs.core.Application;
+
+@ApplicationPath("api")
+public class OrdersApplication extends Application {
+
+}
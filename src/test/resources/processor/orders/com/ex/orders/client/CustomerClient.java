@@ -0,0 +1,13 @@
+package com.ex.orders.client;
+
+import annotation.ConsumesAPI;
+import com.ex.orders.model.Order;
+
+public class CustomerClient {
+
+	@ConsumesAPI(method = "GET", path = "/customers/{id}", service = "com.ex:customers")
+	public Object getCustomer(Order order) {
+		return null;
+	}
+
+}
@@ -0,0 +1,16 @@
+package com.ex.orders.model;
+
+import java.util.Comparator;
+
+public class Order {
+
+	public static final Comparator<Order> BY_ID = new Comparator<Order>() {
+		@Override
+		public int compare(Order first, Order second) {
+			return Long.compare(first.id, second.id);
+		}
+	};
+
+	private long id;
+
+}
@@ -0,0 +1,46 @@
+package com.ex.orders.rest;
+
+import java.util.List;
+
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+
+import com.ex.orders.model.Order;
+
+@Path("/orders")
+public class OrderResource {
+
+	@GET
+	public List<Order> getOrders() {
+		return null;
+	}
+
+	@GET
+	@Path("/{id}")
+	public Order getOrder(@PathParam("id") long id) {
+		return null;
+	}
+
+	@POST
+	public Order addOrder(Order order) {
+		return order;
+	}
+
+	@DELETE
+	@Path("/{id}/items/{item}")
+	public void removeItem(@PathParam("id") long id, @PathParam("item") String item) {
+	}
+
+	public static class Items {
+
+		@GET
+		public List<String> getItems() {
+			return null;
+		}
+
+	}
+
+}